@@ -47,6 +47,7 @@ import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.exceptions.DBException;
 import org.adempiere.exceptions.DBMoreThanOneRecordsFoundException;
 import org.adempiere.model.InterfaceWrapperHelper;
+import org.adempiere.util.lang.IAutoCloseable;
 import org.adempiere.util.text.TokenizedStringBuilder;
 import org.compiere.Adempiere;
 import org.compiere.model.IQuery;
@@ -68,6 +69,9 @@ import de.metas.dao.selection.pagination.QueryResultPage;
 import de.metas.logging.LogManager;
 import de.metas.money.CurrencyId;
 import de.metas.money.Money;
+import de.metas.monitoring.metrics.MetricFamily;
+import de.metas.monitoring.metrics.MetricsRegistry;
+import de.metas.monitoring.metrics.Timer;
 import de.metas.process.IADPInstanceDAO;
 import de.metas.process.PInstanceId;
 import de.metas.security.IUserRolePermissions;
@@ -102,6 +106,8 @@ public class TypedSqlQuery<T> extends AbstractTypedQuery<T>
 {
 	private static final Logger log = LogManager.getLogger(TypedSqlQuery.class);
 
+	private static final MetricFamily<Timer> METRIC_ExecuteQuery = MetricsRegistry.get().timer("metasfresh_sql_query_seconds", "Duration of executing the SQL of a TypedSqlQuery, until the ResultSet is available", "table");
+
 	private final Properties ctx;
 	private final String tableName;
 	private String sqlFrom = null;
@@ -1287,7 +1293,11 @@ public class TypedSqlQuery<T> extends AbstractTypedQuery<T>
 		DB.setParameters(pstmt, parametersEffective);
 
 		final long ts = System.currentTimeMillis();
-		final ResultSet rs = pstmt.executeQuery();
+		final ResultSet rs;
+		try (final IAutoCloseable ignored = METRIC_ExecuteQuery.labelsIfEnabled(getTableName()).start())
+		{
+			rs = pstmt.executeQuery();
+		}
 
 		final long durationMillis = System.currentTimeMillis() - ts;
 		final int duarationMaxMinutes = 5;
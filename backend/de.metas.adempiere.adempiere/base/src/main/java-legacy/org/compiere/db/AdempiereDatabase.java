@@ -168,6 +168,20 @@ public interface AdempiereDatabase
 	 */
 	public int getNextID(String Name);
 
+	/**
+	 * Return the next <code>count</code> values of given sequence.
+	 * The values are not necessarily contiguous, if the sequence is used concurrently.
+	 */
+	default int[] getNextIDs(final String sequenceName, final int count)
+	{
+		final int[] ids = new int[count];
+		for (int i = 0; i < count; i++)
+		{
+			ids[i] = getNextID(sequenceName);
+		}
+		return ids;
+	}
+
 	/**
 	 * Creates SQL for retrieving next sequence value.
 	 */
@@ -27,6 +27,7 @@ import java.sql.Statement;
 import java.sql.Types;
 import java.time.Duration;
 import java.util.List;
+import java.util.stream.Stream;
 
 import javax.sql.DataSource;
 
@@ -798,6 +799,20 @@ public class DB_PostgreSQL implements AdempiereDatabase
 		return m_sequence_id;
 	}
 
+	@Override
+	public int[] getNextIDs(@NonNull final String sequenceName, final int count)
+	{
+		Check.assumeNotEmpty(sequenceName, "sequenceName not empty");
+		Check.assumeGreaterThanZero(count, "count");
+
+		final Long[] ids = DB.getSQLValueArrayEx(
+				ITrx.TRXNAME_None,
+				"SELECT array_agg(nextval(?::regclass)) FROM generate_series(1, ?)",
+				sequenceName.toLowerCase(),
+				count);
+		return Stream.of(ids).mapToInt(Long::intValue).toArray();
+	}
+
 	@Override
 	public String TO_SEQUENCE_NEXTVAL(final String sequenceName)
 	{
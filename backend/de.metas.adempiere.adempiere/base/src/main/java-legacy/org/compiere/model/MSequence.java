@@ -43,6 +43,7 @@ import de.metas.document.sequence.IDocumentNoBuilder;
 import de.metas.logging.LogManager;
 import de.metas.util.Check;
 import de.metas.util.Services;
+import lombok.NonNull;
 
 /**
  * Sequence Model.
@@ -243,6 +244,88 @@ public class MSequence extends X_AD_Sequence
 		}
 	}	// getNextID
 
+	/**
+	 * Allocates <code>count</code> IDs from the given table's AD_Sequence in one go, i.e. increments the sequence's CurrentNext by <code>count * IncrementNo</code>.
+	 * <p>
+	 * Like {@link #getNextID(int, String, String)}, this is done out of transaction.
+	 * Unlike it, this method does not support the dictionary maintenance mode (CurrentNextSys) nor external ID servers; the caller has to check that.
+	 *
+	 * @return the allocated IDs, in ascending order
+	 * @see de.metas.dao.ids.PrefetchingIdAllocator
+	 */
+	public static int[] getNextIDs(@NonNull final String TableName, final int count)
+	{
+		Check.assumeGreaterThanZero(count, "count");
+
+		final String selectSQL = "SELECT CurrentNext, IncrementNo, AD_Sequence_ID "
+				+ "FROM AD_Sequence "
+				+ "WHERE Name=?"
+				+ " AND IsActive='Y' AND IsTableID='Y' AND IsAutoSequence='Y' "
+				+ " FOR UPDATE OF AD_Sequence ";
+
+		Connection conn = null;
+		PreparedStatement pstmt = null;
+		ResultSet rs = null;
+		try
+		{
+			conn = DB.getConnectionID();
+
+			pstmt = conn.prepareStatement(selectSQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			pstmt.setString(1, TableName);
+			if (DB.getDatabase().isQueryTimeoutSupported())
+			{
+				pstmt.setQueryTimeout(QUERY_TIME_OUT);
+			}
+
+			rs = pstmt.executeQuery();
+			if (!rs.next())
+			{
+				throw new AdempiereException("No AD_Sequence found for " + TableName);
+			}
+
+			final int currentNext = rs.getInt(1);
+			final int incrementNo = rs.getInt(2);
+			final int adSequenceId = rs.getInt(3);
+
+			try (final PreparedStatement updateSQL = conn.prepareStatement("UPDATE AD_Sequence SET CurrentNext = CurrentNext + ? WHERE AD_Sequence_ID = ?"))
+			{
+				updateSQL.setInt(1, incrementNo * count);
+				updateSQL.setInt(2, adSequenceId);
+				updateSQL.executeUpdate();
+			}
+
+			conn.commit();
+
+			final int[] ids = new int[count];
+			for (int i = 0; i < count; i++)
+			{
+				ids[i] = currentNext + i * incrementNo;
+			}
+			return ids;
+		}
+		catch (final Exception ex)
+		{
+			try
+			{
+				if (conn != null)
+				{
+					conn.rollback();
+				}
+			}
+			catch (final SQLException rollbackEx)
+			{
+				ex.addSuppressed(rollbackEx);
+			}
+
+			throw AdempiereException.wrapIfNeeded(ex);
+		}
+		finally
+		{
+			DB.close(rs, pstmt);
+			DB.close(conn);
+		}
+	}
+
 	/**
 	 * Get Next ID
 	 *
@@ -18,14 +18,13 @@ package org.compiere.model;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.Nullable;
 
@@ -76,12 +75,16 @@ import de.metas.monitoring.adapter.PerformanceMonitoringService;
 import de.metas.monitoring.adapter.PerformanceMonitoringService.SpanMetadata;
 import de.metas.monitoring.adapter.PerformanceMonitoringService.SubType;
 import de.metas.monitoring.adapter.PerformanceMonitoringService.Type;
+import de.metas.monitoring.metrics.MetricFamily;
+import de.metas.monitoring.metrics.MetricsRegistry;
+import de.metas.monitoring.metrics.Timer;
 import de.metas.script.IADRuleDAO;
 import de.metas.script.ScriptEngineFactory;
 import de.metas.security.IUserLoginListener;
 import de.metas.util.Check;
 import de.metas.util.Services;
 import lombok.NonNull;
+import lombok.Value;
 
 /**
  * Model Validation Engine
@@ -432,6 +435,16 @@ public class ModelValidationEngine implements IModelValidationEngine
 
 	/** Logger */
 	private static final Logger logger = LogManager.getLogger(ModelValidationEngine.class);
+
+	private static final MetricFamily<Timer> METRIC_InterceptorDispatch = MetricsRegistry.get().timer(
+			"metasfresh_model_interceptor_seconds",
+			"Duration of dispatching model change and document validation events to the model interceptors",
+			"table", "timing");
+
+	private static final MetricFamily<Timer> METRIC_InterceptorInvocation = MetricsRegistry.get().timer(
+			"metasfresh_model_interceptor_invocation_seconds",
+			"Duration of a single model interceptor's modelChange/docValidate invocations",
+			"interceptor", "table");
 	// /** Change Support */
 	// private VetoableChangeSupport m_changeSupport = new VetoableChangeSupport(this);
 
@@ -450,7 +463,16 @@ public class ModelValidationEngine implements IModelValidationEngine
 	 * Contains model validators for subsequent processing. The boolean value tells if the subsequent processing takes place directly when fireModelChange() is invoked with this type (
 	 * <code>true</code>) or later on (<code>false</code>).
 	 */
-	private Map<ModelValidator, Boolean> m_modelChangeSubsequent = Collections.synchronizedMap(new HashMap<ModelValidator, Boolean>());
+	private Map<ModelValidator, Boolean> m_modelChangeSubsequent = new ConcurrentHashMap<>();
+
+	/**
+	 * Guards the model change and document validation listener registrations.
+	 * Event dispatching is not taking this lock, unless the dispatch table for a given table and client needs to be (re)built.
+	 */
+	private final Object listenersLock = new Object();
+
+	/** Interceptors to invoke, per table, client and event type. Replaced by an empty instance each time a listener is (un)registered. */
+	private volatile ConcurrentHashMap<DispatchKey, InterceptorInvoker[]> dispatchTables = new ConcurrentHashMap<>();
 
 	/**
 	 * Initialize and add validator
@@ -614,30 +636,34 @@ public class ModelValidationEngine implements IModelValidationEngine
 		{
 			return;
 		}
-		//
-		if (listener.getAD_Client_ID() < 0)
-		{
-			registerGlobal(listener);
-		}
-		String propertyName = getPropertyName(tableName, listener);
-		ArrayList<ModelValidator> list = m_modelChangeListeners.get(propertyName);
-		if (list == null)
-		{
-			list = new ArrayList<>();
-			list.add(listener);
-			m_modelChangeListeners.put(propertyName, list);
-		}
-		else
+		synchronized (listenersLock)
 		{
-			// metas: add listener only if is not already added
-			if (!list.contains(listener))
+			if (listener.getAD_Client_ID() < 0)
+			{
+				registerGlobal(listener);
+			}
+			String propertyName = getPropertyName(tableName, listener);
+			ArrayList<ModelValidator> list = m_modelChangeListeners.get(propertyName);
+			if (list == null)
 			{
+				list = new ArrayList<>();
 				list.add(listener);
+				m_modelChangeListeners.put(propertyName, list);
 			}
 			else
 			{
-				logger.debug("Listener " + listener + " already added for " + propertyName);
+				// metas: add listener only if is not already added
+				if (!list.contains(listener))
+				{
+					list.add(listener);
+				}
+				else
+				{
+					logger.debug("Listener " + listener + " already added for " + propertyName);
+				}
 			}
+
+			invalidateDispatchTables();
 		}
 	}	// addModelValidator
 
@@ -668,16 +694,21 @@ public class ModelValidationEngine implements IModelValidationEngine
 			return;
 		}
 
-		String propertyName = getPropertyName(tableName, listener);
-		ArrayList<ModelValidator> list = m_modelChangeListeners.get(propertyName);
-		if (list == null)
-		{
-			return;
-		}
-		list.remove(listener);
-		if (list.size() == 0)
+		synchronized (listenersLock)
 		{
-			m_modelChangeListeners.remove(propertyName);
+			String propertyName = getPropertyName(tableName, listener);
+			ArrayList<ModelValidator> list = m_modelChangeListeners.get(propertyName);
+			if (list == null)
+			{
+				return;
+			}
+			list.remove(listener);
+			if (list.size() == 0)
+			{
+				m_modelChangeListeners.remove(propertyName);
+			}
+
+			invalidateDispatchTables();
 		}
 	}	// removeModelValidator
 
@@ -699,17 +730,20 @@ public class ModelValidationEngine implements IModelValidationEngine
 		final String tableName = po.get_TableName();
 		final String changeTypeStr = changeType.toString();
 
-		performanceMonitoringService.monitorSpan(
-				() -> fireModelChange0(po, changeType),
-				SpanMetadata
-						.builder()
-						.name(changeTypeStr + " " + tableName)
-						.type(Type.MODEL_INTERCEPTOR.getCode())
-						.subType(SubType.MODEL_CHANGE.getCode())
-						.action(changeTypeStr)
-						.label("tableName", tableName)
-						.label("recordId", Integer.toString(po.get_ID()))
-						.build());
+		try (final IAutoCloseable ignored = METRIC_InterceptorDispatch.labelsIfEnabled(tableName, changeTypeStr).start())
+		{
+			performanceMonitoringService.monitorSpan(
+					() -> fireModelChange0(po, changeType),
+					SpanMetadata
+							.builder()
+							.name(changeTypeStr + " " + tableName)
+							.type(Type.MODEL_INTERCEPTOR.getCode())
+							.subType(SubType.MODEL_CHANGE.getCode())
+							.action(changeTypeStr)
+							.label("tableName", tableName)
+							.label("recordId", Integer.toString(po.get_ID()))
+							.build());
+		}
 	}
 
 	public void fireModelChange0(@Nullable final PO po, @NonNull final ModelChangeType changeType)
@@ -733,18 +767,9 @@ public class ModelValidationEngine implements IModelValidationEngine
 			int countInterceptors = 0;
 
 			//
-			// Retrieve system level model interceptors
-			final String propertyNameSystem = getPropertyName(po.get_TableName());
-			final List<ModelValidator> interceptorsSystem = m_modelChangeListeners.get(propertyNameSystem);
-			final int countSystemInterceptors = interceptorsSystem != null ? interceptorsSystem.size() : 0;
-			countInterceptors += countSystemInterceptors;
-
-			//
-			// Retrieve client level model interceptors
-			final String propertyNameClient = getPropertyName(po.get_TableName(), po.getAD_Client_ID());
-			final List<ModelValidator> interceptorsClient = m_modelChangeListeners.get(propertyNameClient);
-			final int countClientInterceptors = interceptorsClient != null ? interceptorsClient.size() : 0;
-			countInterceptors += countClientInterceptors;
+			// Retrieve system and client level model interceptors
+			final InterceptorInvoker[] interceptors = getDispatchTable(po.get_TableName(), po.getAD_Client_ID(), DispatchType.MODEL_CHANGE);
+			countInterceptors += interceptors.length;
 
 			//
 			// Retrieve script interceptors
@@ -779,7 +804,7 @@ public class ModelValidationEngine implements IModelValidationEngine
 			//
 			// Execute interceptors
 			final String trxName = po.get_TrxName();
-			executeInTrx(trxName, changeType, () -> fireModelChange0(po, changeType, interceptorsSystem, interceptorsClient, scriptValidators));
+			executeInTrx(trxName, changeType, () -> fireModelChange0(po, changeType, interceptors, scriptValidators));
 
 			logger.debug("Executed: ALL {} interceptors for {}", changeType, po);
 		}
@@ -818,20 +843,13 @@ public class ModelValidationEngine implements IModelValidationEngine
 	private final void fireModelChange0(
 			@NonNull final PO po,
 			@NonNull final ModelChangeType changeType,
-			@Nullable List<ModelValidator> interceptorsSystem,
-			@Nullable List<ModelValidator> interceptorsClient,
+			@NonNull final InterceptorInvoker[] interceptors,
 			@Nullable List<I_AD_Table_ScriptValidator> scriptValidators)
 	{
-		if (interceptorsSystem != null)
+		// ad_entitytype.modelvalidationclasses, then ad_client.modelvalidationclasses
+		for (final InterceptorInvoker interceptor : interceptors)
 		{
-			// ad_entitytype.modelvalidationclasses
-			invokeModelChangeMethods(po, changeType, interceptorsSystem);
-		}
-
-		if (interceptorsClient != null)
-		{
-			// ad_client.modelvalidationclasses
-			invokeModelChangeMethods(po, changeType, interceptorsClient);
+			invokeModelChangeMethod(po, changeType, interceptor);
 		}
 
 		//
@@ -932,52 +950,34 @@ public class ModelValidationEngine implements IModelValidationEngine
 		}
 	}
 
-	private final void invokeModelChangeMethods(
-			@NonNull final PO po,
-			@NonNull final ModelChangeType changeType,
-			@NonNull final List<ModelValidator> validators)
-	{
-		for (final ModelValidator validator : validators)
-		{
-			invokeModelChangeMethod(po, changeType, validator);
-		}
-	}
-
 	private void invokeModelChangeMethod(
 			@NonNull final PO po,
 			@NonNull final ModelChangeType changeType,
-			@NonNull final ModelValidator validator)
+			@NonNull final InterceptorInvoker interceptor)
 	{
-		try (final MDCCloseable mdcCloseable = MDC.putCloseable("interceptor", validator.toString()))
+		final ModelValidator validator = interceptor.getValidator();
+		try (final MDCCloseable mdcCloseable = MDC.putCloseable("interceptor", interceptor.getName()))
 		{
-			if (!appliesFor(validator, po.getAD_Client_ID()))
+			final Stopwatch stopwatch = Stopwatch.createStarted();
+			try (final IAutoCloseable ignored = interceptor.getTimer().start())
 			{
-				logger.debug("Skip {} ({}) for {}", validator, changeType, po);
-				return;
-			}
-
-		final Stopwatch stopwatch = Stopwatch.createStarted();
-				try
-		{
+				// the default cause
+				final String error = validator.modelChange(po, changeType.toInt());
+				if (!Check.isEmpty(error))
+				{
+					throw new AdempiereException(error);
+				}
 
-			// the default cause
-			final String error = validator.modelChange(po, changeType.toInt());
-			if (!Check.isEmpty(error))
+				logger.debug("Executed in {}: {} ({}) for {}", stopwatch, validator, changeType, po);
+			}
+			catch (final Exception ex)
 			{
-				throw new AdempiereException(error);
+				logger.debug("Failed executing in {}: {} ({}) for {}", stopwatch, validator, changeType, po, ex);
+				throw AdempiereException.wrapIfNeeded(ex);
 			}
-
-					logger.debug("Executed in {}: {} ({}) for {}", stopwatch, validator, changeType, po);
-		}
-		catch (final Exception ex)
-		{
-					logger.debug("Failed executing in {}: {} ({}) for {}", stopwatch, validator, changeType, po, ex);
-			throw AdempiereException.wrapIfNeeded(ex);
 		}
 	}
 
-				}
-
 	/**************************************************************************
 	 * Add Document Validation Listener
 	 *
@@ -990,22 +990,26 @@ public class ModelValidationEngine implements IModelValidationEngine
 		{
 			return;
 		}
-		//
-		if (listener.getAD_Client_ID() < 0)
-		{
-			registerGlobal(listener);
-		}
-		String propertyName = getPropertyName(tableName, listener);
-		ArrayList<ModelValidator> list = m_docValidateListeners.get(propertyName);
-		if (list == null)
+		synchronized (listenersLock)
 		{
-			list = new ArrayList<>();
-			list.add(listener);
-			m_docValidateListeners.put(propertyName, list);
-		}
-		else if (!list.contains(listener))
-		{
-			list.add(listener);
+			if (listener.getAD_Client_ID() < 0)
+			{
+				registerGlobal(listener);
+			}
+			String propertyName = getPropertyName(tableName, listener);
+			ArrayList<ModelValidator> list = m_docValidateListeners.get(propertyName);
+			if (list == null)
+			{
+				list = new ArrayList<>();
+				list.add(listener);
+				m_docValidateListeners.put(propertyName, list);
+			}
+			else if (!list.contains(listener))
+			{
+				list.add(listener);
+			}
+
+			invalidateDispatchTables();
 		}
 	}	// addDocValidate
 
@@ -1033,16 +1037,21 @@ public class ModelValidationEngine implements IModelValidationEngine
 		{
 			return;
 		}
-		String propertyName = getPropertyName(tableName, listener);
-		ArrayList<ModelValidator> list = m_docValidateListeners.get(propertyName);
-		if (list == null)
+		synchronized (listenersLock)
 		{
-			return;
-		}
-		list.remove(listener);
-		if (list.size() == 0)
-		{
-			m_docValidateListeners.remove(propertyName);
+			String propertyName = getPropertyName(tableName, listener);
+			ArrayList<ModelValidator> list = m_docValidateListeners.get(propertyName);
+			if (list == null)
+			{
+				return;
+			}
+			list.remove(listener);
+			if (list.size() == 0)
+			{
+				m_docValidateListeners.remove(propertyName);
+			}
+
+			invalidateDispatchTables();
 		}
 	}	// removeDocValidate
 
@@ -1070,17 +1079,20 @@ public class ModelValidationEngine implements IModelValidationEngine
 			final int recordId = InterfaceWrapperHelper.getId(model);
 			final String docTimingStr = docTiming.toString();
 
-			return perfMonService.monitorSpan(
-					() -> fireDocValidate0(model, docTiming),
-					SpanMetadata
-							.builder()
-							.name(docTimingStr + " " + tableName)
-							.type(Type.MODEL_INTERCEPTOR.getCode())
-							.subType(SubType.DOC_VALIDATE.getCode())
-							.action(docTimingStr)
-							.label("tableName", tableName)
-							.label("recordId", Integer.toString(recordId))
-							.build());
+			try (final IAutoCloseable ignored = METRIC_InterceptorDispatch.labelsIfEnabled(tableName, docTimingStr).start())
+			{
+				return perfMonService.monitorSpan(
+						() -> fireDocValidate0(model, docTiming),
+						SpanMetadata
+								.builder()
+								.name(docTimingStr + " " + tableName)
+								.type(Type.MODEL_INTERCEPTOR.getCode())
+								.subType(SubType.DOC_VALIDATE.getCode())
+								.action(docTimingStr)
+								.label("tableName", tableName)
+								.label("recordId", Integer.toString(recordId))
+								.build());
+			}
 		}
 	}
 
@@ -1103,18 +1115,9 @@ public class ModelValidationEngine implements IModelValidationEngine
 		int countInterceptors = 0;
 
 		//
-		// Retrieve system level model interceptors
-		final String propertyNameSystem = getPropertyName(po.get_TableName());
-		final List<ModelValidator> interceptorsSystem = m_docValidateListeners.get(propertyNameSystem);
-		final int countSystemInterceptors = interceptorsSystem != null ? interceptorsSystem.size() : 0;
-		countInterceptors += countSystemInterceptors;
-
-		//
-		// Retrieve client level model interceptors
-		final String propertyNameClient = getPropertyName(po.get_TableName(), po.getAD_Client_ID());
-		final List<ModelValidator> interceptorsClient = m_docValidateListeners.get(propertyNameClient);
-		final int countClientInterceptors = interceptorsClient != null ? interceptorsClient.size() : 0;
-		countInterceptors += countClientInterceptors;
+		// Retrieve system and client level model interceptors
+		final InterceptorInvoker[] interceptors = getDispatchTable(po.get_TableName(), po.getAD_Client_ID(), DispatchType.DOC_VALIDATE);
+		countInterceptors += interceptors.length;
 
 		//
 		// Retrieve script interceptors
@@ -1147,7 +1150,7 @@ public class ModelValidationEngine implements IModelValidationEngine
 		//
 		// Execute interceptors
 		final String trxName = po.get_TrxName();
-		executeInTrx(trxName, docTiming, () -> fireDocValidate0(po, docTiming, interceptorsSystem, interceptorsClient, scriptValidators));
+		executeInTrx(trxName, docTiming, () -> fireDocValidate0(po, docTiming, interceptors, scriptValidators));
 
 		logger.trace("Executed ALL {} {} interceptors for {}", countInterceptors, docTiming, po);
 
@@ -1156,20 +1159,13 @@ public class ModelValidationEngine implements IModelValidationEngine
 
 	private void fireDocValidate0(final PO po,
 			final DocTimingType docTiming,
-			final List<ModelValidator> interceptorsSystem,
-			final List<ModelValidator> interceptorsClient,
+			final InterceptorInvoker[] interceptors,
 			final List<I_AD_Table_ScriptValidator> scriptValidators)
 	{
-		if (interceptorsSystem != null)
-		{
-			// ad_entitytype.modelvalidationclasses
-			fireDocValidate(po, docTiming, interceptorsSystem);
-		}
-
-		if (interceptorsClient != null)
+		// ad_entitytype.modelvalidationclasses, then ad_client.modelvalidationclasses
+		for (final InterceptorInvoker interceptor : interceptors)
 		{
-			// ad_client.modelvalidationclasses
-			fireDocValidate(po, docTiming, interceptorsClient);
+			invokeDocValidateMethod(po, docTiming, interceptor);
 		}
 
 		//
@@ -1183,30 +1179,15 @@ public class ModelValidationEngine implements IModelValidationEngine
 		}
 	}
 
-	private void fireDocValidate(
-			final PO po,
-			final DocTimingType docTiming,
-			final List<ModelValidator> interceptors)
-	{
-		for (final ModelValidator interceptor : interceptors)
-		{
-			invokeDocValidateMethod(po, docTiming, interceptor);
-		}
-	}
-
 	private void invokeDocValidateMethod(
 			@NonNull final PO po,
 			@NonNull final DocTimingType docTiming,
-			@NonNull final ModelValidator interceptor)
+			@NonNull final InterceptorInvoker interceptorInvoker)
 	{
-		if (!appliesFor(interceptor, po.getAD_Client_ID()))
-		{
-			logger.trace("Skip {} ({}) for {}", interceptor, docTiming, po);
-			return;
-		}
+		final ModelValidator interceptor = interceptorInvoker.getValidator();
 
 		final Stopwatch stopwatch = Stopwatch.createStarted();
-		try
+		try (final IAutoCloseable ignored = interceptorInvoker.getTimer().start())
 		{
 			final String error = interceptor.docValidate(po, docTiming.toInt());
 			if (!Check.isEmpty(error))
@@ -1412,12 +1393,74 @@ public class ModelValidationEngine implements IModelValidationEngine
 
 	private final void registerGlobal(ModelValidator validator)
 	{
-		if (!m_globalValidators.contains(validator))
+		synchronized (listenersLock)
 		{
-			m_globalValidators.add(validator);
+			if (!m_globalValidators.contains(validator))
+			{
+				m_globalValidators.add(validator);
+				invalidateDispatchTables();
+			}
 		}
 	}
 
+	private void invalidateDispatchTables()
+	{
+		dispatchTables = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * @return the system level interceptors followed by the client level interceptors which apply to given table and client. Never modify the returned array.
+	 */
+	private InterceptorInvoker[] getDispatchTable(
+			@NonNull final String tableName,
+			final int adClientId,
+			@NonNull final DispatchType dispatchType)
+	{
+		final ConcurrentHashMap<DispatchKey, InterceptorInvoker[]> dispatchTables = this.dispatchTables;
+		final DispatchKey key = new DispatchKey(tableName, adClientId, dispatchType);
+
+		final InterceptorInvoker[] interceptors = dispatchTables.get(key);
+		if (interceptors != null)
+		{
+			return interceptors;
+		}
+
+		synchronized (listenersLock)
+		{
+			// NOTE: if the listeners were changed meanwhile, we are adding to an already discarded instance, which is fine
+			return dispatchTables.computeIfAbsent(key, this::buildDispatchTable);
+		}
+	}
+
+	private InterceptorInvoker[] buildDispatchTable(@NonNull final DispatchKey key)
+	{
+		final Hashtable<String, ArrayList<ModelValidator>> listeners = key.getDispatchType() == DispatchType.DOC_VALIDATE
+				? m_docValidateListeners
+				: m_modelChangeListeners;
+
+		final ArrayList<InterceptorInvoker> result = new ArrayList<>();
+		final String tableName = key.getTableName();
+		for (final String propertyName : ImmutableList.of(getPropertyName(tableName), getPropertyName(tableName, key.getAdClientId())))
+		{
+			final ArrayList<ModelValidator> validators = listeners.get(propertyName);
+			if (validators == null)
+			{
+				continue;
+			}
+
+			for (final ModelValidator validator : validators)
+			{
+				if (appliesFor(validator, key.getAdClientId()))
+				{
+					result.add(new InterceptorInvoker(validator, tableName));
+				}
+			}
+		}
+
+		logger.debug("Built dispatch table for {}: {}", key, result);
+		return result.toArray(new InterceptorInvoker[0]);
+	}
+
 	private final boolean appliesFor(@NonNull final ModelValidator validator, final int AD_Client_ID)
 	{
 		return AD_Client_ID == validator.getAD_Client_ID()
@@ -1505,6 +1548,41 @@ public class ModelValidationEngine implements IModelValidationEngine
 	 */
 	public static final String DYNATTR_DO_NOT_INVOKE_ON_MODEL_CHANGE = "DO_NOT_INVOKE_ON_MODEL_CHANGE";
 
+	private enum DispatchType
+	{
+		MODEL_CHANGE, DOC_VALIDATE
+	}
+
+	@Value
+	private static class DispatchKey
+	{
+		String tableName;
+		int adClientId;
+		DispatchType dispatchType;
+	}
+
+	/** A model interceptor, together with its invocations timer for a given table. */
+	@Value
+	private static class InterceptorInvoker
+	{
+		ModelValidator validator;
+		String name;
+		Timer timer;
+
+		private InterceptorInvoker(@NonNull final ModelValidator validator, @NonNull final String tableName)
+		{
+			this.validator = validator;
+			this.name = validator.toString();
+			this.timer = METRIC_InterceptorInvocation.labels(name, tableName);
+		}
+
+		@Override
+		public String toString()
+		{
+			return name;
+		}
+	}
+
 	private enum State
 	{
 		/** In this state, {@link #get()} does not attempt to initialize this model validator and basically returns a "no-op" instance. */
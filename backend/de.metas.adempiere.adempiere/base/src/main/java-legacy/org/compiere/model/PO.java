@@ -32,6 +32,9 @@ import de.metas.i18n.po.POTrlInfo;
 import de.metas.i18n.po.POTrlRepository;
 import de.metas.logging.LogManager;
 import de.metas.logging.MetasfreshLastError;
+import de.metas.monitoring.metrics.MetricFamily;
+import de.metas.monitoring.metrics.MetricsRegistry;
+import de.metas.monitoring.metrics.Timer;
 import de.metas.process.PInstanceId;
 import de.metas.security.TableAccessLevel;
 import de.metas.user.UserId;
@@ -63,6 +66,7 @@ import org.adempiere.exceptions.FillMandatoryException;
 import org.adempiere.model.CopyRecordSupport;
 import org.adempiere.model.InterfaceWrapperHelper;
 import org.adempiere.service.ISysConfigBL;
+import org.adempiere.util.lang.IAutoCloseable;
 import org.compiere.Adempiere;
 import org.compiere.util.DB;
 import org.compiere.util.DB.OnFail;
@@ -273,6 +277,8 @@ public abstract class PO
 	/** Static Logger */
 	private static final Logger s_log = LogManager.getLogger(PO.class);
 
+	private static final MetricFamily<Timer> METRIC_Save = MetricsRegistry.get().timer("metasfresh_po_save_seconds", "Duration of PO.saveEx(), including the model interceptors", "table");
+
 	private static final String COLUMNNAME_IsApproved = "IsApproved";
 
 	/** Context */
@@ -2872,30 +2878,33 @@ public abstract class PO
 		final ITrxManager trxManager = get_TrxManager();
 		final String trxNameInitial = m_trxName;
 		final boolean newRecordInitial = m_createNew;
-		trxManager.run(trxNameInitial, new TrxRunnable2()
+		try (final IAutoCloseable ignored = METRIC_Save.labelsIfEnabled(get_TableName()).start())
 		{
-			@Override
-			public void run(final String localTrxName) throws Exception
+			trxManager.run(trxNameInitial, new TrxRunnable2()
 			{
-				m_trxName = localTrxName;
-				save0();
-			}
+				@Override
+				public void run(final String localTrxName) throws Exception
+				{
+					m_trxName = localTrxName;
+					save0();
+				}
 
-			@Override
-			public boolean doCatch(final Throwable e) throws Throwable
-			{
-				// restoring settings and flags before failing
-				m_createNew = newRecordInitial;
-				throw e;
-			}
+				@Override
+				public boolean doCatch(final Throwable e) throws Throwable
+				{
+					// restoring settings and flags before failing
+					m_createNew = newRecordInitial;
+					throw e;
+				}
 
-			@Override
-			public void doFinally()
-			{
-				// restore the transaction name
-				m_trxName = trxNameInitial;
-			}
-		});
+				@Override
+				public void doFinally()
+				{
+					// restore the transaction name
+					m_trxName = trxNameInitial;
+				}
+			});
+		}
 	}
 
 	/**
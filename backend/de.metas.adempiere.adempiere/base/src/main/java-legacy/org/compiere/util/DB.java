@@ -23,6 +23,7 @@ package org.compiere.util;
 
 import com.google.common.collect.ImmutableList;
 import de.metas.cache.CacheMgt;
+import de.metas.dao.ids.PrefetchingIdAllocator;
 import de.metas.document.sequence.IDocumentNoBuilderFactory;
 import de.metas.i18n.ILanguageDAO;
 import de.metas.lang.SOTrx;
@@ -1782,6 +1783,17 @@ public class DB
 	public int getNextID(final int AD_Client_ID, final String TableName, final String trxName)
 	{
 		final boolean useNativeSequences = DB.isUseNativeSequences(AD_Client_ID, TableName);
+
+		final int idBlockSize = getIdBlockSize(AD_Client_ID, TableName);
+		if (idBlockSize > 1)
+		{
+			return PrefetchingIdAllocator.instance.nextId(
+					TableName,
+					useNativeSequences,
+					idBlockSize,
+					count -> getNextIDs(TableName, useNativeSequences, count));
+		}
+
 		if (useNativeSequences)
 		{
 			final String sequenceName = getTableSequenceName(TableName);
@@ -1792,6 +1804,63 @@ public class DB
 		return MSequence.getNextID(AD_Client_ID, TableName, trxName);
 	}    // getNextID
 
+	/**
+	 * Get the next <code>count</code> IDs for database records, e.g. to insert that many records with one JDBC batch.
+	 * Unless the IDs are prefetched anyways or the sequence hands them out one by one (see {@link #getNextID(int, String, String)}), they are fetched in one roundtrip.
+	 *
+	 * @return the IDs, in ascending order
+	 */
+	public int[] getNextIDs(final int AD_Client_ID, final String TableName, final String trxName, final int count)
+	{
+		Check.assumeGreaterThanZero(count, "count");
+
+		if (count == 1 || getIdBlockSize(AD_Client_ID, TableName) != 1 || !isFetchingIdBlocksSupported(AD_Client_ID, TableName))
+		{
+			final int[] ids = new int[count];
+			for (int i = 0; i < count; i++)
+			{
+				ids[i] = getNextID(AD_Client_ID, TableName, trxName);
+			}
+			return ids;
+		}
+
+		return getNextIDs(TableName, DB.isUseNativeSequences(AD_Client_ID, TableName), count);
+	}
+
+	/**
+	 * @return how many IDs to prefetch for given table; 1 means no prefetching
+	 * @see PrefetchingIdAllocator
+	 */
+	private int getIdBlockSize(final int AD_Client_ID, final String TableName)
+	{
+		if (!isFetchingIdBlocksSupported(AD_Client_ID, TableName))
+		{
+			return 1;
+		}
+
+		return PrefetchingIdAllocator.instance.getBlockSize(TableName);
+	}
+
+	private boolean isFetchingIdBlocksSupported(final int AD_Client_ID, final String TableName)
+	{
+		// the dictionary maintenance mode and the external ID servers are handing out IDs one by one
+		return !MSequence.isAdempiereSys(AD_Client_ID)
+				&& !MSequence.isUseExternalIDSystem(TableName, AD_Client_ID);
+	}
+
+	private int[] getNextIDs(final String TableName, final boolean useNativeSequences, final int count)
+	{
+		if (useNativeSequences)
+		{
+			final String sequenceName = getTableSequenceName(TableName);
+			return CConnection.get().getDatabase().getNextIDs(sequenceName, count);
+		}
+		else
+		{
+			return MSequence.getNextIDs(TableName, count);
+		}
+	}
+
 	public String TO_TABLESEQUENCE_NEXTVAL(final String tableName)
 	{
 		final String sequenceName = getTableSequenceName(tableName);
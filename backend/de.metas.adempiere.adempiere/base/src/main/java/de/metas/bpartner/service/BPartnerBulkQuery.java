@@ -0,0 +1,86 @@
+package de.metas.bpartner.service;
+
+import java.util.Set;
+
+import org.adempiere.exceptions.AdempiereException;
+
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.bpartner.BPartnerId;
+import de.metas.bpartner.GLN;
+import de.metas.organization.OrgId;
+import de.metas.util.lang.ExternalId;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Singular;
+import lombok.Value;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Set based counterpart of {@link BPartnerQuery}, used to look up the bpartners of many lookup keys with one query.
+ * <p>
+ * Unlike {@link BPartnerQuery}, the criteria are {@code OR}ed, i.e. a bpartner matches if it has <b>any</b> of the given IDs, external IDs, values or location GLNs.
+ */
+@Value
+public class BPartnerBulkQuery
+{
+	ImmutableSet<BPartnerId> bpartnerIds;
+	ImmutableSet<ExternalId> externalIds;
+	ImmutableSet<String> bpartnerValues;
+	ImmutableSet<GLN> glns;
+
+	/**
+	 * If there are multiple orgIds, they are {@code OR}ed.
+	 */
+	ImmutableSet<OrgId> onlyOrgIds;
+
+	@Builder
+	private BPartnerBulkQuery(
+			@NonNull @Singular final Set<BPartnerId> bpartnerIds,
+			@NonNull @Singular final Set<ExternalId> externalIds,
+			@NonNull @Singular final Set<String> bpartnerValues,
+			@NonNull @Singular final Set<GLN> glns,
+			//
+			@NonNull @Singular final Set<OrgId> onlyOrgIds)
+	{
+		this.bpartnerIds = ImmutableSet.copyOf(bpartnerIds);
+		this.externalIds = ImmutableSet.copyOf(externalIds);
+		this.bpartnerValues = ImmutableSet.copyOf(bpartnerValues);
+		this.glns = ImmutableSet.copyOf(glns);
+		this.onlyOrgIds = ImmutableSet.copyOf(onlyOrgIds);
+
+		if (isEmpty())
+		{
+			throw new AdempiereException("At least one of the given bpartnerIds, externalIds, bpartnerValues or glns needs to be non-empty: " + this);
+		}
+	}
+
+	public boolean isEmpty()
+	{
+		return bpartnerIds.isEmpty()
+				&& externalIds.isEmpty()
+				&& bpartnerValues.isEmpty()
+				&& glns.isEmpty();
+	}
+}
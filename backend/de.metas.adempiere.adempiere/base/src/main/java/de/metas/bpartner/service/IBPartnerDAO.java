@@ -300,6 +300,11 @@ public interface IBPartnerDAO extends ISingletonService
 
 	ImmutableSet<BPartnerId> retrieveBPartnerIdsBy(BPartnerQuery query);
 
+	/**
+	 * @return the IDs of all bpartners which are matching <b>any</b> of the given query's criteria; retrieved with one SQL query.
+	 */
+	ImmutableSet<BPartnerId> retrieveBPartnerIdsBy(BPartnerBulkQuery query);
+
 	BPartnerLocationId retrieveBPartnerLocationId(BPartnerLocationQuery query);
 
 	I_C_BPartner_Location retrieveBPartnerLocation(BPartnerLocationQuery query);
@@ -33,6 +33,7 @@ import de.metas.bpartner.BPartnerType;
 import de.metas.bpartner.GLN;
 import de.metas.bpartner.GeographicalCoordinatesWithBPartnerLocationId;
 import de.metas.bpartner.service.BPRelation;
+import de.metas.bpartner.service.BPartnerBulkQuery;
 import de.metas.bpartner.service.BPartnerContactQuery;
 import de.metas.bpartner.service.BPartnerIdNotFoundException;
 import de.metas.bpartner.service.BPartnerPrintFormat;
@@ -1363,6 +1364,61 @@ public class BPartnerDAO implements IBPartnerDAO
 		return bpartnerIds;
 	}
 
+	@Override
+	public ImmutableSet<BPartnerId> retrieveBPartnerIdsBy(@NonNull final BPartnerBulkQuery query)
+	{
+		final IQueryBuilder<I_C_BPartner> queryBuilder = createQueryBuilder(I_C_BPartner.class); // also load inactive records!
+
+		if (!query.getOnlyOrgIds().isEmpty())
+		{
+			queryBuilder.addInArrayFilter(I_C_BPartner.COLUMNNAME_AD_Org_ID, query.getOnlyOrgIds());
+		}
+
+		final ICompositeQueryFilter<I_C_BPartner> anyOfFilter = queryBuilder.addCompositeQueryFilter()
+				.setJoinOr();
+
+		if (!query.getBpartnerIds().isEmpty())
+		{
+			anyOfFilter.addInArrayFilter(I_C_BPartner.COLUMNNAME_C_BPartner_ID, query.getBpartnerIds());
+		}
+
+		if (!query.getExternalIds().isEmpty())
+		{
+			final ImmutableSet<String> externalIds = query.getExternalIds()
+					.stream()
+					.map(ExternalId::getValue)
+					.collect(ImmutableSet.toImmutableSet());
+			anyOfFilter.addInArrayFilter(I_C_BPartner.COLUMNNAME_ExternalId, externalIds);
+		}
+
+		if (!query.getBpartnerValues().isEmpty())
+		{
+			anyOfFilter.addInArrayFilter(I_C_BPartner.COLUMNNAME_Value, query.getBpartnerValues());
+		}
+
+		if (!query.getGlns().isEmpty())
+		{
+			final GLNQuery glnQuery = GLNQuery.builder()
+					.glns(query.getGlns())
+					.onlyOrgIds(query.getOnlyOrgIds())
+					.build();
+			final ImmutableSet<BPartnerId> bpartnerIdsForGLN = glnsLoadingCache.getBPartnerIds(glnQuery);
+			if (!bpartnerIdsForGLN.isEmpty())
+			{
+				anyOfFilter.addInArrayFilter(I_C_BPartner.COLUMNNAME_C_BPartner_ID, bpartnerIdsForGLN);
+			}
+		}
+
+		if (anyOfFilter.isEmpty())
+		{
+			return ImmutableSet.of();
+		}
+
+		return queryBuilder
+				.create()
+				.listIds(BPartnerId::ofRepoId);
+	}
+
 	private static GLNQuery toGLNQuery(@NonNull final BPartnerQuery query)
 	{
 		return GLNQuery.builder()
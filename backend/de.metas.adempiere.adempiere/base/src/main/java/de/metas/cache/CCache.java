@@ -29,6 +29,7 @@ import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -53,6 +54,9 @@ import com.google.common.util.concurrent.ExecutionError;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 
 import de.metas.logging.LogManager;
+import de.metas.monitoring.metrics.Counter;
+import de.metas.monitoring.metrics.MetricFamily;
+import de.metas.monitoring.metrics.MetricsRegistry;
 import lombok.Builder;
 import lombok.NonNull;
 import lombok.Singular;
@@ -128,6 +132,10 @@ public class CCache<K, V> implements CacheInterface
 
 	private static final Logger logger = LogManager.getLogger(CCache.class);
 
+	private static final MetricFamily<Counter> METRIC_Hits = MetricsRegistry.get().counter("metasfresh_cache_hits_total", "Number of CCache lookups which found a cached value", "cache");
+	private static final MetricFamily<Counter> METRIC_Misses = MetricsRegistry.get().counter("metasfresh_cache_misses_total", "Number of CCache lookups which did not find a cached value", "cache");
+	private static final String METRIC_CacheName_Unnamed = "unnamed";
+
 	/** Internal map that is used as cache */
 	private final Cache<K, V> cache;
 
@@ -159,6 +167,9 @@ public class CCache<K, V> implements CacheInterface
 
 	private CacheAdditionListener<K, V> additionListener;
 
+	private final Counter hitsCounter;
+	private final Counter missesCounter;
+
 	/**
 	 * Metasfresh Cache - expires after 2 hours
 	 *
@@ -245,6 +256,11 @@ public class CCache<K, V> implements CacheInterface
 
 		this.labels = buildCacheLabels(tableNameEffective, additionalTableNamesToResetFor);
 
+		// NOTE: don't use the generated "$NoCacheName$" names, because each of them would be a new metric
+		final String metricCacheName = cacheName != null ? cacheName : (tableName != null ? tableName : METRIC_CacheName_Unnamed);
+		this.hitsCounter = METRIC_Hits.labels(metricCacheName);
+		this.missesCounter = METRIC_Misses.labels(metricCacheName);
+
 		this.expireMinutes = expireMinutes != null ? expireMinutes : EXPIREMINUTES_Never;
 		this.cache = buildGuavaCache(
 				cacheMapType != null ? cacheMapType : CacheMapType.HashMap,
@@ -549,6 +565,7 @@ public class CCache<K, V> implements CacheInterface
 		{
 			final V result = cache.getIfPresent(key);
 			logger.debug("get - key={}; result={}", key, result);
+			countHitOrMiss(result);
 			return result;
 		}
 	}
@@ -601,9 +618,22 @@ public class CCache<K, V> implements CacheInterface
 				return cache.getIfPresent(key);
 			}
 
+			// count the miss inside the loader, so we don't need an additional lookup
+			final AtomicBoolean loaded = new AtomicBoolean(false);
+			final Callable<V> countingValueInitializer = () -> {
+				loaded.set(true);
+				missesCounter.increment();
+				return valueInitializer.call();
+			};
+
 			try
 			{
-				return cache.get(key, valueInitializer);
+				final V value = cache.get(key, countingValueInitializer);
+				if (!loaded.get())
+				{
+					hitsCounter.increment();
+				}
+				return value;
 			}
 			catch (final InvalidCacheLoadException e)
 			{
@@ -650,6 +680,18 @@ public class CCache<K, V> implements CacheInterface
 		}
 	}
 
+	private void countHitOrMiss(@Nullable final V cachedValue)
+	{
+		if (cachedValue != null)
+		{
+			hitsCounter.increment();
+		}
+		else
+		{
+			missesCounter.increment();
+		}
+	}
+
 	/**
 	 * Gets all values which are identified by given keys.
 	 *
@@ -679,6 +721,7 @@ public class CCache<K, V> implements CacheInterface
 			for (final K key : ImmutableSet.copyOf(keys))
 			{
 				final V value = cache.getIfPresent(key);
+				countHitOrMiss(value);
 				if (value == null)
 				{
 					logger.debug("getAllOrLoad - Cache miss for key={}; -> adding it to 'keysToLoad'", key);
@@ -0,0 +1,172 @@
+package de.metas.dao.ids;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.service.ISysConfigBL;
+import org.slf4j.Logger;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import de.metas.logging.LogManager;
+import de.metas.util.Check;
+import de.metas.util.Services;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Hands out primary key IDs from blocks which are prefetched per table, so that inserting many records does not need one ID roundtrip per record.
+ * <p>
+ * The block size is configured via {@value #SYSCONFIG_BlockSize} (default for all tables) and {@value #SYSCONFIG_BlockSize}{@code .<TableName>} (per table).
+ * A block size of 1 (the default) disables the prefetching.
+ * <p>
+ * <b>Gap tolerance:</b> when prefetching is enabled, IDs are no longer guaranteed to be gap-free or ascending in insert order:
+ * <ul>
+ * <li>each JVM (server, webui, app) holds its own block, so records created in parallel on different JVMs get interleaved IDs</li>
+ * <li>IDs of a block which are not used until the JVM is stopped are lost</li>
+ * </ul>
+ * So enable it only for tables where the ID is just a surrogate key and nobody relies on ID ordering (e.g. HU or candidate tables).
+ * <p>
+ * Taking an ID from the current block is lock-free; only fetching a new block is synchronized, per table.
+ */
+public final class PrefetchingIdAllocator
+{
+	public static final PrefetchingIdAllocator instance = new PrefetchingIdAllocator();
+
+	private static final Logger logger = LogManager.getLogger(PrefetchingIdAllocator.class);
+
+	public static final String SYSCONFIG_BlockSize = "de.metas.dao.ids.PrefetchingIdAllocator.BlockSize";
+	private static final int DEFAULT_BlockSize = 1;
+
+	private final ConcurrentHashMap<IdSourceKey, TableIds> tableIdsByKey = new ConcurrentHashMap<>();
+
+	@VisibleForTesting
+	PrefetchingIdAllocator()
+	{
+	}
+
+	/**
+	 * @return how many IDs shall be prefetched for given table; values less or equal to 1 mean that no IDs shall be prefetched
+	 */
+	public int getBlockSize(@NonNull final String tableName)
+	{
+		final ISysConfigBL sysConfigBL = Services.get(ISysConfigBL.class);
+		final int defaultBlockSize = sysConfigBL.getIntValue(SYSCONFIG_BlockSize, DEFAULT_BlockSize);
+		return sysConfigBL.getIntValue(SYSCONFIG_BlockSize + "." + tableName, defaultBlockSize);
+	}
+
+	/**
+	 * @param idsFetcher fetches the given number of new IDs, in one go
+	 * @return next ID for given table, from the current block if there is one, else from a newly fetched one
+	 */
+	public int nextId(
+			@NonNull final String tableName,
+			final boolean nativeSequence,
+			final int blockSize,
+			@NonNull final IntFunction<int[]> idsFetcher)
+	{
+		Check.assumeGreaterThanZero(blockSize, "blockSize");
+
+		final TableIds tableIds = tableIdsByKey.computeIfAbsent(IdSourceKey.of(tableName, nativeSequence), TableIds::new);
+		return tableIds.nextId(blockSize, idsFetcher);
+	}
+
+	/**
+	 * Discards all prefetched IDs; the discarded IDs become gaps.
+	 */
+	public void reset()
+	{
+		tableIdsByKey.clear();
+	}
+
+	@Value(staticConstructor = "of")
+	private static class IdSourceKey
+	{
+		@NonNull
+		String tableName;
+		boolean nativeSequence;
+	}
+
+	private static final class TableIds
+	{
+		private final IdSourceKey key;
+		private volatile IdBlock block = IdBlock.EMPTY;
+
+		private TableIds(@NonNull final IdSourceKey key)
+		{
+			this.key = key;
+		}
+
+		public int nextId(final int blockSize, final IntFunction<int[]> idsFetcher)
+		{
+			while (true)
+			{
+				final IdBlock block = this.block;
+				final int id = block.nextIdOrZero();
+				if (id > 0)
+				{
+					return id;
+				}
+
+				synchronized (this)
+				{
+					// only one thread shall fetch the next block
+					if (this.block == block)
+					{
+						final int[] ids = idsFetcher.apply(blockSize);
+						if (ids == null || ids.length == 0)
+						{
+							throw new AdempiereException("No IDs fetched for " + key);
+						}
+						logger.debug("Fetched {} IDs for {}", ids.length, key);
+						this.block = new IdBlock(ids);
+					}
+				}
+			}
+		}
+	}
+
+	private static final class IdBlock
+	{
+		private static final IdBlock EMPTY = new IdBlock(new int[] {});
+
+		private final int[] ids;
+		private final AtomicInteger nextIndex = new AtomicInteger(0);
+
+		private IdBlock(@NonNull final int[] ids)
+		{
+			this.ids = ids;
+		}
+
+		/** @return next ID or 0 if this block is exhausted */
+		public int nextIdOrZero()
+		{
+			final int index = nextIndex.getAndIncrement();
+			return index < ids.length ? ids[index] : 0;
+		}
+	}
+}
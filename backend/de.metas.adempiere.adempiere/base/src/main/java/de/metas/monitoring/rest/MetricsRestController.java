@@ -0,0 +1,61 @@
+package de.metas.monitoring.rest;
+
+import org.slf4j.Logger;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import de.metas.event.rest.EventBusRestController;
+import de.metas.logging.LogManager;
+import de.metas.monitoring.metrics.MetricsRegistry;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Exposes the {@link MetricsRegistry} in Prometheus text format, to be scraped by a Prometheus server.
+ * <p>
+ * This controller is read-only on purpose. To enable, disable or reset the metrics, use JMX ({@value MetricsRegistry#JMX_NAME}).
+ */
+@RequestMapping(MetricsRestController.ENDPOINT)
+@RestController
+public class MetricsRestController
+{
+	private static final Logger logger = LogManager.getLogger(MetricsRestController.class);
+
+	/**
+	 * Below the API root, so it's protected by the API auth token filter and does not collide with the actuator's own {@code /metrics} endpoint.
+	 * The Prometheus scrape config needs to set this as its {@code metrics_path}.
+	 */
+	public static final String ENDPOINT = EventBusRestController.ENDPOINT_API + "/metrics";
+
+	@GetMapping(produces = MetricsRegistry.PROMETHEUS_CONTENT_TYPE)
+	public String getMetrics()
+	{
+		final MetricsRegistry registry = MetricsRegistry.get();
+		if (!registry.isEnabled())
+		{
+			logger.debug("Metrics are disabled; returning the values recorded so far. Enable them with -D{}=true or via JMX", MetricsRegistry.SYSTEM_PROPERTY_Enabled);
+		}
+		return registry.toPrometheusText();
+	}
+}
@@ -1,13 +1,24 @@
 package de.metas.security.impl;
 
 import java.util.Set;
+import java.util.function.Supplier;
 
+import org.adempiere.service.ClientId;
 import org.compiere.SpringContextHolder;
+import org.compiere.model.I_AD_Column;
 import org.compiere.model.I_AD_PInstance_Log;
 import org.compiere.model.I_AD_Private_Access;
+import org.compiere.model.I_AD_Role;
+import org.compiere.model.I_AD_Role_Record_Access_Config;
+import org.compiere.model.I_AD_Table;
+import org.compiere.model.I_AD_UserGroup_User_Assign;
 import org.compiere.util.DB;
 import org.slf4j.Logger;
 
+import com.google.common.annotations.VisibleForTesting;
+
+import de.metas.cache.CCache;
+import de.metas.cache.CCache.CacheMapType;
 import de.metas.logging.LogManager;
 import de.metas.security.RoleId;
 import de.metas.security.impl.ParsedSql.SqlSelect;
@@ -18,7 +29,9 @@ import de.metas.user.UserGroupId;
 import de.metas.user.UserGroupRepository;
 import de.metas.user.UserId;
 import de.metas.util.Check;
+import lombok.Builder;
 import lombok.NonNull;
+import lombok.Value;
 
 /*
  * #%L
@@ -46,6 +59,48 @@ final class UserRolePermissionsSqlHelpers
 {
 	private static final Logger logger = LogManager.getLogger(UserRolePermissionsSqlHelpers.class);
 
+	/**
+	 * Parsed SQLs, keyed by the SQL without the ORDER BY part.
+	 * Parsing depends only on the SQL string, so it never needs to be invalidated.
+	 */
+	private static final CCache<String, ParsedSql> parsedSqlCache = CCache.newLRUCache("ParsedSql", 2000, 0);
+
+	/**
+	 * Final access SQLs.
+	 * Invalidated together with the permissions (see {@link de.metas.security.UserRolePermissionsEventBus}) and when the user groups or the record access configs change.
+	 */
+	private static final CCache<AccessSqlKey, String> accessSqlCache = CCache.<AccessSqlKey, String> builder()
+			.cacheName("UserRolePermissions#AccessSQL")
+			.tableName(I_AD_Role.Table_Name)
+			.additionalTableNameToResetFor(I_AD_UserGroup_User_Assign.Table_Name)
+			.additionalTableNameToResetFor(I_AD_Role_Record_Access_Config.Table_Name)
+			.additionalTableNameToResetFor(I_AD_Table.Table_Name)
+			.additionalTableNameToResetFor(I_AD_Column.Table_Name)
+			.cacheMapType(CacheMapType.LRU)
+			.initialCapacity(10000)
+			.build();
+
+	@Value
+	@Builder
+	@VisibleForTesting
+	static class AccessSqlKey
+	{
+		@NonNull
+		String sql;
+		@NonNull
+		String tableNameIn;
+		boolean fullyQualified;
+		@NonNull
+		Access access;
+
+		@NonNull
+		RoleId roleId;
+		@NonNull
+		UserId userId;
+		@NonNull
+		ClientId clientId;
+	}
+
 	private final UserRolePermissions _role;
 	private final TablesAccessInfo _tablesAccessInfo = TablesAccessInfo.instance;
 	private RecordAccessService _userGroupRecordAccessService; // lazy
@@ -128,6 +183,43 @@ final class UserRolePermissionsSqlHelpers
 	}
 
 	public String addAccessSQL(
+			@NonNull final String sql,
+			@NonNull final String tableNameIn,
+			final boolean fullyQualified,
+			@NonNull final Access access)
+	{
+		final AccessSqlKey key = toAccessSqlKey(sql, tableNameIn, fullyQualified, access);
+		return getOrBuildAccessSQL(key, () -> buildFinalSQL(sql, tableNameIn, fullyQualified, access));
+	}
+
+	/**
+	 * @return the key under which the final SQL is cached; it contains everything the final SQL depends on, in particular the role and the user
+	 */
+	@VisibleForTesting
+	AccessSqlKey toAccessSqlKey(
+			@NonNull final String sql,
+			@NonNull final String tableNameIn,
+			final boolean fullyQualified,
+			@NonNull final Access access)
+	{
+		return AccessSqlKey.builder()
+				.sql(sql)
+				.tableNameIn(tableNameIn)
+				.fullyQualified(fullyQualified)
+				.access(access)
+				.roleId(getRoleId())
+				.userId(getUserId())
+				.clientId(_role.getClientId())
+				.build();
+	}
+
+	@VisibleForTesting
+	static String getOrBuildAccessSQL(@NonNull final AccessSqlKey key, @NonNull final Supplier<String> finalSqlBuilder)
+	{
+		return accessSqlCache.getOrLoad(key, finalSqlBuilder::get);
+	}
+
+	private String buildFinalSQL(
 			final String sql,
 			final String tableNameIn,
 			final boolean fullyQualified,
@@ -170,7 +262,7 @@ final class UserRolePermissionsSqlHelpers
 
 		logger.trace("Final SQL: {}", sqlFinal);
 		return sqlFinal;
-	}	// addAccessSQL
+	}
 
 	private String buildAccessSQL(
 			final String sqlSelectFromWhere,
@@ -178,7 +270,7 @@ final class UserRolePermissionsSqlHelpers
 			final boolean fullyQualified,
 			final Access access)
 	{
-		final ParsedSql parsedSql = ParsedSql.parse(sqlSelectFromWhere);
+		final ParsedSql parsedSql = parseSql(sqlSelectFromWhere);
 		final SqlSelect mainSqlSelect = parsedSql.getMainSqlSelect();
 
 		String mainTableName = mainSqlSelect.getFirstTableAliasOrTableName();
@@ -278,6 +370,12 @@ final class UserRolePermissionsSqlHelpers
 		return sqlAcessSqlWhereClause.toString();
 	}
 
+	@VisibleForTesting
+	static ParsedSql parseSql(@NonNull final String sqlSelectFromWhere)
+	{
+		return parsedSqlCache.getOrLoad(sqlSelectFromWhere, ParsedSql::parse);
+	}
+
 	private boolean isApplyClientAndOrgAccess(final String mainTableName)
 	{
 		return !I_AD_PInstance_Log.Table_Name.equals(mainTableName);
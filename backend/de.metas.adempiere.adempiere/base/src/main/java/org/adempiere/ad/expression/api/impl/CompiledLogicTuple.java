@@ -0,0 +1,238 @@
+package org.adempiere.ad.expression.api.impl;
+
+import java.math.BigDecimal;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.ad.expression.exceptions.ExpressionEvaluationException;
+import org.compiere.util.CtxName;
+
+import lombok.NonNull;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Specialized evaluator of one {@link LogicTuple}, built once per tuple (see {@link LogicTuple#getCompiled()}).
+ * <p>
+ * Constant operands are trimmed, unquoted and, if they are numbers, converted to {@link BigDecimal} up front,
+ * so evaluating only has to deal with the context variables. If one of the operands is a constant which is not a number, the numeric comparison is skipped entirely.
+ * <p>
+ * The results are the same as the ones of {@link LogicExpressionEvaluator#evaluateLogicTuple(String, String, String)}.
+ */
+/* package */ final class CompiledLogicTuple
+{
+	private enum Operator
+	{
+		EQUALS, NOT_EQUALS, GREATER_THAN, LESS_THAN;
+
+		public static Operator ofCode(final String operator)
+		{
+			if (LogicTuple.OPERATOR_Equals.equals(operator))
+			{
+				return EQUALS;
+			}
+			else if (LogicTuple.OPERATOR_NotEquals.equals(operator))
+			{
+				return NOT_EQUALS;
+			}
+			else if (LogicTuple.OPERATOR_GreaterThan.equals(operator))
+			{
+				return GREATER_THAN;
+			}
+			else if (LogicTuple.OPERATOR_LessThan.equals(operator))
+			{
+				return LESS_THAN;
+			}
+			else
+			{
+				throw new ExpressionEvaluationException("Unknown operator '" + operator + "'");
+			}
+		}
+
+		public boolean test(final int compareResult)
+		{
+			switch (this)
+			{
+				case EQUALS:
+					return compareResult == 0;
+				case NOT_EQUALS:
+					return compareResult != 0;
+				case GREATER_THAN:
+					return compareResult > 0;
+				case LESS_THAN:
+					return compareResult < 0;
+				default:
+					throw new ExpressionEvaluationException("Unknown operator: " + this);
+			}
+		}
+	}
+
+	private static final class Operand
+	{
+		private final boolean parameter;
+		/** constant value, as returned when evaluating the operand (i.e. trimmed and unquoted) */
+		private final String constantValue;
+		/** constant value, as used for comparing */
+		private final String constantValueToCompare;
+		private final BigDecimal constantValueBD;
+
+		private Operand(final Object operand)
+		{
+			if (operand instanceof CtxName)
+			{
+				parameter = true;
+				constantValue = null;
+				constantValueToCompare = null;
+				constantValueBD = null;
+			}
+			else
+			{
+				parameter = false;
+				constantValue = LogicExpressionEvaluator.stripQuotes(operand.toString().trim());
+				constantValueToCompare = LogicExpressionEvaluator.stripQuotes(constantValue);
+				constantValueBD = toBigDecimalOrNull(constantValueToCompare);
+			}
+		}
+
+		@Nullable
+		public String getValueToCompare(@Nullable final String value)
+		{
+			return parameter ? LogicExpressionEvaluator.stripQuotes(value) : constantValueToCompare;
+		}
+
+		@Nullable
+		public BigDecimal getValueBD(@NonNull final String valueToCompare)
+		{
+			return parameter ? toBigDecimalOrNull(valueToCompare) : constantValueBD;
+		}
+
+		public boolean isNonNumericConstant()
+		{
+			return !parameter && constantValueBD == null;
+		}
+	}
+
+	public static CompiledLogicTuple of(@NonNull final LogicTuple tuple)
+	{
+		return new CompiledLogicTuple(tuple);
+	}
+
+	private final Operand operand1;
+	private final Operator operator;
+	private final Operand operand2;
+	private final boolean numericComparisonPossible;
+
+	private CompiledLogicTuple(@NonNull final LogicTuple tuple)
+	{
+		operand1 = new Operand(tuple.getOperand1());
+		operator = Operator.ofCode(tuple.getOperator());
+		operand2 = new Operand(tuple.getOperand2());
+		numericComparisonPossible = !operand1.isNonNumericConstant() && !operand2.isNonNumericConstant();
+	}
+
+	public boolean isParameter1()
+	{
+		return operand1.parameter;
+	}
+
+	public boolean isParameter2()
+	{
+		return operand2.parameter;
+	}
+
+	/**
+	 * @return the constant first operand, trimmed and unquoted
+	 */
+	public String getConstantValue1()
+	{
+		return operand1.constantValue;
+	}
+
+	/**
+	 * @return the constant second operand, trimmed and unquoted
+	 */
+	public String getConstantValue2()
+	{
+		return operand2.constantValue;
+	}
+
+	/**
+	 * @param value1 first operand's value; only considered if the first operand is a parameter
+	 * @param value2 second operand's value; only considered if the second operand is a parameter
+	 */
+	public boolean evaluate(@Nullable final String value1, @Nullable final String value2)
+	{
+		final String value1Str = operand1.getValueToCompare(value1);
+		final String value2Str = operand2.getValueToCompare(value2);
+		if (value1Str == null || value2Str == null)
+		{
+			return false;
+		}
+
+		//
+		// Compare as Strings first for Equals case (short circuit)
+		final boolean isEquals = operator == Operator.EQUALS;
+		if (isEquals && value1Str.equals(value2Str))
+		{
+			return true;
+		}
+
+		//
+		// Compare as BigDecimals.
+		// If both values are numbers there's no need to retry string comparison
+		if (numericComparisonPossible)
+		{
+			final BigDecimal value1BD = operand1.getValueBD(value1Str);
+			if (value1BD != null)
+			{
+				final BigDecimal value2BD = operand2.getValueBD(value2Str);
+				if (value2BD != null)
+				{
+					return operator.test(value1BD.compareTo(value2BD));
+				}
+			}
+		}
+
+		//
+		// Compare as Strings (equals was already checked)
+		return !isEquals && operator.test(value1Str.compareTo(value2Str));
+	}
+
+	@Nullable
+	private static BigDecimal toBigDecimalOrNull(@NonNull final String valueStr)
+	{
+		if (!LogicExpressionEvaluator.isPossibleNumber(valueStr))
+		{
+			return null;
+		}
+
+		try
+		{
+			return new BigDecimal(valueStr);
+		}
+		catch (final NumberFormatException ex)
+		{
+			return null;
+		}
+	}
+}
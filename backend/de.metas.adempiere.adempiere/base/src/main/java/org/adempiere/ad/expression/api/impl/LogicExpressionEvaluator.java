@@ -230,15 +230,16 @@ public class LogicExpressionEvaluator implements ILogicExpressionEvaluator
 			else if (expr instanceof LogicTuple)
 			{
 				final LogicTuple tuple = (LogicTuple)expr;
+				final CompiledLogicTuple compiledTuple = tuple.getCompiled();
 
-				final String firstEval = ctx.getValue(tuple.getOperand1());
+				final String firstEval = compiledTuple.isParameter1() ? ctx.getValue(tuple.getOperand1()) : compiledTuple.getConstantValue1();
 				//noinspection StringEquality // we're using string == string instead of string.equals(string)
 				if (firstEval == VALUE_NotFound)
 				{
 					logger.trace("tuple {} => null because first operand could not be evaluated", expr);
 					return null;
 				}
-				final String secondEval = ctx.getValue(tuple.getOperand2());
+				final String secondEval = compiledTuple.isParameter2() ? ctx.getValue(tuple.getOperand2()) : compiledTuple.getConstantValue2();
 				//noinspection StringEquality // we're using string == string instead of string.equals(string)
 				if (secondEval == VALUE_NotFound)
 				{
@@ -246,9 +247,8 @@ public class LogicExpressionEvaluator implements ILogicExpressionEvaluator
 					return null;
 				}
 
-				final String operator = tuple.getOperator();
-				final boolean result = evaluateLogicTuple(firstEval, operator, secondEval);
-				logger.trace("tuple {} => \"{}\" {} \"{}\" => {}", expr, firstEval, operator, secondEval, result);
+				final boolean result = compiledTuple.evaluate(firstEval, secondEval);
+				logger.trace("tuple {} => \"{}\" {} \"{}\" => {}", expr, firstEval, tuple.getOperator(), secondEval, result);
 
 				return result;
 			}
@@ -495,7 +495,7 @@ public class LogicExpressionEvaluator implements ILogicExpressionEvaluator
 
 			if (isOperand1Resolved && isOperand2Resolved)
 			{
-				final boolean result = evaluateLogicTuple(operand1Resolved, tuple.getOperator(), operand2Resolved);
+				final boolean result = tuple.getCompiled().evaluate(operand1Resolved, operand2Resolved);
 				return ConstantLogicExpression.of(result);
 			}
 			else if (Objects.equals(operand1, operand1Resolved)
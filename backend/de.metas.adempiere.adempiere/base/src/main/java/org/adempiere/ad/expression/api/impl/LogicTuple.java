@@ -74,6 +74,7 @@ import javax.annotation.Nullable;
 
 	private final String expressionStr;
 	private Integer _hashcode; // lazy
+	private transient CompiledLogicTuple _compiled; // lazy
 
 	private LogicTuple(
 			final Boolean constantValue,
@@ -242,6 +243,20 @@ import javax.annotation.Nullable;
 		return operator;
 	}
 
+	/**
+	 * @return specialized evaluator of this tuple; never returns null
+	 */
+	/* package */ CompiledLogicTuple getCompiled()
+	{
+		CompiledLogicTuple compiled = _compiled;
+		if (compiled == null)
+		{
+			// NOTE: it's fine if concurrent threads are building it at the same time, since the result is immutable
+			compiled = _compiled = CompiledLogicTuple.of(this);
+		}
+		return compiled;
+	}
+
 	@Override
 	public String toString()
 	{
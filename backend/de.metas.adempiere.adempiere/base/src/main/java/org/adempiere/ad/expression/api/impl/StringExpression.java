@@ -31,6 +31,8 @@ import com.google.common.collect.ImmutableSet;
 {
 	private final List<Object> expressionChunks;
 	private final Set<CtxName> parametersAsCtxName;
+	/** Initial capacity of the evaluation buffer, so that evaluating does not have to grow it in most cases */
+	private final int evaluatedLengthEstimate;
 
 	// Precomputed values
 	private String _expressionStr;
@@ -44,14 +46,21 @@ import com.google.common.collect.ImmutableSet;
 		//
 		// Initialize stringParams list
 		final Set<CtxName> ctxNameParams = new LinkedHashSet<>(); // NOTE: preserve parameters order because at least some tests are relying on this
+		int lengthEstimate = 0;
 		for (final Object chunk : expressionChunks)
 		{
 			if (chunk instanceof CtxName)
 			{
 				ctxNameParams.add((CtxName)chunk);
+				lengthEstimate += 16;
+			}
+			else
+			{
+				lengthEstimate += chunk.toString().length();
 			}
 		}
 		parametersAsCtxName = ImmutableSet.copyOf(ctxNameParams);
+		evaluatedLengthEstimate = lengthEstimate;
 	}
 
 	@Override
@@ -142,7 +151,7 @@ import com.google.common.collect.ImmutableSet;
 	@Override
 	public String evaluate(final Evaluatee ctx, final OnVariableNotFound onVariableNotFound)
 	{
-		final StringBuilder result = new StringBuilder();
+		final StringBuilder result = new StringBuilder(evaluatedLengthEstimate);
 
 		try
 		{
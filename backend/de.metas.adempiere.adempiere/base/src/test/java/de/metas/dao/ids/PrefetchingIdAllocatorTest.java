@@ -0,0 +1,138 @@
+package de.metas.dao.ids;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class PrefetchingIdAllocatorTest
+{
+	private PrefetchingIdAllocator allocator;
+
+	/** Simulates a DB sequence */
+	private AtomicInteger sequence;
+	private AtomicInteger fetchCount;
+	private IntFunction<int[]> idsFetcher;
+
+	@BeforeEach
+	public void beforeEach()
+	{
+		allocator = new PrefetchingIdAllocator();
+
+		sequence = new AtomicInteger(1000);
+		fetchCount = new AtomicInteger(0);
+		idsFetcher = count -> {
+			fetchCount.incrementAndGet();
+			return IntStream.range(0, count).map(i -> sequence.getAndIncrement()).toArray();
+		};
+	}
+
+	@Test
+	public void fetchesOneBlockPerBlockSizeIds()
+	{
+		final List<Integer> ids = new ArrayList<>();
+		for (int i = 0; i < 25; i++)
+		{
+			ids.add(allocator.nextId("MyTable", false, 10, idsFetcher));
+		}
+
+		assertThat(ids).containsExactlyElementsOf(IntStream.range(1000, 1025).boxed().collect(Collectors.toList()));
+		assertThat(fetchCount).hasValue(3);
+	}
+
+	@Test
+	public void blocksArePerTableAndSource()
+	{
+		assertThat(allocator.nextId("Table1", false, 10, idsFetcher)).isEqualTo(1000);
+		assertThat(allocator.nextId("Table2", false, 10, idsFetcher)).isEqualTo(1010);
+		assertThat(allocator.nextId("Table1", true, 10, idsFetcher)).isEqualTo(1020);
+		assertThat(allocator.nextId("Table1", false, 10, idsFetcher)).isEqualTo(1001);
+	}
+
+	@Test
+	public void reset_discardsPrefetchedIds()
+	{
+		assertThat(allocator.nextId("MyTable", false, 10, idsFetcher)).isEqualTo(1000);
+
+		allocator.reset();
+
+		assertThat(allocator.nextId("MyTable", false, 10, idsFetcher)).isEqualTo(1010);
+	}
+
+	@Test
+	public void noIdsFetched()
+	{
+		assertThatThrownBy(() -> allocator.nextId("MyTable", false, 10, count -> new int[] {}))
+				.isInstanceOf(AdempiereException.class);
+	}
+
+	@Test
+	public void concurrentCallersGetDistinctIds() throws Exception
+	{
+		final int threads = 8;
+		final int idsPerThread = 1000;
+
+		final Set<Integer> ids = ConcurrentHashMap.newKeySet();
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try
+		{
+			final List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++)
+			{
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < idsPerThread; i++)
+					{
+						ids.add(allocator.nextId("MyTable", false, 50, idsFetcher));
+					}
+				}));
+			}
+			for (final Future<?> future : futures)
+			{
+				future.get();
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+
+		assertThat(ids).hasSize(threads * idsPerThread);
+		assertThat(fetchCount).hasValue(threads * idsPerThread / 50);
+	}
+}
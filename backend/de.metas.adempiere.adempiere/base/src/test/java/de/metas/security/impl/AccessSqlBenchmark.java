@@ -0,0 +1,92 @@
+package de.metas.security.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Compares parsing the SQL on each call with the cached parsing done by {@link UserRolePermissionsSqlHelpers}, for typical lookup and view SQLs.
+ * <p>
+ * Not a unit test; run it via {@link #main(String[])}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccessSqlBenchmark
+{
+	private static final String SQL_Lookup = "SELECT C_BPartner.C_BPartner_ID, NULL, C_BPartner.Name, C_BPartner.IsActive"
+			+ " FROM C_BPartner"
+			+ " LEFT OUTER JOIN C_BPartner_Trl trl ON (C_BPartner.C_BPartner_ID=trl.C_BPartner_ID AND trl.AD_Language='de_DE')"
+			+ " WHERE C_BPartner.IsCustomer='Y' AND C_BPartner.Value ILIKE '%abc%'";
+
+	private static final String SQL_View = "SELECT o.C_Order_ID, o.DocumentNo, bp.Name, (SELECT SUM(ol.LineNetAmt) FROM C_OrderLine ol WHERE ol.C_Order_ID=o.C_Order_ID) AS LinesTotal"
+			+ " FROM C_Order o"
+			+ " INNER JOIN C_BPartner bp ON (bp.C_BPartner_ID=o.C_BPartner_ID)"
+			+ " LEFT OUTER JOIN C_DocType dt ON (dt.C_DocType_ID=o.C_DocTypeTarget_ID)"
+			+ " WHERE o.IsSOTrx='Y' AND o.DocStatus IN ('CO','CL') AND EXISTS (SELECT 1 FROM T_WEBUI_ViewSelection sel WHERE sel.UUID='abc' AND sel.Record_ID=o.C_Order_ID)";
+
+	@Param({ "lookup", "view" })
+	public String sqlType;
+
+	private String sql()
+	{
+		return "lookup".equals(sqlType) ? SQL_Lookup : SQL_View;
+	}
+
+	@Benchmark
+	public ParsedSql parseEachTime()
+	{
+		return ParsedSql.parse(sql());
+	}
+
+	@Benchmark
+	public ParsedSql parseCached()
+	{
+		return UserRolePermissionsSqlHelpers.parseSql(sql());
+	}
+
+	public static void main(final String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+				.include(AccessSqlBenchmark.class.getSimpleName())
+				.build())
+						.run();
+	}
+}
@@ -0,0 +1,91 @@
+package de.metas.security.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+import org.adempiere.service.ClientId;
+import org.adempiere.test.AdempiereTestHelper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import de.metas.security.RoleId;
+import de.metas.security.impl.UserRolePermissionsSqlHelpers.AccessSqlKey;
+import de.metas.security.permissions.Access;
+import de.metas.user.UserId;
+
+public class UserRolePermissionsSqlHelpersTest
+{
+	private static final String SQL = "SELECT * FROM C_Order WHERE IsActive='Y' ORDER BY DocumentNo";
+
+	@BeforeEach
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+	}
+
+	/**
+	 * Makes sure that the cached final access SQL of one role or user is not handed out to another role or user.
+	 */
+	@Test
+	public void accessSqlIsNotSharedBetweenRolesOrUsers()
+	{
+		final AccessSqlKey role1User1 = sqlHelpers(1, 100).toAccessSqlKey(SQL, "C_Order", true, Access.READ);
+		final AccessSqlKey role2User1 = sqlHelpers(2, 100).toAccessSqlKey(SQL, "C_Order", true, Access.READ);
+		final AccessSqlKey role1User2 = sqlHelpers(1, 200).toAccessSqlKey(SQL, "C_Order", true, Access.READ);
+
+		assertThat(role1User1).isNotEqualTo(role2User1);
+		assertThat(role1User1).isNotEqualTo(role1User2);
+
+		assertThat(UserRolePermissionsSqlHelpers.getOrBuildAccessSQL(role1User1, () -> "SQL of role 1, user 1")).isEqualTo("SQL of role 1, user 1");
+		assertThat(UserRolePermissionsSqlHelpers.getOrBuildAccessSQL(role2User1, () -> "SQL of role 2, user 1")).isEqualTo("SQL of role 2, user 1");
+		assertThat(UserRolePermissionsSqlHelpers.getOrBuildAccessSQL(role1User2, () -> "SQL of role 1, user 2")).isEqualTo("SQL of role 1, user 2");
+	}
+
+	@Test
+	public void accessSqlIsCachedForTheSameRoleAndUser()
+	{
+		final AccessSqlKey key = sqlHelpers(3, 300).toAccessSqlKey(SQL, "C_Order", true, Access.READ);
+		final AccessSqlKey sameKey = sqlHelpers(3, 300).toAccessSqlKey(SQL, "C_Order", true, Access.READ);
+		assertThat(key).isEqualTo(sameKey);
+
+		assertThat(UserRolePermissionsSqlHelpers.getOrBuildAccessSQL(key, () -> "final SQL")).isEqualTo("final SQL");
+		assertThat(UserRolePermissionsSqlHelpers.getOrBuildAccessSQL(sameKey, () -> fail("shall not build the SQL again"))).isEqualTo("final SQL");
+
+		// a different access shall not be served from the cache either
+		final AccessSqlKey writeKey = sqlHelpers(3, 300).toAccessSqlKey(SQL, "C_Order", true, Access.WRITE);
+		assertThat(UserRolePermissionsSqlHelpers.getOrBuildAccessSQL(writeKey, () -> "final write SQL")).isEqualTo("final write SQL");
+	}
+
+	private static UserRolePermissionsSqlHelpers sqlHelpers(final int roleRepoId, final int userRepoId)
+	{
+		final UserRolePermissions role = Mockito.mock(UserRolePermissions.class);
+		Mockito.doReturn(RoleId.ofRepoId(roleRepoId)).when(role).getRoleId();
+		Mockito.doReturn(UserId.ofRepoId(userRepoId)).when(role).getUserId();
+		Mockito.doReturn(ClientId.ofRepoId(1)).when(role).getClientId();
+
+		return new UserRolePermissionsSqlHelpers(role);
+	}
+}
@@ -0,0 +1,160 @@
+package org.adempiere.ad.expression.api.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.adempiere.ad.expression.api.IExpressionEvaluator.OnVariableNotFound;
+import org.adempiere.ad.expression.api.ILogicExpression;
+import org.adempiere.service.ISysConfigDAO;
+import org.adempiere.service.impl.PlainSysConfigDAO;
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.util.CtxName;
+import org.compiere.util.Evaluatee;
+import org.compiere.util.Evaluatees;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import de.metas.util.Services;
+
+/*
+ * #%L
+ * de.metas.adempiere.adempiere.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Evaluates the display/readonly/mandatory logic expressions of {@link LogicExpressionsDatabase} (i.e. the ones from AD_Field and AD_Column),
+ * and compares interpreting their tuples via {@link LogicExpressionEvaluator#evaluateLogicTuple(String, String, String)} with evaluating them via {@link CompiledLogicTuple}.
+ * <p>
+ * Not a unit test; run it via {@link #main(String[])}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LogicExpressionEvaluatorBenchmark
+{
+	private static final String[] SAMPLE_VALUES = { "Y", "N", "0", "10", "SO", "CO", "" };
+
+	private final List<ILogicExpression> expressions = new ArrayList<>();
+	private Evaluatee params;
+
+	private final List<LogicTuple> tuples = new ArrayList<>();
+	private final List<String[]> tupleValues = new ArrayList<>();
+
+	@Setup
+	public void setup()
+	{
+		AdempiereTestHelper.get().staticInit();
+		AdempiereTestHelper.get().init();
+		Services.registerService(ISysConfigDAO.class, new PlainSysConfigDAO());
+
+		final LogicExpressionCompiler compiler = LogicExpressionCompiler.instance;
+		compiler.setUseOperatorPrecedence(true);
+
+		final Map<String, String> values = new HashMap<>();
+		for (final String expressionStr : LogicExpressionsDatabase.VALID_EXPRESSIONS)
+		{
+			final ILogicExpression expression = compiler.compile(expressionStr);
+			expressions.add(expression);
+
+			for (final CtxName parameter : expression.getParameters())
+			{
+				values.computeIfAbsent(parameter.getName(), name -> SAMPLE_VALUES[values.size() % SAMPLE_VALUES.length]);
+			}
+			collectTuples(expression);
+		}
+		params = Evaluatees.ofMap(values);
+
+		for (final LogicTuple tuple : tuples)
+		{
+			final CompiledLogicTuple compiled = tuple.getCompiled();
+			final String value1 = compiled.isParameter1() ? values.get(((CtxName)tuple.getOperand1()).getName()) : compiled.getConstantValue1();
+			final String value2 = compiled.isParameter2() ? values.get(((CtxName)tuple.getOperand2()).getName()) : compiled.getConstantValue2();
+			tupleValues.add(new String[] { value1, value2 });
+		}
+	}
+
+	private void collectTuples(final ILogicExpression expression)
+	{
+		if (expression instanceof LogicTuple)
+		{
+			tuples.add((LogicTuple)expression);
+		}
+		else if (expression instanceof LogicExpression)
+		{
+			collectTuples(((LogicExpression)expression).getLeft());
+			collectTuples(((LogicExpression)expression).getRight());
+		}
+	}
+
+	@Benchmark
+	public void evaluateExpressions(final Blackhole blackhole)
+	{
+		for (final ILogicExpression expression : expressions)
+		{
+			blackhole.consume(LogicExpressionEvaluator.instance.evaluateToResult(params, expression, OnVariableNotFound.ReturnNoResult));
+		}
+	}
+
+	@Benchmark
+	public void interpretTuples(final Blackhole blackhole)
+	{
+		for (int i = 0, size = tuples.size(); i < size; i++)
+		{
+			final String[] values = tupleValues.get(i);
+			blackhole.consume(LogicExpressionEvaluator.evaluateLogicTuple(values[0], tuples.get(i).getOperator(), values[1]));
+		}
+	}
+
+	@Benchmark
+	public void compiledTuples(final Blackhole blackhole)
+	{
+		for (int i = 0, size = tuples.size(); i < size; i++)
+		{
+			final String[] values = tupleValues.get(i);
+			blackhole.consume(tuples.get(i).getCompiled().evaluate(values[0], values[1]));
+		}
+	}
+
+	public static void main(final String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+				.include(LogicExpressionEvaluatorBenchmark.class.getSimpleName())
+				.build())
+						.run();
+	}
+}
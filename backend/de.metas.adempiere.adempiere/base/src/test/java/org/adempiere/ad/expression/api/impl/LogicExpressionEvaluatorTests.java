@@ -52,6 +52,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import com.google.common.collect.ImmutableList;
+
 import de.metas.util.Services;
 
 /**
@@ -958,4 +960,39 @@ public class LogicExpressionEvaluatorTests
 			assertThat(LogicExpressionEvaluator.evaluateLogicTuple("-10.0001000000000000000000", "=", "-10.0001")).isTrue();
 		}
 	}
+
+	@Nested
+	public class compiledLogicTuple
+	{
+		private final ImmutableList<String> values = ImmutableList.of("", "0", "0.00", "10", "+10.0", "-10", "1-2", "Y", "N", "'Y'", "\"N\"", "  Y ", "''", "abc");
+
+		@Test
+		public void sameResultAsEvaluateLogicTuple()
+		{
+			for (final String operator : LogicTuple.OPERATORS)
+			{
+				for (final String value1 : values)
+				{
+					for (final String value2 : values)
+					{
+						assertSameResult(LogicTuple.parseFrom("@a@", operator, "@b@"), value1, value2);
+						assertSameResult(LogicTuple.parseFrom("@a@", operator, value2), value1, value2);
+						assertSameResult(LogicTuple.parseFrom(value1, operator, "@b@"), value1, value2);
+						assertSameResult(LogicTuple.parseFrom(value1, operator, value2), value1, value2);
+					}
+				}
+			}
+		}
+
+		private void assertSameResult(final LogicTuple tuple, final String value1, final String value2)
+		{
+			final CompiledLogicTuple compiled = tuple.getCompiled();
+			final String value1Eval = compiled.isParameter1() ? value1 : compiled.getConstantValue1();
+			final String value2Eval = compiled.isParameter2() ? value2 : compiled.getConstantValue2();
+
+			assertThat(compiled.evaluate(value1Eval, value2Eval))
+					.as("%s with a=%s, b=%s", tuple, value1, value2)
+					.isEqualTo(LogicExpressionEvaluator.evaluateLogicTuple(value1Eval, tuple.getOperator(), value2Eval));
+		}
+	}
 }
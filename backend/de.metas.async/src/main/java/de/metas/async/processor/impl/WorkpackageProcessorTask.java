@@ -84,6 +84,9 @@ import de.metas.monitoring.adapter.NoopPerformanceMonitoringService;
 import de.metas.monitoring.adapter.PerformanceMonitoringService;
 import de.metas.monitoring.adapter.PerformanceMonitoringService.TransactionMetadata;
 import de.metas.monitoring.adapter.PerformanceMonitoringService.Type;
+import de.metas.monitoring.metrics.MetricFamily;
+import de.metas.monitoring.metrics.MetricsRegistry;
+import de.metas.monitoring.metrics.Timer;
 import de.metas.notification.INotificationBL;
 import de.metas.notification.UserNotificationRequest;
 import de.metas.notification.UserNotificationRequest.TargetRecordAction;
@@ -102,6 +105,7 @@ class WorkpackageProcessorTask implements Runnable
 	private static final AdMessageKey MSG_PROCESSING_ERROR_NOTIFICATION_TITLE = AdMessageKey.of("de.metas.async.WorkpackageProcessorTask.ProcessingErrorNotificationTitle");
 	// services
 	private static final transient Logger logger = LogManager.getLogger(WorkpackageProcessorTask.class);
+	private static final MetricFamily<Timer> METRIC_ProcessWorkpackage = MetricsRegistry.get().timer("metasfresh_async_workpackage_seconds", "Duration of processing a work package, including marking it as processed", "processor");
 	private final transient IQueueDAO queueDAO = Services.get(IQueueDAO.class);
 	private final transient IWorkpackageParamDAO workpackageParamDAO = Services.get(IWorkpackageParamDAO.class);
 	private final transient IWorkpackageProcessorContextFactory contextFactory = Services.get(IWorkpackageProcessorContextFactory.class);
@@ -155,7 +159,7 @@ class WorkpackageProcessorTask implements Runnable
 				NoopPerformanceMonitoringService.INSTANCE);
 
 		service.monitorTransaction(
-				() -> run0(),
+				() -> METRIC_ProcessWorkpackage.labelsIfEnabled(trxNamePrefix).record(this::run0),
 				TransactionMetadata.builder()
 						.type(Type.ASYNC_WORKPACKAGE)
 						.name("Workpackage-Processor - " + queueProcessor.getName())
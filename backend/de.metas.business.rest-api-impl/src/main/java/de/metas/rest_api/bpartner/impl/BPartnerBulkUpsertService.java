@@ -0,0 +1,229 @@
+package de.metas.rest_api.bpartner.impl;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.ad.trx.api.ITrxManager;
+import org.compiere.util.Env;
+import org.slf4j.Logger;
+import org.slf4j.MDC;
+import org.slf4j.MDC.MDCCloseable;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Stopwatch;
+
+import de.metas.JsonObjectMapperHolder;
+import de.metas.logging.LogManager;
+import de.metas.rest_api.bpartner.impl.bpartnercomposite.JsonServiceFactory;
+import de.metas.rest_api.bpartner.impl.bpartnercomposite.jsonpersister.JsonPersisterService;
+import de.metas.rest_api.bpartner.request.JsonRequestBPartnerUpsertItem;
+import de.metas.rest_api.bpartner.response.JsonResponseBPartnerBulkUpsertItem;
+import de.metas.rest_api.bpartner.response.JsonResponseBPartnerCompositeUpsertItem;
+import de.metas.rest_api.common.SyncAdvise;
+import de.metas.rest_api.utils.JsonErrors;
+import de.metas.util.Services;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * de.metas.business.rest-api-impl
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Upserts bpartner composites from a newline delimited JSON stream (one {@link JsonRequestBPartnerUpsertItem} per line)
+ * and writes one {@link JsonResponseBPartnerBulkUpsertItem} line per request line to the output stream, as the items are processed.
+ * <p>
+ * The request lines are read in chunks. The bpartners of each chunk are looked up with one query before the chunk's items are persisted,
+ * and each item is persisted in its own transaction, so that a failing item does not roll back the others.
+ * Records that did not change are not updated, because saving an unchanged record is a no-op.
+ */
+@Service
+public class BPartnerBulkUpsertService
+{
+	private static final Logger logger = LogManager.getLogger(BPartnerBulkUpsertService.class);
+
+	/**
+	 * Keep in sync with the capacity of the persister's lookup key cache, which needs to hold all the lookup keys of a chunk.
+	 */
+	public static final int CHUNK_SIZE = 100;
+
+	private final ITrxManager trxManager = Services.get(ITrxManager.class);
+	private final JsonServiceFactory jsonServiceFactory;
+	private final JsonRequestConsolidateService jsonRequestConsolidateService;
+
+	public BPartnerBulkUpsertService(
+			@NonNull final JsonServiceFactory jsonServiceFactory,
+			@NonNull final JsonRequestConsolidateService jsonRequestConsolidateService)
+	{
+		this.jsonServiceFactory = jsonServiceFactory;
+		this.jsonRequestConsolidateService = jsonRequestConsolidateService;
+	}
+
+	public void upsert(
+			@Nullable final String orgCode,
+			@NonNull final SyncAdvise syncAdvise,
+			@NonNull final InputStream in,
+			@NonNull final OutputStream out) throws IOException
+	{
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
+		final ObjectMapper jsonObjectMapper = JsonObjectMapperHolder.sharedJsonObjectMapper();
+		final JsonPersisterService persister = jsonServiceFactory.createPersister();
+
+		final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+		final List<RequestLine> chunk = new ArrayList<>(CHUNK_SIZE);
+		int lineNo = 0;
+		int itemsCount = 0;
+		for (String line = reader.readLine(); line != null; line = reader.readLine())
+		{
+			lineNo++;
+			if (line.trim().isEmpty())
+			{
+				continue;
+			}
+
+			final JsonRequestBPartnerUpsertItem requestItem;
+			try
+			{
+				requestItem = jsonObjectMapper.readValue(line, JsonRequestBPartnerUpsertItem.class);
+			}
+			catch (final IOException ex)
+			{
+				writeResponseItem(jsonObjectMapper, writer, createErrorItem(lineNo, null, ex));
+				continue;
+			}
+
+			chunk.add(new RequestLine(lineNo, requestItem));
+			if (chunk.size() >= CHUNK_SIZE)
+			{
+				itemsCount += upsertChunk(orgCode, syncAdvise, chunk, persister, jsonObjectMapper, writer);
+				chunk.clear();
+			}
+		}
+
+		if (!chunk.isEmpty())
+		{
+			itemsCount += upsertChunk(orgCode, syncAdvise, chunk, persister, jsonObjectMapper, writer);
+		}
+		writer.flush();
+
+		logger.info("Upserted {} bpartner items from {} request lines in {}ms", itemsCount, lineNo, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+	}
+
+	private int upsertChunk(
+			@Nullable final String orgCode,
+			@NonNull final SyncAdvise syncAdvise,
+			@NonNull final List<RequestLine> chunk,
+			@NonNull final JsonPersisterService persister,
+			@NonNull final ObjectMapper jsonObjectMapper,
+			@NonNull final Writer writer) throws IOException
+	{
+		final List<JsonRequestBPartnerUpsertItem> requestItems = new ArrayList<>(chunk.size());
+		chunk.forEach(requestLine -> requestItems.add(requestLine.getRequestItem()));
+
+		try
+		{
+			persister.warmUpBPartnerComposites(orgCode, requestItems);
+		}
+		catch (final RuntimeException ex)
+		{
+			// e.g. an invalid identifier; the items will be looked up one by one and the faulty ones will fail on their own
+			logger.warn("Failed looking up the bpartners of lines {} to {} at once; looking them up one by one", chunk.get(0).getLineNo(), chunk.get(chunk.size() - 1).getLineNo(), ex);
+		}
+
+		for (final RequestLine requestLine : chunk)
+		{
+			writeResponseItem(jsonObjectMapper, writer, upsertLine(orgCode, syncAdvise, requestLine, persister));
+		}
+		writer.flush();
+
+		return chunk.size();
+	}
+
+	private JsonResponseBPartnerBulkUpsertItem upsertLine(
+			@Nullable final String orgCode,
+			@NonNull final SyncAdvise syncAdvise,
+			@NonNull final RequestLine requestLine,
+			@NonNull final JsonPersisterService persister)
+	{
+		final JsonRequestBPartnerUpsertItem requestItem = requestLine.getRequestItem();
+		try (final MDCCloseable ignored = MDC.putCloseable("bpartnerIdentifier", requestItem.getBpartnerIdentifier()))
+		{
+			jsonRequestConsolidateService.consolidateWithIdentifier(requestItem);
+
+			final JsonResponseBPartnerCompositeUpsertItem result = trxManager.callInNewTrx(() -> persister.persist(orgCode, requestItem, syncAdvise));
+
+			return JsonResponseBPartnerBulkUpsertItem.builder()
+					.lineNo(requestLine.getLineNo())
+					.bpartnerIdentifier(requestItem.getBpartnerIdentifier())
+					.result(result)
+					.build();
+		}
+		catch (final Exception ex)
+		{
+			logger.warn("Failed upserting bpartner of line {}", requestLine.getLineNo(), ex);
+			return createErrorItem(requestLine.getLineNo(), requestItem.getBpartnerIdentifier(), ex);
+		}
+	}
+
+	private static JsonResponseBPartnerBulkUpsertItem createErrorItem(
+			final int lineNo,
+			@Nullable final String bpartnerIdentifier,
+			@NonNull final Exception ex)
+	{
+		return JsonResponseBPartnerBulkUpsertItem.builder()
+				.lineNo(lineNo)
+				.bpartnerIdentifier(bpartnerIdentifier)
+				.error(JsonErrors.ofThrowable(ex, Env.getADLanguageOrBaseLanguage()))
+				.build();
+	}
+
+	private static void writeResponseItem(
+			@NonNull final ObjectMapper jsonObjectMapper,
+			@NonNull final Writer writer,
+			@NonNull final JsonResponseBPartnerBulkUpsertItem responseItem) throws IOException
+	{
+		writer.write(jsonObjectMapper.writeValueAsString(responseItem));
+		writer.write('\n');
+	}
+
+	@Value
+	private static class RequestLine
+	{
+		int lineNo;
+		JsonRequestBPartnerUpsertItem requestItem;
+	}
+}
@@ -42,6 +42,10 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.annotation.Nullable;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
 import static de.metas.rest_api.bpartner.SwaggerDocConstants.BPARTNER_IDENTIFIER_DOC;
@@ -79,6 +83,8 @@ import static de.metas.rest_api.bpartner.SwaggerDocConstants.SINCE_DOC;
 public class BpartnerRestController
 {
 	public static final String ENDPOINT = MetasfreshRestAPIConstants.ENDPOINT_API + "/bpartner";
+	private static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+
 	public static final String ORG_CODE_PARAMETER_DOC = "`AD_Org.Value` of the BPartner identified by the bpartnerIdentifier";
 
 	private final BPartnerEndpointService bpartnerEndpointService;
@@ -86,14 +92,18 @@ public class BpartnerRestController
 
 	private final JsonRequestConsolidateService jsonRequestConsolidateService;
 
+	private final BPartnerBulkUpsertService bpartnerBulkUpsertService;
+
 	public BpartnerRestController(
 			@NonNull final BPartnerEndpointService bpartnerEndpointService,
 			@NonNull final JsonServiceFactory jsonServiceFactory,
-			@NonNull final JsonRequestConsolidateService jsonRequestConsolidateService)
+			@NonNull final JsonRequestConsolidateService jsonRequestConsolidateService,
+			@NonNull final BPartnerBulkUpsertService bpartnerBulkUpsertService)
 	{
 		this.bpartnerEndpointService = bpartnerEndpointService;
 		this.jsonServiceFactory = jsonServiceFactory;
 		this.jsonRequestConsolidateService = jsonRequestConsolidateService;
+		this.bpartnerBulkUpsertService = bpartnerBulkUpsertService;
 	}
 
 	//
@@ -296,6 +306,43 @@ public class BpartnerRestController
 		return new ResponseEntity<>(response.build(), HttpStatus.CREATED);
 	}
 
+	@ApiOperation("Create or update many bpartners from a newline delimited JSON stream, with one `JsonRequestBPartnerUpsertItem` per line.\n"
+			+ "The response is streamed the same way, with one `JsonResponseBPartnerBulkUpsertItem` per request line, as the lines are processed.\n"
+			+ "A failing line does not affect the other lines.")
+	@ApiResponses(value = {
+			@ApiResponse(code = 200, message = "Processed the request lines; see the individual response lines for the outcome"),
+			@ApiResponse(code = 401, message = "You are not authorized to create or update the resource"),
+			@ApiResponse(code = 403, message = "Accessing the resource you were trying to reach is forbidden")
+	})
+	@PutMapping(path = "{orgCode}/bulk", consumes = MEDIA_TYPE_NDJSON, produces = MEDIA_TYPE_NDJSON)
+	public void createOrUpdateBPartnersBulk(
+
+			@ApiParam(required = true, value = ORG_CODE_PARAMETER_DOC)
+			@PathVariable("orgCode") //
+			@Nullable final String orgCode,
+
+			@ApiParam("Default for the request lines that have no sync-advise of their own") //
+			@RequestParam(name = "ifNotExists", required = false, defaultValue = "FAIL") //
+			@NonNull final IfNotExists ifNotExists,
+
+			@ApiParam("Default for the request lines that have no sync-advise of their own") //
+			@RequestParam(name = "ifExists", required = false, defaultValue = "DONT_UPDATE") //
+			@NonNull final IfExists ifExists,
+
+			@NonNull final HttpServletRequest request,
+			@NonNull final HttpServletResponse response) throws IOException
+	{
+		final SyncAdvise defaultSyncAdvise = SyncAdvise.builder()
+				.ifNotExists(ifNotExists)
+				.ifExists(ifExists)
+				.build();
+
+		response.setContentType(MEDIA_TYPE_NDJSON);
+		response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+		bpartnerBulkUpsertService.upsert(orgCode, defaultSyncAdvise, request.getInputStream(), response.getOutputStream());
+	}
+
 	@ApiOperation("The identified bpartner needs to be in the current user's organisation.")
 	@ApiResponses(value = {
 			@ApiResponse(code = 201, message = "Successfully created or updated bpartner(s)"),
@@ -56,7 +56,7 @@ final class BPartnerCompositeCacheByLookupKey
 				.additionalTableNameToResetFor(I_C_BPartner.Table_Name)
 				.additionalTableNameToResetFor(I_C_BPartner_Location.Table_Name)
 				.cacheMapType(CacheMapType.LRU)
-				.initialCapacity(100)
+				.initialCapacity(1000) // big enough to hold the lookup keys of a bulk upsert chunk; see JsonRetrieverService#warmUpBPartnerComposites
 				.invalidationKeysMapper(cacheIndex)
 				.removalListener(cacheIndex::remove)
 				.additionListener(cacheIndex::add)
@@ -72,6 +72,11 @@ final class BPartnerCompositeCacheByLookupKey
 		return cache.getAllOrLoad(keys, valuesLoader);
 	}
 
+	public void putAll(@NonNull final Map<OrgAndBPartnerCompositeLookupKey, BPartnerComposite> compositesByKey)
+	{
+		cache.putAll(compositesByKey);
+	}
+
 	/**
 	 * Get all the records, assuming that there is a cache entry for each single record. If not, throw an exception.
 	 */
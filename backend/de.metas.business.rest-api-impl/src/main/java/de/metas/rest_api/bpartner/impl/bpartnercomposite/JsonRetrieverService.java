@@ -3,6 +3,7 @@ package de.metas.rest_api.bpartner.impl.bpartnercomposite;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import de.metas.bpartner.BPGroup;
 import de.metas.bpartner.BPGroupId;
 import de.metas.bpartner.BPGroupRepository;
@@ -19,6 +20,7 @@ import de.metas.bpartner.composite.BPartnerLocationType;
 import de.metas.bpartner.composite.repository.BPartnerCompositeRepository;
 import de.metas.bpartner.composite.repository.NextPageQuery;
 import de.metas.bpartner.composite.repository.SinceQuery;
+import de.metas.bpartner.service.BPartnerBulkQuery;
 import de.metas.bpartner.service.BPartnerContactQuery;
 import de.metas.bpartner.service.BPartnerContactQuery.BPartnerContactQueryBuilder;
 import de.metas.bpartner.service.BPartnerQuery;
@@ -62,6 +64,8 @@ import org.slf4j.MDC.MDCCloseable;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -445,6 +449,45 @@ public class JsonRetrieverService
 		return extractResult(bpartnerComposites);
 	}
 
+	/**
+	 * Loads the composites of all the given identifiers with one query and puts them into this instance's cache,
+	 * so that the subsequent {@link #getBPartnerComposite(OrgId, IdentifierString)} calls for those identifiers are cache hits.
+	 * <p>
+	 * Lookup keys which are matching more than one composite are not cached. Looking them up will fail the same way it does without the warm-up.
+	 */
+	public void warmUpBPartnerComposites(
+			@NonNull final OrgId orgId,
+			@NonNull final Collection<IdentifierString> bpartnerIdentifiers)
+	{
+		if (bpartnerIdentifiers.isEmpty())
+		{
+			return;
+		}
+
+		final ImmutableSet<BPartnerCompositeLookupKey> queryLookupKeys = bpartnerIdentifiers.stream()
+				.map(BPartnerCompositeLookupKey::ofIdentifierString)
+				.collect(ImmutableSet.toImmutableSet());
+		final BPartnerBulkQuery query = bPartnerQueryService.createBulkQuery(queryLookupKeys, orgId);
+
+		final HashMap<OrgAndBPartnerCompositeLookupKey, BPartnerComposite> compositesByLookupKey = new HashMap<>();
+		final HashSet<OrgAndBPartnerCompositeLookupKey> ambiguousLookupKeys = new HashSet<>();
+		for (final BPartnerComposite bpartnerComposite : bpartnerCompositeRepository.getByBulkQuery(query))
+		{
+			for (final BPartnerCompositeLookupKey bpartnerLookupKey : extractBPartnerLookupKeys(bpartnerComposite).getCompositeLookupKeys())
+			{
+				final OrgAndBPartnerCompositeLookupKey singleLookupKey = OrgAndBPartnerCompositeLookupKey.of(bpartnerLookupKey, orgId);
+				final BPartnerComposite otherComposite = compositesByLookupKey.putIfAbsent(singleLookupKey, bpartnerComposite);
+				if (otherComposite != null && otherComposite != bpartnerComposite)
+				{
+					ambiguousLookupKeys.add(singleLookupKey);
+				}
+			}
+		}
+		ambiguousLookupKeys.forEach(compositesByLookupKey::remove);
+
+		cache.putAll(compositesByLookupKey);
+	}
+
 	/**
 	 * Visible to verify that caching actually works the way we expect it to (=> performance)
 	 */
@@ -68,6 +68,7 @@ import lombok.ToString;
 import org.slf4j.Logger;
 
 import javax.annotation.Nullable;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -135,6 +136,23 @@ public class JsonPersisterService
 		this.identifier = assumeNotEmpty(identifier, "Param Identifier may not be empty");
 	}
 
+	/**
+	 * Looks up the bpartners of all the given items at once, so that {@link #persist(String, JsonRequestBPartnerUpsertItem, SyncAdvise)} won't need to look them up one by one.
+	 *
+	 * @param orgCode same as for {@link #persist(String, JsonRequestBPartnerUpsertItem, SyncAdvise)}
+	 */
+	public void warmUpBPartnerComposites(
+			@Nullable final String orgCode,
+			@NonNull final Collection<JsonRequestBPartnerUpsertItem> requestItems)
+	{
+		final OrgId orgId = retrieveOrgIdOrDefault(orgCode);
+		final ImmutableList<IdentifierString> bpartnerIdentifiers = requestItems.stream()
+				.map(requestItem -> IdentifierString.of(requestItem.getBpartnerIdentifier()))
+				.collect(ImmutableList.toImmutableList());
+
+		jsonRetrieverService.warmUpBPartnerComposites(orgId, bpartnerIdentifiers);
+	}
+
 	/**
 	 * @param orgCode @{@code AD_Org.Value} of the bpartner in question. If {@code null}, the system will fall back to the current context-OrgId.
 	 */
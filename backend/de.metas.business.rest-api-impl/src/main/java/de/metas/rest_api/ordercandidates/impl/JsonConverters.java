@@ -7,7 +7,6 @@ import java.util.List;
 
 import javax.annotation.Nullable;
 
-import de.metas.organization.IOrgDAO;
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.warehouse.WarehouseId;
 import org.compiere.util.TimeUtil;
@@ -78,7 +77,6 @@ public class JsonConverters
 	private final DocTypeService docTypeService;
 	private final IUOMDAO uomDAO = Services.get(IUOMDAO.class);
 	private final IInputDataSourceDAO inputDataSourceDAO = Services.get(IInputDataSourceDAO.class);
-	private final IOrgDAO orgDAO = Services.get(IOrgDAO.class);
 
 	public JsonConverters(
 			@NonNull final CurrencyService currencyService,
@@ -276,7 +274,7 @@ public class JsonConverters
 	{
 		final OrgId orgId = OrgId.ofRepoId(olCand.getAD_Org_ID());
 		final ZoneId orgTimeZone = masterdataProvider.getOrgTimeZone(orgId);
-		final String orgCode = orgDAO.retrieveOrgValue(orgId);
+		final String orgCode = masterdataProvider.getOrgCode(orgId);
 
 		return JsonOLCand.builder()
 				.id(olCand.getId())
@@ -44,8 +44,10 @@ import de.metas.shipping.IShipperDAO;
 import de.metas.shipping.ShipperId;
 import de.metas.util.Check;
 import de.metas.util.Services;
+import de.metas.util.lang.RepoIdAware;
 import lombok.Builder;
 import lombok.NonNull;
+import lombok.Value;
 import org.adempiere.ad.trx.api.ITrxManager;
 import org.adempiere.warehouse.WarehouseId;
 import org.adempiere.warehouse.api.IWarehouseDAO;
@@ -84,6 +86,12 @@ import static org.adempiere.model.InterfaceWrapperHelper.saveRecord;
  * #L%
  */
 
+/**
+ * Resolves (and creates or updates, according to the requests' sync advises) the master data of one bulk request of order line candidates.
+ * <p>
+ * An instance is used for just one bulk request; it remembers what it already resolved,
+ * so the master data which is shared by many candidates (e.g. the lines of the same order) is resolved just once per bulk request.
+ */
 final class MasterdataProvider
 {
 	private static final Logger logger = LogManager.getLogger(MasterdataProvider.class);
@@ -101,6 +109,60 @@ final class MasterdataProvider
 	private final ProductPriceMasterDataProvider productPricesMasterDataProvider;
 
 	private final Map<String, OrgId> orgIdsByCode = new HashMap<>();
+	private final Map<JsonOrganization, OrgId> orgIdsByJson = new HashMap<>();
+	private final Map<OrgId, String> orgCodesById = new HashMap<>();
+	private final Map<OrgId, ZoneId> timeZonesByOrgId = new HashMap<>();
+	private final Map<BPartnerInfoCacheKey, BPartnerInfo> bpartnerInfosByKey = new HashMap<>();
+	private final Map<String, PricingSystemId> pricingSystemIdsByValue = new HashMap<>();
+	private final Map<String, WarehouseId> warehouseIdsByValue = new HashMap<>();
+	private final Map<DataSourceCacheKey, InputDataSourceId> dataSourceIdsByKey = new HashMap<>();
+	private final Map<PaymentTermCacheKey, Optional<PaymentTermId>> paymentTermIdsByKey = new HashMap<>();
+	private final Map<OrgId, JsonOrganization> jsonOrganizationsById = new HashMap<>();
+	private final Map<JsonResponseCacheKey, JsonResponseBPartner> jsonBPartnersByKey = new HashMap<>();
+	private final Map<JsonResponseCacheKey, JsonResponseLocation> jsonBPartnerLocationsByKey = new HashMap<>();
+	private final Map<JsonResponseCacheKey, JsonResponseContact> jsonBPartnerContactsByKey = new HashMap<>();
+
+	@Value
+	private static class BPartnerInfoCacheKey
+	{
+		@NonNull
+		JsonRequestBPartnerLocationAndContact jsonBPartnerInfo;
+
+		boolean billTo;
+
+		@Nullable
+		OrgId orgId;
+	}
+
+	@Value
+	private static class JsonResponseCacheKey
+	{
+		@Nullable
+		String orgCode;
+
+		@NonNull
+		RepoIdAware id;
+	}
+
+	@Value
+	private static class DataSourceCacheKey
+	{
+		@NonNull
+		String dataSourceIdentifier;
+
+		@NonNull
+		OrgId orgId;
+	}
+
+	@Value
+	private static class PaymentTermCacheKey
+	{
+		@NonNull
+		String paymentTermCode;
+
+		@NonNull
+		OrgId orgId;
+	}
 
 	@Builder
 	private MasterdataProvider(
@@ -125,12 +187,12 @@ final class MasterdataProvider
 			return null;
 		}
 
-		return priceListsRepo.getPricingSystemIdByValue(pricingSystemCode);
+		return pricingSystemIdsByValue.computeIfAbsent(pricingSystemCode, priceListsRepo::getPricingSystemIdByValue);
 	}
 
 	public WarehouseId getWarehouseIdByValue(@NonNull final String warehouseCode)
 	{
-		return warehousesRepo.getWarehouseIdByValue(warehouseCode);
+		return warehouseIdsByValue.computeIfAbsent(warehouseCode, warehousesRepo::getWarehouseIdByValue);
 	}
 
 	public OrgId getCreateOrgIdInTrx(@Nullable final JsonOrganization json)
@@ -140,7 +202,18 @@ final class MasterdataProvider
 			return permissionService.getDefaultOrgId();
 		}
 
-		return orgIdsByCode.compute(json.getCode(), (code, existingOrgId) -> createOrUpdateOrgIdInTrx(json, existingOrgId));
+		// this method is called many times for each candidate; create or update the org only once for each different JsonOrganization
+		final OrgId alreadySyncedOrgId = orgIdsByJson.get(json);
+		if (alreadySyncedOrgId != null)
+		{
+			return alreadySyncedOrgId;
+		}
+
+		final OrgId orgId = orgIdsByCode.compute(json.getCode(), (code, existingOrgId) -> createOrUpdateOrgIdInTrx(json, existingOrgId));
+
+		// NOTE: put it only after the sync, because the sync might change the json's bpartner (i.e. its customer flag) and therefore its hashCode
+		orgIdsByJson.put(json, orgId);
+		return orgId;
 	}
 
 	@VisibleForTesting
@@ -222,7 +295,12 @@ final class MasterdataProvider
 		orgRecord.setName(json.getName());
 	}
 
-	public JsonOrganization getJsonOrganizationById(final OrgId orgId)
+	public JsonOrganization getJsonOrganizationById(@NonNull final OrgId orgId)
+	{
+		return jsonOrganizationsById.computeIfAbsent(orgId, this::retrieveJsonOrganizationById);
+	}
+
+	private JsonOrganization retrieveJsonOrganizationById(@NonNull final OrgId orgId)
 	{
 		final I_AD_Org orgRecord = orgDAO.getById(orgId);
 		if (orgRecord == null)
@@ -236,9 +314,9 @@ final class MasterdataProvider
 				.build();
 	}
 
-	public ZoneId getOrgTimeZone(final OrgId orgId)
+	public ZoneId getOrgTimeZone(@NonNull final OrgId orgId)
 	{
-		return orgDAO.getTimeZone(orgId);
+		return timeZonesByOrgId.computeIfAbsent(orgId, orgDAO::getTimeZone);
 	}
 
 	public BPartnerInfo getCreateBPartnerInfoInTrx(
@@ -246,18 +324,44 @@ final class MasterdataProvider
 			final boolean billTo,
 			@Nullable final OrgId orgId)
 	{
-		final String orgCode = orgId != null ? orgDAO.retrieveOrgValue(orgId) : null;
-		return bpartnerEndpointAdapter.getCreateBPartnerInfoInTrx(jsonBPartnerInfo, billTo, orgCode);
+		if (jsonBPartnerInfo == null)
+		{
+			return null;
+		}
+
+		// the same bpartner is usually part of many candidates (e.g. the lines of one order); invoke the bpartner endpoint only once for it
+		final BPartnerInfoCacheKey key = new BPartnerInfoCacheKey(jsonBPartnerInfo, billTo, orgId);
+		final BPartnerInfo alreadySyncedBPartnerInfo = bpartnerInfosByKey.get(key);
+		if (alreadySyncedBPartnerInfo != null)
+		{
+			return alreadySyncedBPartnerInfo;
+		}
+
+		final String orgCode = orgId != null ? getOrgCode(orgId) : null;
+		final BPartnerInfo bpartnerInfo = bpartnerEndpointAdapter.getCreateBPartnerInfoInTrx(jsonBPartnerInfo, billTo, orgCode);
+
+		// NOTE: put it only after the sync, because the sync might change the json's bpartner (i.e. its customer flag) and therefore its hashCode
+		bpartnerInfosByKey.put(key, bpartnerInfo);
+		return bpartnerInfo;
+	}
+
+	public String getOrgCode(@NonNull final OrgId orgId)
+	{
+		return orgCodesById.computeIfAbsent(orgId, orgDAO::retrieveOrgValue);
 	}
 
 	public JsonResponseBPartner getJsonBPartnerById(@Nullable String orgCode, @NonNull final BPartnerId bpartnerId)
 	{
-		return bpartnerEndpointAdapter.getJsonBPartnerById(orgCode, bpartnerId);
+		return jsonBPartnersByKey.computeIfAbsent(
+				new JsonResponseCacheKey(orgCode, bpartnerId),
+				key -> bpartnerEndpointAdapter.getJsonBPartnerById(orgCode, bpartnerId));
 	}
 
 	public JsonResponseLocation getJsonBPartnerLocationById(@Nullable String orgCode, @NonNull final BPartnerLocationId bpartnerLocationId)
 	{
-		return bpartnerEndpointAdapter.getJsonBPartnerLocationById(orgCode, bpartnerLocationId);
+		return jsonBPartnerLocationsByKey.computeIfAbsent(
+				new JsonResponseCacheKey(orgCode, bpartnerLocationId),
+				key -> bpartnerEndpointAdapter.getJsonBPartnerLocationById(orgCode, bpartnerLocationId));
 	}
 
 	public JsonResponseContact getJsonBPartnerContactById(@Nullable String orgCode, @Nullable final BPartnerContactId bpartnerContactId)
@@ -266,7 +370,9 @@ final class MasterdataProvider
 		{
 			return null;
 		}
-		return bpartnerEndpointAdapter.getJsonBPartnerContactById(orgCode, bpartnerContactId);
+		return jsonBPartnerContactsByKey.computeIfAbsent(
+				new JsonResponseCacheKey(orgCode, bpartnerContactId),
+				key -> bpartnerEndpointAdapter.getJsonBPartnerContactById(orgCode, bpartnerContactId));
 	}
 
 	public ProductInfo getCreateProductInfo(
@@ -288,6 +394,13 @@ final class MasterdataProvider
 			return null;
 		}
 
+		return dataSourceIdsByKey.computeIfAbsent(
+				new DataSourceCacheKey(dataSourceIdentifier, orgId),
+				key -> retrieveDataSourceId(key.getDataSourceIdentifier(), key.getOrgId()));
+	}
+
+	private InputDataSourceId retrieveDataSourceId(@NonNull final String dataSourceIdentifier, @NonNull final OrgId orgId)
+	{
 		final IInputDataSourceDAO dataSourceDAO = Services.get(IInputDataSourceDAO.class);
 		final IdentifierString dataSource = IdentifierString.of(dataSourceIdentifier);
 
@@ -422,6 +535,18 @@ final class MasterdataProvider
 			return null;
 		}
 
+		final Optional<PaymentTermId> paymentTermId = paymentTermIdsByKey.computeIfAbsent(
+				new PaymentTermCacheKey(paymentTermCode, orgId),
+				key -> retrievePaymentTermId(key.getPaymentTermCode(), key.getOrgId()));
+
+		return paymentTermId.orElseThrow(() -> MissingResourceException.builder()
+				.resourceName("PaymentTerm")
+				.resourceIdentifier(paymentTermCode)
+				.parentResource(request).build());
+	}
+
+	private Optional<PaymentTermId> retrievePaymentTermId(@NonNull final String paymentTermCode, @NonNull final OrgId orgId)
+	{
 		final IdentifierString paymentTerm = IdentifierString.of(paymentTermCode);
 
 		final PaymentTermQueryBuilder queryBuilder = PaymentTermQuery.builder();
@@ -443,12 +568,6 @@ final class MasterdataProvider
 				throw new InvalidIdentifierException(paymentTerm);
 		}
 
-		final Optional<PaymentTermId> paymentTermId = paymentTermRepo.retrievePaymentTermId(queryBuilder.build());
-
-		return paymentTermId.orElseThrow(() -> MissingResourceException.builder()
-				.resourceName("PaymentTerm")
-				.resourceIdentifier(paymentTermCode)
-				.parentResource(request).build());
-
+		return paymentTermRepo.retrievePaymentTermId(queryBuilder.build());
 	}
 }
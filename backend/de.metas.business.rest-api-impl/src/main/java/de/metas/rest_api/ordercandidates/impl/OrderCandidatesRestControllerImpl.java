@@ -51,7 +51,6 @@ import de.metas.ordercandidate.api.OLCand;
 import de.metas.ordercandidate.api.OLCandCreateRequest;
 import de.metas.ordercandidate.api.OLCandQuery;
 import de.metas.ordercandidate.api.OLCandRepository;
-import de.metas.organization.IOrgDAO;
 import de.metas.organization.OrgId;
 import de.metas.pricing.PricingSystemId;
 import de.metas.rest_api.attachment.JsonAttachmentType;
@@ -102,7 +101,6 @@ public class OrderCandidatesRestControllerImpl implements OrderCandidatesRestEnd
 	public static final String DATA_SOURCE_INTERNAL_NAME = "SOURCE." + OrderCandidatesRestControllerImpl.class.getName();
 
 	private static final Logger logger = LogManager.getLogger(OrderCandidatesRestControllerImpl.class);
-	private final IOrgDAO orgDAO = Services.get(IOrgDAO.class);
 
 	private final JsonConverters jsonConverters;
 	private final OLCandRepository olCandRepo;
@@ -270,7 +268,7 @@ public class OrderCandidatesRestControllerImpl implements OrderCandidatesRestEnd
 			throw new AdempiereException("@NotFound@ @C_BPartner_Location_ID@");
 		}
 		final OrgId orgId = masterdataProvider.getCreateOrgIdInTrx(json.getOrg());
-		final ZoneId timeZone = orgDAO.getTimeZone(orgId);
+		final ZoneId timeZone = masterdataProvider.getOrgTimeZone(orgId);
 
 		final ZonedDateTime dateEffective = CoalesceUtil.coalesceSuppliers(
 				() -> TimeUtil.asZonedDateTime(json.getDateRequired(), timeZone),
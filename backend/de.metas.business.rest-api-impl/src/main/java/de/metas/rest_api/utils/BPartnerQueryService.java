@@ -9,6 +9,8 @@ import org.springframework.stereotype.Service;
 
 import de.metas.bpartner.BPartnerId;
 import de.metas.bpartner.GLN;
+import de.metas.bpartner.service.BPartnerBulkQuery;
+import de.metas.bpartner.service.BPartnerBulkQuery.BPartnerBulkQueryBuilder;
 import de.metas.bpartner.service.BPartnerQuery;
 import de.metas.bpartner.service.BPartnerQuery.BPartnerQueryBuilder;
 import de.metas.organization.OrgId;
@@ -51,6 +53,42 @@ public class BPartnerQueryService
 		return createBPartnerQuery(queryLookupKeys, onlyOrgId);
 	}
 
+	/** Creates one query for all the given lookup keys; a bpartner is matching if it matches any of them. */
+	public BPartnerBulkQuery createBulkQuery(@NonNull final Collection<BPartnerCompositeLookupKey> queryLookupKeys, @NonNull final OrgId onlyOrgId)
+	{
+		final BPartnerBulkQueryBuilder query = BPartnerBulkQuery.builder()
+				.onlyOrgId(onlyOrgId);
+
+		for (final BPartnerCompositeLookupKey bpartnerLookupKey : queryLookupKeys)
+		{
+			final JsonExternalId jsonExternalId = bpartnerLookupKey.getJsonExternalId();
+			if (jsonExternalId != null)
+			{
+				query.externalId(JsonConverters.fromJsonOrNull(jsonExternalId));
+			}
+
+			final String value = bpartnerLookupKey.getCode();
+			if (!isEmpty(value, true))
+			{
+				query.bpartnerValue(value);
+			}
+
+			final GLN gln = bpartnerLookupKey.getGln();
+			if (gln != null)
+			{
+				query.gln(gln);
+			}
+
+			final MetasfreshId metasfreshId = bpartnerLookupKey.getMetasfreshId();
+			if (metasfreshId != null)
+			{
+				query.bpartnerId(BPartnerId.ofRepoId(metasfreshId.getValue()));
+			}
+		}
+
+		return query.build();
+	}
+
 	/** Creates a query that advises the repo to fail if no matching bpartner is found. */
 	public BPartnerQuery createQueryFailIfNotExists(@NonNull final BPartnerCompositeLookupKey queryLookupKey)
 	{
@@ -167,7 +167,8 @@ class BpartnerRestControllerTest
 		bpartnerRestController = new BpartnerRestController(
 				new BPartnerEndpointService(jsonServiceFactory),
 				jsonServiceFactory,
-				new JsonRequestConsolidateService());
+				new JsonRequestConsolidateService(),
+				new BPartnerBulkUpsertService(jsonServiceFactory, new JsonRequestConsolidateService()));
 
 		final I_C_BP_Group bpGroupRecord = newInstance(I_C_BP_Group.class);
 		bpGroupRecord.setC_BP_Group_ID(C_BP_GROUP_ID);
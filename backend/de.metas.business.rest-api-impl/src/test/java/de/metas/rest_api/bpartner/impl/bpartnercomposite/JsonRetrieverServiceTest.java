@@ -13,6 +13,7 @@ import de.metas.rest_api.utils.BPartnerCompositeLookupKey;
 import de.metas.rest_api.utils.OrgAndBPartnerCompositeLookupKey;
 import de.metas.rest_api.utils.OrgAndBPartnerCompositeLookupKeyList;
 import de.metas.rest_api.utils.BPartnerQueryService;
+import de.metas.rest_api.utils.IdentifierString;
 import org.adempiere.ad.table.MockLogEntriesRepository;
 import org.adempiere.test.AdempiereTestHelper;
 import org.compiere.model.I_C_BP_Group;
@@ -138,4 +139,22 @@ class JsonRetrieverServiceTest
 		assertThat(result2).isEqualTo(result);
 	}
 
+	/**
+	 * verifies that the bulk warm-up caches the bpartner for all its lookup properties, so the single lookups don't hit the DB anymore
+	 */
+	@Test
+	void warmUpBPartnerComposites_retrieveBPartnerCompositeAssertCacheHit()
+	{
+		jsonRetrieverService.warmUpBPartnerComposites(orgId, ImmutableList.of(IdentifierString.of("val-" + C_BPARTNER_VALUE)));
+
+		final Optional<BPartnerComposite> result = jsonRetrieverService.getBPartnerCompositeAssertCacheHit(ImmutableList.of(
+				OrgAndBPartnerCompositeLookupKey.of(BPartnerCompositeLookupKey.ofCode(C_BPARTNER_VALUE), orgId)));
+		final Optional<BPartnerComposite> result2 = jsonRetrieverService.getBPartnerCompositeAssertCacheHit(ImmutableList.of(
+				OrgAndBPartnerCompositeLookupKey.of(BPartnerCompositeLookupKey.ofJsonExternalId(JsonExternalId.of(C_BPARTNER_EXTERNAL_ID)), orgId)));
+
+		assertThat(result).isNotEmpty();
+		assertThat(result.get().getBpartner().getValue()).isEqualTo(C_BPARTNER_VALUE);
+		assertThat(result2).isEqualTo(result);
+	}
+
 }
@@ -10,6 +10,7 @@ import de.metas.greeting.GreetingRepository;
 import de.metas.organization.IOrgDAO;
 import de.metas.organization.OrgId;
 import de.metas.organization.OrgInfo;
+import de.metas.rest_api.bpartner.impl.BPartnerBulkUpsertService;
 import de.metas.rest_api.bpartner.impl.BPartnerEndpointService;
 import de.metas.rest_api.bpartner.impl.BpartnerRestController;
 import de.metas.rest_api.bpartner.impl.JsonRequestConsolidateService;
@@ -138,7 +139,8 @@ public class MasterdataProviderTest
 		final BpartnerRestController bpartnerRestController = new BpartnerRestController(
 				new BPartnerEndpointService(jsonServiceFactory),
 				jsonServiceFactory,
-				new JsonRequestConsolidateService());
+				new JsonRequestConsolidateService(),
+				new BPartnerBulkUpsertService(jsonServiceFactory, new JsonRequestConsolidateService()));
 
 		final PermissionService permissionService = Mockito.mock(PermissionService.class);
 		masterdataProvider = MasterdataProvider.builder()
@@ -194,6 +196,20 @@ public class MasterdataProviderTest
 		assertThat(bpartnerRecord.getName()).isEqualTo("jsonBPartner.name");
 	}
 
+	@Test
+	void getCreateOrgId_syncOnlyOncePerJsonOrganization()
+	{
+		final OrgId orgId = masterdataProvider.getCreateOrgIdInTrx(jsonOrganization);
+
+		final I_AD_Org orgRecord = InterfaceWrapperHelper.load(orgId, I_AD_Org.class);
+		orgRecord.setName("changedInTheMeantime");
+		saveRecord(orgRecord);
+
+		assertThat(masterdataProvider.getCreateOrgIdInTrx(jsonOrganization)).isEqualTo(orgId);
+		assertThat(InterfaceWrapperHelper.load(orgId, I_AD_Org.class).getName()).isEqualTo("changedInTheMeantime");
+		assertThat(POJOLookupMap.get().getRecords(I_C_BPartner.class)).hasSize(1);
+	}
+
 	/** Create a C_BPartner, and then add a location and a contact to it via masterDataProvider.*/
 	@Test
 	void getCreateBPartnerInfo()
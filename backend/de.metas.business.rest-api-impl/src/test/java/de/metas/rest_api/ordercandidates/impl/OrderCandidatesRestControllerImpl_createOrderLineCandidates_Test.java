@@ -33,6 +33,7 @@ import de.metas.organization.StoreCreditCardNumberMode;
 import de.metas.pricing.PriceListId;
 import de.metas.pricing.PricingSystemId;
 import de.metas.quantity.Quantity;
+import de.metas.rest_api.bpartner.impl.BPartnerBulkUpsertService;
 import de.metas.rest_api.bpartner.impl.BPartnerEndpointService;
 import de.metas.rest_api.bpartner.impl.BpartnerRestController;
 import de.metas.rest_api.bpartner.impl.JsonRequestConsolidateService;
@@ -250,7 +251,8 @@ OrderCandidatesRestControllerImpl_createOrderLineCandidates_Test
 		final BpartnerRestController bpartnerRestController = new BpartnerRestController(
 				new BPartnerEndpointService(jsonServiceFactory),
 				jsonServiceFactory,
-				new JsonRequestConsolidateService());
+				new JsonRequestConsolidateService(),
+				new BPartnerBulkUpsertService(jsonServiceFactory, new JsonRequestConsolidateService()));
 
 		orderCandidatesRestControllerImpl = new OrderCandidatesRestControllerImpl(
 				jsonConverters,
@@ -0,0 +1,70 @@
+package de.metas.rest_api.bpartner.response;
+
+import javax.annotation.Nullable;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import de.metas.common.rest_api.JsonErrorItem;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Builder;
+import lombok.Value;
+
+/*
+ * #%L
+ * de.metas.business.rest-api
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+@Value
+@ApiModel(description = "One line of a bulk upsert's response; contains either the upsert result or the error of the request line with the same line number.")
+public class JsonResponseBPartnerBulkUpsertItem
+{
+	@ApiModelProperty(position = 10, value = "1-based number of the request line this item is about")
+	int lineNo;
+
+	@ApiModelProperty(position = 20)
+	@JsonInclude(Include.NON_NULL)
+	String bpartnerIdentifier;
+
+	@ApiModelProperty(position = 30)
+	@JsonInclude(Include.NON_NULL)
+	JsonResponseBPartnerCompositeUpsertItem result;
+
+	@ApiModelProperty(position = 40)
+	@JsonInclude(Include.NON_NULL)
+	JsonErrorItem error;
+
+	@Builder
+	@JsonCreator
+	private JsonResponseBPartnerBulkUpsertItem(
+			@JsonProperty("lineNo") final int lineNo,
+			@JsonProperty("bpartnerIdentifier") @Nullable final String bpartnerIdentifier,
+			@JsonProperty("result") @Nullable final JsonResponseBPartnerCompositeUpsertItem result,
+			@JsonProperty("error") @Nullable final JsonErrorItem error)
+	{
+		this.lineNo = lineNo;
+		this.bpartnerIdentifier = bpartnerIdentifier;
+		this.result = result;
+		this.error = error;
+	}
+}
@@ -26,6 +26,7 @@ import de.metas.bpartner.BPartnerId;
 import de.metas.bpartner.composite.BPartnerComposite;
 import de.metas.bpartner.composite.BPartnerCompositeAndContactId;
 import de.metas.bpartner.service.BPartnerContactQuery;
+import de.metas.bpartner.service.BPartnerBulkQuery;
 import de.metas.bpartner.service.BPartnerQuery;
 import de.metas.bpartner.service.IBPartnerDAO;
 import de.metas.dao.selection.pagination.QueryResultPage;
@@ -227,6 +228,15 @@ public class BPartnerCompositeRepository
 		return Optional.ofNullable(CollectionUtils.singleElementOrNull(byQuery));
 	}
 
+	/**
+	 * @return all composites which are matching any of the given query's criteria
+	 */
+	public ImmutableList<BPartnerComposite> getByBulkQuery(@NonNull final BPartnerBulkQuery query)
+	{
+		final ImmutableSet<BPartnerId> bpartnerIds = bpartnersRepo.retrieveBPartnerIdsBy(query);
+		return getByIds(bpartnerIds);
+	}
+
 	private ImmutableSet<BPartnerId> getIdsByQuery(@NonNull final BPartnerQuery query)
 	{
 		return bpartnersRepo.retrieveBPartnerIdsBy(query);
@@ -3,6 +3,7 @@ package de.metas.costing;
 import de.metas.order.OrderLineId;
 import de.metas.uom.UomId;
 
+import java.util.List;
 import java.util.Optional;
 
 /*
@@ -31,6 +32,14 @@ public interface ICostingService
 {
 	AggregatedCostAmount createCostDetail(CostDetailCreateRequest request);
 
+	/**
+	 * Same as {@link #createCostDetail(CostDetailCreateRequest)}, but for a bunch of requests.
+	 * The requests are processed grouped by their {@link CostSegment}, keeping their order within each segment, and each segment's current costs are loaded only once.
+	 *
+	 * @return the aggregated cost amounts, in the same order as the requests
+	 */
+	List<AggregatedCostAmount> createCostDetails(List<CostDetailCreateRequest> requests);
+
 	AggregatedCostAmount createReversalCostDetails(CostDetailReverseRequest request);
 
 	MoveCostsResult moveCosts(MoveCostsRequest request);
@@ -5,6 +5,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
 
+import org.adempiere.util.lang.IAutoCloseable;
 import org.compiere.model.I_M_Cost;
 import org.compiere.model.I_M_Product;
 
@@ -41,6 +42,14 @@ public interface ICurrentCostsRepository
 
 	CurrentCost getOrCreate(CostSegmentAndElement costSegmentAndElement);
 
+	/**
+	 * Loads the current costs of the given segment and cost elements with one query and keeps them in memory for the current thread, until the returned closeable is closed.
+	 * <p>
+	 * Meanwhile, {@link #getOrNull(CostSegmentAndElement)} and {@link #getOrCreate(CostSegmentAndElement)} are served from memory.
+	 * Saved current costs are still written to the database right away, so the other methods are not affected.
+	 */
+	IAutoCloseable temporaryKeepInMemory(CostSegment costSegment, Set<CostElementId> costElementIds);
+
 	CurrentCost create(CostSegmentAndElement costSegmentAndElement);
 
 	void createIfMissing(CostSegmentAndElement costSegmentAndElement);
@@ -1,9 +1,11 @@
 package de.metas.costing.impl;
 
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.ListMultimap;
 import de.metas.acct.api.AcctSchema;
 import de.metas.acct.api.AcctSchemaId;
 import de.metas.acct.api.IAcctSchemaDAO;
@@ -45,12 +47,15 @@ import de.metas.util.Check;
 import de.metas.util.GuavaCollectors;
 import de.metas.util.Services;
 import lombok.NonNull;
+import lombok.Value;
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.service.ClientId;
+import org.adempiere.util.lang.IAutoCloseable;
 import org.slf4j.Logger;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -145,6 +150,64 @@ public class CostingService implements ICostingService
 		return toAggregatedCostAmount(costElementResults);
 	}
 
+	@Override
+	public ImmutableList<AggregatedCostAmount> createCostDetails(@NonNull final List<CostDetailCreateRequest> requests)
+	{
+		//
+		// Explode the requests and group them by cost segment.
+		// Within a segment, the requests are kept in the given order, because each of them might change the segment's current costs.
+		final LinkedHashMap<CostSegment, List<IndexedCostDetailCreateRequest>> requestsByCostSegment = new LinkedHashMap<>();
+		for (int requestIndex = 0; requestIndex < requests.size(); requestIndex++)
+		{
+			final int index = requestIndex;
+			Stream.of(requests.get(requestIndex))
+					.flatMap(this::explodeAcctSchemas)
+					.map(this::convertToAcctSchemaCurrency)
+					.flatMap(this::explodeCostElements)
+					.forEach(request -> requestsByCostSegment
+							.computeIfAbsent(costDetailsService.extractCostSegmentAndElement(request).toCostSegment(), costSegment -> new ArrayList<>())
+							.add(new IndexedCostDetailCreateRequest(index, request)));
+		}
+
+		//
+		// Create the cost details segment by segment, with the segment's current costs kept in memory.
+		// NOTE: the segments are not processed in parallel, because the costing method handlers are working in the current thread's transaction.
+		final ListMultimap<Integer, CostDetailCreateResult> costElementResultsByRequestIndex = ArrayListMultimap.create();
+		requestsByCostSegment.forEach((costSegment, segmentRequests) -> {
+			final ImmutableSet<CostElementId> costElementIds = segmentRequests.stream()
+					.map(segmentRequest -> segmentRequest.getRequest().getCostElementId())
+					.collect(ImmutableSet.toImmutableSet());
+			try (final IAutoCloseable ignored = currentCostsRepo.temporaryKeepInMemory(costSegment, costElementIds))
+			{
+				for (final IndexedCostDetailCreateRequest segmentRequest : segmentRequests)
+				{
+					createCostDetailUsingHandlersAndStream(segmentRequest.getRequest())
+							.forEach(costElementResult -> costElementResultsByRequestIndex.put(segmentRequest.getRequestIndex(), costElementResult));
+				}
+			}
+		});
+
+		final ImmutableList.Builder<AggregatedCostAmount> result = ImmutableList.builder();
+		for (int requestIndex = 0; requestIndex < requests.size(); requestIndex++)
+		{
+			final List<CostDetailCreateResult> costElementResults = costElementResultsByRequestIndex.get(requestIndex);
+			if (costElementResults.isEmpty())
+			{
+				throw new AdempiereException("No costs created for " + requests.get(requestIndex));
+			}
+
+			result.add(toAggregatedCostAmount(costElementResults));
+		}
+		return result.build();
+	}
+
+	@Value
+	private static class IndexedCostDetailCreateRequest
+	{
+		int requestIndex;
+		CostDetailCreateRequest request;
+	}
+
 	private static AggregatedCostAmount toAggregatedCostAmount(final List<CostDetailCreateResult> costElementResults)
 	{
 		Check.assumeNotEmpty(costElementResults, "costElementResults is not empty");
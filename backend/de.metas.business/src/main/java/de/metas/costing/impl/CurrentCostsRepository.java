@@ -34,6 +34,7 @@ import org.adempiere.ad.dao.IQueryBuilder;
 import org.adempiere.mm.attributes.AttributeSetInstanceId;
 import org.adempiere.model.InterfaceWrapperHelper;
 import org.adempiere.service.ClientId;
+import org.adempiere.util.lang.IAutoCloseable;
 import org.compiere.model.I_AD_Org;
 import org.compiere.model.I_C_UOM;
 import org.compiere.model.I_M_Cost;
@@ -44,6 +45,7 @@ import org.slf4j.Logger;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.Nullable;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
@@ -86,6 +88,12 @@ public class CurrentCostsRepository implements ICurrentCostsRepository
 	private final IProductCostingBL productCostingBL = Services.get(IProductCostingBL.class);
 	private final ICostElementRepository costElementRepo;
 
+	/**
+	 * Current costs which are kept in memory by {@link #temporaryKeepInMemory(CostSegment, Set)}.
+	 * The map holds copies, so that changes which were not saved are not seen by the next caller.
+	 */
+	private final ThreadLocal<HashMap<CostSegmentAndElement, CurrentCost>> inMemoryCurrentCostsRef = new ThreadLocal<>();
+
 	public CurrentCostsRepository(
 			@NonNull final ICostElementRepository costElementRepo)
 	{
@@ -113,13 +121,76 @@ public class CurrentCostsRepository implements ICurrentCostsRepository
 	@Override
 	public CurrentCost getOrNull(@NonNull final CostSegmentAndElement costSegmentAndElement)
 	{
+		final HashMap<CostSegmentAndElement, CurrentCost> inMemoryCurrentCosts = inMemoryCurrentCostsRef.get();
+		if (inMemoryCurrentCosts != null)
+		{
+			final CurrentCost inMemoryCurrentCost = inMemoryCurrentCosts.get(costSegmentAndElement);
+			if (inMemoryCurrentCost != null)
+			{
+				return inMemoryCurrentCost.copy();
+			}
+		}
+
 		final I_M_Cost costRecord = getCostRecordOrNull(costSegmentAndElement);
 		if (costRecord == null)
 		{
 			return null;
 		}
 
-		return toCurrentCost(costRecord);
+		final CurrentCost currentCost = toCurrentCost(costRecord);
+		if (inMemoryCurrentCosts != null)
+		{
+			inMemoryCurrentCosts.put(costSegmentAndElement, currentCost.copy());
+		}
+		return currentCost;
+	}
+
+	@Override
+	public IAutoCloseable temporaryKeepInMemory(
+			@NonNull final CostSegment costSegment,
+			@NonNull final Set<CostElementId> costElementIds)
+	{
+		final HashMap<CostSegmentAndElement, CurrentCost> existingInMemoryCurrentCosts = inMemoryCurrentCostsRef.get();
+		final HashMap<CostSegmentAndElement, CurrentCost> inMemoryCurrentCosts = existingInMemoryCurrentCosts != null
+				? existingInMemoryCurrentCosts
+				: new HashMap<>();
+		if (!costElementIds.isEmpty())
+		{
+			for (final CurrentCost currentCost : getByCostSegmentAndCostElements(costSegment, costElementIds))
+			{
+				// NOTE: an entry that is already kept in memory might have been saved in the meantime, so it's not replaced
+				inMemoryCurrentCosts.putIfAbsent(costSegment.withCostElementId(currentCost.getCostElementId()), currentCost);
+			}
+		}
+
+		if (existingInMemoryCurrentCosts != null)
+		{
+			// nested call; the outer one will clean up
+			return () -> {};
+		}
+
+		inMemoryCurrentCostsRef.set(inMemoryCurrentCosts);
+		return inMemoryCurrentCostsRef::remove;
+	}
+
+	private void putInMemoryIfKept(@NonNull final CurrentCost currentCost)
+	{
+		final HashMap<CostSegmentAndElement, CurrentCost> inMemoryCurrentCosts = inMemoryCurrentCostsRef.get();
+		if (inMemoryCurrentCosts != null)
+		{
+			// drop the record's previous version, even if it was kept with a differently built key
+			inMemoryCurrentCosts.values().removeIf(inMemoryCurrentCost -> currentCost.getId().equals(inMemoryCurrentCost.getId()));
+			inMemoryCurrentCosts.put(currentCost.getCostSegment().withCostElementId(currentCost.getCostElementId()), currentCost.copy());
+		}
+	}
+
+	private void removeFromMemoryIfKept(@NonNull final CostSegmentAndElement costSegmentAndElement)
+	{
+		final HashMap<CostSegmentAndElement, CurrentCost> inMemoryCurrentCosts = inMemoryCurrentCostsRef.get();
+		if (inMemoryCurrentCosts != null)
+		{
+			inMemoryCurrentCosts.remove(costSegmentAndElement);
+		}
 	}
 
 	@Nullable
@@ -264,6 +335,7 @@ public class CurrentCostsRepository implements ICurrentCostsRepository
 		InterfaceWrapperHelper.save(costRecord);
 
 		currentCost.setId(CurrentCostId.ofRepoId(costRecord.getM_Cost_ID()));
+		putInMemoryIfKept(currentCost);
 	}
 
 	private CurrentCost toCurrentCost(final I_M_Cost record)
@@ -344,6 +416,7 @@ public class CurrentCostsRepository implements ICurrentCostsRepository
 			{
 				InterfaceWrapperHelper.delete(costRecord);
 			}
+			removeFromMemoryIfKept(costSegmentAndElement);
 		});
 	}
 
@@ -421,6 +494,7 @@ public class CurrentCostsRepository implements ICurrentCostsRepository
 
 		updater.accept(costRecord);
 		saveRecord(costRecord);
+		removeFromMemoryIfKept(costSegmentAndElement);
 	}
 
 }
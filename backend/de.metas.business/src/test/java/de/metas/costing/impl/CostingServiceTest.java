@@ -0,0 +1,303 @@
+package de.metas.costing.impl;
+
+import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
+import static org.adempiere.model.InterfaceWrapperHelper.newInstanceOutOfTrx;
+import static org.adempiere.model.InterfaceWrapperHelper.saveRecord;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Properties;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.mm.attributes.AttributeSetInstanceId;
+import org.adempiere.model.InterfaceWrapperHelper;
+import org.adempiere.service.ClientId;
+import org.adempiere.test.AdempiereTestHelper;
+import org.adempiere.test.AdempiereTestWatcher;
+import org.compiere.model.I_C_AcctSchema;
+import org.compiere.model.I_C_AcctSchema_Default;
+import org.compiere.model.I_C_AcctSchema_GL;
+import org.compiere.model.I_C_UOM;
+import org.compiere.model.I_M_CostElement;
+import org.compiere.model.I_M_Product;
+import org.compiere.model.I_M_Product_Category_Acct;
+import org.compiere.util.Env;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.acct.api.AcctSchemaId;
+import de.metas.acct.api.TaxCorrectionType;
+import de.metas.business.BusinessTestHelper;
+import de.metas.costing.AggregatedCostAmount;
+import de.metas.costing.CostAmount;
+import de.metas.costing.CostDetailCreateRequest;
+import de.metas.costing.CostElement;
+import de.metas.costing.CostElementId;
+import de.metas.costing.CostElementType;
+import de.metas.costing.CostSegment;
+import de.metas.costing.CostTypeId;
+import de.metas.costing.CostingDocumentRef;
+import de.metas.costing.CostingLevel;
+import de.metas.costing.CostingMethod;
+import de.metas.costing.CurrentCost;
+import de.metas.costing.methods.AveragePOCostingMethodHandler;
+import de.metas.costing.methods.CostingMethodHandlerUtils;
+import de.metas.currency.CurrencyCode;
+import de.metas.currency.CurrencyRepository;
+import de.metas.currency.impl.PlainCurrencyDAO;
+import de.metas.money.CurrencyId;
+import de.metas.order.model.I_M_Product_Category;
+import de.metas.organization.OrgId;
+import de.metas.product.ProductId;
+import de.metas.product.ProductType;
+import de.metas.quantity.Quantity;
+
+/*
+ * #%L
+ * de.metas.business
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+@ExtendWith(AdempiereTestWatcher.class)
+public class CostingServiceTest
+{
+	private CostElementRepository costElementRepo;
+	private CurrentCostsRepository currentCostsRepo;
+	private CostingService costingService;
+
+	private OrgId orgId;
+	private CurrencyId euroCurrencyId;
+	private I_C_UOM eachUOM;
+
+	private static final CostTypeId costTypeId = CostTypeId.ofRepoId(1);
+	private CostElement costElement;
+
+	@BeforeEach
+	public void beforeEach()
+	{
+		AdempiereTestHelper.get().init();
+
+		orgId = BusinessTestHelper.createOrgWithTimeZone();
+
+		final Properties ctx = Env.getCtx();
+		Env.setClientId(ctx, ClientId.METASFRESH);
+
+		costElementRepo = new CostElementRepository();
+		currentCostsRepo = new CurrentCostsRepository(costElementRepo);
+		final CostDetailService costDetailsService = new CostDetailService(new CostDetailRepository(), costElementRepo);
+		final CostingMethodHandlerUtils handlerUtils = new CostingMethodHandlerUtils(
+				new CurrencyRepository(),
+				currentCostsRepo,
+				costDetailsService);
+
+		costingService = new CostingService(
+				handlerUtils,
+				costDetailsService,
+				costElementRepo,
+				currentCostsRepo,
+				ImmutableList.of(new AveragePOCostingMethodHandler(handlerUtils)));
+
+		euroCurrencyId = PlainCurrencyDAO.createCurrency(CurrencyCode.EUR).getId();
+		eachUOM = BusinessTestHelper.createUomEach();
+
+		costElement = createAveragePOCostElement();
+	}
+
+	private CostElement createAveragePOCostElement()
+	{
+		final I_M_CostElement record = InterfaceWrapperHelper.newInstanceOutOfTrx(I_M_CostElement.class);
+		record.setAD_Org_ID(OrgId.ANY.getRepoId());
+		record.setName(CostingMethod.AveragePO.name());
+		record.setCostElementType(CostElementType.Material.getCode());
+		record.setCostingMethod(CostingMethod.AveragePO.getCode());
+		record.setIsCalculated(false);
+		InterfaceWrapperHelper.saveRecord(record);
+
+		final CostElementId costElementId = CostElementId.ofRepoId(record.getM_CostElement_ID());
+		return costElementRepo.getById(costElementId);
+	}
+
+	private AcctSchemaId createAcctSchema(final OrgId onlyOrgId)
+	{
+		final I_C_AcctSchema acctSchemaRecord = newInstance(I_C_AcctSchema.class);
+		acctSchemaRecord.setName("Test AcctSchema");
+		acctSchemaRecord.setC_Currency_ID(euroCurrencyId.getRepoId());
+		acctSchemaRecord.setM_CostType_ID(costTypeId.getRepoId());
+		acctSchemaRecord.setCostingLevel(CostingLevel.Client.getCode());
+		acctSchemaRecord.setCostingMethod(CostingMethod.AveragePO.getCode());
+		acctSchemaRecord.setSeparator("-");
+		acctSchemaRecord.setTaxCorrectionType(TaxCorrectionType.NONE.getCode());
+		acctSchemaRecord.setAD_OrgOnly_ID(onlyOrgId.getRepoId());
+		saveRecord(acctSchemaRecord);
+
+		final I_C_AcctSchema_GL acctSchemaGL = newInstance(I_C_AcctSchema_GL.class);
+		acctSchemaGL.setC_AcctSchema_ID(acctSchemaRecord.getC_AcctSchema_ID());
+		acctSchemaGL.setIntercompanyDueFrom_Acct(1);
+		acctSchemaGL.setIntercompanyDueTo_Acct(1);
+		acctSchemaGL.setIncomeSummary_Acct(1);
+		acctSchemaGL.setRetainedEarning_Acct(1);
+		acctSchemaGL.setPPVOffset_Acct(1);
+		saveRecord(acctSchemaGL);
+
+		final I_C_AcctSchema_Default acctSchemaDefault = newInstance(I_C_AcctSchema_Default.class);
+		acctSchemaDefault.setC_AcctSchema_ID(acctSchemaRecord.getC_AcctSchema_ID());
+		acctSchemaDefault.setRealizedGain_Acct(1);
+		acctSchemaDefault.setRealizedLoss_Acct(1);
+		acctSchemaDefault.setUnrealizedGain_Acct(1);
+		acctSchemaDefault.setUnrealizedLoss_Acct(1);
+		saveRecord(acctSchemaDefault);
+
+		return AcctSchemaId.ofRepoId(acctSchemaRecord.getC_AcctSchema_ID());
+	}
+
+	private ProductId createProduct(final String name, final AcctSchemaId acctSchemaId)
+	{
+		final I_M_Product_Category productCategory = newInstanceOutOfTrx(I_M_Product_Category.class);
+		saveRecord(productCategory);
+
+		final I_M_Product_Category_Acct productCategoryAcct = newInstanceOutOfTrx(I_M_Product_Category_Acct.class);
+		productCategoryAcct.setM_Product_Category_ID(productCategory.getM_Product_Category_ID());
+		productCategoryAcct.setC_AcctSchema_ID(acctSchemaId.getRepoId());
+		saveRecord(productCategoryAcct);
+
+		final I_M_Product product = newInstanceOutOfTrx(I_M_Product.class);
+		product.setValue(name);
+		product.setName(name);
+		product.setC_UOM_ID(eachUOM.getC_UOM_ID());
+		product.setProductType(ProductType.Item.getCode());
+		product.setIsStocked(true);
+		product.setM_Product_Category_ID(productCategory.getM_Product_Category_ID());
+		saveRecord(product);
+
+		return ProductId.ofRepoId(product.getM_Product_ID());
+	}
+
+	private CostDetailCreateRequest receipt(
+			final AcctSchemaId acctSchemaId,
+			final ProductId productId,
+			final int matchPOId,
+			final int qty,
+			final int amt)
+	{
+		return CostDetailCreateRequest.builder()
+				.acctSchemaId(acctSchemaId)
+				.clientId(ClientId.METASFRESH)
+				.orgId(orgId)
+				.productId(productId)
+				.attributeSetInstanceId(AttributeSetInstanceId.NONE)
+				.costElement(costElement)
+				.documentRef(CostingDocumentRef.ofMatchPOId(matchPOId))
+				.qty(Quantity.of(qty, eachUOM))
+				.amt(CostAmount.of(amt, euroCurrencyId))
+				.date(LocalDate.parse("2020-08-13"))
+				.build();
+	}
+
+	private CostDetailCreateRequest shipment(
+			final AcctSchemaId acctSchemaId,
+			final ProductId productId,
+			final int shipmentLineId,
+			final int qty)
+	{
+		return CostDetailCreateRequest.builder()
+				.acctSchemaId(acctSchemaId)
+				.clientId(ClientId.METASFRESH)
+				.orgId(orgId)
+				.productId(productId)
+				.attributeSetInstanceId(AttributeSetInstanceId.NONE)
+				.costElement(costElement)
+				.documentRef(CostingDocumentRef.ofShipmentLineId(shipmentLineId))
+				.qty(Quantity.of(qty, eachUOM))
+				.amt(CostAmount.of(0, euroCurrencyId)) // to be calculated
+				.date(LocalDate.parse("2020-08-13"))
+				.build();
+	}
+
+	private CurrentCost getCurrentCost(final AcctSchemaId acctSchemaId, final ProductId productId)
+	{
+		final CostSegment costSegment = CostSegment.builder()
+				.costingLevel(CostingLevel.Client)
+				.acctSchemaId(acctSchemaId)
+				.costTypeId(costTypeId)
+				.clientId(ClientId.METASFRESH)
+				.orgId(OrgId.ANY)
+				.productId(productId)
+				.attributeSetInstanceId(AttributeSetInstanceId.NONE)
+				.build();
+
+		final ImmutableList<CurrentCost> currentCosts = currentCostsRepo.getByCostSegmentAndCostingMethod(costSegment, CostingMethod.AveragePO);
+		assertThat(currentCosts).hasSize(1);
+		return currentCosts.get(0);
+	}
+
+	@Test
+	public void createCostDetails_resultsAreInRequestsOrder()
+	{
+		final AcctSchemaId acctSchemaId = createAcctSchema(OrgId.ANY);
+		final ProductId productId1 = createProduct("product1", acctSchemaId);
+		final ProductId productId2 = createProduct("product2", acctSchemaId);
+
+		// the two products' requests are interleaved, so they are regrouped by cost segment
+		final List<AggregatedCostAmount> results = costingService.createCostDetails(ImmutableList.of(
+				receipt(acctSchemaId, productId1, 1, 10, 100),
+				receipt(acctSchemaId, productId2, 2, 10, 200),
+				shipment(acctSchemaId, productId1, 1, -5),
+				shipment(acctSchemaId, productId2, 2, -5)));
+
+		assertThat(results).hasSize(4);
+		assertThat(results.get(0).getCostSegment().getProductId()).isEqualTo(productId1);
+		assertThat(results.get(0).getCostAmountForCostElement(costElement).getValue()).isEqualTo("100");
+		assertThat(results.get(1).getCostSegment().getProductId()).isEqualTo(productId2);
+		assertThat(results.get(1).getCostAmountForCostElement(costElement).getValue()).isEqualTo("200");
+
+		// the shipments are costed at the price of the preceding receipts of their own segment
+		assertThat(results.get(2).getCostSegment().getProductId()).isEqualTo(productId1);
+		assertThat(results.get(2).getCostAmountForCostElement(costElement).getValue()).isEqualTo("-50");
+		assertThat(results.get(3).getCostSegment().getProductId()).isEqualTo(productId2);
+		assertThat(results.get(3).getCostAmountForCostElement(costElement).getValue()).isEqualTo("-100");
+
+		final CurrentCost currentCost1 = getCurrentCost(acctSchemaId, productId1);
+		assertThat(currentCost1.getCurrentQty().toBigDecimal()).isEqualTo("5");
+		assertThat(currentCost1.getCostPrice().toBigDecimal()).isEqualTo("10");
+
+		final CurrentCost currentCost2 = getCurrentCost(acctSchemaId, productId2);
+		assertThat(currentCost2.getCurrentQty().toBigDecimal()).isEqualTo("5");
+		assertThat(currentCost2.getCostPrice().toBigDecimal()).isEqualTo("20");
+	}
+
+	@Test
+	public void createCostDetails_failsIfNoCostsWereCreatedForARequest()
+	{
+		final AcctSchemaId acctSchemaId = createAcctSchema(OrgId.ANY);
+		final AcctSchemaId otherOrgAcctSchemaId = createAcctSchema(BusinessTestHelper.createOrgWithTimeZone());
+		final ProductId productId = createProduct("product", acctSchemaId);
+
+		// the second request's accounting schema does not allow posting for our org, so nothing is created for it
+		assertThatThrownBy(() -> costingService.createCostDetails(ImmutableList.of(
+				receipt(acctSchemaId, productId, 1, 10, 100),
+				receipt(otherOrgAcctSchemaId, productId, 2, 10, 200))))
+						.isInstanceOf(AdempiereException.class)
+						.hasMessageContaining("No costs created for");
+	}
+}
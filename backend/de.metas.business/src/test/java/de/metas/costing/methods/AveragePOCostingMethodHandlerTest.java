@@ -14,6 +14,7 @@ import org.adempiere.model.InterfaceWrapperHelper;
 import org.adempiere.service.ClientId;
 import org.adempiere.test.AdempiereTestHelper;
 import org.adempiere.test.AdempiereTestWatcher;
+import org.adempiere.util.lang.IAutoCloseable;
 import org.compiere.model.I_C_AcctSchema;
 import org.compiere.model.I_C_AcctSchema_Default;
 import org.compiere.model.I_C_AcctSchema_GL;
@@ -29,6 +30,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 
 import de.metas.acct.api.AcctSchema;
 import de.metas.acct.api.AcctSchemaId;
@@ -313,6 +315,35 @@ public class AveragePOCostingMethodHandlerTest
 		}
 	}
 
+	@Test
+	public void currentCostsKeptInMemory()
+	{
+		try (final IAutoCloseable ignored = currentCostsRepo.temporaryKeepInMemory(costSegment(orgId1), ImmutableSet.of(costElement.getId())))
+		{
+			handler.createOrUpdateCost(
+					costDetailCreateRequest()
+							.documentRef(CostingDocumentRef.ofInventoryLineId(1))
+							.amt(CostAmount.of(100, euroCurrencyId))
+							.qty(Quantity.of(10, eachUOM))
+							.build());
+
+			final CostDetailCreateResult costDetailResult = handler.createOrUpdateCost(
+					costDetailCreateRequest()
+							.documentRef(CostingDocumentRef.ofInventoryLineId(2))
+							.amt(CostAmount.of(200, euroCurrencyId))
+							.qty(Quantity.of(10, eachUOM))
+							.build())
+					.get();
+
+			assertThat(costDetailResult.getAmt().getValue()).isEqualTo("200");
+			assertThat(costDetailResult.getQty().toBigDecimal()).isEqualTo("10");
+		}
+
+		final CurrentCost currentCost = getCurrentCostOrNull(orgId1);
+		assertThat(currentCost.getCurrentQty().toBigDecimal()).isEqualTo("20");
+		assertThat(currentCost.getCostPrice().toBigDecimal()).isEqualTo("15");
+	}
+
 	@Test
 	public void initCostsAfterInitWithStock()
 	{
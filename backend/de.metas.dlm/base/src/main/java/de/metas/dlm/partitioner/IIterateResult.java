@@ -103,6 +103,18 @@ public interface IIterateResult
 	 */
 	ITableRecordReference nextFromQueue();
 
+	/**
+	 * Tells this instance that the given record, which was returned by {@link #nextFromQueue()}, was completely processed by the crawler.
+	 * Only processed records may be removed from a persisted work queue.
+	 */
+	void markProcessed(ITableRecordReference reference);
+
+	/**
+	 * Puts the given records, which were returned by {@link #nextFromQueue()} but not processed, back to the head of the queue, in their given order.
+	 * This is needed if the crawler takes more than one record from the queue at a time and is signaled to stop before it processed all of them.
+	 */
+	void pushBackToQueue(List<ITableRecordReference> references);
+
 	/**
 	 * Register a handler.
 	 * <p>
@@ -13,6 +13,7 @@ import org.jgrapht.graph.DefaultDirectedGraph;
 import org.jgrapht.graph.DefaultEdge;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 
 import de.metas.dlm.partitioner.IIterateResult;
 import de.metas.dlm.partitioner.IIterateResultHandler;
@@ -148,6 +149,18 @@ public class FindPathIterateResult implements IIterateResult
 		return queueItemsToProcess.removeFirst();
 	}
 
+	@Override
+	public void markProcessed(final ITableRecordReference reference)
+	{
+		// nothing to do; we don't have a persisted queue
+	}
+
+	@Override
+	public void pushBackToQueue(final List<ITableRecordReference> references)
+	{
+		Lists.reverse(references).forEach(queueItemsToProcess::addFirst);
+	}
+
 	@Override
 	public void registerHandler(IIterateResultHandler handler)
 	{
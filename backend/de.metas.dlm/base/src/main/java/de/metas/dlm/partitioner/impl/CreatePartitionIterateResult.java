@@ -5,6 +5,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -14,6 +15,7 @@ import org.adempiere.util.lang.IContextAware;
 import org.adempiere.util.lang.ITableRecordReference;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 
 import de.metas.dlm.Partition;
 import de.metas.dlm.Partition.WorkQueue;
@@ -21,6 +23,7 @@ import de.metas.dlm.model.IDLMAware;
 import de.metas.dlm.partitioner.IIterateResultHandler;
 import de.metas.dlm.partitioner.IIterateResultHandler.AddResult;
 import de.metas.dlm.partitioner.IterateResultHandlerSupport;
+import de.metas.util.Check;
 
 /*
  * #%L
@@ -55,6 +58,11 @@ public class CreatePartitionIterateResult implements IStorableIterateResult
 
 	private final LinkedList<WorkQueue> queueItemsToProcess;
 
+	/**
+	 * Items that were returned by {@link #nextFromQueue()}, but were not yet {@link #markProcessed(ITableRecordReference) marked as processed}.
+	 */
+	private final Map<ITableRecordReference, WorkQueue> queueItemsInProgress = new LinkedHashMap<>();
+
 	private final ArrayList<WorkQueue> queueItemsToDelete;
 
 	/**
@@ -200,14 +208,39 @@ public class CreatePartitionIterateResult implements IStorableIterateResult
 	public ITableRecordReference nextFromQueue()
 	{
 		final WorkQueue result = nextFromQueue0();
-		if (result.getDLM_Partition_Workqueue_ID() > 0)
+		final WorkQueue duplicate = queueItemsInProgress.put(result.getTableRecordReference(), result);
+		if (duplicate != null && duplicate.getDLM_Partition_Workqueue_ID() > 0)
 		{
-			queueItemsToDelete.add(result);
+			queueItemsToDelete.add(duplicate); // the record is now in progress via "result"
 		}
 
 		return result.getTableRecordReference();
 	}
 
+	@Override
+	public void markProcessed(final ITableRecordReference reference)
+	{
+		final WorkQueue processed = queueItemsInProgress.remove(reference);
+		if (processed != null && processed.getDLM_Partition_Workqueue_ID() > 0)
+		{
+			queueItemsToDelete.add(processed);
+		}
+	}
+
+	/**
+	 * Note that the items which are already persisted keep their <code>DLM_Partition_Workqueue_ID</code>, so they are not stored again.
+	 */
+	@Override
+	public void pushBackToQueue(final List<ITableRecordReference> references)
+	{
+		for (final ITableRecordReference reference : Lists.reverse(references))
+		{
+			final WorkQueue unprocessed = queueItemsInProgress.remove(reference);
+			Check.errorIf(unprocessed == null, "{} was not taken from the queue or was already marked as processed", reference);
+			queueItemsToProcess.addFirst(unprocessed);
+		}
+	}
+
 	private WorkQueue nextFromQueue0()
 	{
 		if (iterator.hasNext())
@@ -267,6 +300,7 @@ public class CreatePartitionIterateResult implements IStorableIterateResult
 	public String toString()
 	{
 		return "IterateResult [queueItemsToProcess.size()=" + queueItemsToProcess.size()
+				+ ", queueItemsInProgress.size()=" + queueItemsInProgress.size()
 				+ ", queueItemsToDelete.size()=" + queueItemsToDelete.size()
 				+ ", size=" + size
 				+ ", tableName2Record.size()=" + tableName2Record.size()
@@ -24,9 +24,18 @@ package de.metas.dlm.partitioner.impl;
 
 import ch.qos.logback.classic.Level;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.MultimapBuilder;
+import com.google.common.collect.SetMultimap;
 import de.metas.adempiere.service.IColumnBL;
+import de.metas.common.util.time.SystemTime;
 import de.metas.dlm.IDLMService;
 import de.metas.dlm.Partition;
+import de.metas.dlm.Partition.WorkQueue;
 import de.metas.dlm.migrator.IMigratorService;
 import de.metas.dlm.model.IDLMAware;
 import de.metas.dlm.model.I_DLM_Partition;
@@ -41,184 +50,340 @@ import de.metas.logging.LogManager;
 import de.metas.util.Check;
 import de.metas.util.Loggables;
 import de.metas.util.Services;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
 import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.ad.dao.IQueryBuilder;
 import org.adempiere.ad.table.api.IADTableDAO;
 import org.adempiere.ad.trx.api.ITrxManager;
+import org.adempiere.exceptions.DBException;
 import org.adempiere.model.InterfaceWrapperHelper;
 import org.adempiere.model.PlainContextAware;
 import org.adempiere.util.lang.IContextAware;
 import org.adempiere.util.lang.ITableRecordReference;
-import org.adempiere.util.lang.Mutable;
 import org.adempiere.util.lang.impl.TableRecordReference;
+import org.compiere.Adempiere;
+import org.compiere.util.DB;
+import org.compiere.util.Env;
 import org.compiere.util.TrxRunnable;
 import org.slf4j.Logger;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
 
 public class RecordCrawlerService implements IRecordCrawlerService
 {
 	private final transient Logger logger = LogManager.getLogger(getClass());
 
+	/**
+	 * Max number of IDs we put into one SQL statement.
+	 */
+	private static final int IN_ARRAY_CHUNK_SIZE = 1000;
+
+	/**
+	 * How many records we take from the queue at once. The backward references of those records are loaded with one query per reference and table.
+	 */
+	private static final int FRONTIER_MAX_SIZE = 500;
+
+	private static final String SQL_INSERT_WORKQUEUE = "INSERT INTO " + I_DLM_Partition_Workqueue.Table_Name + " ("
+			+ I_DLM_Partition_Workqueue.COLUMNNAME_DLM_Partition_Workqueue_ID + "," // 1
+			+ I_DLM_Partition_Workqueue.COLUMNNAME_AD_Client_ID + "," // 2
+			+ I_DLM_Partition_Workqueue.COLUMNNAME_AD_Org_ID + "," // 3
+			+ I_DLM_Partition_Workqueue.COLUMNNAME_DLM_Partition_ID + "," // 4
+			+ I_DLM_Partition_Workqueue.COLUMNNAME_AD_Table_ID + "," // 5
+			+ I_DLM_Partition_Workqueue.COLUMNNAME_Record_ID + "," // 6
+			+ I_DLM_Partition_Workqueue.COLUMNNAME_IsActive + "," // 'Y'
+			+ I_DLM_Partition_Workqueue.COLUMNNAME_Created + "," // 7
+			+ I_DLM_Partition_Workqueue.COLUMNNAME_CreatedBy + "," // 8
+			+ I_DLM_Partition_Workqueue.COLUMNNAME_Updated + "," // 9
+			+ I_DLM_Partition_Workqueue.COLUMNNAME_UpdatedBy // 10
+			+ ") VALUES (?,?,?,?,?,?,'Y',?,?,?,?)";
+
 	@Override
 	public IIterateResult crawl(
 			final PartitionConfig config,
 			final IContextAware ctxAware,
 			final IIterateResult result)
 	{
-
-		final IColumnBL columnBL = Services.get(IColumnBL.class);
-		final IADTableDAO adTableDAO = Services.get(IADTableDAO.class);
+		final Stopwatch stopwatch = Stopwatch.createStarted();
 
 		// store what we are setting out to do here. E.g. if we are called from a DLMException, we want the situation such as
 		// "partition is not complete because testMigrate failed, and there are e.g. 20 orderlines to backtrack from" to be stored here.
 		// otherwise, the partiton we are in truth working on just now would be flagged as "completed" in the DB until further notice
 		storeIterateResult(config, result, ctxAware);
 
+		int processedCount = 0;
+
 		mainLoop:
 		while (!result.isQueueEmpty())
 		{
-			final ITableRecordReference currentReference = result.nextFromQueue();
-			final IDLMAware currentRecord = currentReference.getModel(ctxAware, IDLMAware.class);
-			if (currentRecord == null)
-			{
-				continue;
-			}
-
 			if (shallStoreResult(result))
 			{
 				storeIterateResult(config, result, ctxAware);
+				logProgress(result, processedCount, stopwatch);
 			}
 
-			final String currentTableName = currentReference.getTableName();
-			final int currentRecordId = InterfaceWrapperHelper.getId(currentRecord);
+			// take the next records from the queue and process them table by table
+			final SetMultimap<String, ITableRecordReference> frontier = nextFrontierFromQueue(result);
+			final List<String> frontierTableNames = ImmutableList.copyOf(frontier.keySet());
+			for (int i = 0; i < frontierTableNames.size(); i++)
+			{
+				final String currentTableName = frontierTableNames.get(i);
+				final AddResult addResult = crawlTable(config, result, ctxAware, currentTableName, frontier.get(currentTableName));
+				if (AddResult.STOP.equals(addResult))
+				{
+					// put back the records we did not (completely) process, so they stay in the work queue
+					final List<ITableRecordReference> unprocessedReferences = frontierTableNames.subList(i, frontierTableNames.size())
+							.stream()
+							.flatMap(tableName -> frontier.get(tableName).stream())
+							.collect(ImmutableList.toImmutableList());
+					result.pushBackToQueue(unprocessedReferences);
+					break mainLoop;
+				}
 
-			// there might or migth not be a line for the current reference's table name. That would mean that we can only search "backward"
-			final Optional<PartitionerConfigLine> currentLineOrNull = config.getLine(currentTableName);
+				frontier.get(currentTableName).forEach(result::markProcessed);
+				processedCount += frontier.get(currentTableName).size();
+			}
+		}
 
-			if (currentLineOrNull.isPresent())
-			{
-				final List<PartitionerConfigReference> forwardRefs = currentLineOrNull.get().getReferences();
+		logger.info("Found {} records via config.name={}", result.size(), config.getName());
+		storeIterateResult(config, result, ctxAware);
+		logProgress(result, processedCount, stopwatch);
+		return result;
+	}
 
-				// look FORWARD
-				//
-				// look at all the records that are referenced by 'currentRecord' and add them to 'hull',
-				// but only add them if they were not yet identified as parts of this partition (i.e. not yet added to 'records').
-				for (final PartitionerConfigReference forwardRef : forwardRefs)
+	/**
+	 * Crawls forward and backward from the given records of one table.
+	 * The records are only processed completely if {@link AddResult#STOP} is not returned.
+	 */
+	private AddResult crawlTable(
+			final PartitionConfig config,
+			final IIterateResult result,
+			final IContextAware ctxAware,
+			final String currentTableName,
+			final Collection<ITableRecordReference> currentReferences)
+	{
+		final Map<Integer, ITableRecordReference> currentReferencesById = currentReferences
+				.stream()
+				.collect(Collectors.toMap(ITableRecordReference::getRecord_ID, Function.identity(), (ref1, ref2) -> ref1, LinkedHashMap::new));
+		final Map<Integer, IDLMAware> currentRecordsById = retrieveRecordsById(currentTableName, currentReferencesById.keySet(), ctxAware);
+
+		// there might or migth not be a line for the current reference's table name. That would mean that we can only search "backward"
+		final Optional<PartitionerConfigLine> currentLineOrNull = config.getLine(currentTableName);
+		if (currentLineOrNull.isPresent())
+		{
+			final List<PartitionerConfigReference> forwardRefs = currentLineOrNull.get().getReferences();
+			for (final IDLMAware currentRecord : currentRecordsById.values())
+			{
+				final ITableRecordReference currentReference = currentReferencesById.get(InterfaceWrapperHelper.getId(currentRecord));
+				final AddResult addResult = crawlForward(forwardRefs, result, ctxAware, currentReference, currentRecord);
+				if (AddResult.STOP.equals(addResult))
 				{
-					if (forwardRef.isPartitionBoundary())
-					{
-						continue; // don't follow it
-					}
+					return AddResult.STOP;
+				}
+			}
+		}
 
-					// the table name for the foreign record which has 'foreignKey' as its ID
-					final String forwardTableName = forwardRef.getReferencedTableName();
-					final String forwardColumnName = forwardRef.getReferencingColumnName();
+		final Map<Integer, ITableRecordReference> loadedReferencesById = Maps.filterKeys(currentReferencesById, currentRecordsById::containsKey);
+		return crawlBackward(config, result, ctxAware, currentTableName, loadedReferencesById);
+	}
 
-					// first check if this is all about a Record_ID/AD_Table_ID reference.
-					// if that is the case, then we need to verify that the AD_Table_ID of 'record' actually points to the table named 'forwardTableName'
-					if (columnBL.isRecordIdColumnName(forwardColumnName))
-					{
-						final String tableColumnName = columnBL.getTableIdColumnName(currentTableName, forwardColumnName)
-								.orElseThrow(Check.supplyEx("Table={} has no table column name for recordColumnName={}", currentTableName, forwardColumnName));
+	private static SetMultimap<String, ITableRecordReference> nextFrontierFromQueue(final IIterateResult result)
+	{
+		final SetMultimap<String, ITableRecordReference> frontier = MultimapBuilder.linkedHashKeys().linkedHashSetValues().build();
+		while (frontier.size() < FRONTIER_MAX_SIZE && !result.isQueueEmpty())
+		{
+			final ITableRecordReference reference = result.nextFromQueue();
+			frontier.put(reference.getTableName(), reference);
+		}
+		return frontier;
+	}
 
-						final Integer tableId = InterfaceWrapperHelper.getValueOrNull(currentRecord, tableColumnName);
-						if (tableId == null || tableId <= 0)
-						{
-							logger.trace("{}[{}] forward: the column={} does not reference any table; skipping", currentTableName, currentRecordId, forwardColumnName, forwardTableName, tableColumnName);
-							continue;
-						}
+	private static Map<Integer, IDLMAware> retrieveRecordsById(
+			final String tableName,
+			final Collection<Integer> recordIds,
+			final IContextAware ctxAware)
+	{
+		final String keyColumnName = InterfaceWrapperHelper.getKeyColumnName(tableName);
 
-						final String tableName = adTableDAO.retrieveTableName(tableId);
-						if (!tableName.equals(forwardTableName))
-						{
-							logger.trace("{}[{}] forward: the column={} does not reference a {}-record, but a {}-record; skipping", currentTableName, currentRecordId, forwardColumnName, forwardTableName, tableName);
-							continue;
-						}
-					}
+		final Map<Integer, IDLMAware> recordsById = new LinkedHashMap<>();
+		for (final List<Integer> recordIdsChunk : Iterables.partition(recordIds, IN_ARRAY_CHUNK_SIZE))
+		{
+			Services.get(IQueryBL.class)
+					.createQueryBuilder(IDLMAware.class, tableName, ctxAware)
+					.addInArrayFilter(keyColumnName, recordIdsChunk)
+					.create()
+					.list()
+					.forEach(record -> recordsById.put(InterfaceWrapperHelper.getId(record), record));
+		}
+		return recordsById;
+	}
 
-					// get the foreign key ID of
-					// table DLM_PartitionLine_Config.AD_Table_ID,
-					// column DLM_PartitionReference_Config.DLM_Referencing_Column_ID
-					final Integer forwardKey = InterfaceWrapperHelper.getValueOrNull(currentRecord, forwardColumnName);
-					if (forwardKey == null || forwardKey <= 0)
-					{
-						logger.trace("{}[{}] forward: the column={} does not reference anything; skipping", currentTableName, currentRecordId, forwardColumnName);
-						continue;
-					}
+	/**
+	 * Look FORWARD
+	 * <p>
+	 * Look at all the records that are referenced by 'currentRecord' and add them to 'hull',
+	 * but only add them if they were not yet identified as parts of this partition (i.e. not yet added to 'records').
+	 */
+	private AddResult crawlForward(
+			final List<PartitionerConfigReference> forwardRefs,
+			final IIterateResult result,
+			final IContextAware ctxAware,
+			final ITableRecordReference currentReference,
+			final IDLMAware currentRecord)
+	{
+		final IColumnBL columnBL = Services.get(IColumnBL.class);
+		final IADTableDAO adTableDAO = Services.get(IADTableDAO.class);
 
-					final TableRecordReference forwardReference = TableRecordReference.of(forwardTableName, forwardKey);
+		final String currentTableName = currentReference.getTableName();
+		final int currentRecordId = currentReference.getRecord_ID();
 
-					final boolean recordWasAlreadyAddedBefore = result.contains(forwardReference);
-					if (recordWasAlreadyAddedBefore)
-					{
-						logger.trace("{}[{}] forward: ITableRecordReference={} was already added in a previous iteration. Returning", currentTableName, currentRecordId, forwardReference); // avoid circles and also avoid loading the whole PO again
-					}
-					else
-					{
-						// the foreign record was not yet added before. Load it now.
-						final IDLMAware forwardRecord = forwardReference.getModel(ctxAware, IDLMAware.class);
-						if (forwardRecord == null)
-						{
-							// this happens with our "minidump" where we left out the HUs
-							Loggables.withLogger(logger, Level.WARN).addLog(
-									"{}[{}] forward: the record from table={} which we attempted to load via {}.{}={} is NULL",
-									currentTableName, currentRecordId, forwardTableName, currentTableName, forwardColumnName, forwardKey);
-							continue;
-						}
+		for (final PartitionerConfigReference forwardRef : forwardRefs)
+		{
+			if (forwardRef.isPartitionBoundary())
+			{
+				continue; // don't follow it
+			}
 
-						logger.debug("{}[{}] forward: loaded from table={} via {}.{}={}: referenced IDLMAware={}",
-								currentTableName, currentRecordId, forwardTableName, currentTableName, forwardColumnName, forwardKey, forwardRecord);
+			// the table name for the foreign record which has 'foreignKey' as its ID
+			final String forwardTableName = forwardRef.getReferencedTableName();
+			final String forwardColumnName = forwardRef.getReferencingColumnName();
 
-						final AddResult addResult = result.addReferencedRecord(currentReference, forwardReference, forwardRecord.getDLM_Partition_ID());
-						if (forwardRecord.getDLM_Partition_ID() > 0)
-						{
-							// log why we do not search further using the new found foreign record
-							logger.debug("{}[{}] forward: referenced IDLMAware={} already has DLM_Partition_ID={}",
-									currentTableName, currentRecordId, forwardRecord, forwardRecord.getDLM_Partition_ID());
-						}
-						if (AddResult.STOP.equals(addResult))
-						{
-							Loggables.withLogger(logger, Level.WARN)
-									.addLog("The crawler was signaled to stop when it added ReferencedRecord={} to the result. Stopping now", forwardReference);
-							break mainLoop;
-						}
-					}
+			// first check if this is all about a Record_ID/AD_Table_ID reference.
+			// if that is the case, then we need to verify that the AD_Table_ID of 'record' actually points to the table named 'forwardTableName'
+			if (columnBL.isRecordIdColumnName(forwardColumnName))
+			{
+				final String tableColumnName = columnBL.getTableIdColumnName(currentTableName, forwardColumnName)
+						.orElseThrow(Check.supplyEx("Table={} has no table column name for recordColumnName={}", currentTableName, forwardColumnName));
+
+				final Integer tableId = InterfaceWrapperHelper.getValueOrNull(currentRecord, tableColumnName);
+				if (tableId == null || tableId <= 0)
+				{
+					logger.trace("{}[{}] forward: the column={} does not reference any table; skipping", currentTableName, currentRecordId, forwardColumnName, forwardTableName, tableColumnName);
+					continue;
 				}
-			}
 
-			// Look BACKWARD, i.e. get all config-references that point to 'currentTableName'.
-			// Then, for each of them, load the records that reference 'currentRecord' via the respective config-reference.
-			//
-			final List<PartitionerConfigReference> backwardRefs = config.getReferences(currentTableName);
-			for (final PartitionerConfigReference backwardRef : backwardRefs)
-			{
-				if (backwardRef.isPartitionBoundary())
+				final String tableName = adTableDAO.retrieveTableName(tableId);
+				if (!tableName.equals(forwardTableName))
 				{
+					logger.trace("{}[{}] forward: the column={} does not reference a {}-record, but a {}-record; skipping", currentTableName, currentRecordId, forwardColumnName, forwardTableName, tableName);
 					continue;
 				}
+			}
+
+			// get the foreign key ID of
+			// table DLM_PartitionLine_Config.AD_Table_ID,
+			// column DLM_PartitionReference_Config.DLM_Referencing_Column_ID
+			final Integer forwardKey = InterfaceWrapperHelper.getValueOrNull(currentRecord, forwardColumnName);
+			if (forwardKey == null || forwardKey <= 0)
+			{
+				logger.trace("{}[{}] forward: the column={} does not reference anything; skipping", currentTableName, currentRecordId, forwardColumnName);
+				continue;
+			}
+
+			final TableRecordReference forwardReference = TableRecordReference.of(forwardTableName, forwardKey);
+
+			final boolean recordWasAlreadyAddedBefore = result.contains(forwardReference);
+			if (recordWasAlreadyAddedBefore)
+			{
+				logger.trace("{}[{}] forward: ITableRecordReference={} was already added in a previous iteration. Returning", currentTableName, currentRecordId, forwardReference); // avoid circles and also avoid loading the whole PO again
+				continue;
+			}
 
-				final PartitionerConfigLine backwardLine = backwardRef.getParent();
-				final String backwardTableName = backwardLine.getTableName();
-				final String backwardColumnName = backwardRef.getReferencingColumnName();
+			// the foreign record was not yet added before. Load it now.
+			final IDLMAware forwardRecord = forwardReference.getModel(ctxAware, IDLMAware.class);
+			if (forwardRecord == null)
+			{
+				// this happens with our "minidump" where we left out the HUs
+				Loggables.withLogger(logger, Level.WARN).addLog(
+						"{}[{}] forward: the record from table={} which we attempted to load via {}.{}={} is NULL",
+						currentTableName, currentRecordId, forwardTableName, currentTableName, forwardColumnName, forwardKey);
+				continue;
+			}
+
+			logger.debug("{}[{}] forward: loaded from table={} via {}.{}={}: referenced IDLMAware={}",
+					currentTableName, currentRecordId, forwardTableName, currentTableName, forwardColumnName, forwardKey, forwardRecord);
+
+			final AddResult addResult = result.addReferencedRecord(currentReference, forwardReference, forwardRecord.getDLM_Partition_ID());
+			if (forwardRecord.getDLM_Partition_ID() > 0)
+			{
+				// log why we do not search further using the new found foreign record
+				logger.debug("{}[{}] forward: referenced IDLMAware={} already has DLM_Partition_ID={}",
+						currentTableName, currentRecordId, forwardRecord, forwardRecord.getDLM_Partition_ID());
+			}
+			if (AddResult.STOP.equals(addResult))
+			{
+				Loggables.withLogger(logger, Level.WARN)
+						.addLog("The crawler was signaled to stop when it added ReferencedRecord={} to the result. Stopping now", forwardReference);
+				return AddResult.STOP;
+			}
+		}
+
+		return AddResult.ADDED_CONTINUE;
+	}
+
+	/**
+	 * Look BACKWARD, i.e. get all config-references that point to 'currentTableName'.
+	 * Then, for each of them, load the records that reference any of the current records via the respective config-reference.
+	 * <p>
+	 * Note that we run one query per config-reference for all the current records (i.e. set based), and not one query per current record.
+	 */
+	private AddResult crawlBackward(
+			final PartitionConfig config,
+			final IIterateResult result,
+			final IContextAware ctxAware,
+			final String currentTableName,
+			final Map<Integer, ITableRecordReference> currentReferencesById)
+	{
+		if (currentReferencesById.isEmpty())
+		{
+			return AddResult.ADDED_CONTINUE;
+		}
+
+		final IColumnBL columnBL = Services.get(IColumnBL.class);
+		final IADTableDAO adTableDAO = Services.get(IADTableDAO.class);
+
+		final List<PartitionerConfigReference> backwardRefs = config.getReferences(currentTableName);
+		for (final PartitionerConfigReference backwardRef : backwardRefs)
+		{
+			if (backwardRef.isPartitionBoundary())
+			{
+				continue;
+			}
+
+			final PartitionerConfigLine backwardLine = backwardRef.getParent();
+			final String backwardTableName = backwardLine.getTableName();
+			final String backwardColumnName = backwardRef.getReferencingColumnName();
 
-				// load all records which reference foreignRecord
+			for (final List<Integer> currentRecordIdsChunk : Iterables.partition(currentReferencesById.keySet(), IN_ARRAY_CHUNK_SIZE))
+			{
+				// load all records which reference any of the current records
 				// don't excluded records with DLM_Partition_ID>0 becase we might need to merge them into the partition we are currently building
 				final IQueryBuilder<IDLMAware> queryBuilder = Services.get(IQueryBL.class)
 						.createQueryBuilder(IDLMAware.class, backwardTableName, ctxAware)
-						.addEqualsFilter(backwardRef.getReferencingColumnName(), currentRecordId);
+						.addInArrayFilter(backwardColumnName, currentRecordIdsChunk);
 
 				// if we have a case of AD_Table_ID/Record_ID,
 				// then we need to make sure to only load records whose AD_Table_ID references currentRecord
 				if (columnBL.isRecordIdColumnName(backwardColumnName))
 				{
 					// note that referencedTableColumnName = AD_Table_ID, in most cases
-					final String referencedTableColumnName = columnBL.getTableIdColumnName(backwardTableName, backwardRef.getReferencingColumnName())
+					final String referencedTableColumnName = columnBL.getTableIdColumnName(backwardTableName, backwardColumnName)
 							.orElseThrow(Check.supplyEx("Table={} has no table column name for recordColumnName={}", backwardTableName, backwardColumnName));
 
 					final int referencedTableID = adTableDAO.retrieveTableId(currentTableName);
@@ -226,23 +391,10 @@ public class RecordCrawlerService implements IRecordCrawlerService
 					queryBuilder.addEqualsFilter(referencedTableColumnName, referencedTableID);
 				}
 
-				// avoid loading the records we already added before.
-				// This doesn't work well. NOT IN is probably not very performant, see
+				// Note that we don't try to exclude the records we already added before.
+				// NOT IN is probably not very performant, see
 				// http://stackoverflow.com/questions/7125291/postgresql-not-in-versus-except-performance-difference-edited-2
-				// maybe it would become better when we do something along the lines of
-				// https://www.datadoghq.com/blog/100x-faster-postgres-performance-by-changing-1-line/
-				// at any rate it looks the postgresql jdbc driver "only" supports prepared statements with 65536 parameters,
-				// Solutions:
-				// 1. don't try to exclude anything and live with records beeing returned that we already saw earlier
-				// 2. store the partition more regularly and add some sort of negative left-join to the query
-				// {
-				// final String columnName = columnBL.getSingleKeyColumn(backwardTableName);
-				// final Collection<Integer> alreadyAddedBackwardIds = result.getIds(backwardTableName);
-				//
-				// queryBuilder.addNotInArrayFilter(columnName, alreadyAddedBackwardIds);
-				// }
-
-				// de.metas.dlm.partitioner.PartitionerTools.dumpHistogram(result)
+				// and the postgresql jdbc driver "only" supports prepared statements with 65536 parameters.
 				final List<IDLMAware> backwardRecords = queryBuilder
 						.create()
 						.list();
@@ -251,14 +403,11 @@ public class RecordCrawlerService implements IRecordCrawlerService
 				{
 					InterfaceWrapperHelper.setTrxName(backwardRecord, ctxAware.getTrxName()); // we need this for MPinstance, because it explicitly ignores the trx it is loaded with in its constructor.
 
+					final Integer currentRecordId = InterfaceWrapperHelper.getValueOrNull(backwardRecord, backwardColumnName);
+					final ITableRecordReference currentReference = currentReferencesById.get(currentRecordId);
 					final ITableRecordReference backwardTableRecordReference = TableRecordReference.ofOrNull(backwardRecord);
 
 					final AddResult addRecordResult = result.addReferencingRecord(backwardTableRecordReference, currentReference, backwardRecord.getDLM_Partition_ID());
-
-					// should not happen because we excluded alreadyAddedBackwardIds from the loading query
-					// Check.errorUnless(recordWasNotYetAddedBefore, "{}[{}] backward: WAS ALREADY ADDED! - loaded referencing IDLMAware={} from table={} via {}.{}={}",
-					// currentTableName, currentRecordId, backwardRecord, backwardTableName, backwardTableName, backwardColumnName, currentRecordId);
-
 					switch (addRecordResult)
 					{
 						case ADDED_CONTINUE:
@@ -278,7 +427,7 @@ public class RecordCrawlerService implements IRecordCrawlerService
 							break;
 						case STOP:
 							Loggables.addLog("The crawler was signaled to stop when it added ReferencingRecord={} the result. Stopping now", backwardTableRecordReference);
-							break mainLoop;
+							return AddResult.STOP;
 						default:
 							Check.errorIf(true, "Unexpected result={}", addRecordResult);
 							break;
@@ -287,9 +436,18 @@ public class RecordCrawlerService implements IRecordCrawlerService
 			}
 		}
 
-		logger.info("Found {} records via config.name={}", result.size(), config.getName());
-		storeIterateResult(config, result, ctxAware);
-		return result;
+		return AddResult.ADDED_CONTINUE;
+	}
+
+	private void logProgress(final IIterateResult result, final int processedCount, final Stopwatch stopwatch)
+	{
+		final long elapsedMillis = Math.max(stopwatch.elapsed(TimeUnit.MILLISECONDS), 1);
+		final String partitionInfo = result instanceof IStorableIterateResult
+				? "DLM_Partition_ID=" + ((IStorableIterateResult)result).getPartition().getDLM_Partition_ID()
+				: "-";
+
+		Loggables.withLogger(logger, Level.INFO).addLog("{}: processed {} records in {} ({} records/sec)",
+				partitionInfo, processedCount, stopwatch, processedCount * 1000L / elapsedMillis);
 	}
 
 	private boolean shallStoreResult(final IIterateResult result)
@@ -429,42 +587,159 @@ public class RecordCrawlerService implements IRecordCrawlerService
 		// store and delete DLM_Partition_Workqueue records according to the records we processed and the records we newly added since the last time this method was called.
 		{
 			// delete DLM_Partition_Workqueue records we already processed
-			final Mutable<Integer> deletedSum = new Mutable<>(0);
-			result.getQueueRecordsToDelete()
-					.forEach(r -> {
-
-						// It's not a must to delete them 1-by-1, but we can't just create one chuck with unknow size!
-						// If we want to delete more than one at a time, we need to create chuncks of a fixed size that is less than 2^32.
-						final int delete = queryBL.createQueryBuilder(I_DLM_Partition_Workqueue.class, ctxAware)
-								.addEqualsFilter(I_DLM_Partition_Workqueue.COLUMN_DLM_Partition_Workqueue_ID, r.getDLM_Partition_Workqueue_ID())
-								.create()
-								.deleteDirectly();
-						deletedSum.setValue(deletedSum.getValue() + delete);
-					});
-			logger.debug("storeIterateResult: Deleted {} DLM_Partition_Workqueue records", deletedSum.getValue());
+			final int deletedCount = deleteWorkqueueRecords(result.getQueueRecordsToDelete(), ctxAware);
+			logger.debug("storeIterateResult: Deleted {} DLM_Partition_Workqueue records", deletedCount);
 
 			// persist DLM_Partition_Workqueue record we still need to process.
-			final Mutable<Integer> storedSum = new Mutable<>(0);
-			result.getQueueRecordsToStore()
-					.forEach(queueRecordsToStore -> {
+			final int storedCount = insertWorkqueueRecords(result.getQueueRecordsToStore(), storedPartition.getDLM_Partition_ID(), ctxAware);
+			logger.debug("storeIterateResult: Stored {} DLM_Partition_Workqueue records", storedCount);
+		}
+
+		result.clearAfterPartitionStored(storedPartition);
+	}
 
-						final ITableRecordReference tableRecordReference = queueRecordsToStore.getTableRecordReference();
+	private int deleteWorkqueueRecords(final List<WorkQueue> queueRecordsToDelete, final IContextAware ctxAware)
+	{
+		final List<Integer> workqueueIds = queueRecordsToDelete.stream()
+				.map(WorkQueue::getDLM_Partition_Workqueue_ID)
+				.collect(ImmutableList.toImmutableList());
 
-						final I_DLM_Partition_Workqueue newQueueRecord = InterfaceWrapperHelper.newInstance(I_DLM_Partition_Workqueue.class);
-						newQueueRecord.setDLM_Partition_ID(storedPartition.getDLM_Partition_ID());
-						newQueueRecord.setAD_Table_ID(tableRecordReference.getAD_Table_ID());
-						newQueueRecord.setRecord_ID(tableRecordReference.getRecord_ID());
+		// we can't just create one chunk with unknown size, because the number of SQL parameters is limited
+		int deletedCount = 0;
+		for (final List<Integer> workqueueIdsChunk : Lists.partition(workqueueIds, IN_ARRAY_CHUNK_SIZE))
+		{
+			deletedCount += Services.get(IQueryBL.class)
+					.createQueryBuilder(I_DLM_Partition_Workqueue.class, ctxAware)
+					.addInArrayFilter(I_DLM_Partition_Workqueue.COLUMN_DLM_Partition_Workqueue_ID, workqueueIdsChunk)
+					.create()
+					.deleteDirectly();
+		}
+		return deletedCount;
+	}
 
-						InterfaceWrapperHelper.save(newQueueRecord);
+	/**
+	 * Inserts those of the given workqueue items which were not yet persisted, using JDBC batches, and updates their <code>DLM_Partition_Workqueue_ID</code>s.
+	 */
+	private int insertWorkqueueRecords(final List<WorkQueue> queueRecordsToStore, final int dlmPartitionId, final IContextAware ctxAware)
+	{
+		final List<WorkQueue> newQueueRecords = queueRecordsToStore.stream()
+				.filter(queueRecord -> queueRecord.getDLM_Partition_Workqueue_ID() <= 0)
+				.collect(ImmutableList.toImmutableList());
+		if (newQueueRecords.isEmpty())
+		{
+			return 0;
+		}
 
-						queueRecordsToStore.setDLM_Partition_Workqueue_ID(newQueueRecord.getDLM_Partition_Workqueue_ID());
+		if (Adempiere.isUnitTestMode())
+		{
+			// there is no database to run JDBC batches against; see insertWorkqueueRecordsBatch for the code that is not run here
+			newQueueRecords.forEach(queueRecordToStore -> insertWorkqueueRecordViaModel(queueRecordToStore, dlmPartitionId));
+			return newQueueRecords.size();
+		}
 
-						storedSum.setValue(storedSum.getValue() + 1);
-					});
-			logger.debug("storeIterateResult: Stored {} DLM_Partition_Workqueue records", storedSum.getValue());
+		final Properties ctx = ctxAware.getCtx();
+		final WorkqueueRecordValues values = WorkqueueRecordValues.builder()
+				.adClientId(Env.getAD_Client_ID(ctx))
+				.adOrgId(Env.getAD_Org_ID(ctx))
+				.dlmPartitionId(dlmPartitionId)
+				.adUserId(Env.getAD_User_ID(ctx))
+				.timestamp(SystemTime.asTimestamp())
+				.build();
+
+		PreparedStatement pstmt = null;
+		try
+		{
+			pstmt = DB.prepareStatement(SQL_INSERT_WORKQUEUE, ctxAware.getTrxName());
+			insertWorkqueueRecordsBatch(
+					pstmt,
+					newQueueRecords,
+					values,
+					count -> DB.getNextIDs(values.getAdClientId(), I_DLM_Partition_Workqueue.Table_Name, ctxAware.getTrxName(), count));
+		}
+		catch (final SQLException ex)
+		{
+			throw new DBException(ex, SQL_INSERT_WORKQUEUE);
+		}
+		finally
+		{
+			DB.close(pstmt);
 		}
 
-		result.clearAfterPartitionStored(storedPartition);
+		return newQueueRecords.size();
+	}
+
+	/**
+	 * The column values which all the workqueue records of one insert have in common.
+	 */
+	@Value
+	@Builder
+	@VisibleForTesting
+	static class WorkqueueRecordValues
+	{
+		int adClientId;
+		int adOrgId;
+		int dlmPartitionId;
+		int adUserId;
+
+		@NonNull
+		Timestamp timestamp;
+	}
+
+	/**
+	 * Adds the given workqueue items to the given {@link #SQL_INSERT_WORKQUEUE} statement and executes it, one batch per {@value #IN_ARRAY_CHUNK_SIZE} items.
+	 * The items' IDs are allocated with one call of the given <code>idsAllocator</code> per batch.
+	 */
+	@VisibleForTesting
+	static void insertWorkqueueRecordsBatch(
+			@NonNull final PreparedStatement pstmt,
+			@NonNull final List<WorkQueue> queueRecordsToStore,
+			@NonNull final WorkqueueRecordValues values,
+			@NonNull final IntFunction<int[]> idsAllocator) throws SQLException
+	{
+		for (final List<WorkQueue> chunk : Lists.partition(queueRecordsToStore, IN_ARRAY_CHUNK_SIZE))
+		{
+			final int[] workqueueIds = idsAllocator.apply(chunk.size());
+			Check.assume(workqueueIds.length == chunk.size(), "Got {} IDs for {} workqueue records", workqueueIds.length, chunk.size());
+
+			for (int i = 0; i < chunk.size(); i++)
+			{
+				final ITableRecordReference tableRecordReference = chunk.get(i).getTableRecordReference();
+
+				pstmt.setInt(1, workqueueIds[i]); // DLM_Partition_Workqueue_ID
+				pstmt.setInt(2, values.getAdClientId()); // AD_Client_ID
+				pstmt.setInt(3, values.getAdOrgId()); // AD_Org_ID
+				pstmt.setInt(4, values.getDlmPartitionId()); // DLM_Partition_ID
+				pstmt.setInt(5, tableRecordReference.getAD_Table_ID()); // AD_Table_ID
+				pstmt.setInt(6, tableRecordReference.getRecord_ID()); // Record_ID
+				// 'Y' - IsActive
+				pstmt.setTimestamp(7, values.getTimestamp()); // Created
+				pstmt.setInt(8, values.getAdUserId()); // CreatedBy
+				pstmt.setTimestamp(9, values.getTimestamp()); // Updated
+				pstmt.setInt(10, values.getAdUserId()); // UpdatedBy
+				pstmt.addBatch();
+			}
+
+			pstmt.executeBatch();
+
+			// only set the IDs after the records were actually inserted
+			for (int i = 0; i < chunk.size(); i++)
+			{
+				chunk.get(i).setDLM_Partition_Workqueue_ID(workqueueIds[i]);
+			}
+		}
+	}
+
+	private static void insertWorkqueueRecordViaModel(final WorkQueue queueRecordToStore, final int dlmPartitionId)
+	{
+		final ITableRecordReference tableRecordReference = queueRecordToStore.getTableRecordReference();
+
+		final I_DLM_Partition_Workqueue newQueueRecord = InterfaceWrapperHelper.newInstance(I_DLM_Partition_Workqueue.class);
+		newQueueRecord.setDLM_Partition_ID(dlmPartitionId);
+		newQueueRecord.setAD_Table_ID(tableRecordReference.getAD_Table_ID());
+		newQueueRecord.setRecord_ID(tableRecordReference.getRecord_ID());
+		InterfaceWrapperHelper.save(newQueueRecord);
+
+		queueRecordToStore.setDLM_Partition_Workqueue_ID(newQueueRecord.getDLM_Partition_Workqueue_ID());
 	}
 
 	private int getPartitionSize(final IContextAware ctxAware, Integer dlmPartitionId)
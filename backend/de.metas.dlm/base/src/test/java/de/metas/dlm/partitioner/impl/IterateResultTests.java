@@ -119,4 +119,37 @@ public class IterateResultTests
 		assertThat(iterateResult.isQueueEmpty(), is(true));
 		assertThat(iterateResult.size(), is(2));
 	}
+
+	/**
+	 * Verifies that an item from the persisted work queue is only scheduled for deletion once it was marked as processed,
+	 * and that it can be put back to the queue if the crawler stops before it processed the item.
+	 */
+	@Test
+	public void testPushBackAndMarkProcessed()
+	{
+		final I_AD_Color color = InterfaceWrapperHelper.newInstance(I_AD_Color.class);
+		InterfaceWrapperHelper.save(color);
+		final ITableRecordReference tableRecordReference = TableRecordReference.ofOrNull(color);
+
+		final WorkQueue persistedQueueItem = WorkQueue.of(tableRecordReference);
+		persistedQueueItem.setDLM_Partition_Workqueue_ID(23);
+
+		final Iterator<WorkQueue> initialQueue = ImmutableList.of(persistedQueueItem).iterator();
+		final CreatePartitionIterateResult iterateResult = new CreatePartitionIterateResult(initialQueue, PlainContextAware.newWithThreadInheritedTrx());
+
+		assertThat(iterateResult.nextFromQueue(), is(tableRecordReference));
+		assertThat(iterateResult.getQueueRecordsToDelete().isEmpty(), is(true)); // not yet processed
+
+		iterateResult.pushBackToQueue(ImmutableList.of(tableRecordReference));
+		assertThat(iterateResult.isQueueEmpty(), is(false));
+		assertThat(iterateResult.getQueueRecordsToDelete().isEmpty(), is(true));
+		assertThat(iterateResult.getQueueRecordsToStore().size(), is(1));
+		assertThat(iterateResult.getQueueRecordsToStore().get(0).getDLM_Partition_Workqueue_ID(), is(23)); // still persisted, so it won't be inserted again
+
+		assertThat(iterateResult.nextFromQueue(), is(tableRecordReference));
+		iterateResult.markProcessed(tableRecordReference);
+		assertThat(iterateResult.isQueueEmpty(), is(true));
+		assertThat(iterateResult.getQueueRecordsToDelete().size(), is(1));
+		assertThat(iterateResult.getQueueRecordsToDelete().get(0).getDLM_Partition_Workqueue_ID(), is(23));
+	}
 }
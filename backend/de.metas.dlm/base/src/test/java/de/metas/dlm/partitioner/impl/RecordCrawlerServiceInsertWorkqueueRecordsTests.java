@@ -0,0 +1,134 @@
+package de.metas.dlm.partitioner.impl;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import org.adempiere.util.lang.ITableRecordReference;
+import org.junit.Test;
+
+import de.metas.dlm.Partition.WorkQueue;
+import de.metas.dlm.partitioner.impl.RecordCrawlerService.WorkqueueRecordValues;
+
+/*
+ * #%L
+ * metasfresh-dlm
+ * %%
+ * Copyright (C) 2016 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class RecordCrawlerServiceInsertWorkqueueRecordsTests
+{
+	private final Timestamp timestamp = new Timestamp(System.currentTimeMillis());
+
+	private final WorkqueueRecordValues values = WorkqueueRecordValues.builder()
+			.adClientId(1)
+			.adOrgId(2)
+			.dlmPartitionId(3)
+			.adUserId(4)
+			.timestamp(timestamp)
+			.build();
+
+	/**
+	 * Verifies that IDs are allocated once per chunk (and not once per record), that the org is taken from the given values
+	 * and that the workqueue records get their IDs.
+	 */
+	@Test
+	public void testInsertWorkqueueRecordsBatch() throws SQLException
+	{
+		final List<WorkQueue> queueRecords = createQueueRecords(1001);
+
+		final List<Integer> requestedBlockSizes = new ArrayList<>();
+		final AtomicInteger nextId = new AtomicInteger(100);
+		final IntFunction<int[]> idsAllocator = count -> {
+			requestedBlockSizes.add(count);
+			return IntStream.range(0, count).map(i -> nextId.getAndIncrement()).toArray();
+		};
+
+		final PreparedStatement pstmt = mock(PreparedStatement.class);
+
+		RecordCrawlerService.insertWorkqueueRecordsBatch(pstmt, queueRecords, values, idsAllocator);
+
+		assertThat(requestedBlockSizes.size(), is(2)); // one block per chunk of 1000
+		assertThat(requestedBlockSizes.get(0), is(1000));
+		assertThat(requestedBlockSizes.get(1), is(1));
+
+		verify(pstmt, times(1001)).addBatch();
+		verify(pstmt, times(2)).executeBatch();
+		verify(pstmt, times(1001)).setInt(3, 2); // AD_Org_ID
+		verify(pstmt, times(1001)).setInt(4, 3); // DLM_Partition_ID
+		verify(pstmt, times(1)).setInt(1, 100); // DLM_Partition_Workqueue_ID of the first record
+		verify(pstmt, times(1)).setInt(1, 1100); // DLM_Partition_Workqueue_ID of the last record
+		verify(pstmt, times(2002)).setTimestamp(anyInt(), eq(timestamp));
+
+		for (int i = 0; i < queueRecords.size(); i++)
+		{
+			assertThat(queueRecords.get(i).getDLM_Partition_Workqueue_ID(), is(100 + i));
+		}
+	}
+
+	/**
+	 * Verifies that the workqueue records don't get IDs if the batch fails.
+	 */
+	@Test
+	public void testInsertWorkqueueRecordsBatch_failedBatch() throws SQLException
+	{
+		final List<WorkQueue> queueRecords = createQueueRecords(3);
+
+		final PreparedStatement pstmt = mock(PreparedStatement.class);
+		when(pstmt.executeBatch()).thenThrow(new SQLException("test"));
+
+		try
+		{
+			RecordCrawlerService.insertWorkqueueRecordsBatch(pstmt, queueRecords, values, count -> new int[] { 10, 11, 12 });
+			fail("Expected an SQLException");
+		}
+		catch (final SQLException e)
+		{
+			// expected
+		}
+
+		queueRecords.forEach(r -> assertThat(r.getDLM_Partition_Workqueue_ID(), is(0)));
+	}
+
+	private static List<WorkQueue> createQueueRecords(final int count)
+	{
+		final List<WorkQueue> result = new ArrayList<>();
+		for (int i = 0; i < count; i++)
+		{
+			final ITableRecordReference tableRecordReference = mock(ITableRecordReference.class);
+			result.add(WorkQueue.of(tableRecordReference));
+		}
+		return result;
+	}
+}
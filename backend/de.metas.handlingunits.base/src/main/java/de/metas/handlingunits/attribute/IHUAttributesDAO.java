@@ -1,5 +1,6 @@
 package de.metas.handlingunits.attribute;
 
+import com.google.common.collect.ImmutableMap;
 import de.metas.handlingunits.HuId;
 import de.metas.handlingunits.attribute.impl.HUAttributesBySeqNoComparator;
 import de.metas.handlingunits.model.I_M_HU;
@@ -35,6 +36,20 @@ public interface IHUAttributesDAO extends ISingletonService
 	 */
 	HUAndPIAttributes retrieveAttributesOrdered(I_M_HU hu);
 
+	/**
+	 * Same as {@link #retrieveAttributesOrdered(I_M_HU)}, but loads the attributes of all given HUs at once.
+	 *
+	 * @return sorted HU attributes, for each of the given HUs
+	 */
+	ImmutableMap<HuId, HUAndPIAttributes> retrieveAttributesOrdered(Collection<I_M_HU> hus);
+
+	/**
+	 * Loads the attributes of the given HUs at once, so that following {@link #retrieveAttributesOrdered(I_M_HU)} calls for those HUs don't have to go to database.
+	 * <p>
+	 * Implementations which are not caching the HU attributes don't do anything.
+	 */
+	void prefetchAttributes(Collection<I_M_HU> hus);
+
 	/**
 	 * @return the attribute or <code>null</code>
 	 */
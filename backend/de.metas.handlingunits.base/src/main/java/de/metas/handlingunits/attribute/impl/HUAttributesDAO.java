@@ -1,7 +1,10 @@
 package de.metas.handlingunits.attribute.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
 import de.metas.handlingunits.HuId;
 import de.metas.handlingunits.attribute.HUAndPIAttributes;
 import de.metas.handlingunits.attribute.IHUAttributesDAO;
@@ -9,6 +12,7 @@ import de.metas.handlingunits.attribute.IHUPIAttributesDAO;
 import de.metas.handlingunits.attribute.PIAttributes;
 import de.metas.handlingunits.model.I_M_HU;
 import de.metas.handlingunits.model.I_M_HU_Attribute;
+import de.metas.handlingunits.model.I_M_HU_PI_Attribute;
 import de.metas.util.Services;
 import lombok.NonNull;
 import org.adempiere.ad.dao.IQueryBL;
@@ -19,6 +23,8 @@ import org.adempiere.model.InterfaceWrapperHelper;
 import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
 
 public final class HUAttributesDAO implements IHUAttributesDAO
 {
@@ -89,6 +95,62 @@ public final class HUAttributesDAO implements IHUAttributesDAO
 		return HUAndPIAttributes.of(huAttributesSorted, piAttributes);
 	}
 
+	@Override
+	public ImmutableMap<HuId, HUAndPIAttributes> retrieveAttributesOrdered(@NonNull final Collection<I_M_HU> hus)
+	{
+		// NOTE: don't cache on this level. Caching is handled on upper levels
+
+		if (hus.isEmpty())
+		{
+			return ImmutableMap.of();
+		}
+
+		final ImmutableMap<HuId, I_M_HU> husById = hus.stream()
+				.collect(ImmutableMap.toImmutableMap(hu -> HuId.ofRepoId(hu.getM_HU_ID()), Function.identity(), (hu1, hu2) -> hu1));
+
+		final ImmutableListMultimap<HuId, I_M_HU_Attribute> huAttributesByHuId = Services.get(IQueryBL.class).createQueryBuilder(I_M_HU_Attribute.class, hus.iterator().next())
+				.addOnlyActiveRecordsFilter()
+				.addInArrayFilter(I_M_HU_Attribute.COLUMNNAME_M_HU_ID, husById.keySet())
+				.create()
+				.stream()
+				.collect(ImmutableListMultimap.toImmutableListMultimap(huAttribute -> HuId.ofRepoId(huAttribute.getM_HU_ID()), Function.identity()));
+
+		// Load the PI attributes of all HUs at once
+		final ImmutableSet<Integer> piAttributeIds = huAttributesByHuId.values().stream().map(I_M_HU_Attribute::getM_HU_PI_Attribute_ID).collect(ImmutableSet.toImmutableSet());
+		final ImmutableMap<Integer, I_M_HU_PI_Attribute> piAttributesById = !piAttributeIds.isEmpty()
+				? Maps.uniqueIndex(InterfaceWrapperHelper.loadByIdsOutOfTrx(piAttributeIds, I_M_HU_PI_Attribute.class), I_M_HU_PI_Attribute::getM_HU_PI_Attribute_ID)
+				: ImmutableMap.of();
+
+		final ImmutableMap.Builder<HuId, HUAndPIAttributes> result = ImmutableMap.builder();
+		for (final HuId huId : husById.keySet())
+		{
+			final I_M_HU hu = husById.get(huId);
+			final ImmutableList<I_M_HU_Attribute> huAttributes = huAttributesByHuId.get(huId);
+
+			// Optimization: set M_HU link
+			for (final I_M_HU_Attribute huAttribute : huAttributes)
+			{
+				huAttribute.setM_HU(hu);
+			}
+
+			final PIAttributes piAttributes = PIAttributes.of(huAttributes.stream()
+					.map(huAttribute -> piAttributesById.get(huAttribute.getM_HU_PI_Attribute_ID()))
+					.filter(Objects::nonNull)
+					.collect(ImmutableSet.toImmutableSet()));
+
+			final ImmutableList<I_M_HU_Attribute> huAttributesSorted = HUAttributesBySeqNoComparator.of(piAttributes).sortAndCopy(huAttributes);
+			result.put(huId, HUAndPIAttributes.of(huAttributesSorted, piAttributes));
+		}
+
+		return result.build();
+	}
+
+	@Override
+	public void prefetchAttributes(final Collection<I_M_HU> hus)
+	{
+		// nothing to do, we are not caching on this level
+	}
+
 	private PIAttributes createPIAttributes(final List<I_M_HU_Attribute> huAttributes)
 	{
 		final IHUPIAttributesDAO piAttributesRepo = Services.get(IHUPIAttributesDAO.class);
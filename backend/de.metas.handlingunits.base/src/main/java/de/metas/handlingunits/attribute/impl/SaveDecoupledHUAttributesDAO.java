@@ -1,6 +1,7 @@
 package de.metas.handlingunits.attribute.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import de.metas.handlingunits.HuId;
 import de.metas.handlingunits.IHandlingUnitsBL;
@@ -221,12 +222,36 @@ public class SaveDecoupledHUAttributesDAO implements IHUAttributesDAO
 	{
 		final HUAttributesMap huAttributes = getHUAttributesMap(hu);
 		final List<I_M_HU_Attribute> huAttributesList = huAttributes.toList();
-		final PIAttributes piAttributes = createPIAttributes(huAttributesList);
+		final PIAttributes piAttributes = huAttributes.getPIAttributes(this::createPIAttributes);
 		final ImmutableList<I_M_HU_Attribute> huAttributesSorted = HUAttributesBySeqNoComparator.of(piAttributes).sortAndCopy(huAttributesList);
 		return HUAndPIAttributes.of(huAttributesSorted, piAttributes);
 	}
 
-	private PIAttributes createPIAttributes(final Collection<I_M_HU_Attribute> huAttributesList)
+	@Override
+	public synchronized ImmutableMap<HuId, HUAndPIAttributes> retrieveAttributesOrdered(final Collection<I_M_HU> hus)
+	{
+		prefetchAttributes(hus);
+
+		return hus.stream()
+				.collect(ImmutableMap.toImmutableMap(hu -> HuId.ofRepoId(hu.getM_HU_ID()), this::retrieveAttributesOrdered, (huAttributes1, huAttributes2) -> huAttributes1));
+	}
+
+	@Override
+	public synchronized void prefetchAttributes(final Collection<I_M_HU> hus)
+	{
+		final ImmutableList<I_M_HU> husToLoad = hus.stream()
+				.filter(hu -> !_hu2huAttributes.containsKey(HuId.ofRepoId(hu.getM_HU_ID())))
+				.collect(ImmutableList.toImmutableList());
+		if (husToLoad.isEmpty())
+		{
+			return;
+		}
+
+		db.retrieveAttributesOrdered(husToLoad)
+				.forEach((huId, huAndPIAttributes) -> _hu2huAttributes.put(huId, HUAttributesMap.of(huAndPIAttributes)));
+	}
+
+	private PIAttributes createPIAttributes(final List<I_M_HU_Attribute> huAttributesList)
 	{
 		final IHUPIAttributesDAO piAttributesRepo = Services.get(IHUPIAttributesDAO.class);
 
@@ -395,14 +420,23 @@ public class SaveDecoupledHUAttributesDAO implements IHUAttributesDAO
 				setReadonly(huAttribute, true);
 			}
 
-			return new HUAttributesMap(huAttributes);
+			return new HUAttributesMap(huAttributes, huAndPIAttributes.getPiAttributes());
 		}
 
 		private final HashMap<AttributeId, I_M_HU_Attribute> huAttributes;
 
-		private HUAttributesMap(final HashMap<AttributeId, I_M_HU_Attribute> huAttributes)
+		/**
+		 * The PI attributes of {@link #huAttributes}, or {@code null} if they need to be (re)loaded because the HU attributes changed.
+		 */
+		@Nullable
+		private PIAttributes piAttributes;
+
+		private HUAttributesMap(
+				final HashMap<AttributeId, I_M_HU_Attribute> huAttributes,
+				@Nullable final PIAttributes piAttributes)
 		{
 			this.huAttributes = huAttributes;
+			this.piAttributes = piAttributes;
 		}
 
 		public I_M_HU_Attribute getByAttributeIdOrNull(final AttributeId attributeId)
@@ -426,17 +460,32 @@ public class SaveDecoupledHUAttributesDAO implements IHUAttributesDAO
 			return ImmutableList.copyOf(huAttributes.values());
 		}
 
+		public PIAttributes getPIAttributes(final Function<List<I_M_HU_Attribute>, PIAttributes> loader)
+		{
+			if (piAttributes == null)
+			{
+				piAttributes = loader.apply(toList());
+			}
+			return piAttributes;
+		}
+
 		@Nullable
 		public I_M_HU_Attribute put(final I_M_HU_Attribute huAttribute)
 		{
 			final AttributeId attributeId = AttributeId.ofRepoId(huAttribute.getM_Attribute_ID());
-			return huAttributes.put(attributeId, huAttribute);
+			final I_M_HU_Attribute huAttributeOld = huAttributes.put(attributeId, huAttribute);
+			if (huAttributeOld == null || huAttributeOld.getM_HU_PI_Attribute_ID() != huAttribute.getM_HU_PI_Attribute_ID())
+			{
+				piAttributes = null;
+			}
+			return huAttributeOld;
 		}
 
 		public void remove(final I_M_HU_Attribute huAttribute)
 		{
 			final AttributeId attributeId = AttributeId.ofRepoId(huAttribute.getM_Attribute_ID());
 			final I_M_HU_Attribute huAttributeRemoved = huAttributes.remove(attributeId);
+			piAttributes = null;
 			if (!Util.same(huAttribute, huAttributeRemoved))
 			{
 				throw new AdempiereException("Given " + huAttribute + " was not found in internal cache or it's different (" + huAttributeRemoved + ")");
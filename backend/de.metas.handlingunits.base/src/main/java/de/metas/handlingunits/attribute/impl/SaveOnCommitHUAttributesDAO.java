@@ -1,5 +1,6 @@
 package de.metas.handlingunits.attribute.impl;
 
+import com.google.common.collect.ImmutableMap;
 import de.metas.handlingunits.HuId;
 import de.metas.handlingunits.attribute.HUAndPIAttributes;
 import de.metas.handlingunits.attribute.IHUAttributesDAO;
@@ -111,6 +112,20 @@ public class SaveOnCommitHUAttributesDAO implements IHUAttributesDAO
 		return delegate.retrieveAttributesOrdered(hu);
 	}
 
+	@Override
+	public ImmutableMap<HuId, HUAndPIAttributes> retrieveAttributesOrdered(final Collection<I_M_HU> hus)
+	{
+		final SaveDecoupledHUAttributesDAO delegate = getDelegate();
+		return delegate.retrieveAttributesOrdered(hus);
+	}
+
+	@Override
+	public void prefetchAttributes(final Collection<I_M_HU> hus)
+	{
+		final SaveDecoupledHUAttributesDAO delegate = getDelegate();
+		delegate.prefetchAttributes(hus);
+	}
+
 	@Override
 	public I_M_HU_Attribute retrieveAttribute(final I_M_HU hu, final AttributeId attributeId)
 	{
@@ -22,6 +22,7 @@ package de.metas.handlingunits.attribute.storage.impl;
  * #L%
  */
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -156,17 +157,21 @@ import lombok.NonNull;
 		}
 
 		// Retrieve HU items and get children HUs
-		final List<I_M_HU_Item> huItems = handlingUnitsDAO.retrieveItems(hu);
+		final List<I_M_HU> childrenHU = new ArrayList<>();
+		for (final I_M_HU_Item item : handlingUnitsDAO.retrieveItems(hu))
+		{
+			childrenHU.addAll(handlingUnitsDAO.retrieveIncludedHUs(item));
+		}
+
+		// Load the attributes of all children at once, instead of one query per child when its attributes are accessed (e.g. on propagation)
+		getHUAttributesDAO().prefetchAttributes(childrenHU);
+
 		final boolean saveOnChange = isSaveOnChange();
-		for (final I_M_HU_Item item : huItems)
+		for (final I_M_HU childHU : childrenHU)
 		{
-			final List<I_M_HU> childrenHU = handlingUnitsDAO.retrieveIncludedHUs(item);
-			for (final I_M_HU childHU : childrenHU)
-			{
-				final IAttributeStorage childAttributeSetStorage = storageFactory.getAttributeStorage(childHU);
-				childAttributeSetStorage.setSaveOnChange(saveOnChange); // propagate saveOnChange to child
-				childrenAttributeSetStorages.put(childAttributeSetStorage.getId(), childAttributeSetStorage);
-			}
+			final IAttributeStorage childAttributeSetStorage = storageFactory.getAttributeStorage(childHU);
+			childAttributeSetStorage.setSaveOnChange(saveOnChange); // propagate saveOnChange to child
+			childrenAttributeSetStorages.put(childAttributeSetStorage.getId(), childAttributeSetStorage);
 		}
 
 		return childrenAttributeSetStorages;
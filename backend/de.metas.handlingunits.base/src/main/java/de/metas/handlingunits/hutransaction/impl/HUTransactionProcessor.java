@@ -272,6 +272,11 @@ public class HUTransactionProcessor implements IHUTransactionProcessor
 		processTrx(trxHdrRef, trxLines);
 	}
 
+	/**
+	 * Creates and saves the transaction lines and links them with their counterparts.
+	 * <p>
+	 * NOTE: the counterpart links of lines which are not yet processed are not saved here; those lines are expected to be processed (and saved) by {@link #processTrx(IReference, List)} right after.
+	 */
 	private List<I_M_HU_Trx_Line> create(
 			final IReference<I_M_HU_Trx_Hdr> trxHdrRef,
 			@NonNull final List<IHUTransactionCandidate> trxCandidates)
@@ -317,7 +322,13 @@ public class HUTransactionProcessor implements IHUTransactionProcessor
 
 			trxLine.setParent_HU_Trx_Line(counterpartTrxLine);
 
-			saveTrxLine(trxLine);
+			// NOTE: lines which are not processed yet are saved together with the Processed flag by processTrxLine,
+			// so each of them is written with one INSERT and one UPDATE instead of one INSERT and two UPDATEs.
+			// Lines which are created as processed (i.e. skip-processing candidates) are skipped by processTrxLine, so we need to save their link here.
+			if (trxLine.isProcessed())
+			{
+				saveTrxLine(trxLine);
+			}
 		}
 
 		return trxLines;
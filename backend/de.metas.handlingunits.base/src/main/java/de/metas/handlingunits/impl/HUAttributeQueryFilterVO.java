@@ -199,6 +199,9 @@ import lombok.NonNull;
 	 * Builds the HU attributes filter and appends it to given HU filters.
 	 *
 	 * NOTE: keep in sync with {@link #matches(IAttributeSet)}
+	 * <p>
+	 * NOTE: the M_HU_Attribute subqueries are served by the {@code m_hu_attribute_value*_lookup} indexes on (M_Attribute_ID, typed value column, M_HU_ID).
+	 * When changing the subqueries, make sure they still match those indexes.
 	 *
 	 * @param contextProvider
 	 * @param huFilters
@@ -63,7 +63,10 @@ public class DraftInventoryLinesCreator
 
 	private final Set<LocatorId> seenLocatorIds = new HashSet<>();
 
-	private final LinkedHashMap<InventoryLineAggregationKey, InventoryLine> createdOrUpdatedLines = new LinkedHashMap<>();
+	/**
+	 * The lines to be created or updated, kept as builders while the HUs are added, so that adding an HU to a line with many HUs is not copying all of them again.
+	 */
+	private final LinkedHashMap<InventoryLineAggregationKey, InventoryLineBuilder> createdOrUpdatedLines = new LinkedHashMap<>();
 
 	@NonFinal
 	@Getter
@@ -114,7 +117,9 @@ public class DraftInventoryLinesCreator
 
 		createdOrUpdatedLines
 				.values()
-				.forEach(line -> inventoryLineRepository.saveInventoryLine(line, inventoryId));
+				.forEach(lineBuilder -> inventoryLineRepository.saveInventoryLine(lineBuilder.build(), inventoryId));
+
+		loggable.addLog("Created or updated {} inventory lines from {} HUs", createdOrUpdatedLines.size(), countInventoryLines);
 
 	}
 
@@ -131,9 +136,7 @@ public class DraftInventoryLinesCreator
 
 		if (createdOrUpdatedLines.containsKey(aggregationKey))
 		{
-			inventoryLineBuilder = createdOrUpdatedLines
-					.get(aggregationKey)
-					.toBuilder();
+			inventoryLineBuilder = createdOrUpdatedLines.get(aggregationKey);
 		}
 		else
 		{
@@ -166,7 +169,7 @@ public class DraftInventoryLinesCreator
 				.locatorId(huForInventoryLine.getLocatorId())
 				.productId(huForInventoryLine.getProductId());
 
-		createdOrUpdatedLines.put(aggregationKey, inventoryLineBuilder.build());
+		createdOrUpdatedLines.put(aggregationKey, inventoryLineBuilder);
 	}
 
 	public static InventoryLineHU toInventoryLineHU(final HuForInventoryLine huForInventoryLine)
@@ -310,6 +310,7 @@ public class PickingCandidateRepository
 				.addOnlyActiveRecordsFilter()
 				.addEqualsFilter(I_M_Picking_Candidate.COLUMNNAME_Status, status.getCode())
 				.addInArrayFilter(I_M_Picking_Candidate.COLUMN_M_ShipmentSchedule_ID, shipmentScheduleIds)
+				.orderBy(I_M_Picking_Candidate.COLUMN_M_Picking_Candidate_ID) // just to have a predictable order
 				.create()
 				.stream(I_M_Picking_Candidate.class)
 				.collect(toPickingCandidatesList());
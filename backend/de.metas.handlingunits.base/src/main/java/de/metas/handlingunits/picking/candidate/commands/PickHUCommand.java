@@ -132,9 +132,9 @@ public class PickHUCommand
 
 	private PickingCandidate getOrCreatePickingCandidate()
 	{
-		final PickingCandidate existingPickingCandidate = pickingCandidateRepository.getByShipmentScheduleId(shipmentScheduleId)
+		// NOTE: load only the draft candidates; during a picking wave, most of the shipment schedule's candidates are already processed
+		final PickingCandidate existingPickingCandidate = pickingCandidateRepository.getByShipmentScheduleIdAndStatus(shipmentScheduleId, PickingCandidateStatus.Draft)
 				.stream()
-				.filter(PickingCandidate::isDraft)
 				.filter(pc -> PickingSlotId.equals(pickingSlotId, pc.getPickingSlotId()))
 				.filter(pc -> pickFrom.equals(pc.getPickFrom()))
 				.findFirst()
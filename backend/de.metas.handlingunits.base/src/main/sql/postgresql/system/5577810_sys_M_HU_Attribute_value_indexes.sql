@@ -0,0 +1,12 @@
+
+-- indexes to support HUQueryBuilder's attribute filters (lot number, best-before date, serial number, SSCC18 etc).
+-- those filters are subqueries like "M_HU_ID IN (SELECT M_HU_ID FROM M_HU_Attribute WHERE IsActive='Y' AND M_Attribute_ID=? AND <Value|ValueNumber|ValueDate> IN (...))";
+-- there is one index per typed value column, and each index also contains the M_HU_ID, so the subqueries can be answered with index only scans.
+drop index if exists m_hu_attribute_value_lookup;
+CREATE INDEX m_hu_attribute_value_lookup ON m_hu_attribute (m_attribute_id, value, m_hu_id) where isactive='Y';
+
+drop index if exists m_hu_attribute_valuenumber_lookup;
+CREATE INDEX m_hu_attribute_valuenumber_lookup ON m_hu_attribute (m_attribute_id, valuenumber, m_hu_id) where isactive='Y';
+
+drop index if exists m_hu_attribute_valuedate_lookup;
+CREATE INDEX m_hu_attribute_valuedate_lookup ON m_hu_attribute (m_attribute_id, valuedate, m_hu_id) where isactive='Y';
@@ -0,0 +1,140 @@
+package de.metas.handlingunits.attribute.impl;
+
+import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
+import static org.adempiere.model.InterfaceWrapperHelper.saveRecord;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.adempiere.mm.attributes.api.impl.AttributesTestHelper;
+import org.compiere.model.I_M_Attribute;
+import org.compiere.model.X_M_Attribute;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import de.metas.handlingunits.AbstractHUTest;
+import de.metas.handlingunits.HuId;
+import de.metas.handlingunits.attribute.HUAndPIAttributes;
+import de.metas.handlingunits.model.I_M_HU;
+import de.metas.handlingunits.model.I_M_HU_Attribute;
+import de.metas.handlingunits.model.I_M_HU_PI;
+import de.metas.handlingunits.model.I_M_HU_PI_Attribute;
+import de.metas.handlingunits.model.X_M_HU_PI_Version;
+import de.metas.handlingunits.test.misc.builders.HUPIAttributeBuilder;
+
+/*
+ * #%L
+ * de.metas.handlingunits.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class HUAttributesDAOTest extends AbstractHUTest
+{
+	private I_M_Attribute attribute1;
+	private I_M_Attribute attribute2;
+	private I_M_HU_PI piLU;
+	private I_M_HU_PI piTU;
+
+	@Override
+	protected void initialize()
+	{
+		final AttributesTestHelper attributesTestHelper = new AttributesTestHelper();
+		attribute1 = attributesTestHelper.createM_Attribute("attribute1", X_M_Attribute.ATTRIBUTEVALUETYPE_StringMax40, true);
+		attribute2 = attributesTestHelper.createM_Attribute("attribute2", X_M_Attribute.ATTRIBUTEVALUETYPE_StringMax40, true);
+
+		piLU = helper.createHUDefinition("LU", X_M_HU_PI_Version.HU_UNITTYPE_LoadLogistiqueUnit);
+		piTU = helper.createHUDefinition("TU", X_M_HU_PI_Version.HU_UNITTYPE_TransportUnit);
+	}
+
+	@Test
+	public void retrieveAttributesOrdered_multipleHUs()
+	{
+		// the same attributes, but with different PI attributes and a different order on each PI
+		final I_M_HU_PI_Attribute piLUAttribute1 = createPIAttribute(piLU, attribute1, 20);
+		final I_M_HU_PI_Attribute piLUAttribute2 = createPIAttribute(piLU, attribute2, 10);
+		final I_M_HU_PI_Attribute piTUAttribute1 = createPIAttribute(piTU, attribute1, 10);
+		final I_M_HU_PI_Attribute piTUAttribute2 = createPIAttribute(piTU, attribute2, 20);
+
+		final I_M_HU lu = createHU();
+		final I_M_HU_Attribute luAttribute1 = createHUAttribute(lu, piLUAttribute1);
+		final I_M_HU_Attribute luAttribute2 = createHUAttribute(lu, piLUAttribute2);
+		final I_M_HU tu = createHU();
+		final I_M_HU_Attribute tuAttribute1 = createHUAttribute(tu, piTUAttribute1);
+		final I_M_HU_Attribute tuAttribute2 = createHUAttribute(tu, piTUAttribute2);
+		final I_M_HU huWithoutAttributes = createHU();
+
+		final ImmutableMap<HuId, HUAndPIAttributes> result = HUAttributesDAO.instance.retrieveAttributesOrdered(ImmutableList.of(lu, tu, huWithoutAttributes));
+
+		assertThat(result).hasSize(3);
+
+		final HUAndPIAttributes luAttributes = result.get(HuId.ofRepoId(lu.getM_HU_ID()));
+		assertThat(luAttributes.getHuAttributes()).extracting(I_M_HU_Attribute::getM_HU_Attribute_ID)
+				.containsExactly(luAttribute2.getM_HU_Attribute_ID(), luAttribute1.getM_HU_Attribute_ID());
+		assertThat(luAttributes.getPiAttributes()).extracting(I_M_HU_PI_Attribute::getM_HU_PI_Attribute_ID)
+				.containsOnly(piLUAttribute1.getM_HU_PI_Attribute_ID(), piLUAttribute2.getM_HU_PI_Attribute_ID());
+
+		final HUAndPIAttributes tuAttributes = result.get(HuId.ofRepoId(tu.getM_HU_ID()));
+		assertThat(tuAttributes.getHuAttributes()).extracting(I_M_HU_Attribute::getM_HU_Attribute_ID)
+				.containsExactly(tuAttribute1.getM_HU_Attribute_ID(), tuAttribute2.getM_HU_Attribute_ID());
+		assertThat(tuAttributes.getPiAttributes()).extracting(I_M_HU_PI_Attribute::getM_HU_PI_Attribute_ID)
+				.containsOnly(piTUAttribute1.getM_HU_PI_Attribute_ID(), piTUAttribute2.getM_HU_PI_Attribute_ID());
+
+		assertThat(result.get(HuId.ofRepoId(huWithoutAttributes.getM_HU_ID())).getHuAttributes()).isEmpty();
+	}
+
+	@Test
+	public void retrieveAttributesOrdered_sameAsSingleHU()
+	{
+		final I_M_HU lu = createHU();
+		createHUAttribute(lu, createPIAttribute(piLU, attribute1, 10));
+		createHUAttribute(lu, createPIAttribute(piLU, attribute2, 20));
+
+		final HUAndPIAttributes expected = HUAttributesDAO.instance.retrieveAttributesOrdered(lu);
+
+		final HUAndPIAttributes actual = HUAttributesDAO.instance.retrieveAttributesOrdered(ImmutableList.of(lu)).get(HuId.ofRepoId(lu.getM_HU_ID()));
+		assertThat(actual.getHuAttributes()).extracting(I_M_HU_Attribute::getM_HU_Attribute_ID)
+				.containsExactlyElementsOf(expected.getHuAttributes().stream().map(I_M_HU_Attribute::getM_HU_Attribute_ID).collect(ImmutableList.toImmutableList()));
+	}
+
+	private I_M_HU_PI_Attribute createPIAttribute(final I_M_HU_PI pi, final I_M_Attribute attribute, final int seqNo)
+	{
+		final I_M_HU_PI_Attribute piAttribute = helper.createM_HU_PI_Attribute(HUPIAttributeBuilder.newInstance(attribute)
+				.setM_HU_PI(pi));
+		piAttribute.setSeqNo(seqNo);
+		saveRecord(piAttribute);
+		return piAttribute;
+	}
+
+	private I_M_HU createHU()
+	{
+		final I_M_HU hu = newInstance(I_M_HU.class);
+		saveRecord(hu);
+		return hu;
+	}
+
+	private I_M_HU_Attribute createHUAttribute(final I_M_HU hu, final I_M_HU_PI_Attribute piAttribute)
+	{
+		final I_M_HU_Attribute huAttribute = newInstance(I_M_HU_Attribute.class);
+		huAttribute.setM_HU_ID(hu.getM_HU_ID());
+		huAttribute.setM_HU_PI_Attribute_ID(piAttribute.getM_HU_PI_Attribute_ID());
+		huAttribute.setM_Attribute_ID(piAttribute.getM_Attribute_ID());
+		saveRecord(huAttribute);
+		return huAttribute;
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * #%L
+ * de.metas.handlingunits.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+package de.metas.handlingunits.hutransaction.impl;
+
+import de.metas.common.util.time.SystemTime;
+import de.metas.handlingunits.HUTestHelper;
+import de.metas.handlingunits.IHUContext;
+import de.metas.handlingunits.allocation.impl.AllocationUtils;
+import de.metas.handlingunits.allocation.impl.IMutableAllocationResult;
+import de.metas.handlingunits.hutransaction.IHUTransactionCandidate;
+import de.metas.handlingunits.hutransaction.IHUTrxDAO;
+import de.metas.handlingunits.model.I_M_HU;
+import de.metas.handlingunits.model.I_M_HU_Item;
+import de.metas.handlingunits.model.I_M_HU_Trx_Line;
+import de.metas.quantity.Quantity;
+import de.metas.util.Services;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
+import static org.adempiere.model.InterfaceWrapperHelper.saveRecord;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HUTransactionProcessorTest
+{
+	private HUTestHelper helper;
+	private I_M_HU_Item huItem;
+
+	@BeforeEach
+	public void init()
+	{
+		helper = new HUTestHelper();
+
+		final I_M_HU hu = newInstance(I_M_HU.class);
+		saveRecord(hu);
+
+		huItem = newInstance(I_M_HU_Item.class);
+		huItem.setM_HU_ID(hu.getM_HU_ID());
+		saveRecord(huItem);
+	}
+
+	/**
+	 * Skip-processing candidates (e.g. those created by the {@code M_HU} interceptor) become trx lines which are processed right away.
+	 * Makes sure that their counterpart links are saved nonetheless.
+	 */
+	@Test
+	public void createTrx_skipProcessing_savesCounterpartLinks()
+	{
+		final IHUTransactionCandidate trxFrom = createSkipProcessingCandidate(new BigDecimal("-10"));
+		final IHUTransactionCandidate trxTo = createSkipProcessingCandidate(new BigDecimal("10"));
+		trxTo.pair(trxFrom);
+
+		final IMutableAllocationResult allocationResult = AllocationUtils.createMutableAllocationResult(BigDecimal.ZERO);
+		allocationResult.addTransaction(trxFrom);
+		allocationResult.addTransaction(trxTo);
+
+		final IHUContext huContext = helper.createMutableHUContextOutOfTransaction();
+		new HUTransactionProcessor(huContext).createTrx(allocationResult);
+
+		// load the trx lines from the database, to check what was actually saved
+		final List<I_M_HU_Trx_Line> trxLines = Services.get(IHUTrxDAO.class).retrieveTrxLines(huItem);
+		assertThat(trxLines).hasSize(2);
+
+		final I_M_HU_Trx_Line trxLine1 = trxLines.get(0);
+		final I_M_HU_Trx_Line trxLine2 = trxLines.get(1);
+		assertThat(trxLine1.isProcessed()).isTrue();
+		assertThat(trxLine2.isProcessed()).isTrue();
+		assertThat(trxLine1.getParent_HU_Trx_Line_ID()).isEqualTo(trxLine2.getM_HU_Trx_Line_ID());
+		assertThat(trxLine2.getParent_HU_Trx_Line_ID()).isEqualTo(trxLine1.getM_HU_Trx_Line_ID());
+	}
+
+	private IHUTransactionCandidate createSkipProcessingCandidate(final BigDecimal qty)
+	{
+		final IHUTransactionCandidate candidate = HUTransactionCandidate.builder()
+				.huItem(huItem)
+				.vhuItem(huItem)
+				.productId(helper.pTomatoProductId)
+				.quantity(Quantity.of(qty, helper.uomEach))
+				.date(SystemTime.asZonedDateTime())
+				.build();
+		candidate.setSkipProcessing();
+		return candidate;
+	}
+}
@@ -1,7 +1,9 @@
 package de.metas.material.planning.pporder;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import de.metas.bpartner.BPartnerId;
+import de.metas.cache.CCache;
 import de.metas.logging.LogManager;
 import de.metas.material.event.ModelProductDescriptorExtractor;
 import de.metas.material.event.commons.AttributesKey;
@@ -25,12 +27,16 @@ import de.metas.quantity.Quantity;
 import de.metas.uom.IUOMConversionBL;
 import de.metas.uom.UomId;
 import de.metas.util.Services;
+import lombok.Builder;
 import lombok.NonNull;
+import lombok.Value;
+import org.adempiere.ad.trx.api.ITrxManager;
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.mm.attributes.AttributeSetInstanceId;
 import org.adempiere.mm.attributes.api.AttributesKeys;
 import org.adempiere.service.ClientId;
 import org.compiere.model.I_C_UOM;
+import org.compiere.model.I_M_AttributeInstance;
 import org.compiere.model.I_M_Product;
 import org.compiere.util.TimeUtil;
 import org.eevolution.api.BOMComponentType;
@@ -43,6 +49,7 @@ import org.eevolution.model.I_PP_Product_Planning;
 import org.slf4j.Logger;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.Nullable;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -78,14 +85,26 @@ public class PPOrderPojoSupplier
 	private static final transient Logger logger = LogManager.getLogger(PPOrderPojoSupplier.class);
 	private final IProductBL productBL = Services.get(IProductBL.class);
 	private final IPPOrderBOMBL ppOrderBOMBL = Services.get(IPPOrderBOMBL.class);
-	private final IProductBOMBL productBOMBL = Services.get(IProductBOMBL.class);
 	private final IProductBOMDAO productBOMDAO = Services.get(IProductBOMDAO.class);
 	private final IProductPlanningDAO productPlanningsRepo = Services.get(IProductPlanningDAO.class);
 	private final IUOMConversionBL uomConversionBL = Services.get(IUOMConversionBL.class);
+	private final ITrxManager trxManager = Services.get(ITrxManager.class);
 
 	private final ProductPlanningService productPlanningService;
 	private final ModelProductDescriptorExtractor productDescriptorFactory;
 
+	/**
+	 * The BOM lines together with their product descriptors, which are the same for each PP_Order that is planned with the BOM.
+	 * Building the descriptors involves loading the lines' ASI attributes, so we don't want to do it again for each supply-required event.
+	 * <p>
+	 * This cache is shared by all transactions, so the lines are loaded out of transaction and only immutable data is cached (no PO).
+	 */
+	private final CCache<ProductBOMId, ImmutableList<BOMLineInfo>> bomLinesByBOMId = CCache.<ProductBOMId, ImmutableList<BOMLineInfo>>builder()
+			.tableName(I_PP_Product_BOMLine.Table_Name)
+			.additionalTableNameToResetFor(I_PP_Product_BOM.Table_Name)
+			.additionalTableNameToResetFor(I_M_AttributeInstance.Table_Name)
+			.build();
+
 	public PPOrderPojoSupplier(
 			@NonNull final ProductPlanningService productPlanningService,
 			@NonNull final ModelProductDescriptorExtractor productDescriptorFactory)
@@ -225,28 +244,26 @@ public class PPOrderPojoSupplier
 	private List<PPOrderLine> supplyPPOrderLinePojos(@NonNull final PPOrder ppOrder)
 	{
 		final I_PP_Product_BOM productBOM = retrieveAndVerifyBOM(ppOrder);
-		final ImmutableList<I_PP_Product_BOMLine> productBOMLines = productBOMDAO.retrieveLines(productBOM);
+		final ImmutableList<BOMLineInfo> productBOMLines = getBOMLines(ProductBOMId.ofRepoId(productBOM.getPP_Product_BOM_ID()));
 
 		final UomId bomUomId = UomId.ofRepoId(productBOM.getC_UOM_ID());
 		final Quantity finishedGoodsQtyRequiredInBOMUOM = extractQtyRequired(ppOrder, bomUomId);
 
 		final ArrayList<PPOrderLine> result = new ArrayList<>();
-		for (final I_PP_Product_BOMLine productBomLine : productBOMLines)
+		for (final BOMLineInfo productBomLine : productBOMLines)
 		{
-			if (!productBOMBL.isValidFromTo(productBomLine, TimeUtil.asDate(ppOrder.getDateStartSchedule())))
+			if (!productBomLine.isValidAt(ppOrder.getDateStartSchedule()))
 			{
 				logger.debug("BOM Line skipped because it's not between valid from/to: {}", productBomLine);
 				continue;
 			}
 
-			final ProductDescriptor productDescriptor = productDescriptorFactory.createProductDescriptor(productBomLine);
-
-			final boolean receipt = BOMComponentType.ofCode(productBomLine.getComponentType()).isReceipt();
+			final boolean receipt = productBomLine.getComponentType().isReceipt();
 
 			final PPOrderLine intermediatePPOrderLine = PPOrderLine.builder()
-					.productBomLineId(productBomLine.getPP_Product_BOMLine_ID())
+					.productBomLineId(productBomLine.getBomLineId())
 					.description(productBomLine.getDescription())
-					.productDescriptor(productDescriptor)
+					.productDescriptor(productBomLine.getProductDescriptor())
 					.receipt(receipt)
 					.issueOrReceiveDate(receipt ? ppOrder.getDatePromised() : ppOrder.getDateStartSchedule())
 					.qtyRequired(BigDecimal.ZERO) // is computed in the next step
@@ -263,6 +280,78 @@ public class PPOrderPojoSupplier
 		return result;
 	}
 
+	@VisibleForTesting
+	ImmutableList<BOMLineInfo> getBOMLines(@NonNull final ProductBOMId productBOMId)
+	{
+		return bomLinesByBOMId.getOrLoad(productBOMId, this::retrieveBOMLinesOutOfTrx);
+	}
+
+	/**
+	 * Loads the lines out of transaction, because the result is cached for everybody and shall not contain anything that was not committed yet.
+	 */
+	private ImmutableList<BOMLineInfo> retrieveBOMLinesOutOfTrx(@NonNull final ProductBOMId productBOMId)
+	{
+		final ImmutableList.Builder<BOMLineInfo> result = ImmutableList.builder();
+		trxManager.runOutOfTransaction(() -> {
+			final I_PP_Product_BOM productBOM = productBOMDAO.getById(productBOMId);
+			for (final I_PP_Product_BOMLine bomLine : productBOMDAO.retrieveLines(productBOM))
+			{
+				result.add(toBOMLineInfo(bomLine));
+			}
+		});
+		return result.build();
+	}
+
+	private BOMLineInfo toBOMLineInfo(@NonNull final I_PP_Product_BOMLine bomLine)
+	{
+		return BOMLineInfo.builder()
+				.bomLineId(bomLine.getPP_Product_BOMLine_ID())
+				.description(bomLine.getDescription())
+				.componentType(BOMComponentType.ofCode(bomLine.getComponentType()))
+				.productDescriptor(productDescriptorFactory.createProductDescriptor(bomLine))
+				.validFrom(TimeUtil.asInstant(bomLine.getValidFrom()))
+				.validTo(TimeUtil.asInstant(bomLine.getValidTo()))
+				.build();
+	}
+
+	/**
+	 * What we need to know about a BOM line when planning a PP_Order.
+	 */
+	@VisibleForTesting
+	@Value
+	@Builder
+	static class BOMLineInfo
+	{
+		int bomLineId;
+
+		@Nullable
+		String description;
+
+		@NonNull
+		BOMComponentType componentType;
+
+		@NonNull
+		ProductDescriptor productDescriptor;
+
+		@Nullable
+		Instant validFrom;
+
+		@Nullable
+		Instant validTo;
+
+		/**
+		 * Same as {@link IProductBOMBL#isValidFromTo(I_PP_Product_BOMLine, java.util.Date)}.
+		 */
+		public boolean isValidAt(@NonNull final Instant date)
+		{
+			if (validFrom != null && date.isBefore(validFrom))
+			{
+				return false;
+			}
+			return validTo == null || !date.isAfter(validTo);
+		}
+	}
+
 	@NonNull
 	private static ProductId extractProductId(final @NonNull PPOrder ppOrder)
 	{
@@ -0,0 +1,136 @@
+/*
+ * #%L
+ * metasfresh-material-planning
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+package de.metas.material.planning.pporder;
+
+import com.google.common.collect.ImmutableList;
+import de.metas.material.event.ModelProductDescriptorExtractor;
+import de.metas.material.event.commons.ProductDescriptor;
+import de.metas.material.planning.ProductPlanningService;
+import de.metas.material.planning.pporder.PPOrderPojoSupplier.BOMLineInfo;
+import de.metas.util.Services;
+import org.adempiere.ad.trx.api.ITrxManager;
+import org.adempiere.model.InterfaceWrapperHelper;
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.util.TimeUtil;
+import org.eevolution.api.BOMComponentType;
+import org.eevolution.api.ProductBOMId;
+import org.eevolution.model.I_PP_Product_BOM;
+import org.eevolution.model.I_PP_Product_BOMLine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
+import static org.adempiere.model.InterfaceWrapperHelper.saveRecord;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PPOrderPojoSupplierTest
+{
+	private static final int COMPONENT_PRODUCT_ID = 20;
+
+	private ITrxManager trxManager;
+
+	/** The transactions in which the product descriptors were created */
+	private final List<String> productDescriptorTrxNames = new ArrayList<>();
+	private PPOrderPojoSupplier ppOrderPojoSupplier;
+
+	private ProductBOMId bomId;
+	private I_PP_Product_BOMLine bomLine;
+
+	@BeforeEach
+	void beforeEach()
+	{
+		AdempiereTestHelper.get().init();
+		trxManager = Services.get(ITrxManager.class);
+
+		final ModelProductDescriptorExtractor productDescriptorFactory = (asiAwareModel, defaultAttributesKey) -> {
+			productDescriptorTrxNames.add(InterfaceWrapperHelper.getTrxName(asiAwareModel));
+			productDescriptorTrxNames.add(trxManager.getThreadInheritedTrxName());
+			return ProductDescriptor.completeForProductIdAndEmptyAttribute(((I_PP_Product_BOMLine)asiAwareModel).getM_Product_ID());
+		};
+		ppOrderPojoSupplier = new PPOrderPojoSupplier(new ProductPlanningService(), productDescriptorFactory);
+
+		final I_PP_Product_BOM bom = newInstance(I_PP_Product_BOM.class);
+		bom.setM_Product_ID(10);
+		saveRecord(bom);
+		bomId = ProductBOMId.ofRepoId(bom.getPP_Product_BOM_ID());
+
+		bomLine = newInstance(I_PP_Product_BOMLine.class);
+		bomLine.setPP_Product_BOM_ID(bom.getPP_Product_BOM_ID());
+		bomLine.setM_Product_ID(COMPONENT_PRODUCT_ID);
+		bomLine.setComponentType(BOMComponentType.Component.getCode());
+		bomLine.setDescription("line 1");
+		bomLine.setValidFrom(TimeUtil.parseTimestamp("2020-01-01"));
+		saveRecord(bomLine);
+	}
+
+	@Test
+	void getBOMLines()
+	{
+		final ImmutableList<BOMLineInfo> bomLines = ppOrderPojoSupplier.getBOMLines(bomId);
+
+		assertThat(bomLines).hasSize(1);
+		final BOMLineInfo bomLineInfo = bomLines.get(0);
+		assertThat(bomLineInfo.getBomLineId()).isEqualTo(bomLine.getPP_Product_BOMLine_ID());
+		assertThat(bomLineInfo.getDescription()).isEqualTo("line 1");
+		assertThat(bomLineInfo.getComponentType()).isEqualTo(BOMComponentType.Component);
+		assertThat(bomLineInfo.getProductDescriptor().getProductId()).isEqualTo(COMPONENT_PRODUCT_ID);
+
+		assertThat(bomLineInfo.isValidAt(TimeUtil.parseTimestamp("2019-12-31").toInstant())).isFalse();
+		assertThat(bomLineInfo.isValidAt(TimeUtil.parseTimestamp("2020-01-01").toInstant())).isTrue();
+		assertThat(bomLineInfo.isValidAt(Instant.now())).isTrue();
+	}
+
+	/**
+	 * The cache is shared between transactions, so the lines shall be loaded out of transaction.
+	 */
+	@Test
+	void getBOMLines_loadsOutOfTrx()
+	{
+		trxManager.runInNewTrx(() -> {
+			assertThat(trxManager.getThreadInheritedTrxName()).isNotNull(); // guard
+			ppOrderPojoSupplier.getBOMLines(bomId);
+		});
+
+		assertThat(productDescriptorTrxNames).isNotEmpty();
+		assertThat(productDescriptorTrxNames).allSatisfy(trxName -> assertThat(trxManager.isNull(trxName)).isTrue());
+	}
+
+	/**
+	 * The cache shall hold copies of the data it needs, and no PO which could be changed by whoever is holding it in its own transaction.
+	 */
+	@Test
+	void getBOMLines_cachesImmutableData()
+	{
+		assertThat(ppOrderPojoSupplier.getBOMLines(bomId).get(0).getDescription()).isEqualTo("line 1");
+
+		final I_PP_Product_BOMLine bomLineRecord = InterfaceWrapperHelper.load(bomLine.getPP_Product_BOMLine_ID(), I_PP_Product_BOMLine.class);
+		bomLineRecord.setDescription("changed but not saved");
+
+		assertThat(ppOrderPojoSupplier.getBOMLines(bomId).get(0).getDescription()).isEqualTo("line 1");
+		assertThat(productDescriptorTrxNames).hasSize(2); // the lines were loaded only once
+	}
+}
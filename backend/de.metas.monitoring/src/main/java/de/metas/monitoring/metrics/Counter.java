@@ -0,0 +1,67 @@
+package de.metas.monitoring.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * #%L
+ * de.metas.monitoring
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Monotonic, lock-free counter.
+ * <p>
+ * Get instances via {@link MetricsRegistry#counter(String, String, String...)}.
+ */
+public final class Counter
+{
+	private final MetricsRegistry registry;
+	private final LongAdder count = new LongAdder();
+
+	Counter(final MetricsRegistry registry)
+	{
+		this.registry = registry;
+	}
+
+	public void increment()
+	{
+		if (registry.isEnabled())
+		{
+			count.increment();
+		}
+	}
+
+	public void increment(final long amount)
+	{
+		if (registry.isEnabled())
+		{
+			count.add(amount);
+		}
+	}
+
+	public long getCount()
+	{
+		return count.sum();
+	}
+
+	void reset()
+	{
+		count.reset();
+	}
+}
@@ -0,0 +1,155 @@
+package de.metas.monitoring.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * #%L
+ * de.metas.monitoring
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Lock-free histogram of non-negative values, using HDR-style log-linear buckets.
+ * <p>
+ * Each power of two is split into {@value #SUB_BUCKETS} linear sub-buckets, so a recorded value is off by at most 12.5%.
+ * Values below {@value #SUB_BUCKETS} are counted exactly. Values bigger than {@link #getHighestTrackableValue()} are counted in the last bucket.
+ */
+final class LatencyHistogram
+{
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/** Values up to 2^40 (i.e. ~12 days when tracking microseconds) */
+	private static final int MAX_EXPONENT = 40;
+
+	private static final int BUCKETS_COUNT = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS_COUNT);
+
+	public void record(final long value)
+	{
+		counts.incrementAndGet(bucketIndex(value));
+	}
+
+	static int bucketIndex(final long value)
+	{
+		if (value < SUB_BUCKETS)
+		{
+			return value < 0 ? 0 : (int)value;
+		}
+
+		final int exponent = 63 - Long.numberOfLeadingZeros(value);
+		if (exponent > MAX_EXPONENT)
+		{
+			return BUCKETS_COUNT - 1;
+		}
+
+		final int subBucket = (int)(value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * @return the highest value which falls into the bucket with the given index
+	 */
+	static long bucketHighestValue(final int bucketIndex)
+	{
+		if (bucketIndex < SUB_BUCKETS)
+		{
+			return bucketIndex;
+		}
+
+		final int exponent = (bucketIndex - SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS;
+		final int subBucket = (bucketIndex - SUB_BUCKETS) % SUB_BUCKETS;
+		final int shift = exponent - SUB_BUCKET_BITS;
+		return ((long)(SUB_BUCKETS + subBucket + 1) << shift) - 1;
+	}
+
+	static long getHighestTrackableValue()
+	{
+		return bucketHighestValue(BUCKETS_COUNT - 1);
+	}
+
+	public Snapshot snapshot()
+	{
+		final long[] countsCopy = new long[BUCKETS_COUNT];
+		long totalCount = 0;
+		for (int i = 0; i < BUCKETS_COUNT; i++)
+		{
+			countsCopy[i] = counts.get(i);
+			totalCount += countsCopy[i];
+		}
+		return new Snapshot(countsCopy, totalCount);
+	}
+
+	public void reset()
+	{
+		for (int i = 0; i < BUCKETS_COUNT; i++)
+		{
+			counts.set(i, 0);
+		}
+	}
+
+	/**
+	 * Consistent copy of the histogram's buckets, used to compute quantiles.
+	 */
+	static final class Snapshot
+	{
+		private final long[] counts;
+		private final long totalCount;
+
+		private Snapshot(final long[] counts, final long totalCount)
+		{
+			this.counts = counts;
+			this.totalCount = totalCount;
+		}
+
+		public long getTotalCount()
+		{
+			return totalCount;
+		}
+
+		/**
+		 * @param quantile a value between 0 and 1
+		 * @return the highest value of the bucket which contains the given quantile, or zero if nothing was recorded
+		 */
+		public long getValueAtQuantile(final double quantile)
+		{
+			if (totalCount <= 0)
+			{
+				return 0;
+			}
+
+			final double quantileToUse = Math.min(Math.max(quantile, 0), 1);
+			final long rank = Math.max(1, (long)Math.ceil(quantileToUse * totalCount));
+
+			long cumulatedCount = 0;
+			for (int i = 0; i < counts.length; i++)
+			{
+				cumulatedCount += counts[i];
+				if (cumulatedCount >= rank)
+				{
+					return bucketHighestValue(i);
+				}
+			}
+
+			// shall not happen
+			return bucketHighestValue(counts.length - 1);
+		}
+	}
+}
@@ -0,0 +1,182 @@
+package de.metas.monitoring.metrics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import lombok.NonNull;
+
+/*
+ * #%L
+ * de.metas.monitoring
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * All metrics with the same name, one per distinct combination of label values.
+ * <p>
+ * Keep label values low-cardinality (e.g. table names, not record IDs), since every combination is kept forever.
+ *
+ * @param <M> {@link Counter} or {@link Timer}
+ */
+public final class MetricFamily<M>
+{
+	public enum Type
+	{
+		COUNTER, TIMER
+	}
+
+	private final String name;
+	private final String help;
+	private final Type type;
+	private final ImmutableList<String> labelNames;
+	private final Supplier<M> metricFactory;
+	private final BooleanSupplier enabledSupplier;
+
+	private final ConcurrentHashMap<List<String>, M> metricsByLabelValues = new ConcurrentHashMap<>();
+
+	/** Not registered with any label values and therefore never exported; returned by the {@code labelsIfEnabled} methods while the registry is disabled */
+	private final M disabledMetric;
+
+	MetricFamily(
+			@NonNull final String name,
+			@NonNull final String help,
+			@NonNull final Type type,
+			@NonNull final List<String> labelNames,
+			@NonNull final Supplier<M> metricFactory,
+			@NonNull final BooleanSupplier enabledSupplier)
+	{
+		this.name = name;
+		this.help = help;
+		this.type = type;
+		this.labelNames = ImmutableList.copyOf(labelNames);
+		this.metricFactory = metricFactory;
+		this.enabledSupplier = enabledSupplier;
+		this.disabledMetric = metricFactory.get();
+	}
+
+	public String getName()
+	{
+		return name;
+	}
+
+	public String getHelp()
+	{
+		return help;
+	}
+
+	public Type getType()
+	{
+		return type;
+	}
+
+	public ImmutableList<String> getLabelNames()
+	{
+		return labelNames;
+	}
+
+	/**
+	 * @return the metric of the given label values, in the same order as the label names this family was registered with.
+	 *         The result may be kept in a field, since it stays the same for the same label values.
+	 */
+	public M labels(@NonNull final String... labelValues)
+	{
+		if (labelValues.length != labelNames.size())
+		{
+			throw new IllegalArgumentException("Metric " + name + " expects the label values for " + labelNames + " but got " + Arrays.toString(labelValues));
+		}
+
+		final List<String> key = Arrays.asList(labelValues);
+		final M metric = metricsByLabelValues.get(key);
+		if (metric != null)
+		{
+			return metric;
+		}
+
+		return metricsByLabelValues.computeIfAbsent(ImmutableList.copyOf(labelValues), k -> metricFactory.get());
+	}
+
+	/**
+	 * Intended for hot paths that resolve the metric on each call.
+	 * If the registry is disabled, this method doesn't allocate anything and returns a shared metric which is never exported.
+	 * So, unlike {@link #labels(String...)}, the result shall not be kept in a field.
+	 *
+	 * @return the metric of the given label value
+	 */
+	public M labelsIfEnabled(@NonNull final String labelValue)
+	{
+		if (!isEnabled())
+		{
+			return disabledMetric;
+		}
+		return labels(labelValue);
+	}
+
+	/**
+	 * Same as {@link #labelsIfEnabled(String)}, for families with two labels.
+	 */
+	public M labelsIfEnabled(@NonNull final String labelValue1, @NonNull final String labelValue2)
+	{
+		if (!isEnabled())
+		{
+			return disabledMetric;
+		}
+		return labels(labelValue1, labelValue2);
+	}
+
+	public boolean isEnabled()
+	{
+		return enabledSupplier.getAsBoolean();
+	}
+
+	/**
+	 * @return the metric of a family without labels.
+	 */
+	public M get()
+	{
+		return labels();
+	}
+
+	ImmutableMap<List<String>, M> getMetricsByLabelValues()
+	{
+		return ImmutableMap.copyOf(metricsByLabelValues);
+	}
+
+	void forEachMetric(final Consumer<M> consumer)
+	{
+		metricsByLabelValues.values().forEach(consumer);
+	}
+
+	@Override
+	public String toString()
+	{
+		return name + labelNames + " (" + type + ")";
+	}
+
+	boolean isCompatible(final Type type, final List<String> labelNames)
+	{
+		return this.type == type && this.labelNames.equals(labelNames);
+	}
+}
@@ -0,0 +1,240 @@
+package de.metas.monitoring.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+
+import lombok.NonNull;
+
+/*
+ * #%L
+ * de.metas.monitoring
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Registry of low-overhead metrics ({@link Counter}s and {@link Timer}s) for hot code paths.
+ * <p>
+ * The registry is disabled by default, in which case recording a metric costs just one volatile read.
+ * Enable it by setting the system property {@value #SYSTEM_PROPERTY_Enabled} to {@code true} or via JMX ({@value #JMX_NAME}).
+ * <p>
+ * The metrics are exposed via JMX and in Prometheus text format (see {@link #toPrometheusText()}).
+ * <p>
+ * Register metrics once, in a static field, and resolve label values on the hot path via {@code labelsIfEnabled}, which doesn't allocate while the registry is disabled, e.g.
+ *
+ * <pre>
+ * private static final MetricFamily&lt;Timer&gt; SAVE_TIMERS = MetricsRegistry.get().timer("metasfresh_po_save_seconds", "PO.save() duration", "table");
+ * ...
+ * try (final IAutoCloseable ignored = SAVE_TIMERS.labelsIfEnabled(tableName).start())
+ * </pre>
+ */
+public final class MetricsRegistry implements MetricsRegistryMXBean
+{
+	// NOTE: de.metas.logging.LogManager is not available in this module
+	private static final Logger logger = LoggerFactory.getLogger(MetricsRegistry.class);
+
+	public static final String SYSTEM_PROPERTY_Enabled = "de.metas.monitoring.metrics.enabled";
+	public static final String JMX_NAME = "de.metas.monitoring:type=Metrics";
+	public static final String PROMETHEUS_CONTENT_TYPE = PrometheusTextFormat.CONTENT_TYPE;
+
+	private static final Pattern NAME_PATTERN = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+
+	private static final MetricsRegistry instance = createAndRegisterJMX();
+
+	public static MetricsRegistry get()
+	{
+		return instance;
+	}
+
+	private volatile boolean enabled;
+
+	private final ConcurrentHashMap<String, MetricFamily<?>> familiesByName = new ConcurrentHashMap<>();
+
+	@VisibleForTesting
+	MetricsRegistry(final boolean enabled)
+	{
+		this.enabled = enabled;
+	}
+
+	private static MetricsRegistry createAndRegisterJMX()
+	{
+		final MetricsRegistry registry = new MetricsRegistry(Boolean.getBoolean(SYSTEM_PROPERTY_Enabled));
+
+		try
+		{
+			final MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+			final ObjectName name = new ObjectName(JMX_NAME);
+			if (!mbs.isRegistered(name))
+			{
+				mbs.registerMBean(registry, name);
+			}
+		}
+		catch (final JMException | RuntimeException e)
+		{
+			logger.warn("Failed registering {} to JMX. Ignored.", JMX_NAME, e);
+		}
+
+		return registry;
+	}
+
+	@Override
+	public boolean isEnabled()
+	{
+		return enabled;
+	}
+
+	@Override
+	public void setEnabled(final boolean enabled)
+	{
+		this.enabled = enabled;
+		logger.info("Metrics enabled: {}", enabled);
+	}
+
+	/**
+	 * Registers (or gets the already registered) counter family.
+	 *
+	 * @param name Prometheus style metric name, e.g. {@code metasfresh_cache_hits_total}
+	 */
+	@SuppressWarnings("unchecked")
+	public MetricFamily<Counter> counter(@NonNull final String name, @NonNull final String help, @NonNull final String... labelNames)
+	{
+		return (MetricFamily<Counter>)getOrRegister(name, help, MetricFamily.Type.COUNTER, labelNames);
+	}
+
+	/**
+	 * Registers (or gets the already registered) timer family.
+	 *
+	 * @param name Prometheus style metric name, which shall end with {@code _seconds}, e.g. {@code metasfresh_po_save_seconds}
+	 */
+	@SuppressWarnings("unchecked")
+	public MetricFamily<Timer> timer(@NonNull final String name, @NonNull final String help, @NonNull final String... labelNames)
+	{
+		return (MetricFamily<Timer>)getOrRegister(name, help, MetricFamily.Type.TIMER, labelNames);
+	}
+
+	private MetricFamily<?> getOrRegister(
+			final String name,
+			final String help,
+			final MetricFamily.Type type,
+			final String[] labelNames)
+	{
+		final List<String> labelNamesList = Arrays.asList(labelNames);
+
+		final MetricFamily<?> family = familiesByName.computeIfAbsent(name, k -> createFamily(name, help, type, labelNamesList));
+		if (!family.isCompatible(type, labelNamesList))
+		{
+			throw new IllegalArgumentException("Metric " + name + " was already registered as " + family);
+		}
+		return family;
+	}
+
+	private MetricFamily<?> createFamily(
+			final String name,
+			final String help,
+			final MetricFamily.Type type,
+			final List<String> labelNames)
+	{
+		assertValidName(name);
+		labelNames.forEach(MetricsRegistry::assertValidName);
+
+		switch (type)
+		{
+			case COUNTER:
+				return new MetricFamily<>(name, help, type, labelNames, () -> new Counter(this), this::isEnabled);
+			case TIMER:
+				return new MetricFamily<>(name, help, type, labelNames, () -> new Timer(this), this::isEnabled);
+			default:
+				throw new IllegalArgumentException("Unknown type: " + type);
+		}
+	}
+
+	private static void assertValidName(final String name)
+	{
+		if (!NAME_PATTERN.matcher(name).matches())
+		{
+			throw new IllegalArgumentException("Invalid metric or label name: " + name);
+		}
+	}
+
+	private ImmutableList<MetricFamily<?>> getFamiliesSortedByName()
+	{
+		return familiesByName.values()
+				.stream()
+				.sorted(Comparator.comparing(MetricFamily::getName))
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	/**
+	 * @return all metrics, in Prometheus text format; see {@link #PROMETHEUS_CONTENT_TYPE}
+	 */
+	public String toPrometheusText()
+	{
+		return PrometheusTextFormat.toText(getFamiliesSortedByName());
+	}
+
+	@Override
+	public String getPrometheusText()
+	{
+		return toPrometheusText();
+	}
+
+	@Override
+	public Map<String, Double> getValues()
+	{
+		final TreeMap<String, Double> values = new TreeMap<>();
+		for (final MetricFamily<?> family : getFamiliesSortedByName())
+		{
+			PrometheusTextFormat.forEachSample(family, (sampleName, labels, value) -> values.put(sampleName + labels, value));
+		}
+		return values;
+	}
+
+	@Override
+	public void reset()
+	{
+		for (final MetricFamily<?> family : familiesByName.values())
+		{
+			family.forEachMetric(metric -> {
+				if (metric instanceof Counter)
+				{
+					((Counter)metric).reset();
+				}
+				else if (metric instanceof Timer)
+				{
+					((Timer)metric).reset();
+				}
+			});
+		}
+	}
+}
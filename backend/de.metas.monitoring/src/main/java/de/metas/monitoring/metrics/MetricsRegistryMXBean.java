@@ -0,0 +1,45 @@
+package de.metas.monitoring.metrics;
+
+import java.util.Map;
+
+/*
+ * #%L
+ * de.metas.monitoring
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * JMX view of the {@link MetricsRegistry}.
+ */
+public interface MetricsRegistryMXBean
+{
+	boolean isEnabled();
+
+	void setEnabled(boolean enabled);
+
+	/**
+	 * @return all samples, keyed by sample name and labels, as they would be scraped by Prometheus
+	 */
+	Map<String, Double> getValues();
+
+	String getPrometheusText();
+
+	/** Resets all recorded values, but keeps the registered metrics. */
+	void reset();
+}
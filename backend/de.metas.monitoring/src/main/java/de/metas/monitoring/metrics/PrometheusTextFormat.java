@@ -0,0 +1,199 @@
+package de.metas.monitoring.metrics;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableList;
+
+/*
+ * #%L
+ * de.metas.monitoring
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Renders metrics in the Prometheus text exposition format (version 0.0.4).
+ * <p>
+ * Counters are rendered as {@code counter}s. Timers are rendered as {@code summary} (in seconds) with the quantiles {@link #QUANTILES}, plus a {@code <name>_max} gauge.
+ */
+final class PrometheusTextFormat
+{
+	public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+	static final ImmutableList<Double> QUANTILES = ImmutableList.of(0.5, 0.95, 0.99);
+
+	@FunctionalInterface
+	interface SampleConsumer
+	{
+		void accept(String sampleName, String labels, double value);
+	}
+
+	private PrometheusTextFormat()
+	{
+	}
+
+	public static String toText(final Collection<MetricFamily<?>> families)
+	{
+		final StringBuilder out = new StringBuilder();
+		for (final MetricFamily<?> family : families)
+		{
+			writeFamily(out, family);
+		}
+		return out.toString();
+	}
+
+	private static void writeFamily(final StringBuilder out, final MetricFamily<?> family)
+	{
+		final String name = family.getName();
+		if (family.getType() == MetricFamily.Type.COUNTER)
+		{
+			writeHeader(out, name, family.getHelp(), "counter");
+			forEachSample(family, (sampleName, labels, value) -> writeSample(out, sampleName, labels, value));
+		}
+		else
+		{
+			final String maxName = name + "_max";
+
+			writeHeader(out, name, family.getHelp(), "summary");
+			forEachSample(family, (sampleName, labels, value) -> {
+				if (!maxName.equals(sampleName))
+				{
+					writeSample(out, sampleName, labels, value);
+				}
+			});
+
+			writeHeader(out, maxName, family.getHelp() + " (max)", "gauge");
+			forEachSample(family, (sampleName, labels, value) -> {
+				if (maxName.equals(sampleName))
+				{
+					writeSample(out, sampleName, labels, value);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Calls the given consumer for each sample of given family, i.e. one sample per counter and multiple samples per timer.
+	 */
+	static void forEachSample(final MetricFamily<?> family, final SampleConsumer consumer)
+	{
+		final String name = family.getName();
+		final List<String> labelNames = family.getLabelNames();
+
+		for (final Map.Entry<List<String>, ?> entry : family.getMetricsByLabelValues().entrySet())
+		{
+			final List<String> labelValues = entry.getKey();
+			final Object metric = entry.getValue();
+
+			if (metric instanceof Counter)
+			{
+				final Counter counter = (Counter)metric;
+				consumer.accept(name, renderLabels(labelNames, labelValues, null), counter.getCount());
+			}
+			else if (metric instanceof Timer)
+			{
+				final Timer timer = (Timer)metric;
+				final LatencyHistogram.Snapshot histogram = timer.getHistogramSnapshot();
+				final double maxSeconds = nanosToSeconds(timer.getMaxNanos());
+				for (final Double quantile : QUANTILES)
+				{
+					// the histogram's buckets are approximating upwards, so don't report more than the actual max
+					final double seconds = Math.min(microsToSeconds(histogram.getValueAtQuantile(quantile)), maxSeconds);
+					consumer.accept(name, renderLabels(labelNames, labelValues, quantile), seconds);
+				}
+
+				final String labels = renderLabels(labelNames, labelValues, null);
+				consumer.accept(name + "_sum", labels, nanosToSeconds(timer.getTotalNanos()));
+				consumer.accept(name + "_count", labels, timer.getCount());
+				consumer.accept(name + "_max", labels, maxSeconds);
+			}
+		}
+	}
+
+	private static void writeHeader(final StringBuilder out, final String name, final String help, final String type)
+	{
+		out.append("# HELP ").append(name).append(' ').append(escapeHelp(help)).append('\n');
+		out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+	}
+
+	private static void writeSample(final StringBuilder out, final String sampleName, final String labels, final double value)
+	{
+		out.append(sampleName).append(labels).append(' ').append(renderValue(value)).append('\n');
+	}
+
+	static String renderLabels(final List<String> labelNames, final List<String> labelValues, final Double quantile)
+	{
+		if (labelNames.isEmpty() && quantile == null)
+		{
+			return "";
+		}
+
+		final StringBuilder sb = new StringBuilder();
+		sb.append('{');
+		for (int i = 0; i < labelNames.size(); i++)
+		{
+			if (i > 0)
+			{
+				sb.append(',');
+			}
+			sb.append(labelNames.get(i)).append("=\"").append(escapeLabelValue(labelValues.get(i))).append('"');
+		}
+		if (quantile != null)
+		{
+			if (!labelNames.isEmpty())
+			{
+				sb.append(',');
+			}
+			sb.append("quantile=\"").append(quantile).append('"');
+		}
+		sb.append('}');
+		return sb.toString();
+	}
+
+	private static String renderValue(final double value)
+	{
+		if (value == Math.rint(value) && !Double.isInfinite(value))
+		{
+			return Long.toString((long)value);
+		}
+		return Double.toString(value);
+	}
+
+	private static String escapeHelp(final String help)
+	{
+		return help.replace("\\", "\\\\").replace("\n", "\\n");
+	}
+
+	private static String escapeLabelValue(final String value)
+	{
+		return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+	}
+
+	private static double nanosToSeconds(final long nanos)
+	{
+		return nanos / (double)TimeUnit.SECONDS.toNanos(1);
+	}
+
+	private static double microsToSeconds(final long micros)
+	{
+		return micros / (double)TimeUnit.SECONDS.toMicros(1);
+	}
+}
@@ -0,0 +1,153 @@
+package de.metas.monitoring.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.adempiere.util.lang.IAutoCloseable;
+
+import lombok.NonNull;
+
+/*
+ * #%L
+ * de.metas.monitoring
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Lock-free timer which tracks the count, total and max duration plus a latency histogram of the recorded events.
+ * <p>
+ * Get instances via {@link MetricsRegistry#timer(String, String, String...)}. Typical usage:
+ *
+ * <pre>
+ * try (final IAutoCloseable ignored = timer.start())
+ * {
+ * 	// do the work
+ * }
+ * </pre>
+ *
+ * If the registry is disabled, {@link #start()} returns a shared no-op instance, so the only overhead is one volatile read.
+ */
+public final class Timer
+{
+	private static final IAutoCloseable NOOP_SAMPLE = () -> {};
+
+	private final MetricsRegistry registry;
+
+	private final LongAdder count = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+	private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+	/** Durations in microseconds */
+	private final LatencyHistogram histogram = new LatencyHistogram();
+
+	Timer(final MetricsRegistry registry)
+	{
+		this.registry = registry;
+	}
+
+	/**
+	 * @return a sample which records the elapsed time into this timer when it's closed
+	 */
+	public IAutoCloseable start()
+	{
+		if (!registry.isEnabled())
+		{
+			return NOOP_SAMPLE;
+		}
+
+		final long startNanos = System.nanoTime();
+		return () -> recordNanos(System.nanoTime() - startNanos);
+	}
+
+	public <T> T record(@NonNull final Supplier<T> supplier)
+	{
+		try (final IAutoCloseable ignored = start())
+		{
+			return supplier.get();
+		}
+	}
+
+	public void record(@NonNull final Runnable runnable)
+	{
+		try (final IAutoCloseable ignored = start())
+		{
+			runnable.run();
+		}
+	}
+
+	public void record(final long duration, @NonNull final TimeUnit unit)
+	{
+		if (registry.isEnabled())
+		{
+			recordNanos(unit.toNanos(duration));
+		}
+	}
+
+	private void recordNanos(final long nanos)
+	{
+		if (nanos < 0)
+		{
+			return;
+		}
+
+		count.increment();
+		totalNanos.add(nanos);
+		maxNanos.accumulate(nanos);
+		histogram.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+	}
+
+	public long getCount()
+	{
+		return count.sum();
+	}
+
+	public long getTotalNanos()
+	{
+		return totalNanos.sum();
+	}
+
+	public long getMaxNanos()
+	{
+		return maxNanos.get();
+	}
+
+	/**
+	 * @param quantile a value between 0 and 1
+	 * @return the (approximated) duration in nanos at the given quantile
+	 */
+	public long getNanosAtQuantile(final double quantile)
+	{
+		final long nanos = TimeUnit.MICROSECONDS.toNanos(histogram.snapshot().getValueAtQuantile(quantile));
+		return Math.min(nanos, getMaxNanos());
+	}
+
+	LatencyHistogram.Snapshot getHistogramSnapshot()
+	{
+		return histogram.snapshot();
+	}
+
+	void reset()
+	{
+		count.reset();
+		totalNanos.reset();
+		maxNanos.reset();
+		histogram.reset();
+	}
+}
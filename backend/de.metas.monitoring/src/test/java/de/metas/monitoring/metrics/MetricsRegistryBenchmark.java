@@ -0,0 +1,118 @@
+package de.metas.monitoring.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.adempiere.util.lang.IAutoCloseable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+ * #%L
+ * de.metas.monitoring
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Measures the overhead which the metrics add to the instrumented hot paths, with the registry enabled and disabled.
+ * <p>
+ * Not a unit test; run it via {@link #main(String[])}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class MetricsRegistryBenchmark
+{
+	@Param({ "false", "true" })
+	public boolean enabled;
+
+	private MetricFamily<Timer> timers;
+	private MetricFamily<Counter> counters;
+	private Timer timer;
+	private Counter counter;
+
+	@Setup
+	public void setup()
+	{
+		final MetricsRegistry registry = new MetricsRegistry(enabled);
+		timers = registry.timer("benchmark_seconds", "help", "table");
+		counters = registry.counter("benchmark_total", "help", "cache");
+		timer = timers.labels("C_Order");
+		counter = counters.labels("C_Order");
+	}
+
+	@Benchmark
+	public void baseline()
+	{
+	}
+
+	@Benchmark
+	public void timerStartAndClose()
+	{
+		try (final IAutoCloseable ignored = timer.start())
+		{
+			// nothing
+		}
+	}
+
+	@Benchmark
+	public void timerLabelsStartAndClose()
+	{
+		try (final IAutoCloseable ignored = timers.labels("C_Order").start())
+		{
+			// nothing
+		}
+	}
+
+	@Benchmark
+	public void counterIncrement()
+	{
+		counter.increment();
+	}
+
+	@Benchmark
+	public void counterLabelsIncrement()
+	{
+		counters.labels("C_Order").increment();
+	}
+
+	public static void main(final String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+				.include(MetricsRegistryBenchmark.class.getSimpleName())
+				.build())
+						.run();
+	}
+}
@@ -0,0 +1,171 @@
+package de.metas.monitoring.metrics;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/*
+ * #%L
+ * de.metas.monitoring
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class MetricsRegistryTest
+{
+	@Test
+	public void counter()
+	{
+		final MetricsRegistry registry = new MetricsRegistry(true);
+		final MetricFamily<Counter> family = registry.counter("test_total", "help", "table");
+
+		family.labels("C_Order").increment();
+		family.labels("C_Order").increment(2);
+		family.labels("C_Invoice").increment();
+
+		assertThat(family.labels("C_Order").getCount(), is(3L));
+		assertThat(family.labels("C_Invoice").getCount(), is(1L));
+		assertThat(family.labels("C_Order"), sameInstance(family.labels("C_Order")));
+	}
+
+	@Test
+	public void disabledRegistry_recordsNothing()
+	{
+		final MetricsRegistry registry = new MetricsRegistry(false);
+		final Counter counter = registry.counter("test_total", "help").get();
+		final Timer timer = registry.timer("test_seconds", "help").get();
+
+		counter.increment();
+		timer.record(10, TimeUnit.MILLISECONDS);
+		timer.record(() -> {});
+
+		assertThat(counter.getCount(), is(0L));
+		assertThat(timer.getCount(), is(0L));
+
+		registry.setEnabled(true);
+		counter.increment();
+		assertThat(counter.getCount(), is(1L));
+	}
+
+	@Test
+	public void labelsIfEnabled()
+	{
+		final MetricsRegistry registry = new MetricsRegistry(false);
+		final MetricFamily<Timer> family = registry.timer("test_seconds", "help", "table", "timing");
+
+		final Timer disabledTimer = family.labelsIfEnabled("C_Order", "AFTER_NEW");
+		assertThat(disabledTimer, sameInstance(family.labelsIfEnabled("C_Invoice", "AFTER_NEW"))); // shared instance
+		assertThat(family.getMetricsByLabelValues().isEmpty(), is(true)); // nothing was registered
+
+		registry.setEnabled(true);
+		final Timer enabledTimer = family.labelsIfEnabled("C_Order", "AFTER_NEW");
+		assertThat(enabledTimer, sameInstance(family.labels("C_Order", "AFTER_NEW")));
+		assertThat(enabledTimer == disabledTimer, is(false));
+		assertThat(family.getMetricsByLabelValues().size(), is(1));
+	}
+
+	@Test
+	public void timer()
+	{
+		final MetricsRegistry registry = new MetricsRegistry(true);
+		final Timer timer = registry.timer("test_seconds", "help").get();
+
+		for (int i = 1; i <= 100; i++)
+		{
+			timer.record(i, TimeUnit.MILLISECONDS);
+		}
+
+		assertThat(timer.getCount(), is(100L));
+		assertThat(timer.getTotalNanos(), is(TimeUnit.MILLISECONDS.toNanos(5050)));
+		assertThat(timer.getMaxNanos(), is(TimeUnit.MILLISECONDS.toNanos(100)));
+
+		// the histogram is accurate to 1/8 of the value
+		final long p50 = timer.getNanosAtQuantile(0.5);
+		assertThat(p50, greaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50)));
+		assertThat(p50, lessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(57)));
+		assertThat(timer.getNanosAtQuantile(1), is(TimeUnit.MILLISECONDS.toNanos(100)));
+	}
+
+	@Test
+	public void histogramBuckets()
+	{
+		for (final long value : new long[] { 0, 1, 7, 8, 9, 15, 16, 100, 1000, 123456789 })
+		{
+			final int index = LatencyHistogram.bucketIndex(value);
+			assertThat("value " + value, LatencyHistogram.bucketHighestValue(index), greaterThanOrEqualTo(value));
+			assertThat("value " + value, LatencyHistogram.bucketHighestValue(index), lessThanOrEqualTo(value + value / 8));
+			if (index > 0)
+			{
+				assertThat("value " + value, LatencyHistogram.bucketHighestValue(index - 1), lessThanOrEqualTo(value - 1));
+			}
+		}
+	}
+
+	@Test
+	public void reset()
+	{
+		final MetricsRegistry registry = new MetricsRegistry(true);
+		final Counter counter = registry.counter("test_total", "help").get();
+		counter.increment();
+
+		registry.reset();
+
+		assertThat(counter.getCount(), is(0L));
+		assertThat(registry.counter("test_total", "help").get(), sameInstance(counter));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void registerSameNameWithOtherLabels()
+	{
+		final MetricsRegistry registry = new MetricsRegistry(true);
+		registry.counter("test_total", "help", "table");
+		registry.counter("test_total", "help", "cache");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void wrongNumberOfLabelValues()
+	{
+		final MetricsRegistry registry = new MetricsRegistry(true);
+		registry.counter("test_total", "help", "table").labels("C_Order", "C_Invoice");
+	}
+
+	@Test
+	public void toPrometheusText()
+	{
+		final MetricsRegistry registry = new MetricsRegistry(true);
+		registry.counter("test_total", "Test counter", "table").labels("C_Order").increment(5);
+		registry.timer("test_seconds", "Test timer", "table").labels("C_\"Order\"").record(2, TimeUnit.SECONDS);
+
+		final String text = registry.toPrometheusText();
+
+		assertThat(text, containsString("# TYPE test_total counter\n"));
+		assertThat(text, containsString("test_total{table=\"C_Order\"} 5\n"));
+		assertThat(text, containsString("# TYPE test_seconds summary\n"));
+		assertThat(text, containsString("test_seconds{table=\"C_\\\"Order\\\"\",quantile=\"0.5\"} 2\n"));
+		assertThat(text, containsString("test_seconds_sum{table=\"C_\\\"Order\\\"\"} 2\n"));
+		assertThat(text, containsString("test_seconds_count{table=\"C_\\\"Order\\\"\"} 1\n"));
+		assertThat(text, containsString("# TYPE test_seconds_max gauge\n"));
+	}
+}
@@ -34,10 +34,13 @@ import javax.annotation.Nullable;
 import org.compiere.model.I_C_Invoice;
 import org.compiere.model.I_C_Payment;
 
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
 import de.metas.banking.BankStatementAndLineAndRefId;
 import de.metas.banking.BankStatementLineId;
+import de.metas.document.refid.model.I_C_ReferenceNo;
 import de.metas.document.refid.model.I_C_ReferenceNo_Doc;
 import de.metas.organization.OrgId;
 import de.metas.payment.PaymentId;
@@ -80,6 +83,20 @@ public interface IESRImportDAO extends ISingletonService
 	 */
 	I_C_ReferenceNo_Doc retrieveESRInvoiceReferenceNumberDocument(OrgId orgId, String esrReferenceNumber);
 
+	/**
+	 * Bulk variant of the first step of {@link #retrieveESRInvoiceReferenceNumberDocument(OrgId, String)}.
+	 *
+	 * @return invoice reference numbers of the given org or of {@link OrgId#ANY}, indexed by the given ESR reference numbers they were matched with; reference numbers without a match are not included
+	 */
+	ImmutableMap<String, I_C_ReferenceNo> retrieveESRInvoiceReferenceNumbers(OrgId orgId, Set<String> esrReferenceNumbers);
+
+	/**
+	 * Bulk variant of the second step of {@link #retrieveESRInvoiceReferenceNumberDocument(OrgId, String)}.
+	 *
+	 * @return the invoice documents of the given reference numbers, indexed by C_ReferenceNo_ID
+	 */
+	ImmutableListMultimap<Integer, I_C_ReferenceNo_Doc> retrieveInvoiceReferenceNumberDocuments(Set<Integer> referenceNoIds);
+
 	/**
 	 * Retrieve the existing esr imports of the organization given as parameter (through ID)
 	 */
@@ -21,6 +21,7 @@ import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import org.adempiere.ad.trx.api.ITrxManager;
 import org.adempiere.ad.trx.api.OnTrxMissingPolicy;
@@ -44,6 +45,8 @@ import org.slf4j.Logger;
 import org.springframework.stereotype.Service;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
@@ -85,6 +88,7 @@ import de.metas.payment.esr.dataimporter.ESRDataLoaderUtil;
 import de.metas.payment.esr.dataimporter.ESRImportEnqueuer;
 import de.metas.payment.esr.dataimporter.ESRImportEnqueuerDataSource;
 import de.metas.payment.esr.dataimporter.ESRImportEnqueuerDuplicateFilePolicy;
+import de.metas.payment.esr.dataimporter.ESRInvoiceReferenceNumbersIndex;
 import de.metas.payment.esr.dataimporter.ESRStatement;
 import de.metas.payment.esr.dataimporter.ESRTransaction;
 import de.metas.payment.esr.dataimporter.IESRDataImporter;
@@ -267,17 +271,21 @@ public class ESRImportBL implements IESRImportBL
 		BigDecimal importAmt = BigDecimal.ZERO;
 		int trxQty = 0;
 
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
 		final List<I_ESR_ImportLine> esrImportLines = esrImportDAO.retrieveLines(esrImport);
+		final ESRInvoiceReferenceNumbersIndex invoiceReferenceNumbersIndex = ESRInvoiceReferenceNumbersIndex.ofImportLines(esrImportLines);
 
 		for (final I_ESR_ImportLine importLine : esrImportLines)
 		{
 			//
 			// now do different validations with the values loaded from the input file
-			evaluateLine(esrImport, importLine);
+			evaluateLine(esrImport, importLine, invoiceReferenceNumbersIndex);
 
 			importAmt = importAmt.add(importLine.getAmount());
 			trxQty++;
 		}
+		logLinesPerSecond("Evaluated", esrImportLines.size(), stopwatch);
 
 		final boolean hasLines = esrImportLines.size() > 0;
 		final boolean fitAmounts = importAmt.compareTo(esrImport.getESR_Control_Amount()) == 0;
@@ -326,6 +334,14 @@ public class ESRImportBL implements IESRImportBL
 
 	@VisibleForTesting
 	public void evaluateLine(@NonNull final I_ESR_Import esrImport, @NonNull final I_ESR_ImportLine importLine)
+	{
+		evaluateLine(esrImport, importLine, ESRInvoiceReferenceNumbersIndex.ofImportLines(ImmutableList.of(importLine)));
+	}
+
+	private void evaluateLine(
+			@NonNull final I_ESR_Import esrImport,
+			@NonNull final I_ESR_ImportLine importLine,
+			@NonNull final ESRInvoiceReferenceNumbersIndex invoiceReferenceNumbersIndex)
 	{
 		if (isReverseBookingLine(importLine))
 		{
@@ -343,7 +359,7 @@ public class ESRImportBL implements IESRImportBL
 		}
 
 		// The reference number of the ESR Import line
-		ESRDataLoaderUtil.evaluateEsrReferenceNumber(importLine);
+		ESRDataLoaderUtil.evaluateEsrReferenceNumber(importLine, invoiceReferenceNumbersIndex);
 
 		// task 05917: check if the the payment date from the ESR file is OK for us
 		try
@@ -380,10 +396,11 @@ public class ESRImportBL implements IESRImportBL
 	 * <li>PaymentDate</li>
 	 * </ul>
 	 *
-	 * @param importedLines
-	 * @return
+	 * @param invoicesById the lines' invoices, see {@link #retrieveInvoicesById(List)}
 	 */
-	private Map<ArrayKey, List<I_ESR_ImportLine>> groupLines(final List<I_ESR_ImportLine> importedLines)
+	private Map<ArrayKey, List<I_ESR_ImportLine>> groupLines(
+			final List<I_ESR_ImportLine> importedLines,
+			final Map<Integer, I_C_Invoice> invoicesById)
 	{
 		final Map<ArrayKey, List<I_ESR_ImportLine>> key2Lines = new HashMap<>();
 
@@ -395,7 +412,7 @@ public class ESRImportBL implements IESRImportBL
 				continue;
 			}
 
-			final ArrayKey key = mkESRLineKey(line);
+			final ArrayKey key = mkESRLineKey(line, invoicesById);
 
 			List<I_ESR_ImportLine> linesOfInvoice = key2Lines.get(key);
 			if (linesOfInvoice == null)
@@ -410,13 +427,27 @@ public class ESRImportBL implements IESRImportBL
 		return key2Lines;
 	}
 
-	private ArrayKey mkESRLineKey(final I_ESR_ImportLine line)
+	/**
+	 * Loads the invoices of the given lines with one query, instead of loading them line by line via {@link I_ESR_ImportLine#getC_Invoice()}.
+	 */
+	private ImmutableMap<Integer, I_C_Invoice> retrieveInvoicesById(final List<I_ESR_ImportLine> lines)
+	{
+		final ImmutableSet<Integer> invoiceIds = lines.stream()
+				.map(I_ESR_ImportLine::getC_Invoice_ID)
+				.filter(invoiceId -> invoiceId > 0)
+				.collect(ImmutableSet.toImmutableSet());
+
+		return Maps.uniqueIndex(InterfaceWrapperHelper.loadByIds(invoiceIds, I_C_Invoice.class), I_C_Invoice::getC_Invoice_ID);
+	}
+
+	private ArrayKey mkESRLineKey(final I_ESR_ImportLine line, final Map<Integer, I_C_Invoice> invoicesById)
 	{
 		final ArrayKey key;
 
-		if (line.getC_Invoice_ID() > 0
-				&& !line.getC_Invoice().isPaid()
-				&& line.getC_Invoice().getAD_Org_ID() == line.getAD_Org_ID() // only if orgs match
+		final I_C_Invoice invoice = line.getC_Invoice_ID() > 0 ? invoicesById.get(line.getC_Invoice_ID()) : null;
+		if (invoice != null
+				&& !invoice.isPaid()
+				&& invoice.getAD_Org_ID() == line.getAD_Org_ID() // only if orgs match
 		// we also want to handle invoices that are already paid, because this line links them to another payment
 		/* && !line.getC_Invoice().isPaid() */)
 		{
@@ -437,6 +468,12 @@ public class ESRImportBL implements IESRImportBL
 		return key;
 	}
 
+	private static void logLinesPerSecond(final String action, final int linesCount, final Stopwatch stopwatch)
+	{
+		final long elapsedMillis = Math.max(stopwatch.elapsed(TimeUnit.MILLISECONDS), 1);
+		logger.info("{} {} ESR import lines in {}ms ({} lines/second)", action, linesCount, elapsedMillis, linesCount * 1000L / elapsedMillis);
+	}
+
 	@Override
 	public int process(final I_ESR_Import esrImport)
 	{
@@ -465,6 +502,13 @@ public class ESRImportBL implements IESRImportBL
 				throw new AdempiereException("@NoLines@");
 			}
 
+			final Stopwatch stopwatch = Stopwatch.createStarted();
+
+			// the lines which are not valid yet will be evaluated again, see below
+			final ESRInvoiceReferenceNumbersIndex invoiceReferenceNumbersIndex = ESRInvoiceReferenceNumbersIndex.ofImportLines(allLines.stream()
+					.filter(line -> !line.isValid() && !line.isProcessed())
+					.collect(ImmutableList.toImmutableList()));
+
 			for (final I_ESR_ImportLine line : allLines)
 			{
 				// skip the control line
@@ -508,7 +552,7 @@ public class ESRImportBL implements IESRImportBL
 				// Check/Validate
 				if (!line.isValid())
 				{
-					evaluateLine(esrImport, line);
+					evaluateLine(esrImport, line, invoiceReferenceNumbersIndex);
 				}
 				// finally, skip lines that have no bpartner set
 				if (line.getC_BPartner_ID() <= 0)
@@ -518,7 +562,8 @@ public class ESRImportBL implements IESRImportBL
 				linesToProcess.add(line);
 			}
 
-			final Map<ArrayKey, List<I_ESR_ImportLine>> invoiceKey2Line = groupLines(linesToProcess);
+			final ImmutableMap<Integer, I_C_Invoice> invoicesById = retrieveInvoicesById(linesToProcess);
+			final Map<ArrayKey, List<I_ESR_ImportLine>> invoiceKey2Line = groupLines(linesToProcess, invoicesById);
 			// 03808: Check if sum is not negative for any group
 
 			final boolean isPositiveGroupLinesAmount = checkPositiveGroupLinesAmount(invoiceKey2Line);
@@ -530,7 +575,7 @@ public class ESRImportBL implements IESRImportBL
 			for (final I_ESR_ImportLine lineToProcess : linesToProcess)
 			{
 				// important: when processing our grouped lines, we still to do so in the order of those lines, to avoid problems with multiple lines that have the same invoice but different payments!
-				final ArrayKey key = mkESRLineKey(lineToProcess);
+				final ArrayKey key = mkESRLineKey(lineToProcess, invoicesById);
 				if (!keysSeen.add(key))
 				{
 					continue;
@@ -566,6 +611,7 @@ public class ESRImportBL implements IESRImportBL
 			}
 
 			esrImportDAO.save(esrImport);
+			logLinesPerSecond("Processed", linesToProcess.size(), stopwatch);
 			return linesToProcess.size();
 		}
 		catch (final Exception e)
@@ -28,13 +28,16 @@ import static org.adempiere.model.InterfaceWrapperHelper.saveRecord;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 
 import javax.annotation.Nullable;
 
+import org.adempiere.ad.dao.ICompositeQueryFilter;
 import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.ad.dao.IQueryBuilder;
 import org.adempiere.ad.dao.impl.CompareQueryFilter.Operator;
@@ -49,7 +52,10 @@ import org.compiere.model.I_C_Payment;
 import org.compiere.util.Env;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 
 import de.metas.banking.BankStatementAndLineAndRefId;
 import de.metas.banking.BankStatementLineId;
@@ -74,6 +80,9 @@ public class ESRImportDAO implements IESRImportDAO
 {
 	private final IQueryBL queryBL = Services.get(IQueryBL.class);
 
+	/** How many ESR reference numbers are matched in one query; each of them is a {@code LIKE} condition */
+	private static final int ESR_REFERENCE_NUMBERS_QUERY_CHUNK_SIZE = 500;
+
 	/**
 	 * Used to order lines by <code>LineNo, ESR_ImportLine_ID</code>.
 	 */
@@ -268,6 +277,91 @@ public class ESRImportDAO implements IESRImportDAO
 		return referenceNoRecord;
 	}
 
+	@Override
+	public ImmutableMap<String, I_C_ReferenceNo> retrieveESRInvoiceReferenceNumbers(
+			@NonNull final OrgId orgId,
+			@NonNull final Set<String> esrReferenceNumbers)
+	{
+		if (esrReferenceNumbers.isEmpty())
+		{
+			return ImmutableMap.of();
+		}
+
+		final IReferenceNoDAO refNoDAO = Services.get(IReferenceNoDAO.class);
+		final I_C_ReferenceNo_Type refNoType = refNoDAO.retrieveRefNoTypeByName(ESRConstants.DOCUMENT_REFID_ReferenceNo_Type_InvoiceReferenceNumber);
+
+		final Map<String, I_C_ReferenceNo> result = new HashMap<>(esrReferenceNumbers.size());
+		for (final List<String> esrReferenceNumbersChunk : Iterables.partition(esrReferenceNumbers, ESR_REFERENCE_NUMBERS_QUERY_CHUNK_SIZE))
+		{
+			// same wild cards as in fetchESRInvoiceReferenceNumber, OR-ed together
+			final ICompositeQueryFilter<I_C_ReferenceNo> referenceNoFilter = queryBL.createCompositeQueryFilter(I_C_ReferenceNo.class).setJoinOr();
+			for (final String esrReferenceNumber : esrReferenceNumbersChunk)
+			{
+				referenceNoFilter.addCompareFilter(I_C_ReferenceNo.COLUMNNAME_ReferenceNo, Operator.STRING_LIKE, "%" + esrReferenceNumber + "_");
+			}
+
+			final List<I_C_ReferenceNo> referenceNoRecords = queryBL.createQueryBuilder(I_C_ReferenceNo.class)
+					.addOnlyActiveRecordsFilter()
+					.filter(referenceNoFilter)
+					.addEqualsFilter(I_C_ReferenceNo.COLUMNNAME_C_ReferenceNo_Type_ID, refNoType.getC_ReferenceNo_Type_ID())
+					.addInArrayFilter(I_C_ReferenceNo_Type.COLUMNNAME_AD_Org_ID, orgId, OrgId.ANY)
+					.orderBy(I_C_ReferenceNo.COLUMNNAME_C_ReferenceNo_ID)
+					.create()
+					.setRequiredAccess(Access.READ)
+					.list(I_C_ReferenceNo.class);
+
+			for (final I_C_ReferenceNo referenceNoRecord : referenceNoRecords)
+			{
+				for (final String esrReferenceNumber : extractMatchingESRReferenceNumbers(referenceNoRecord.getReferenceNo(), esrReferenceNumbersChunk))
+				{
+					// prefer the org's own reference number over the one of OrgId.ANY
+					final I_C_ReferenceNo existingRecord = result.get(esrReferenceNumber);
+					if (existingRecord == null || existingRecord.getAD_Org_ID() != orgId.getRepoId())
+					{
+						result.put(esrReferenceNumber, referenceNoRecord);
+					}
+				}
+			}
+		}
+
+		return ImmutableMap.copyOf(result);
+	}
+
+	/**
+	 * Reverses the wild cards of {@link #fetchESRInvoiceReferenceNumber(String, OrgId)}, i.e. strips the reference number's last character and checks the ESR reference numbers against its end.
+	 */
+	private static List<String> extractMatchingESRReferenceNumbers(@Nullable final String referenceNo, @NonNull final List<String> esrReferenceNumbers)
+	{
+		if (referenceNo == null || referenceNo.isEmpty())
+		{
+			return ImmutableList.of();
+		}
+
+		final String referenceNoWithoutLastChar = referenceNo.substring(0, referenceNo.length() - 1);
+		return esrReferenceNumbers.stream()
+				.filter(referenceNoWithoutLastChar::endsWith)
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	@Override
+	public ImmutableListMultimap<Integer, I_C_ReferenceNo_Doc> retrieveInvoiceReferenceNumberDocuments(@NonNull final Set<Integer> referenceNoIds)
+	{
+		if (referenceNoIds.isEmpty())
+		{
+			return ImmutableListMultimap.of();
+		}
+
+		return queryBL.createQueryBuilder(I_C_ReferenceNo_Doc.class)
+				.addOnlyActiveRecordsFilter()
+				.addInArrayFilter(I_C_ReferenceNo_Doc.COLUMNNAME_C_ReferenceNo_ID, referenceNoIds)
+				.addEqualsFilter(I_C_ReferenceNo_Doc.COLUMNNAME_AD_Table_ID, getTableId(I_C_Invoice.class))
+				.orderBy(I_C_ReferenceNo_Doc.COLUMNNAME_C_ReferenceNo_Doc_ID)
+				.create()
+				.setRequiredAccess(Access.READ)
+				.stream(I_C_ReferenceNo_Doc.class)
+				.collect(ImmutableListMultimap.toImmutableListMultimap(I_C_ReferenceNo_Doc::getC_ReferenceNo_ID, doc -> doc));
+	}
+
 	@Override
 	public List<I_ESR_ImportLine> retrieveAllLinesByBankStatementLineIds(@NonNull final Collection<BankStatementLineId> bankStatementLineIds)
 	{
@@ -2,14 +2,17 @@ package de.metas.payment.esr.dataimporter;
 
 import java.util.List;
 
+import javax.annotation.Nullable;
+
 import org.adempiere.ad.table.api.IADTableDAO;
-import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.model.InterfaceWrapperHelper;
 import org.compiere.model.I_AD_Org;
 import org.compiere.model.I_C_BPartner;
 import org.compiere.model.I_C_Invoice;
 import org.compiere.util.Env;
 
+import com.google.common.collect.ImmutableList;
+
 import de.metas.banking.BankAccount;
 import de.metas.banking.BankAccountId;
 import de.metas.banking.api.IBPBankAccountDAO;
@@ -24,8 +27,8 @@ import de.metas.organization.IOrgDAO;
 import de.metas.organization.OrgId;
 import de.metas.payment.esr.api.IESRBPBankAccountDAO;
 import de.metas.payment.esr.api.IESRImportBL;
-import de.metas.payment.esr.api.IESRImportDAO;
 import de.metas.payment.esr.api.IESRLineHandlersService;
+import de.metas.payment.esr.dataimporter.ESRInvoiceReferenceNumbersIndex.InvoiceReferenceNoDocument;
 import de.metas.payment.esr.model.I_ESR_Import;
 import de.metas.payment.esr.model.I_ESR_ImportLine;
 import de.metas.payment.esr.model.I_ESR_PostFinanceUserNumber;
@@ -82,7 +85,6 @@ public class ESRDataLoaderUtil
 
 	private final IBPBankAccountDAO bpBankAccountRepo = Services.get(IBPBankAccountDAO.class);
 	private final IESRBPBankAccountDAO esrbpBankAccountRepo = Services.get(IESRBPBankAccountDAO.class);
-	private final IESRImportDAO esrImportDAO = Services.get(IESRImportDAO.class);
 	private final IESRImportBL esrImportBL = Services.get(IESRImportBL.class);
 
 	public I_ESR_ImportLine newLine(@NonNull final I_ESR_Import esrImport)
@@ -113,6 +115,17 @@ public class ESRDataLoaderUtil
 	 * @param completeEsrReferenceNumberStr
 	 */
 	public void evaluateEsrReferenceNumber(@NonNull final I_ESR_ImportLine importLine)
+	{
+		evaluateEsrReferenceNumber(importLine, ESRInvoiceReferenceNumbersIndex.ofImportLines(ImmutableList.of(importLine)));
+	}
+
+	/**
+	 * Same as {@link #evaluateEsrReferenceNumber(I_ESR_ImportLine)}, but looks up the reference numbers and invoices in the given index,
+	 * which is supposed to be created for many lines at once.
+	 */
+	public void evaluateEsrReferenceNumber(
+			@NonNull final I_ESR_ImportLine importLine,
+			@NonNull final ESRInvoiceReferenceNumbersIndex invoiceReferenceNumbersIndex)
 	{
 		final String completeEsrReferenceNumberStr = importLine.getESRFullReferenceNumber();
 		if (Check.isEmpty(completeEsrReferenceNumberStr, true))
@@ -120,13 +133,12 @@ public class ESRDataLoaderUtil
 			return; // there is nothing to do. Note that we don't log an error because if this string is empty, something already failed and was logged before.
 		}
 
-		// When matching, we will ignore the first 7 digits (the bank account no), and the last digit (check digit)
-		final String esrReferenceNumberToMatch = completeEsrReferenceNumberStr.substring(7, 26);
+		final String esrReferenceNumberToMatch = extractEsrReferenceNumberToMatch(completeEsrReferenceNumberStr);
 
 		importLine.setESRReferenceNumber(esrReferenceNumberToMatch);
 
-		final I_C_ReferenceNo_Doc esrReferenceNumberDocument = esrImportDAO
-				.retrieveESRInvoiceReferenceNumberDocument(OrgId.ofRepoIdOrAny(importLine.getAD_Org_ID()), esrReferenceNumberToMatch);
+		final InvoiceReferenceNoDocument esrReferenceNumberDocument = invoiceReferenceNumbersIndex
+				.getInvoiceReferenceNoDocument(OrgId.ofRepoIdOrAny(importLine.getAD_Org_ID()), esrReferenceNumberToMatch);
 
 		if (esrReferenceNumberDocument == null)
 		{
@@ -136,19 +148,21 @@ public class ESRDataLoaderUtil
 		}
 		else
 		{
-			final I_C_ReferenceNo currentReferenceNo = esrReferenceNumberDocument.getC_ReferenceNo();
+			final I_C_ReferenceNo currentReferenceNo = esrReferenceNumberDocument.getReferenceNo();
 
 			importLine.setESR_IsManual_ReferenceNo(currentReferenceNo.isManual());
-			importLine.setESRReferenceNumber(esrReferenceNumberDocument.getC_ReferenceNo().getReferenceNo());
+			importLine.setESRReferenceNumber(currentReferenceNo.getReferenceNo());
+
+			final I_C_ReferenceNo_Doc referenceNoDoc = esrReferenceNumberDocument.getReferenceNoDoc();
 
 			// check if invoice
-			final String tableName = Services.get(IADTableDAO.class).retrieveTableName(esrReferenceNumberDocument.getAD_Table_ID());
+			final String tableName = Services.get(IADTableDAO.class).retrieveTableName(referenceNoDoc.getAD_Table_ID());
 			if (I_C_Invoice.Table_Name.equalsIgnoreCase(tableName))
 			{
-				importLine.setC_ReferenceNo_ID(esrReferenceNumberDocument.getC_ReferenceNo_ID());
+				importLine.setC_ReferenceNo_ID(referenceNoDoc.getC_ReferenceNo_ID());
 
-				final int invoiceID = esrReferenceNumberDocument.getRecord_ID();
-				final I_C_Invoice invoice = InterfaceWrapperHelper.create(Env.getCtx(), invoiceID, I_C_Invoice.class, ITrx.TRXNAME_None);
+				final int invoiceID = referenceNoDoc.getRecord_ID();
+				final I_C_Invoice invoice = invoiceReferenceNumbersIndex.getInvoice(invoiceID);
 
 				final boolean match = Services.get(IESRLineHandlersService.class)
 						.applyESRMatchingBPartnerOfTheInvoice(invoice, importLine);
@@ -183,6 +197,27 @@ public class ESRDataLoaderUtil
 		}
 	}
 
+	/**
+	 * When matching, we will ignore the first 7 digits (the bank account no), and the last digit (check digit)
+	 */
+	private String extractEsrReferenceNumberToMatch(@NonNull final String completeEsrReferenceNumberStr)
+	{
+		return completeEsrReferenceNumberStr.substring(7, 26);
+	}
+
+	/**
+	 * @return the part of the given ESR reference number which is matched against the invoice reference numbers, or {@code null} if the given string is empty or too short
+	 */
+	@Nullable
+	/* package */ String extractEsrReferenceNumberToMatchOrNull(@Nullable final String completeEsrReferenceNumberStr)
+	{
+		if (Check.isEmpty(completeEsrReferenceNumberStr, true) || completeEsrReferenceNumberStr.length() < 26)
+		{
+			return null;
+		}
+		return extractEsrReferenceNumberToMatch(completeEsrReferenceNumberStr);
+	}
+
 	private void setValuesFromInvoice(final I_ESR_ImportLine importLine, final I_C_Invoice invoice)
 	{
 		importLine.setC_BPartner_ID(invoice.getC_BPartner_ID()); // 04582: no need to load the whole bpartner when we just need the ID
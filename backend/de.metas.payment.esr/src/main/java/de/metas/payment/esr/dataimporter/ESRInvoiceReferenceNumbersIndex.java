@@ -0,0 +1,181 @@
+package de.metas.payment.esr.dataimporter;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.ad.trx.api.ITrx;
+import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.model.InterfaceWrapperHelper;
+import org.compiere.model.I_C_Invoice;
+import org.compiere.util.Env;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+
+import de.metas.document.refid.model.I_C_ReferenceNo;
+import de.metas.document.refid.model.I_C_ReferenceNo_Doc;
+import de.metas.organization.OrgId;
+import de.metas.payment.esr.api.IESRImportDAO;
+import de.metas.payment.esr.model.I_ESR_ImportLine;
+import de.metas.util.Loggables;
+import de.metas.util.Services;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * de.metas.payment.esr
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * The invoice reference numbers, their invoice documents and the invoices of a bunch of ESR import lines, loaded with a few queries for all lines at once.
+ * <p>
+ * Lookups for reference numbers which were not part of the lines this index was created for fall back to {@link IESRImportDAO#retrieveESRInvoiceReferenceNumberDocument(OrgId, String)}.
+ */
+public final class ESRInvoiceReferenceNumbersIndex
+{
+	public static ESRInvoiceReferenceNumbersIndex ofImportLines(@NonNull final Collection<I_ESR_ImportLine> importLines)
+	{
+		final IESRImportDAO esrImportDAO = Services.get(IESRImportDAO.class);
+
+		final ImmutableSetMultimap.Builder<OrgId, String> esrReferenceNumbersByOrgIdBuilder = ImmutableSetMultimap.builder();
+		for (final I_ESR_ImportLine importLine : importLines)
+		{
+			final String esrReferenceNumber = ESRDataLoaderUtil.extractEsrReferenceNumberToMatchOrNull(importLine.getESRFullReferenceNumber());
+			if (esrReferenceNumber != null)
+			{
+				esrReferenceNumbersByOrgIdBuilder.put(OrgId.ofRepoIdOrAny(importLine.getAD_Org_ID()), esrReferenceNumber);
+			}
+		}
+		final ImmutableSetMultimap<OrgId, String> esrReferenceNumbersByOrgId = esrReferenceNumbersByOrgIdBuilder.build();
+
+		final ImmutableMap.Builder<OrgId, ImmutableMap<String, I_C_ReferenceNo>> referenceNosByOrgId = ImmutableMap.builder();
+		final ImmutableSet.Builder<Integer> referenceNoIds = ImmutableSet.builder();
+		for (final Map.Entry<OrgId, Collection<String>> entry : esrReferenceNumbersByOrgId.asMap().entrySet())
+		{
+			final ImmutableMap<String, I_C_ReferenceNo> referenceNos = esrImportDAO.retrieveESRInvoiceReferenceNumbers(entry.getKey(), ImmutableSet.copyOf(entry.getValue()));
+			referenceNosByOrgId.put(entry.getKey(), referenceNos);
+			referenceNos.values().forEach(referenceNo -> referenceNoIds.add(referenceNo.getC_ReferenceNo_ID()));
+		}
+
+		final ImmutableListMultimap<Integer, I_C_ReferenceNo_Doc> invoiceDocsByReferenceNoId = esrImportDAO.retrieveInvoiceReferenceNumberDocuments(referenceNoIds.build());
+
+		final Set<Integer> invoiceIds = invoiceDocsByReferenceNoId.values()
+				.stream()
+				.map(I_C_ReferenceNo_Doc::getRecord_ID)
+				.collect(ImmutableSet.toImmutableSet());
+		final ImmutableMap<Integer, I_C_Invoice> invoicesById = InterfaceWrapperHelper.loadByIdsOutOfTrx(invoiceIds, I_C_Invoice.class)
+				.stream()
+				.collect(ImmutableMap.toImmutableMap(I_C_Invoice::getC_Invoice_ID, invoice -> invoice));
+
+		return new ESRInvoiceReferenceNumbersIndex(
+				esrImportDAO,
+				esrReferenceNumbersByOrgId,
+				referenceNosByOrgId.build(),
+				invoiceDocsByReferenceNoId,
+				invoicesById);
+	}
+
+	private final IESRImportDAO esrImportDAO;
+
+	private final ImmutableSetMultimap<OrgId, String> indexedEsrReferenceNumbers;
+	private final ImmutableMap<OrgId, ImmutableMap<String, I_C_ReferenceNo>> referenceNosByOrgId;
+	private final ImmutableListMultimap<Integer, I_C_ReferenceNo_Doc> invoiceDocsByReferenceNoId;
+	private final ImmutableMap<Integer, I_C_Invoice> invoicesById;
+
+	private ESRInvoiceReferenceNumbersIndex(
+			@NonNull final IESRImportDAO esrImportDAO,
+			@NonNull final ImmutableSetMultimap<OrgId, String> indexedEsrReferenceNumbers,
+			@NonNull final ImmutableMap<OrgId, ImmutableMap<String, I_C_ReferenceNo>> referenceNosByOrgId,
+			@NonNull final ImmutableListMultimap<Integer, I_C_ReferenceNo_Doc> invoiceDocsByReferenceNoId,
+			@NonNull final ImmutableMap<Integer, I_C_Invoice> invoicesById)
+	{
+		this.esrImportDAO = esrImportDAO;
+		this.indexedEsrReferenceNumbers = indexedEsrReferenceNumbers;
+		this.referenceNosByOrgId = referenceNosByOrgId;
+		this.invoiceDocsByReferenceNoId = invoiceDocsByReferenceNoId;
+		this.invoicesById = invoicesById;
+	}
+
+	@Value
+	public static class InvoiceReferenceNoDocument
+	{
+		@NonNull
+		I_C_ReferenceNo referenceNo;
+
+		@NonNull
+		I_C_ReferenceNo_Doc referenceNoDoc;
+	}
+
+	/**
+	 * Same as {@link IESRImportDAO#retrieveESRInvoiceReferenceNumberDocument(OrgId, String)}, but served from this index.
+	 *
+	 * @return the reference number with its only invoice document, or {@code null}
+	 * @throws AdempiereException if there is more than one invoice document for the reference number
+	 */
+	@Nullable
+	public InvoiceReferenceNoDocument getInvoiceReferenceNoDocument(@NonNull final OrgId orgId, @NonNull final String esrReferenceNumber)
+	{
+		if (!indexedEsrReferenceNumbers.containsEntry(orgId, esrReferenceNumber))
+		{
+			final I_C_ReferenceNo_Doc referenceNoDoc = esrImportDAO.retrieveESRInvoiceReferenceNumberDocument(orgId, esrReferenceNumber);
+			return referenceNoDoc != null ? new InvoiceReferenceNoDocument(referenceNoDoc.getC_ReferenceNo(), referenceNoDoc) : null;
+		}
+
+		final I_C_ReferenceNo referenceNo = referenceNosByOrgId.get(orgId).get(esrReferenceNumber);
+		if (referenceNo == null)
+		{
+			Loggables.addLog("Found no C_ReferenceNo record for esrReferenceNumber={}", esrReferenceNumber);
+			return null;
+		}
+
+		final ImmutableList<I_C_ReferenceNo_Doc> invoiceDocs = invoiceDocsByReferenceNoId.get(referenceNo.getC_ReferenceNo_ID());
+		if (invoiceDocs.isEmpty())
+		{
+			return null;
+		}
+		else if (invoiceDocs.size() > 1)
+		{
+			throw new AdempiereException("More then one assigned invoice found for " + esrReferenceNumber + " (" + referenceNo + ")");
+		}
+
+		return new InvoiceReferenceNoDocument(referenceNo, invoiceDocs.get(0));
+	}
+
+	/**
+	 * @return the invoice, loaded out of transaction
+	 */
+	public I_C_Invoice getInvoice(final int invoiceId)
+	{
+		final I_C_Invoice invoice = invoicesById.get(invoiceId);
+		if (invoice != null)
+		{
+			return invoice;
+		}
+
+		return InterfaceWrapperHelper.create(Env.getCtx(), invoiceId, I_C_Invoice.class, ITrx.TRXNAME_None);
+	}
+}
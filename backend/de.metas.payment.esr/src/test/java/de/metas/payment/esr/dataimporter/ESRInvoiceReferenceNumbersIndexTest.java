@@ -0,0 +1,142 @@
+package de.metas.payment.esr.dataimporter;
+
+import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
+import static org.adempiere.model.InterfaceWrapperHelper.save;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.adempiere.ad.table.api.IADTableDAO;
+import org.compiere.model.I_C_Invoice;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.document.refid.model.I_C_ReferenceNo;
+import de.metas.document.refid.model.I_C_ReferenceNo_Doc;
+import de.metas.document.refid.model.I_C_ReferenceNo_Type;
+import de.metas.organization.OrgId;
+import de.metas.payment.esr.ESRConstants;
+import de.metas.payment.esr.ESRTestBase;
+import de.metas.payment.esr.dataimporter.ESRInvoiceReferenceNumbersIndex.InvoiceReferenceNoDocument;
+import de.metas.payment.esr.model.I_ESR_ImportLine;
+import de.metas.util.Services;
+
+/*
+ * #%L
+ * de.metas.payment.esr
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class ESRInvoiceReferenceNumbersIndexTest extends ESRTestBase
+{
+	private I_C_ReferenceNo_Type refNoType;
+	private OrgId orgId;
+
+	@Override
+	protected void init()
+	{
+		refNoType = newInstance(I_C_ReferenceNo_Type.class);
+		refNoType.setName(ESRConstants.DOCUMENT_REFID_ReferenceNo_Type_InvoiceReferenceNumber);
+		save(refNoType);
+
+		orgId = OrgId.ofRepoId(getAD_Org().getAD_Org_ID());
+	}
+
+	@Test
+	public void ofImportLines()
+	{
+		final I_C_Invoice invoice1 = createInvoice();
+		final I_C_ReferenceNo referenceNo1 = createInvoiceReferenceNo("0100000" + "0010501536417000121" + "5", orgId, invoice1);
+		final I_C_Invoice invoice2 = createInvoice();
+		final I_C_ReferenceNo referenceNo2 = createInvoiceReferenceNo("0100000" + "0010501536417000122" + "3", orgId, invoice2);
+
+		final ESRInvoiceReferenceNumbersIndex index = ESRInvoiceReferenceNumbersIndex.ofImportLines(ImmutableList.of(
+				createImportLine("0200000" + "0010501536417000121" + "9"),
+				createImportLine("0200000" + "0010501536417000122" + "9"),
+				createImportLine("0200000" + "0010501536417000123" + "9")));
+
+		final InvoiceReferenceNoDocument document1 = index.getInvoiceReferenceNoDocument(orgId, "0010501536417000121");
+		assertThat(document1.getReferenceNo().getC_ReferenceNo_ID()).isEqualTo(referenceNo1.getC_ReferenceNo_ID());
+		assertThat(index.getInvoice(document1.getReferenceNoDoc().getRecord_ID()).getC_Invoice_ID()).isEqualTo(invoice1.getC_Invoice_ID());
+
+		final InvoiceReferenceNoDocument document2 = index.getInvoiceReferenceNoDocument(orgId, "0010501536417000122");
+		assertThat(document2.getReferenceNo().getC_ReferenceNo_ID()).isEqualTo(referenceNo2.getC_ReferenceNo_ID());
+		assertThat(index.getInvoice(document2.getReferenceNoDoc().getRecord_ID()).getC_Invoice_ID()).isEqualTo(invoice2.getC_Invoice_ID());
+
+		assertThat(index.getInvoiceReferenceNoDocument(orgId, "0010501536417000123")).isNull();
+	}
+
+	@Test
+	public void orgReferenceNoIsPreferredOverAnyOrg()
+	{
+		createInvoiceReferenceNo("0100000" + "0010501536417000121" + "5", OrgId.ANY, createInvoice());
+		final I_C_ReferenceNo orgReferenceNo = createInvoiceReferenceNo("0300000" + "0010501536417000121" + "5", orgId, createInvoice());
+
+		final ESRInvoiceReferenceNumbersIndex index = ESRInvoiceReferenceNumbersIndex.ofImportLines(ImmutableList.of(
+				createImportLine("0200000" + "0010501536417000121" + "9")));
+
+		final InvoiceReferenceNoDocument document = index.getInvoiceReferenceNoDocument(orgId, "0010501536417000121");
+		assertThat(document.getReferenceNo().getC_ReferenceNo_ID()).isEqualTo(orgReferenceNo.getC_ReferenceNo_ID());
+	}
+
+	@Test
+	public void notIndexedReferenceNumber()
+	{
+		final I_C_Invoice invoice = createInvoice();
+		final I_C_ReferenceNo referenceNo = createInvoiceReferenceNo("0100000" + "0010501536417000121" + "5", orgId, invoice);
+
+		final ESRInvoiceReferenceNumbersIndex index = ESRInvoiceReferenceNumbersIndex.ofImportLines(ImmutableList.of());
+
+		final InvoiceReferenceNoDocument document = index.getInvoiceReferenceNoDocument(orgId, "0010501536417000121");
+		assertThat(document.getReferenceNo().getC_ReferenceNo_ID()).isEqualTo(referenceNo.getC_ReferenceNo_ID());
+		assertThat(index.getInvoice(document.getReferenceNoDoc().getRecord_ID()).getC_Invoice_ID()).isEqualTo(invoice.getC_Invoice_ID());
+	}
+
+	private I_C_Invoice createInvoice()
+	{
+		final I_C_Invoice invoice = newInstance(I_C_Invoice.class);
+		invoice.setAD_Org_ID(orgId.getRepoId());
+		save(invoice);
+		return invoice;
+	}
+
+	private I_C_ReferenceNo createInvoiceReferenceNo(final String referenceNoStr, final OrgId orgId, final I_C_Invoice invoice)
+	{
+		final I_C_ReferenceNo referenceNo = newInstance(I_C_ReferenceNo.class);
+		referenceNo.setReferenceNo(referenceNoStr);
+		referenceNo.setC_ReferenceNo_Type(refNoType);
+		referenceNo.setAD_Org_ID(orgId.getRepoId());
+		save(referenceNo);
+
+		final I_C_ReferenceNo_Doc referenceNoDoc = newInstance(I_C_ReferenceNo_Doc.class);
+		referenceNoDoc.setAD_Table_ID(Services.get(IADTableDAO.class).retrieveTableId(I_C_Invoice.Table_Name));
+		referenceNoDoc.setRecord_ID(invoice.getC_Invoice_ID());
+		referenceNoDoc.setC_ReferenceNo(referenceNo);
+		save(referenceNoDoc);
+
+		return referenceNo;
+	}
+
+	private I_ESR_ImportLine createImportLine(final String esrFullReferenceNumber)
+	{
+		final I_ESR_ImportLine importLine = newInstance(I_ESR_ImportLine.class);
+		importLine.setAD_Org_ID(orgId.getRepoId());
+		importLine.setESRFullReferenceNumber(esrFullReferenceNumber);
+		return importLine;
+	}
+}
@@ -77,11 +77,19 @@ public class RestHttpPrintConnectionEndpoint implements IPrintConnectionEndpoint
 
 	public static final String CTX_ROOT = "de.metas.printing.client.endpoint.RestHttpPrintConnectionEndpoint";
 	public static final String CTX_ServerUrl = CTX_ROOT + ".ServerUrl";
+	/** Either {@value #DATA_ENCODING_BASE64} (default) or {@value #DATA_ENCODING_BINARY}; the metasfresh printing REST API sends binary data, so setups which use it need to set the latter. */
 	public static final String CTX_DataEncoding = CTX_ROOT + ".dataEncoding";
 
 	public static final String CTX_SocketTimeoutMillis = CTX_ROOT + ".SocketTimeoutMillis";
 	public static final int DEFAULT_SocketTimeoutMillis = 10 * 300000; // 5 min
 
+	/**
+	 * If set to a value greater than zero, the server is asked to hold the getNextPrintPackage request for up to this many milliseconds, until there is a print job.
+	 * Only supported by the metasfresh printing REST API; the default (zero) means that the server answers right away.
+	 */
+	public static final String CTX_LongPollWaitMillis = CTX_ROOT + ".LongPollWaitMillis";
+	public static final int DEFAULT_LongPollWaitMillis = 0;
+
 	private final Context _ctx;
 	private String _sessionId = null;
 	private final String serverUrl;
@@ -91,6 +99,8 @@ public class RestHttpPrintConnectionEndpoint implements IPrintConnectionEndpoint
 
 	private final String dataEncoding;
 
+	private final int longPollWaitMillis;
+
 	public RestHttpPrintConnectionEndpoint()
 	{
 		_ctx = Context.getContext();
@@ -113,6 +123,12 @@ public class RestHttpPrintConnectionEndpoint implements IPrintConnectionEndpoint
 
 		httpclient = new HttpClient();
 		httpclient.getParams().setSoTimeout(socketTimeout);
+
+		longPollWaitMillis = Context.getContext().getPropertyAsInt(CTX_LongPollWaitMillis, DEFAULT_LongPollWaitMillis);
+		if (longPollWaitMillis > 0 && longPollWaitMillis >= socketTimeout)
+		{
+			log.warning(CTX_LongPollWaitMillis + "=" + longPollWaitMillis + " shall be lower than " + CTX_SocketTimeoutMillis + "=" + socketTimeout);
+		}
 	}
 
 	private String getDataEncoding()
@@ -206,10 +222,15 @@ public class RestHttpPrintConnectionEndpoint implements IPrintConnectionEndpoint
 		final URL url = getURL(PRTRestServiceConstants.PATH_GetNextPrintPackage, params);
 
 		final PostMethod httpPost = new PostMethod(url.toString());
+		if (longPollWaitMillis > 0)
+		{
+			httpPost.setQueryString(PRTRestServiceConstants.PARAM_WaitMillis + "=" + longPollWaitMillis);
+		}
 		addApiTokenIfAvailable(httpPost);
 
 		int result = -1;
 		InputStream in = null;
+		final long startMillis = System.currentTimeMillis();
 		try
 		{
 			result = executeHttpPost(httpPost);
@@ -235,6 +256,7 @@ public class RestHttpPrintConnectionEndpoint implements IPrintConnectionEndpoint
 				throw new PrintConnectionEndpointException("Received a package from another transaction (expected=" + transactionId + ", actual=" + printPackage.getTransactionId());
 			}
 
+			log.fine("Received print package " + printPackage.getPrintPackageId() + " after " + (System.currentTimeMillis() - startMillis) + "ms");
 			return printPackage;
 		}
 		catch (final Exception e)
@@ -90,6 +90,7 @@ public class PrintingClientDaemon implements Runnable
 			logException("addPrinterHW", e);
 		}
 
+		boolean printPackageFound = false;
 		while (!stop.get())
 		{
 			try
@@ -101,11 +102,14 @@ public class PrintingClientDaemon implements Runnable
 
 				// Sleeping first, so i case of an exception, we will sleep before calling runOnce() again.
 				// if we called runOnce() and then slept, a recurring exception would cause the ESB to be flooded with HTTP requests.
-				if (sleepForPollInterval())
+				// If we just printed a package, we don't sleep, because there might be more packages waiting.
+				final boolean sleep = !printPackageFound;
+				printPackageFound = false;
+				if (sleep && sleepForPollInterval())
 				{
 					return;
 				}
-				runOnce();
+				printPackageFound = runOnce();
 			}
 			catch (final Exception e)
 			{
@@ -230,7 +234,10 @@ public class PrintingClientDaemon implements Runnable
 		log.log(Level.SEVERE, sb.toString(), e);
 	}
 
-	public void runOnce()
+	/**
+	 * @return {@code true} if a print package was found and printed
+	 */
+	public boolean runOnce()
 	{
 		log.finest("Polling for next package");
 
@@ -238,7 +245,7 @@ public class PrintingClientDaemon implements Runnable
 		if (printPackage == null)
 		{
 			log.finest("No print package found. Returning");
-			return;
+			return false;
 		}
 
 		InputStream in = null;
@@ -251,9 +258,10 @@ public class PrintingClientDaemon implements Runnable
 			if (Boolean.parseBoolean(supressResponse))
 			{
 				log.log(Level.INFO, "{} is true, so we do *not* report anything", Context.CTX_Testing_Dont_RespondAfterPrinting);
-				return;
+				return true;
 			}
 			connection.sendPrintPackageResponse(printPackage, response);
+			return true;
 		}
 		finally
 		{
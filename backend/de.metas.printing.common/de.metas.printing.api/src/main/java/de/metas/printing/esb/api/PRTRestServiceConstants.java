@@ -31,6 +31,8 @@ public final class PRTRestServiceConstants
 {
 	public static final String PARAM_SessionId = "sessionId";
 	public static final String PARAM_TransactionId = "transactionId";
+	/** Optional query parameter of {@link #PATH_GetNextPrintPackage}: how long the server may wait for a print job if there is none yet. */
+	public static final String PARAM_WaitMillis = "waitMillis";
 
 	public static final String OPERATION_Login = "login";
 	public static final String PATH_Login = "/" + OPERATION_Login + "/{" + PARAM_SessionId + "}";
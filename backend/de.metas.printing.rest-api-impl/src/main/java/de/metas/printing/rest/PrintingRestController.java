@@ -6,6 +6,11 @@ import static org.adempiere.model.InterfaceWrapperHelper.save;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
 
 import org.adempiere.ad.dao.IQueryBL;
 import org.adempiere.ad.session.ISessionBL;
@@ -13,19 +18,29 @@ import org.adempiere.ad.session.MFSession;
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.model.InterfaceWrapperHelper;
 import org.adempiere.service.ClientId;
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
+import org.adempiere.util.lang.IAutoCloseable;
 import org.compiere.util.Env;
+import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.google.common.base.Stopwatch;
 
+import de.metas.logging.LogManager;
 import de.metas.organization.OrgId;
 import de.metas.printing.api.IPrintingDAO;
 import de.metas.printing.esb.api.LoginRequest;
 import de.metas.printing.esb.api.LoginResponse;
+import de.metas.printing.esb.api.PRTRestServiceConstants;
 import de.metas.printing.esb.api.PrintJobInstructionsConfirm;
 import de.metas.printing.esb.api.PrintPackage;
 import de.metas.printing.esb.api.PrintPackageInfo;
@@ -71,6 +86,20 @@ public class PrintingRestController
 {
 	public static final String ENDPOINT = "/api/printing";
 
+	private static final Logger logger = LogManager.getLogger(PrintingRestController.class);
+
+	/** Upper limit for the {@code waitMillis} parameter, so that a print client can't keep its request open for too long. */
+	private static final int MAX_WAIT_MILLIS = 60 * 1000;
+	private static final int WAIT_CHECK_INTERVAL_MILLIS = 500;
+	private static final int ASYNC_TIMEOUT_MARGIN_MILLIS = 10 * 1000;
+
+	private final ScheduledExecutorService pollerExecutor = Executors.newScheduledThreadPool(
+			2, // the checks are short, so a few threads can serve many waiting print clients
+			CustomizableThreadFactory.builder()
+					.setThreadNamePrefix(PrintingRestController.class.getSimpleName() + "-nextPrintPackagePoller")
+					.setDaemon(true)
+					.build());
+
 	@Autowired
 	private PrinterHWRepo printerHwRepo;
 
@@ -111,31 +140,132 @@ public class PrintingRestController
 	}
 
 	@PostMapping("/getNextPrintPackage/{sessionId}/{transactionId}")
-	public PrintPackage getNextPrintPackage(
+	public DeferredResult<PrintPackage> getNextPrintPackage(
 			@PathVariable("sessionId") int sessionId,
-			@PathVariable("transactionId") final String transactionId)
+			@PathVariable("transactionId") final String transactionId,
+
+			@ApiParam("If there is no print job yet, wait up to this many milliseconds (max. 60000) for one, instead of returning an empty package right away") //
+			@RequestParam(name = PRTRestServiceConstants.PARAM_WaitMillis, required = false, defaultValue = "0") final int waitMillis)
 	{
 		updateSessionAndRetrieveHostKey(sessionId);
 
+		final int waitMillisEffective = Math.max(0, Math.min(waitMillis, MAX_WAIT_MILLIS));
+
+		// the timeout is just a safety net; normally the result is set by the last check, before the timeout occurs.
+		// we need to set it explicitly, because the container's default async timeout might be lower than our max wait time.
+		final DeferredResult<PrintPackage> result = new DeferredResult<>(
+				(long)waitMillisEffective + ASYNC_TIMEOUT_MARGIN_MILLIS,
+				createEmptyPrintPackage(transactionId));
+
+		final NextPrintPackagePoller poller = new NextPrintPackagePoller(
+				Env.copyCtx(Env.getCtx()),
+				transactionId,
+				waitMillisEffective,
+				result);
+		poller.run(); // do the first check right in the request thread
+		return result;
+	}
+
+	/**
+	 * Checks if there is a print job for the user and host key of the given ctx. If there is none yet and the given time has not passed, it reschedules itself.
+	 * <p>
+	 * The checks are done by {@link #pollerExecutor}'s threads, so a waiting print client does not hold a servlet thread.
+	 * Also note that the check is a cheap exists-query, unlike creating (and then deleting) an empty print package for each poll.
+	 */
+	private final class NextPrintPackagePoller implements Runnable
+	{
+		private final Properties ctx;
+		private final String transactionId;
+		private final long waitMillis;
+		private final DeferredResult<PrintPackage> result;
+		private final Stopwatch stopwatch = Stopwatch.createStarted();
+
+		private NextPrintPackagePoller(
+				@NonNull final Properties ctx,
+				@NonNull final String transactionId,
+				final long waitMillis,
+				@NonNull final DeferredResult<PrintPackage> result)
+		{
+			this.ctx = ctx;
+			this.transactionId = transactionId;
+			this.waitMillis = waitMillis;
+			this.result = result;
+		}
+
+		@Override
+		public void run()
+		{
+			if (result.isSetOrExpired())
+			{
+				return;
+			}
+
+			try (final IAutoCloseable ctxRestorer = Env.switchContext(ctx))
+			{
+				final long remainingMillis = waitMillis - stopwatch.elapsed(TimeUnit.MILLISECONDS);
+				if (remainingMillis > 0 && !Services.get(IPrintingDAO.class).hasNextPrintJobInstructions(ctx))
+				{
+					pollerExecutor.schedule(this, Math.min(remainingMillis, WAIT_CHECK_INTERVAL_MILLIS), TimeUnit.MILLISECONDS);
+					return;
+				}
+
+				logger.debug("Creating the next print package after waiting {}", stopwatch);
+				result.setResult(createNextPrintPackage(transactionId));
+			}
+			catch (final Exception e)
+			{
+				logger.warn("Failed creating the next print package for transactionId={}", transactionId, e);
+				result.setErrorResult(e);
+			}
+		}
+	}
+
+	private PrintPackage createNextPrintPackage(@NonNull final String transactionId)
+	{
 		final I_C_Print_Package requestPrintPackage = newInstance(I_C_Print_Package.class);
 		requestPrintPackage.setTransactionID(transactionId);
 		final I_C_Print_Package responsePrintPackage = new CreatePrintPackageRequestHandler().createResponse(requestPrintPackage);
 
-		final PrintPackage response;
-		if (responsePrintPackage != null)
+		if (responsePrintPackage == null)
 		{
-			save(responsePrintPackage);
-			response = createResponseFromPrintPackage(responsePrintPackage);
-			response.setTransactionId(transactionId);
-
+			return createEmptyPrintPackage(transactionId);
 		}
-		else // create and return an empty response
+
+		save(responsePrintPackage);
+		logPrintJobLatency(responsePrintPackage);
+
+		final PrintPackage response = createResponseFromPrintPackage(responsePrintPackage);
+		response.setTransactionId(transactionId);
+		return response;
+	}
+
+	private static PrintPackage createEmptyPrintPackage(@NonNull final String transactionId)
+	{
+		final PrintPackage response = new PrintPackage();
+		response.setTransactionId(transactionId);
+		return response;
+	}
+
+	/**
+	 * Logs the time between the creation of the print job instructions and the moment their print package is handed out to the print client.
+	 */
+	private void logPrintJobLatency(@NonNull final I_C_Print_Package printPackage)
+	{
+		final I_C_Print_Job_Instructions printJobInstructions = InterfaceWrapperHelper.load(printPackage.getC_Print_Job_Instructions_ID(), I_C_Print_Job_Instructions.class);
+		if (printJobInstructions == null || printJobInstructions.getCreated() == null)
 		{
-			response = new PrintPackage();
-			response.setTransactionId(transactionId);
+			return;
 		}
 
-		return response;
+		final long latencyMillis = System.currentTimeMillis() - printJobInstructions.getCreated().getTime();
+		logger.info("Handing out C_Print_Package_ID={} for C_Print_Job_Instructions_ID={}; {}ms after the print job instructions were created",
+				printPackage.getC_Print_Package_ID(), printJobInstructions.getC_Print_Job_Instructions_ID(), latencyMillis);
+	}
+
+	@PreDestroy
+	public void shutdownPollerExecutor()
+	{
+		pollerExecutor.shutdownNow();
 	}
 
 	private String updateSessionAndRetrieveHostKey(final int sessionId)
@@ -190,7 +320,7 @@ public class PrintingRestController
 	}
 
 	/**
-	 * Returns a binary stream of data to be printed.
+	 * Returns the data to be printed as raw binary (i.e. not Base64 encoded) body.
 	 */
 	@PostMapping("/getPrintPackageData/{sessionId}/{transactionId}")
 	public ResponseEntity<?> getPrintPackageData(
@@ -213,7 +343,9 @@ public class PrintingRestController
 				.create()
 				.firstOnly(I_C_PrintPackageData.class);
 
-		return ResponseEntity.ok(data.getPrintData());
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_OCTET_STREAM)
+				.body(data.getPrintData());
 	}
 
 	/**
@@ -154,6 +154,11 @@ public interface IPrintingDAO extends ISingletonService
 	 */
 	I_C_Print_Job_Instructions retrieveAndLockNextPrintJobInstructions(Properties ctx, String trxName);
 
+	/**
+	 * @return {@code true} if {@link #retrieveAndLockNextPrintJobInstructions(Properties, String)} might find something; ignores locked records, but does not lock anything.
+	 */
+	boolean hasNextPrintJobInstructions(Properties ctx);
+
 	/**
 	 * Retrieve all (active and inactive) {@link I_AD_PrinterHW_MediaSize}.
 	 */
@@ -171,11 +171,16 @@ public class PlainPrintingDAO extends AbstractPrintingDAO
 	}
 
 	@Override
-	public I_C_Print_Job_Instructions retrieveAndLockNextPrintJobInstructions(final Properties ctx, final String trxName)
+	public boolean hasNextPrintJobInstructions(final Properties ctx)
+	{
+		return !retrieveNextPrintJobInstructions(ctx).isEmpty();
+	}
+
+	private List<I_C_Print_Job_Instructions> retrieveNextPrintJobInstructions(final Properties ctx)
 	{
 		final String hostKey = printClientsBL.getHostKeyOrNull(ctx);
 
-		final List<I_C_Print_Job_Instructions> result = lookupMap.getRecords(I_C_Print_Job_Instructions.class, pojo -> {
+		return lookupMap.getRecords(I_C_Print_Job_Instructions.class, pojo -> {
 			if (!X_C_Print_Job_Instructions.STATUS_Pending.equals(pojo.getStatus()))
 			{
 				return false;
@@ -195,6 +200,12 @@ public class PlainPrintingDAO extends AbstractPrintingDAO
 			}
 			return true;
 		});
+	}
+
+	@Override
+	public I_C_Print_Job_Instructions retrieveAndLockNextPrintJobInstructions(final Properties ctx, final String trxName)
+	{
+		final List<I_C_Print_Job_Instructions> result = retrieveNextPrintJobInstructions(ctx);
 
 		if (result.isEmpty())
 		{
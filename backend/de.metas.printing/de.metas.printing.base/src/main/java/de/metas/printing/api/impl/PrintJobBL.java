@@ -58,6 +58,7 @@ import de.metas.async.processor.IWorkPackageQueueFactory;
 import de.metas.i18n.IMsgBL;
 import de.metas.logging.LogManager;
 import de.metas.logging.TableRecordMDC;
+import de.metas.printing.PrinterRoutingId;
 import de.metas.printing.Printing_Constants;
 import de.metas.printing.api.IPrintJobBL;
 import de.metas.printing.api.IPrintPackageBL;
@@ -66,7 +67,6 @@ import de.metas.printing.api.IPrintingDAO;
 import de.metas.printing.api.IPrintingQueueSource;
 import de.metas.printing.api.PrintingQueueProcessingInfo;
 import de.metas.printing.async.spi.impl.PDFDocPrintingWorkpackageProcessor;
-import de.metas.printing.model.I_AD_PrinterRouting;
 import de.metas.printing.model.I_AD_Printer_Config;
 import de.metas.printing.model.I_C_Print_Job;
 import de.metas.printing.model.I_C_Print_Job_Detail;
@@ -348,6 +348,7 @@ public class PrintJobBL implements IPrintJobBL
 			final String trxName)
 	{
 		I_C_Print_Job printJob = null;
+		int maxLinesPerJobToUse = -1;
 		int lineCount = 0;
 		I_C_Print_Job_Line firstLine = null;
 		I_C_Print_Job_Line lastLine = null;
@@ -374,9 +375,9 @@ public class PrintJobBL implements IPrintJobBL
 				if (printJob == null)
 				{
 					printJob = createPrintJob(item, trxName, printingQueueProcessingInfo.getAD_User_PrintJob_ID());
+					maxLinesPerJobToUse = getMaxLinesPerJob(printJob);
 				}
 
-				final int maxLinesPerJobToUse = getMaxLinesPerJob(printJob);
 				if (maxLinesPerJobToUse > 0 && lineCount >= maxLinesPerJobToUse)
 				{
 					logger.info("Max lines per print job = {} reached; not adding further items", maxLinesPerJobToUse);
@@ -462,10 +463,9 @@ public class PrintJobBL implements IPrintJobBL
 		source.markPrinted(item);
 
 		// Create print job detail
-		for (final I_AD_PrinterRouting printerRouting : findPrinterRoutings(item))
+		for (final PrinterRoutingId printerRoutingId : findPrinterRoutingIds(item))
 		{
-			Check.assumeNotNull(printerRouting, "AD_PrinterRouting {} found for C_Printing_Queue {}", printerRouting, item);
-			createPrintJobDetail(printJobLine, printerRouting);
+			createPrintJobDetail(printJobLine, printerRoutingId);
 		}
 		return printJobLine;
 	}
@@ -573,18 +573,17 @@ public class PrintJobBL implements IPrintJobBL
 
 	private List<I_C_Print_Job_Detail> createPrintJobDetails(final I_C_Print_Job_Line printJobLine, final I_C_Printing_Queue item)
 	{
-		final List<I_AD_PrinterRouting> printerRoutings = findPrinterRoutings(item);
-		Check.errorIf(printerRoutings.isEmpty(), "Found no AD_PrinterRouting record(s) for C_Printing_Queue {}", item);
-		if (printerRoutings.isEmpty())
+		final List<PrinterRoutingId> printerRoutingIds = findPrinterRoutingIds(item);
+		Check.errorIf(printerRoutingIds.isEmpty(), "Found no AD_PrinterRouting record(s) for C_Printing_Queue {}", item);
+		if (printerRoutingIds.isEmpty())
 		{
 			return Collections.emptyList(); // just for the case that we configured Check not to throw an exception
 		}
 
-		final List<I_C_Print_Job_Detail> printJobDetails = new ArrayList<>(printerRoutings.size());
-		for (final I_AD_PrinterRouting printerRouting : printerRoutings)
+		final List<I_C_Print_Job_Detail> printJobDetails = new ArrayList<>(printerRoutingIds.size());
+		for (final PrinterRoutingId printerRoutingId : printerRoutingIds)
 		{
-			Check.assumeNotNull(printerRouting, "AD_PrinterRouting {} found for C_Printing_Queue {}", printerRouting, item);
-			final I_C_Print_Job_Detail printJobDetail = createPrintJobDetail(printJobLine, printerRouting);
+			final I_C_Print_Job_Detail printJobDetail = createPrintJobDetail(printJobLine, printerRoutingId);
 			if (printJobDetail != null)
 			{
 				printJobDetails.add(printJobDetail);
@@ -596,13 +595,13 @@ public class PrintJobBL implements IPrintJobBL
 
 	private I_C_Print_Job_Detail createPrintJobDetail(
 			final I_C_Print_Job_Line printJobLine,
-			final I_AD_PrinterRouting routing)
+			final PrinterRoutingId printerRoutingId)
 	{
 		final I_C_Print_Job_Detail printJobDetail = InterfaceWrapperHelper.newInstance(I_C_Print_Job_Detail.class, printJobLine);
 
 		printJobDetail.setAD_Org_ID(printJobLine.getAD_Org_ID());
 		printJobDetail.setIsActive(true);
-		printJobDetail.setAD_PrinterRouting_ID(routing.getAD_PrinterRouting_ID());
+		printJobDetail.setAD_PrinterRouting_ID(printerRoutingId.getRepoId());
 		printJobDetail.setC_Print_Job_Line(printJobLine);
 
 		InterfaceWrapperHelper.save(printJobDetail);
@@ -610,12 +609,16 @@ public class PrintJobBL implements IPrintJobBL
 		return printJobDetail;
 	}
 
-	private List<I_AD_PrinterRouting> findPrinterRoutings(final I_C_Printing_Queue item)
+	/**
+	 * Creating the print job details needs nothing but the routing IDs, so we don't wrap the (already cached) routing records again for each queue item.
+	 */
+	private ImmutableList<PrinterRoutingId> findPrinterRoutingIds(final I_C_Printing_Queue item)
 	{
 		final PrinterRoutingsQuery query = printingQueueBL.createPrinterRoutingsQueryForItem(item);
-
-		final List<de.metas.adempiere.model.I_AD_PrinterRouting> rs = printerRoutingDAO.fetchPrinterRoutings(query);
-		return InterfaceWrapperHelper.createList(rs, I_AD_PrinterRouting.class);
+		return printerRoutingDAO.fetchPrinterRoutings(query)
+				.stream()
+				.map(printerRouting -> PrinterRoutingId.ofRepoId(printerRouting.getAD_PrinterRouting_ID()))
+				.collect(ImmutableList.toImmutableList());
 	}
 
 	@Override
@@ -34,8 +34,12 @@ import org.slf4j.Logger;
 
 import javax.annotation.Nullable;
 import javax.print.attribute.standard.MediaSize;
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
@@ -176,14 +180,36 @@ public class PrintJobLinesAggregator implements IPrintJobLinesAggregator
 	@Override
 	public I_C_Print_Package createPrintPackage()
 	{
-		final ByteArrayOutputStream pdfBuf = new ByteArrayOutputStream();
-		final int pages = createPDFData(pdfBuf);
-		if (pages <= 0)
+		final int pages;
+		final byte[] data;
+		final File pdfFile = createTempPDFFile();
+		try
+		{
+			// collate to a file rather than to a growing in-memory buffer, so that we have the package's data in memory only once
+			try (final OutputStream out = new BufferedOutputStream(new FileOutputStream(pdfFile)))
+			{
+				pages = createPDFData(out);
+			}
+			if (pages <= 0)
+			{
+				throw new AdempiereException("No PDF pages found. No package created."); // TRL
+			}
+
+			// C_PrintPackageData.PrintData is a binary column which is saved from a byte[], so here we need to have the data in memory
+			data = Files.readAllBytes(pdfFile.toPath());
+		}
+		catch (final IOException e)
+		{
+			throw new AdempiereException("Failed creating the PDF data for " + printJob, e);
+		}
+		finally
 		{
-			throw new AdempiereException("No PDF pages found. No package created."); // TRL
+			if (!pdfFile.delete())
+			{
+				logger.warn("Could not delete temporary file {}", pdfFile);
+			}
 		}
 
-		final byte[] data = pdfBuf.toByteArray();
 		if (data.length == 0)
 		{
 			throw new AdempiereException("No PDF data found. No package created."); // TRL
@@ -342,6 +368,18 @@ public class PrintJobLinesAggregator implements IPrintJobLinesAggregator
 		printItemParts.add(printItemPart);
 	}
 
+	private static File createTempPDFFile()
+	{
+		try
+		{
+			return File.createTempFile("printpackage_", ".pdf");
+		}
+		catch (final IOException e)
+		{
+			throw new AdempiereException("Cannot create temporary file for the print package's PDF data", e);
+		}
+	}
+
 	/**
 	 * Iterates all values of the {@link #printPackageInfos} map and appends their PDF data to the given <code>out</code> stream, while updating the individual {@link I_C_Print_PackageInfo}s'
 	 * <code>pageFrom</code> and <code>pageTo</code> values.
@@ -141,6 +141,22 @@ public class PrintingDAO extends AbstractPrintingDAO
 
 	@Override
 	public I_C_Print_Job_Instructions retrieveAndLockNextPrintJobInstructions(final Properties ctx, final String trxName)
+	{
+		// not filtering locked records here, because retrieveAndLock does that on its own
+		final IQuery<I_C_Print_Job_Instructions> query = createNextPrintJobInstructionsQuery(ctx, false, trxName);
+		return Services.get(ILockManager.class).retrieveAndLock(query, I_C_Print_Job_Instructions.class);
+	}
+
+	@Override
+	public boolean hasNextPrintJobInstructions(final Properties ctx)
+	{
+		return createNextPrintJobInstructionsQuery(ctx, true, ITrx.TRXNAME_None).anyMatch();
+	}
+
+	private IQuery<I_C_Print_Job_Instructions> createNextPrintJobInstructionsQuery(
+			final Properties ctx,
+			final boolean onlyNotLocked,
+			final String trxName)
 	{
 		final StringBuilder whereClause = new StringBuilder();
 		final List<Object> params = new ArrayList<>();
@@ -164,14 +180,20 @@ public class PrintingDAO extends AbstractPrintingDAO
 			params.add(hostKey);
 		}
 
-		final IQuery<I_C_Print_Job_Instructions> query = new TypedSqlQuery<>(ctx, I_C_Print_Job_Instructions.class, whereClause.toString(), trxName)
+		// Only those which are not currently locked (i.e. processed) by someone else
+		if (onlyNotLocked)
+		{
+			whereClause.append(" AND ").append(Services.get(ILockManager.class).getNotLockedWhereClause(
+					I_C_Print_Job_Instructions.Table_Name,
+					I_C_Print_Job_Instructions.Table_Name + "." + I_C_Print_Job_Instructions.COLUMNNAME_C_Print_Job_Instructions_ID));
+		}
+
+		return new TypedSqlQuery<>(ctx, I_C_Print_Job_Instructions.class, whereClause.toString(), trxName)
 				.setOnlyActiveRecords(true)
 				.setParameters(params)
 				.setOrderBy(I_C_Print_Job_Instructions.COLUMNNAME_C_Print_Job_Instructions_ID)
 				.setClient_ID()
 				.setRequiredAccess(Access.WRITE);
-
-		return Services.get(ILockManager.class).retrieveAndLock(query, I_C_Print_Job_Instructions.class);
 	}
 
 	@Override
@@ -23,11 +23,17 @@ package de.metas.printing.api.util;
  */
 
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
+import javax.annotation.Nullable;
+
 import lombok.NonNull;
 import org.adempiere.exceptions.AdempiereException;
 
@@ -39,9 +45,17 @@ import com.lowagie.text.pdf.PdfReader;
 
 import de.metas.util.Check;
 
+/**
+ * Copies pages of one or more PDF documents into a single PDF document.
+ * <p>
+ * Each source document is released right after its pages were copied, so when collating to a file (see {@link #PdfCollator(File)}),
+ * the heap usage is bounded by the biggest source document and not by the total size of the collated document.
+ */
 public class PdfCollator
 {
 	private final OutputStream out;
+	@Nullable
+	private final File outFile;
 	private PdfCopy pdfCopy = null;
 	private Document pdfDocument = null;
 	private boolean closed = false;
@@ -54,6 +68,39 @@ public class PdfCollator
 	public PdfCollator(@NonNull final OutputStream out)
 	{
 		this.out = out;
+		this.outFile = null;
+	}
+
+	/**
+	 * Creates a collator which writes the collated PDF to given file.
+	 * Use {@link #toFile()} to access the result.
+	 */
+	public PdfCollator(@NonNull final File outFile)
+	{
+		try
+		{
+			this.out = new BufferedOutputStream(new FileOutputStream(outFile, false));
+		}
+		catch (final FileNotFoundException e)
+		{
+			throw new AdempiereException("Cannot write to " + outFile, e);
+		}
+		this.outFile = outFile;
+	}
+
+	/**
+	 * Creates a collator which writes the collated PDF to a new temporary file.
+	 */
+	public static PdfCollator newTempFileCollator(@NonNull final String fileNamePrefix)
+	{
+		try
+		{
+			return new PdfCollator(File.createTempFile(fileNamePrefix, ".pdf"));
+		}
+		catch (final IOException e)
+		{
+			throw new AdempiereException("Cannot create temporary file for " + fileNamePrefix, e);
+		}
 	}
 
 	private PdfCopy getPdfCopy()
@@ -111,6 +158,28 @@ public class PdfCollator
 		return addPages(reader, pageFrom, pageTo);
 	}
 
+	/**
+	 * Adds all pages of given PDF.
+	 * <p>
+	 * NOTE: the stream is not closed by this method.
+	 */
+	public PdfCollator addAllPages(final InputStream pdfIn)
+	{
+		Check.assume(pdfIn != null, "pdfIn not null");
+
+		final PdfReader reader;
+		try
+		{
+			reader = new PdfReader(pdfIn);
+		}
+		catch (final IOException e)
+		{
+			throw new AdempiereException(e);
+		}
+
+		return addPages(reader, 1, reader.getNumberOfPages());
+	}
+
 	private PdfCollator addPages(final PdfReader reader, final int pageFrom, final int pageTo)
 	{
 		Check.assume(!closed, "collator not closed");
@@ -157,19 +226,41 @@ public class PdfCollator
 		}
 		closed = true;
 
-		if (pdfCopy == null)
+		if (pdfCopy != null)
 		{
-			return this;
-		}
+			pdfDocument.close();
 
-		pdfDocument.close();
+			pdfCopy = null;
+			pdfDocument = null;
+		}
 
-		pdfCopy = null;
-		pdfDocument = null;
+		// the output stream was created by us, so we also need to close it
+		if (outFile != null)
+		{
+			try
+			{
+				out.close();
+			}
+			catch (final IOException e)
+			{
+				throw new AdempiereException("Cannot close " + outFile, e);
+			}
+		}
 
 		return this;
 	}
 
+	/**
+	 * @return the file which contains the collated PDF; the collator is closed
+	 */
+	public File toFile()
+	{
+		Check.assumeNotNull(outFile, "collator {} was created with a file", this);
+
+		close();
+		return outFile;
+	}
+
 	public byte[] toByteArray()
 	{
 		if (out instanceof ByteArrayOutputStream)
@@ -23,8 +23,10 @@
 package de.metas.printing.printingdata;
 
 import com.google.common.collect.ImmutableList;
+import de.metas.adempiere.model.I_AD_Printer;
 import de.metas.adempiere.service.IPrinterRoutingDAO;
 import de.metas.adempiere.service.PrinterRoutingsQuery;
+import de.metas.cache.CCache;
 import de.metas.document.archive.api.ArchiveFileNameService;
 import de.metas.document.archive.api.IDocOutboundDAO;
 import de.metas.document.archive.model.I_C_Doc_Outbound_Log;
@@ -43,6 +45,7 @@ import de.metas.printing.api.IPrintingQueueBL;
 import de.metas.printing.api.PrintingQueueProcessingInfo;
 import de.metas.printing.model.I_AD_PrinterRouting;
 import de.metas.printing.model.I_AD_PrinterTray_Matching;
+import de.metas.printing.model.I_AD_Printer_Config;
 import de.metas.printing.model.I_AD_Printer_Matching;
 import de.metas.printing.model.I_C_Print_Job_Detail;
 import de.metas.printing.model.I_C_Print_Job_Line;
@@ -50,10 +53,14 @@ import de.metas.printing.model.I_C_Printing_Queue;
 import de.metas.printing.model.I_C_Printing_Queue_Recipient;
 import de.metas.user.UserId;
 import de.metas.util.Services;
+import lombok.Builder;
 import lombok.NonNull;
+import lombok.Value;
+import org.adempiere.ad.trx.api.ITrxManager;
 import org.adempiere.archive.ArchiveId;
 import org.adempiere.archive.api.IArchiveBL;
 import org.adempiere.model.InterfaceWrapperHelper;
+import org.adempiere.util.lang.Mutable;
 import org.compiere.model.I_AD_Archive;
 import org.compiere.util.Env;
 import org.slf4j.Logger;
@@ -61,6 +68,7 @@ import org.springframework.stereotype.Service;
 
 import javax.annotation.Nullable;
 import java.util.List;
+import java.util.Optional;
 
 import static org.adempiere.model.InterfaceWrapperHelper.loadOutOfTrx;
 
@@ -76,10 +84,23 @@ public class PrintingDataFactory
 	private final IArchiveBL archiveBL = Services.get(IArchiveBL.class);
 	private final IDocOutboundDAO outboundDAO = Services.get(IDocOutboundDAO.class);
 	private final IPrintClientsBL printClientsBL = Services.get(IPrintClientsBL.class);
+	private final ITrxManager trxManager = Services.get(ITrxManager.class);
 
 	private final HardwarePrinterRepository hardwarePrinterRepository;
 	private final ArchiveFileNameService archiveFileNameService;
 
+	/**
+	 * The hardware printer and tray which the printer matching of a given host key and user resolves a routing's logical printer and tray to.
+	 * When a whole batch of queue items is printed, these are the same for almost all the routings.
+	 */
+	private final CCache<PrinterMatchingKey, Optional<HardwarePrinterAndTray>> hardwarePrinterAndTrayByKey = CCache
+			.<PrinterMatchingKey, Optional<HardwarePrinterAndTray>> builder()
+			.cacheName(I_AD_Printer_Matching.Table_Name + "#by#PrinterMatchingKey")
+			.tableName(I_AD_Printer_Matching.Table_Name)
+			.additionalTableNameToResetFor(I_AD_PrinterTray_Matching.Table_Name)
+			.additionalTableNameToResetFor(I_AD_Printer_Config.Table_Name)
+			.build();
+
 	public PrintingDataFactory(
 			@NonNull final HardwarePrinterRepository hardwarePrinterRepository,
 			@NonNull final ArchiveFileNameService archiveFileNameService)
@@ -201,21 +222,23 @@ public class PrintingDataFactory
 			@Nullable final UserId userToPrintId,
 			@Nullable final String hostKey)
 	{
-		final I_AD_Printer_Matching printerMatchingRecord = printingDAO.retrievePrinterMatchingOrNull(hostKey/*hostKey*/, userToPrintId, printerRouting.getAD_Printer());
-		if (printerMatchingRecord == null)
+		final PrinterMatchingKey printerMatchingKey = PrinterMatchingKey.builder()
+				.hostKey(hostKey)
+				.userToPrintId(userToPrintId)
+				.printerRepoId(printerRouting.getAD_Printer_ID())
+				.printerTrayRepoId(printerRouting.getAD_Printer_Tray_ID())
+				.build();
+		final HardwarePrinterAndTray hardwarePrinterAndTray = hardwarePrinterAndTrayByKey
+				.getOrLoad(printerMatchingKey, this::retrieveHardwarePrinterAndTray)
+				.orElse(null);
+		if (hardwarePrinterAndTray == null)
 		{
 			logger.debug("Found no AD_Printer_Matching record for AD_PrinterRouting_ID={}, AD_User_PrinterMatchingConfig_ID={} and hostKey={}; -> creating no PrintingSegment for routing",
 					printerRouting, UserId.toRepoId(userToPrintId), hostKey);
 			return null;
 		}
 
-		final I_AD_PrinterTray_Matching trayMatchingRecord = printingDAO.retrievePrinterTrayMatching(printerMatchingRecord, printerRouting, false);
-		final int trayRepoId = trayMatchingRecord == null ? -1 : trayMatchingRecord.getAD_PrinterHW_MediaTray_ID();
-
-		final HardwarePrinterId printerId = HardwarePrinterId.ofRepoId(printerMatchingRecord.getAD_PrinterHW_ID());
-		final HardwareTrayId trayId = HardwareTrayId.ofRepoIdOrNull(printerId, trayRepoId);
-
-		final HardwarePrinter hardwarePrinter = hardwarePrinterRepository.getById(printerId);
+		final HardwarePrinter hardwarePrinter = hardwarePrinterRepository.getById(hardwarePrinterAndTray.getPrinterId());
 
 		return PrintingSegment.builder()
 				.printerRoutingId(PrinterRoutingId.ofRepoId(printerRouting.getAD_PrinterRouting_ID()))
@@ -224,7 +247,64 @@ public class PrintingDataFactory
 				.lastPages(printerRouting.getLastPages())
 				.routingType(printerRouting.getRoutingType())
 				.printer(hardwarePrinter)
-				.trayId(trayId)
+				.trayId(hardwarePrinterAndTray.getTrayId())
 				.build();
 	}
+
+	/**
+	 * Retrieves the matchings out of transaction, because {@link #hardwarePrinterAndTrayByKey} is shared by all threads
+	 * and the caller's transaction might contain matchings which are not committed (yet).
+	 */
+	private Optional<HardwarePrinterAndTray> retrieveHardwarePrinterAndTray(@NonNull final PrinterMatchingKey key)
+	{
+		final Mutable<Optional<HardwarePrinterAndTray>> result = new Mutable<>();
+		trxManager.runOutOfTransaction(() -> result.setValue(retrieveHardwarePrinterAndTrayInCurrentTrx(key)));
+		return result.getValue();
+	}
+
+	private Optional<HardwarePrinterAndTray> retrieveHardwarePrinterAndTrayInCurrentTrx(@NonNull final PrinterMatchingKey key)
+	{
+		final I_AD_Printer printer = loadOutOfTrx(key.getPrinterRepoId(), I_AD_Printer.class);
+		final I_AD_Printer_Matching printerMatchingRecord = printingDAO.retrievePrinterMatchingOrNull(key.getHostKey(), key.getUserToPrintId(), printer);
+		if (printerMatchingRecord == null)
+		{
+			return Optional.empty();
+		}
+
+		final I_AD_PrinterTray_Matching trayMatchingRecord = printingDAO.retrievePrinterTrayMatchingOrNull(printerMatchingRecord, key.getPrinterTrayRepoId());
+		final int trayRepoId = trayMatchingRecord == null ? -1 : trayMatchingRecord.getAD_PrinterHW_MediaTray_ID();
+
+		final HardwarePrinterId printerId = HardwarePrinterId.ofRepoId(printerMatchingRecord.getAD_PrinterHW_ID());
+		final HardwareTrayId trayId = HardwareTrayId.ofRepoIdOrNull(printerId, trayRepoId);
+
+		return Optional.of(new HardwarePrinterAndTray(printerId, trayId));
+	}
+
+	/**
+	 * Identifies the logical printer and tray of an {@code AD_PrinterRouting}, for the user and host key whose printer matching shall be used.
+	 */
+	@Value
+	@Builder
+	private static class PrinterMatchingKey
+	{
+		@Nullable
+		String hostKey;
+
+		@Nullable
+		UserId userToPrintId;
+
+		int printerRepoId;
+
+		int printerTrayRepoId;
+	}
+
+	@Value
+	private static class HardwarePrinterAndTray
+	{
+		@NonNull
+		HardwarePrinterId printerId;
+
+		@Nullable
+		HardwareTrayId trayId;
+	}
 }
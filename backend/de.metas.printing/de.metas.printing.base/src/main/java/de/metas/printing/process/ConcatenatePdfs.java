@@ -24,8 +24,8 @@ package de.metas.printing.process;
 
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Iterator;
 import java.util.Properties;
 
@@ -36,12 +36,8 @@ import org.adempiere.service.ISysConfigBL;
 import org.compiere.model.I_AD_Archive;
 import org.compiere.util.Env;
 
-import com.lowagie.text.Document;
-import com.lowagie.text.DocumentException;
-import com.lowagie.text.pdf.PdfCopy;
-import com.lowagie.text.pdf.PdfReader;
-
 import de.metas.printing.api.IPrintingDAO;
+import de.metas.printing.api.util.PdfCollator;
 import de.metas.printing.model.I_C_Print_Job;
 import de.metas.printing.model.I_C_Print_Job_Line;
 import de.metas.printing.model.I_C_Printing_Queue;
@@ -69,7 +65,7 @@ public class ConcatenatePdfs extends JavaProcess
 	}
 
 	@Override
-	protected String doIt() throws IOException, DocumentException
+	protected String doIt() throws IOException
 	{
 		final Properties ctx = Env.getCtx();
 		final String trxName = ITrx.TRXNAME_None;
@@ -96,36 +92,32 @@ public class ConcatenatePdfs extends JavaProcess
 			file = new File(outputDir, fileName + ".pdf");
 		}
 
-		final Document document = new Document();
-
-		final FileOutputStream fos = new FileOutputStream(file, false);
-		final PdfCopy copy = new PdfCopy(document, fos);
-
-		document.open();
-
-		for (final I_C_Print_Job_Line jobLine : IteratorUtils.asIterable(jobLines))
+		final IArchiveBL archiveBL = Services.get(IArchiveBL.class);
+		final PdfCollator collator = new PdfCollator(file);
+		try
 		{
-			final I_C_Printing_Queue queue = jobLine.getC_Printing_Queue();
-			Check.assume(queue != null, jobLine + " references a C_Printing_Queue");
-
-			final I_AD_Archive archive = queue.getAD_Archive();
-			Check.assume(archive != null, queue + " references an AD_Archive record");
+			for (final I_C_Print_Job_Line jobLine : IteratorUtils.asIterable(jobLines))
+			{
+				final I_C_Printing_Queue queue = jobLine.getC_Printing_Queue();
+				Check.assume(queue != null, jobLine + " references a C_Printing_Queue");
 
-			final byte[] data = Services.get(IArchiveBL.class).getBinaryData(archive);
-			final PdfReader reader = new PdfReader(data);
+				final I_AD_Archive archive = queue.getAD_Archive();
+				Check.assume(archive != null, queue + " references an AD_Archive record");
 
-			for (int page = 0; page < reader.getNumberOfPages();)
-			{
-				copy.addPage(copy.getImportedPage(reader, ++page));
+				// stream the archives one by one, so we don't have to keep all of them in memory
+				try (final InputStream in = archiveBL.getBinaryDataAsStream(archive))
+				{
+					collator.addAllPages(in);
+				}
 			}
-			copy.freeReader(reader);
-			reader.close();
 		}
-		document.close();
-		fos.close();
-		outputFile = new File(outputDir);
+		finally
+		{
+			collator.close();
+		}
+		outputFile = file;
 
-		return "@Created@ " + fileName + ".pdf" + " in " + outputDir;
+		return "@Created@ " + file.getName() + " in " + file.getParent();
 	}
 
 	public File getOutputFile()
@@ -0,0 +1,105 @@
+/*
+ * #%L
+ * de.metas.printing.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+package de.metas.printing.api.util;
+
+import com.lowagie.text.pdf.PdfReader;
+import org.compiere.util.Util;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PdfCollatorTest
+{
+	private static InputStream openPdf(final String suffix)
+	{
+		final InputStream in = PdfCollatorTest.class.getResourceAsStream("/document" + suffix + ".pdf");
+		assertThat(in).isNotNull();
+		return in;
+	}
+
+	private static int countPages(final byte[] pdfData) throws IOException
+	{
+		final PdfReader reader = new PdfReader(pdfData);
+		try
+		{
+			return reader.getNumberOfPages();
+		}
+		finally
+		{
+			reader.close();
+		}
+	}
+
+	@Test
+	public void fileCollator_sameResultAsInMemoryCollator() throws IOException
+	{
+		final byte[] pdf01 = Util.readBytes(openPdf("01"));
+		final byte[] pdf02 = Util.readBytes(openPdf("02"));
+
+		final byte[] inMemoryResult = new PdfCollator()
+				.addPages(pdf01, 1, 1)
+				.addPages(pdf02, 1, 1)
+				.toByteArray();
+
+		final File resultFile = PdfCollator.newTempFileCollator("PdfCollatorTest")
+				.addPages(pdf01, 1, 1)
+				.addPages(pdf02, 1, 1)
+				.toFile();
+		try
+		{
+			final byte[] fileResult = Util.readBytes(resultFile);
+			assertThat(countPages(fileResult)).isEqualTo(countPages(inMemoryResult)).isEqualTo(2);
+		}
+		finally
+		{
+			resultFile.delete();
+		}
+	}
+
+	@Test
+	public void addAllPages_fromStream() throws IOException
+	{
+		final int expectedPages = countPages(Util.readBytes(openPdf("01"))) + countPages(Util.readBytes(openPdf("02")));
+
+		final PdfCollator collator = PdfCollator.newTempFileCollator("PdfCollatorTest");
+		try (final InputStream in01 = openPdf("01");
+				final InputStream in02 = openPdf("02"))
+		{
+			collator.addAllPages(in01).addAllPages(in02);
+		}
+
+		final File resultFile = collator.toFile();
+		try
+		{
+			assertThat(countPages(Util.readBytes(resultFile))).isEqualTo(expectedPages);
+		}
+		finally
+		{
+			resultFile.delete();
+		}
+	}
+}
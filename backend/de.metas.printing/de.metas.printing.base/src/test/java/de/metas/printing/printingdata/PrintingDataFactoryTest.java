@@ -33,6 +33,7 @@ import de.metas.printing.api.impl.Helper;
 import de.metas.printing.api.util.PdfCollator;
 import de.metas.printing.model.I_AD_PrinterHW;
 import de.metas.printing.model.I_AD_PrinterRouting;
+import de.metas.printing.model.I_AD_Printer_Matching;
 import de.metas.printing.model.I_C_Printing_Queue;
 import de.metas.util.Services;
 import lombok.NonNull;
@@ -42,6 +43,7 @@ import org.adempiere.test.AdempiereTestHelper;
 import org.compiere.model.I_AD_Archive;
 import org.compiere.model.I_C_Order;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
@@ -80,13 +82,62 @@ class PrintingDataFactoryTest
 	void createPrintingDataForQueueItem(@NonNull final Mode mode)
 	{
 		// given
+		helper.getCreatePrinterHW("hwPrinter", OutputType.Store);
+		final I_AD_PrinterRouting printerRouting = helper.createPrinterRouting("logicalPrinter", null, 10, -1, 1, 100);
+		helper.createPrinterConfigAndMatching(null, "hwPrinter", null, 10, "logicalPrinter", null);
+
+		final I_C_Printing_Queue printingQueueRecord = createPrintingQueueRecord(mode);
+
+		// when
+		final ImmutableList<PrintingData> printingData = printingDataFactory.createPrintingDataForQueueItem(printingQueueRecord);
+
+		// then
+		assertThat(printingData).hasSize(1);
+		assertThat(printingData.get(0).hasData()).isTrue();
+		assertThat(printingData.get(0).getPrintingQueueItemId()).isEqualTo(PrintingQueueItemId.ofRepoId(printingQueueRecord.getC_Printing_Queue_ID()));
+		assertThat(printingData.get(0).getDocumentFileName()).isEqualTo("C_Order-100007.pdf"); // the file name is not so nice, because there is not documentName, docType etc set up
+		assertThat(printingData.get(0).getNumberOfPages()).isEqualTo(3);
+		assertThat(printingData.get(0).getOrgId()).isEqualTo(OrgId.ofRepoId(23));
+		assertThat(printingData.get(0).getSegments()).isNotEmpty()
+				.extracting("pageFrom", "pageTo", "printerRoutingId.repoId")
+				.containsExactly(tuple(1, 3, printerRouting.getAD_PrinterRouting_ID()));
+	}
+
+	/**
+	 * Makes sure that the cached hardware printer of a printer matching is not used anymore after the matching was changed.
+	 */
+	@Test
+	void createPrintingDataForQueueItem_printerMatchingChanged()
+	{
+		// given
+		helper.getCreatePrinterHW("hwPrinter", OutputType.Store);
+		helper.getCreatePrinterHW("otherHwPrinter", OutputType.Store);
+		helper.createPrinterRouting("logicalPrinter", null, 10, -1, 1, 100);
+		helper.createPrinterConfigAndMatching(null, "hwPrinter", null, 10, "logicalPrinter", null);
+
+		final I_C_Printing_Queue printingQueueRecord = createPrintingQueueRecord(Mode.without_C_Doc_Outbound_Log);
+
+		assertThat(printingDataFactory.createPrintingDataForQueueItem(printingQueueRecord).get(0).getSegments())
+				.extracting("printer.name")
+				.containsExactly("hwPrinter");
+
+		// when
+		final I_AD_Printer_Matching printerMatchingRecord = helper.getDB().getFirstOnly(I_AD_Printer_Matching.class, pojo -> true);
+		printerMatchingRecord.setAD_PrinterHW(helper.getCreatePrinterHW("otherHwPrinter"));
+		saveRecord(printerMatchingRecord);
+
+		// then
+		assertThat(printingDataFactory.createPrintingDataForQueueItem(printingQueueRecord).get(0).getSegments())
+				.extracting("printer.name")
+				.containsExactly("otherHwPrinter");
+	}
+
+	private I_C_Printing_Queue createPrintingQueueRecord(@NonNull final Mode mode)
+	{
 		final byte[] binaryPdfData = new PdfCollator()
 				.addPages(helper.getPdf("01"), 1, 3) // First 3 pages
 				.toByteArray();
 
-		helper.getCreatePrinterHW("hwPrinter", OutputType.Store);
-		final I_AD_PrinterRouting printerRouting = helper.createPrinterRouting("logicalPrinter", null, 10, -1, 1, 100);
-
 		final I_C_Order referencedDocument = newInstance(I_C_Order.class);
 		saveRecord(referencedDocument);
 
@@ -103,25 +154,11 @@ class PrintingDataFactoryTest
 			docOutboundLogRecord.setRecord_ID(referencedDocument.getC_Order_ID());
 			saveRecord(docOutboundLogRecord);
 		}
-		helper.createPrinterConfigAndMatching(null, "hwPrinter", null, 10, "logicalPrinter", null);
 
 		final I_C_Printing_Queue printingQueueRecord = newInstance(I_C_Printing_Queue.class);
 		printingQueueRecord.setAD_Archive_ID(archiveRecord.getAD_Archive_ID());
 		printingQueueRecord.setAD_Org_ID(23);
 		saveRecord(printingQueueRecord);
-
-		// when
-		final ImmutableList<PrintingData> printingData = printingDataFactory.createPrintingDataForQueueItem(printingQueueRecord);
-
-		// then
-		assertThat(printingData).hasSize(1);
-		assertThat(printingData.get(0).hasData()).isTrue();
-		assertThat(printingData.get(0).getPrintingQueueItemId()).isEqualTo(PrintingQueueItemId.ofRepoId(printingQueueRecord.getC_Printing_Queue_ID()));
-		assertThat(printingData.get(0).getDocumentFileName()).isEqualTo("C_Order-100007.pdf"); // the file name is not so nice, because there is not documentName, docType etc set up
-		assertThat(printingData.get(0).getNumberOfPages()).isEqualTo(3);
-		assertThat(printingData.get(0).getOrgId()).isEqualTo(OrgId.ofRepoId(23));
-		assertThat(printingData.get(0).getSegments()).isNotEmpty()
-				.extracting("pageFrom", "pageTo", "printerRoutingId.repoId")
-				.containsExactly(tuple(1, 3, printerRouting.getAD_PrinterRouting_ID()));
+		return printingQueueRecord;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,214 @@
+package de.metas.report.jasper;
+
+import java.io.OutputStream;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
+import org.slf4j.Logger;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+
+import de.metas.logging.LogManager;
+import de.metas.util.Check;
+import lombok.Builder;
+import lombok.NonNull;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.export.JRPdfExporter;
+import net.sf.jasperreports.export.ExporterInputItem;
+import net.sf.jasperreports.export.SimpleExporterInput;
+import net.sf.jasperreports.export.SimpleExporterInputItem;
+import net.sf.jasperreports.export.SimpleOutputStreamExporterOutput;
+
+/*
+ * #%L
+ * de.metas.report.report.service
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Renders a batch of documents (e.g. delivery notes) into one PDF.
+ * <p>
+ * The documents are filled in parallel, while the ones which are already filled are exported, in order, straight to the output stream.
+ * The filling is running at most {@code maxDocumentsAhead} documents ahead of the export,
+ * so only a bounded number of {@link JasperPrint}s is kept in memory, no matter how big the batch is.
+ */
+public final class JasperBatchPdfRenderer
+{
+	private static final Logger logger = LogManager.getLogger(JasperBatchPdfRenderer.class);
+
+	@FunctionalInterface
+	public interface JasperPrintFiller<T>
+	{
+		JasperPrint fill(T document) throws Exception;
+	}
+
+	private final int parallelism;
+	private final int maxDocumentsAhead;
+
+	@Builder
+	private JasperBatchPdfRenderer(
+			final int parallelism,
+			final int maxDocumentsAhead)
+	{
+		Check.assumeGreaterThanZero(parallelism, "parallelism");
+
+		this.parallelism = parallelism;
+		this.maxDocumentsAhead = maxDocumentsAhead > 0 ? maxDocumentsAhead : parallelism * 2;
+	}
+
+	/**
+	 * @param filler fills one document; it's called from the renderer's worker threads
+	 */
+	public <T> void renderPdf(
+			@NonNull final List<T> documents,
+			@NonNull final JasperPrintFiller<T> filler,
+			@NonNull final OutputStream out)
+	{
+		Check.assumeNotEmpty(documents, "documents is not empty");
+
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
+		final ExecutorService executor = Executors.newFixedThreadPool(
+				Math.min(parallelism, documents.size()),
+				CustomizableThreadFactory.builder()
+						.setThreadNamePrefix(JasperBatchPdfRenderer.class.getSimpleName())
+						.setDaemon(true)
+						.build());
+		try
+		{
+			final FilledDocumentsList<T> filledDocuments = new FilledDocumentsList<>(documents, filler, executor, maxDocumentsAhead);
+
+			final JRPdfExporter exporter = new JRPdfExporter();
+			exporter.setExporterInput(new SimpleExporterInput(filledDocuments));
+			exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(out));
+			exporter.exportReport();
+		}
+		catch (final JRException ex)
+		{
+			throw AdempiereException.wrapIfNeeded(ex);
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+
+		final long elapsedMillis = Math.max(stopwatch.elapsed(TimeUnit.MILLISECONDS), 1);
+		logger.info("Rendered {} documents in {}ms ({} documents/second, parallelism={})",
+				documents.size(), elapsedMillis, documents.size() * 1000 / elapsedMillis, parallelism);
+	}
+
+	/**
+	 * The exporter's input items. The documents are submitted for filling as the exporter is advancing, and the filled ones are released after they were exported.
+	 * <p>
+	 * NOTE: the exporter accesses the items in order, starting with the first one, so this list is not supporting random access to already released items.
+	 */
+	@VisibleForTesting
+	static final class FilledDocumentsList<T> extends AbstractList<ExporterInputItem>
+	{
+		/** How many items before the current one we are keeping, because the exporter might ask for them again (e.g. it's getting the first item twice) */
+		private static final int KEEP_PREVIOUS_ITEMS = 2;
+
+		private final ImmutableList<T> documents;
+		private final JasperPrintFiller<T> filler;
+		private final ExecutorService executor;
+		private final int maxDocumentsAhead;
+
+		private final Future<JasperPrint>[] futures;
+		private int submittedCount = 0;
+
+		@SuppressWarnings("unchecked")
+		FilledDocumentsList(
+				@NonNull final List<T> documents,
+				@NonNull final JasperPrintFiller<T> filler,
+				@NonNull final ExecutorService executor,
+				final int maxDocumentsAhead)
+		{
+			this.documents = ImmutableList.copyOf(documents);
+			this.filler = filler;
+			this.executor = executor;
+			this.maxDocumentsAhead = maxDocumentsAhead;
+
+			this.futures = new Future[documents.size()];
+		}
+
+		@Override
+		public int size()
+		{
+			return documents.size();
+		}
+
+		@Override
+		public ExporterInputItem get(final int index)
+		{
+			submitUpTo(Math.min(index + maxDocumentsAhead, documents.size() - 1));
+
+			final Future<JasperPrint> future = futures[index];
+			if (future == null)
+			{
+				throw new AdempiereException("Document at index " + index + " was already exported and released");
+			}
+
+			if (index >= KEEP_PREVIOUS_ITEMS)
+			{
+				futures[index - KEEP_PREVIOUS_ITEMS] = null;
+			}
+
+			return new SimpleExporterInputItem(getJasperPrint(future, index));
+		}
+
+		private void submitUpTo(final int lastIndex)
+		{
+			while (submittedCount <= lastIndex)
+			{
+				final T document = documents.get(submittedCount);
+				futures[submittedCount] = executor.submit(() -> filler.fill(document));
+				submittedCount++;
+			}
+		}
+
+		private JasperPrint getJasperPrint(final Future<JasperPrint> future, final int index)
+		{
+			try
+			{
+				return future.get();
+			}
+			catch (final InterruptedException ex)
+			{
+				Thread.currentThread().interrupt();
+				throw AdempiereException.wrapIfNeeded(ex);
+			}
+			catch (final ExecutionException ex)
+			{
+				throw AdempiereException.wrapIfNeeded(ex.getCause())
+						.setParameter("document", documents.get(index))
+						.appendParametersToMessage();
+			}
+		}
+	}
+}
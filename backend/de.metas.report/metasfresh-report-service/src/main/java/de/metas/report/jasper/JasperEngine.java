@@ -34,7 +34,6 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
-import java.util.ResourceBundle;
 import java.util.Set;
 
 import org.adempiere.exceptions.AdempiereException;
@@ -55,6 +54,7 @@ import de.metas.process.AdProcessId;
 import de.metas.process.IADProcessDAO;
 import de.metas.process.PInstanceId;
 import de.metas.process.ProcessInfoParameter;
+import de.metas.report.jasper.JasperReportTemplateCache.JasperReportTemplate;
 import de.metas.report.server.AbstractReportEngine;
 import de.metas.report.server.OutputType;
 import de.metas.report.server.ReportConstants;
@@ -74,7 +74,6 @@ import net.sf.jasperreports.engine.JasperPrint;
 import net.sf.jasperreports.engine.JasperReport;
 import net.sf.jasperreports.engine.export.JRXlsAbstractExporterParameter;
 import net.sf.jasperreports.engine.query.JsonQLQueryExecuterFactory;
-import net.sf.jasperreports.engine.util.JRLoader;
 import net.sf.jasperreports.export.XlsReportConfiguration;
 
 public class JasperEngine extends AbstractReportEngine
@@ -90,8 +89,6 @@ public class JasperEngine extends AbstractReportEngine
 	private static final String PARAM_BARCODE_URL = "barcodeURL";
 	private static final String PARAM_SQL_VALUE = "SQL_VALUE";
 
-	private static final String JRPROPERTY_ReportPath = JasperEngine.class.getName() + ".ReportPath";
-
 	/**
 	 * Desired output type.
 	 *
@@ -118,6 +115,21 @@ public class JasperEngine extends AbstractReportEngine
 
 	}
 
+	/**
+	 * Fills the report, without exporting it.
+	 */
+	public JasperPrint fillReport(@NonNull final ReportContext reportContext)
+	{
+		try
+		{
+			return createJasperPrint(reportContext);
+		}
+		catch (final Exception e)
+		{
+			throw AdempiereException.wrapIfNeeded(e);
+		}
+	}
+
 	/**
 	 * Retrieves the server's direct database connection.
 	 *
@@ -137,7 +149,8 @@ public class JasperEngine extends AbstractReportEngine
 		final ClassLoader jasperLoader = createReportClassLoader(reportContext);
 
 		final Map<String, Object> jrParameters = createJRParameters(reportContext);
-		final JasperReport jasperReport = createJasperReport(reportContext.getAD_Process_ID(), jrParameters, jasperLoader);
+		final JasperReportTemplate template = createJasperReportTemplate(reportContext, jrParameters, jasperLoader);
+		final JasperReport jasperReport = template.getJasperReport();
 
 		// JSON Data source
 		if (jsonDSService.isJasperJSONReport(reportContext))
@@ -156,7 +169,7 @@ public class JasperEngine extends AbstractReportEngine
 				//
 				// Create jasper's JDBC connection
 				conn = getConnection();
-				final String sqlQueryInfo = "jasper main report=" + jasperReport.getProperty(JRPROPERTY_ReportPath)
+				final String sqlQueryInfo = "jasper main report=" + template.getReportPath()
 						+ ", AD_PInstance_ID=" + reportContext.getPinstanceId();
 
 				final String securityWhereClause;
@@ -186,52 +199,45 @@ public class JasperEngine extends AbstractReportEngine
 		}
 	}
 
-	private final JasperReport createJasperReport(
-			final AdProcessId adProcessId,
+	private final JasperReportTemplate createJasperReportTemplate(
+			final ReportContext reportContext,
 			final Map<String, Object> jrParameters,
 			final ClassLoader jasperLoader) throws JRException
 	{
-		final String reportPath = getReportPath(adProcessId, jrParameters);
-		final InputStream jasperInputStream;
+		final String reportPath = getReportPath(reportContext.getAD_Process_ID(), jrParameters);
+		final String resourceName;
 		if (reportPath.startsWith("resource:"))
 		{
 			// load the jasper file(s) using an ordinary class loader.
-			final String name = reportPath.substring("resource:".length()).trim();
+			resourceName = reportPath.substring("resource:".length()).trim();
 			logger.debug("reportPath = {}", reportPath);
-			// logger.debug("getting resource from = {}", jasperLoader.getResource(name));
-
-			jasperInputStream = jasperLoader.getResourceAsStream(name);
 		}
 		else
 		{
-			jasperInputStream = jasperLoader.getResourceAsStream(reportPath);
+			resourceName = reportPath;
 			jrParameters.put(JRParameter.REPORT_CLASS_LOADER, jasperLoader);
 		}
 
-		// Make sure the jasper input stream is not null
-		if (jasperInputStream == null)
-		{
-			// TODO ->A AD_Message
-			throw new AdempiereException("Berichtsdatei '" + reportPath + "' konnte nicht geöffnet werden");
-		}
-
 		//
-		// Load the jasper report from stream
-		final JasperReport jasperReport = (JasperReport)JRLoader.loadObject(jasperInputStream);
+		// Load the jasper report (or get it from cache)
+		final String reportDir = extractReportDir(reportPath);
+		final JasperReportTemplate template = JasperReportTemplateCache.getInstance().getTemplate(
+				reportPath,
+				resourceName,
+				reportContext.getOrgId(),
+				jasperLoader,
+				isReportTemplateCacheEnabled(),
+				jasperReport -> getResourceBundleName(jasperReport, reportDir));
 
 		//
-		// Load report's resource bundles, if any.
+		// Set report's resource bundles, if any.
 		// NOTE: we need to load them here because jasper engine is not using our "jasperLoader" to load the bundles, but the thread context one.
 		// (see net.sf.jasperreports.engine.fill.JRFillDataset.loadResourceBundle() )
-		{
-			final String reportDir = extractReportDir(reportPath);
-			final String resourceBundleName = getResourceBundleName(jasperReport, reportDir);
-			loadJasperReportResourceBundle(resourceBundleName, jrParameters, jasperLoader);
-		}
-
-		jasperReport.setProperty(JRPROPERTY_ReportPath, reportPath);
+		final Locale locale = (Locale)jrParameters.get(PARAM_REPORT_LOCALE);
+		template.getResourceBundle(locale, jasperLoader)
+				.ifPresent(resourceBundle -> jrParameters.put(JRParameter.REPORT_RESOURCE_BUNDLE, resourceBundle));
 
-		return jasperReport;
+		return template;
 	}
 
 	private final Map<String, Object> createJRParameters(final ReportContext reportContext) throws JRException
@@ -472,39 +478,6 @@ public class JasperEngine extends AbstractReportEngine
 		return resourceBundleBaseName;
 	}
 
-	/**
-	 * Loads the resource bundle for given <code>resourceBundleName</code>.
-	 *
-	 * If the {@link ResourceBundle} was found it will be set as {@link JRParameter#REPORT_RESOURCE_BUNDLE} parameter in <code>jrParameters</code>.
-	 *
-	 * @param resourceBundleName
-	 * @param jrParameters
-	 * @param classLoader class loader to be used for loading the resource
-	 * @return true if resource bundle was loaded
-	 */
-	private boolean loadJasperReportResourceBundle(final String resourceBundleName, final Map<String, Object> jrParameters, final ClassLoader classLoader)
-	{
-		if (Check.isEmpty(resourceBundleName, true))
-		{
-			return false; // not loaded
-		}
-
-		final Locale locale = (Locale)jrParameters.get(PARAM_REPORT_LOCALE);
-
-		try
-		{
-			final ResourceBundle resourceBundle = ResourceBundle.getBundle(resourceBundleName, locale, classLoader);
-			jrParameters.put(JRParameter.REPORT_RESOURCE_BUNDLE, resourceBundle);
-			return true;
-		}
-		catch (final Exception e)
-		{
-			logger.warn("Failed loading resource bundle for base name: {}, {}. Skipping", resourceBundleName, locale, e);
-		}
-
-		return false; // not loaded
-	}
-
 	private ReportResult createOutput(final JasperPrint jasperPrint, OutputType outputType) throws JRException, IOException
 	{
 		if (outputType == null)
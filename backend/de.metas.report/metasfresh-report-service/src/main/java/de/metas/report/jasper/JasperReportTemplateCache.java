@@ -0,0 +1,297 @@
+package de.metas.report.jasper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import javax.annotation.Nullable;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.slf4j.Logger;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import de.metas.cache.CCache;
+import de.metas.cache.CCache.CacheMapType;
+import de.metas.logging.LogManager;
+import de.metas.organization.OrgId;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.util.JRLoader;
+
+/*
+ * #%L
+ * de.metas.report.report.service
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Caches the deserialized {@link JasperReport}s and their resource bundles, so that we don't have to load the same {@code .jasper} file for each report run.
+ * <p>
+ * A new {@link JasperClassLoader} is created for each report run, so the templates are keyed by report path and organization (which is what determines the class loader's reports path prefix).
+ * The template's resource URL is still resolved on each run, because {@link JasperClassLoader} remembers the prefix of the main report and uses it for the sub-reports.
+ * <p>
+ * A cached template is reloaded if the last modified timestamp of its resource changed. That timestamp is checked at most once every {@link #DEFAULT_CHECK_INTERVAL_MILLIS}.
+ * Resources which don't provide a last modified timestamp are kept until the cache is reset (e.g. via {@link de.metas.report.rest.MgtRestController}).
+ * <p>
+ * {@link JasperReport}s are not changed while filling, so the cached instances can be filled concurrently.
+ */
+/* package */ final class JasperReportTemplateCache
+{
+	private static final Logger logger = LogManager.getLogger(JasperReportTemplateCache.class);
+
+	private static final JasperReportTemplateCache instance = new JasperReportTemplateCache();
+
+	public static JasperReportTemplateCache getInstance()
+	{
+		return instance;
+	}
+
+	private static final long DEFAULT_CHECK_INTERVAL_MILLIS = 5_000;
+
+	private final CCache<TemplateKey, JasperReportTemplate> templates = CCache.<TemplateKey, JasperReportTemplate> builder()
+			.cacheName("JasperReportTemplates")
+			.cacheMapType(CacheMapType.LRU)
+			.initialCapacity(500)
+			.build();
+
+	/** How often a cached template's resource is checked for changes */
+	private final long checkIntervalMillis;
+
+	private JasperReportTemplateCache()
+	{
+		this(DEFAULT_CHECK_INTERVAL_MILLIS);
+	}
+
+	@VisibleForTesting
+	JasperReportTemplateCache(final long checkIntervalMillis)
+	{
+		this.checkIntervalMillis = checkIntervalMillis;
+	}
+
+	@Value
+	@Builder
+	private static class TemplateKey
+	{
+		@NonNull
+		String reportPath;
+
+		@NonNull
+		OrgId orgId;
+	}
+
+	/**
+	 * @param resourceName name of the {@code .jasper} resource, as resolved by {@code jasperLoader}
+	 * @param cacheable if false, the template is loaded and returned without caching it (e.g. in developer mode, where templates are compiled on the fly)
+	 * @param resourceBundleNameExtractor extracts the report's resource bundle base name, or null if the report has no resource bundle
+	 */
+	public JasperReportTemplate getTemplate(
+			@NonNull final String reportPath,
+			@NonNull final String resourceName,
+			@NonNull final OrgId orgId,
+			@NonNull final ClassLoader jasperLoader,
+			final boolean cacheable,
+			@NonNull final Function<JasperReport, String> resourceBundleNameExtractor)
+	{
+		// NOTE: always resolve the URL, because the class loader is keeping track of the report path prefix (see class javadoc)
+		final URL url = jasperLoader.getResource(resourceName);
+
+		if (!cacheable)
+		{
+			return loadTemplate(reportPath, resourceName, url, jasperLoader, resourceBundleNameExtractor);
+		}
+
+		final TemplateKey key = TemplateKey.builder().reportPath(reportPath).orgId(orgId).build();
+		final JasperReportTemplate template = templates.getOrLoad(key, () -> loadTemplate(reportPath, resourceName, url, jasperLoader, resourceBundleNameExtractor));
+		if (!template.isStale(url, checkIntervalMillis))
+		{
+			return template;
+		}
+
+		logger.info("Reloading changed jasper report template: {}", url);
+		final JasperReportTemplate reloadedTemplate = loadTemplate(reportPath, resourceName, url, jasperLoader, resourceBundleNameExtractor);
+		templates.put(key, reloadedTemplate);
+		return reloadedTemplate;
+	}
+
+	private static JasperReportTemplate loadTemplate(
+			final String reportPath,
+			final String resourceName,
+			@Nullable final URL url,
+			final ClassLoader jasperLoader,
+			final Function<JasperReport, String> resourceBundleNameExtractor)
+	{
+		logger.debug("Loading jasper report template {} from {}", reportPath, url);
+
+		// NOTE: get the last modified timestamp before loading, so in case the file is changed meanwhile we will reload it next time
+		final long lastModified = getLastModified(url);
+
+		final JasperReport jasperReport;
+		try (final InputStream jasperInputStream = jasperLoader.getResourceAsStream(resourceName))
+		{
+			// Make sure the jasper input stream is not null
+			if (jasperInputStream == null)
+			{
+				// TODO ->A AD_Message
+				throw new AdempiereException("Berichtsdatei '" + reportPath + "' konnte nicht geöffnet werden");
+			}
+
+			jasperReport = (JasperReport)JRLoader.loadObject(jasperInputStream);
+		}
+		catch (final JRException | IOException ex)
+		{
+			throw AdempiereException.wrapIfNeeded(ex);
+		}
+
+		return new JasperReportTemplate(
+				reportPath,
+				jasperReport,
+				resourceBundleNameExtractor.apply(jasperReport),
+				lastModified);
+	}
+
+	/**
+	 * @return the resource's last modified timestamp or {@code 0} if not known
+	 */
+	private static long getLastModified(@Nullable final URL url)
+	{
+		if (url == null)
+		{
+			return 0;
+		}
+
+		try
+		{
+			if ("file".equals(url.getProtocol()))
+			{
+				return new File(url.toURI()).lastModified();
+			}
+
+			final URLConnection connection = url.openConnection();
+			try
+			{
+				return connection.getLastModified();
+			}
+			finally
+			{
+				if (connection instanceof HttpURLConnection)
+				{
+					((HttpURLConnection)connection).disconnect();
+				}
+			}
+		}
+		catch (final Exception ex)
+		{
+			logger.debug("Failed getting last modified timestamp of {}. Considering it unknown.", url, ex);
+			return 0;
+		}
+	}
+
+	/**
+	 * A loaded jasper report, together with its resource bundles.
+	 */
+	/* package */ static final class JasperReportTemplate
+	{
+		private final String reportPath;
+		private final JasperReport jasperReport;
+		@Nullable
+		private final String resourceBundleName;
+		private final long lastModified;
+
+		private volatile long lastCheckedMillis;
+		private final ConcurrentHashMap<Locale, Optional<ResourceBundle>> resourceBundlesByLocale = new ConcurrentHashMap<>();
+
+		private JasperReportTemplate(
+				@NonNull final String reportPath,
+				@NonNull final JasperReport jasperReport,
+				@Nullable final String resourceBundleName,
+				final long lastModified)
+		{
+			this.reportPath = reportPath;
+			this.jasperReport = jasperReport;
+			this.resourceBundleName = resourceBundleName;
+			this.lastModified = lastModified;
+			this.lastCheckedMillis = System.currentTimeMillis();
+		}
+
+		public String getReportPath()
+		{
+			return reportPath;
+		}
+
+		public JasperReport getJasperReport()
+		{
+			return jasperReport;
+		}
+
+		/**
+		 * @return the report's resource bundle, loaded once per locale; empty if the report has no resource bundle or it could not be loaded
+		 */
+		public Optional<ResourceBundle> getResourceBundle(@NonNull final Locale locale, @NonNull final ClassLoader classLoader)
+		{
+			if (resourceBundleName == null)
+			{
+				return Optional.empty();
+			}
+
+			return resourceBundlesByLocale.computeIfAbsent(locale, l -> loadResourceBundle(resourceBundleName, l, classLoader));
+		}
+
+		private static Optional<ResourceBundle> loadResourceBundle(final String resourceBundleName, final Locale locale, final ClassLoader classLoader)
+		{
+			try
+			{
+				return Optional.of(ResourceBundle.getBundle(resourceBundleName, locale, classLoader));
+			}
+			catch (final Exception e)
+			{
+				logger.warn("Failed loading resource bundle for base name: {}, {}. Skipping", resourceBundleName, locale, e);
+				return Optional.empty();
+			}
+		}
+
+		private boolean isStale(@Nullable final URL url, final long checkIntervalMillis)
+		{
+			if (lastModified == 0)
+			{
+				return false;
+			}
+
+			final long now = System.currentTimeMillis();
+			if (now - lastCheckedMillis < checkIntervalMillis)
+			{
+				return false;
+			}
+			lastCheckedMillis = now;
+
+			return getLastModified(url) != lastModified;
+		}
+	}
+}
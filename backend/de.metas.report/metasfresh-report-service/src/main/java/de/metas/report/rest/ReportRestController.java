@@ -51,7 +51,9 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -102,6 +104,38 @@ public class ReportRestController
 		}
 	}
 
+	/**
+	 * Renders the given process instances (e.g. one per delivery note) into one PDF, which is streamed while the documents are filled in parallel.
+	 */
+	@GetMapping("/batch")
+	public ResponseEntity<StreamingResponseBody> reportBatch(
+			@RequestParam(name = "AD_Process_ID") final int processId,
+			@RequestParam(name = "AD_PInstance_IDs") final List<Integer> pinstanceIds,
+			@RequestParam(name = "AD_Language", required = false) final String adLanguage)
+	{
+		final StreamingResponseBody body = out -> {
+			try (final MDCCloseable c1 = MDC.putCloseable("AD_Process_ID", String.valueOf(processId)))
+			{
+				server.reportBatchToPdf(processId, pinstanceIds, adLanguage, out);
+			}
+			catch (final Throwable ex)
+			{
+				// NOTE: at this point the response might be already partially sent, so we can only log the error
+				logger.error("Failed creating batch report for processId={}, pinstanceIds={}, adLanguage={}", processId, pinstanceIds, adLanguage, ex);
+				throw AdempiereException.wrapIfNeeded(ex);
+			}
+		};
+
+		final HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_PDF);
+		headers.set(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"report." + OutputType.PDF.getFileExtension() + "\"");
+		headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
+
+		return ResponseEntity.ok()
+				.headers(headers)
+				.body(body);
+	}
+
 	private String extractReportFilename(final ReportResult report)
 	{
 		if (Check.isNotBlank(report.getReportFilename()))
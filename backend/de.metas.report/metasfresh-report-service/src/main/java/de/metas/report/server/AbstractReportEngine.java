@@ -72,6 +72,14 @@ public abstract class AbstractReportEngine implements IReportEngine
 		return jasperLoader;
 	}
 
+	/**
+	 * @return false in developer mode, where the report templates are compiled on the fly and shall be picked up immediately
+	 */
+	protected boolean isReportTemplateCacheEnabled()
+	{
+		return !developerModeBL.isEnabled();
+	}
+
 	private List<File> getDevelopmentWorkspaceReportsDirs()
 	{
 		final File developmentWorkspaceDir = developerModeBL.getDevelopmentWorkspaceDir().orElse(null);
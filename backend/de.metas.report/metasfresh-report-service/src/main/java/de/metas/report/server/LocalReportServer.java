@@ -6,28 +6,102 @@ import de.metas.process.AdProcessId;
 import de.metas.process.IADPInstanceDAO;
 import de.metas.process.PInstanceId;
 import de.metas.process.ProcessInfo;
+import de.metas.report.jasper.JasperBatchPdfRenderer;
 import de.metas.report.jasper.JasperEngine;
 import de.metas.report.xls.engine.XlsReportEngine;
 import de.metas.util.Check;
 import de.metas.util.Services;
+import lombok.NonNull;
+import net.sf.jasperreports.engine.JasperPrint;
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.model.InterfaceWrapperHelper;
+import org.adempiere.service.ISysConfigBL;
 import org.adempiere.util.lang.IAutoCloseable;
 import org.compiere.util.Env;
 import org.slf4j.Logger;
 
+import java.io.OutputStream;
+import java.util.List;
 import java.util.Properties;
 
 public class LocalReportServer implements IReportServer
 {
 	private static final Logger logger = LogManager.getLogger(LocalReportServer.class);
 
+	private static final String SYSCONFIG_BatchParallelism = "de.metas.report.server.LocalReportServer.BatchParallelism";
+	private static final String SYSCONFIG_BatchMaxDocumentsAhead = "de.metas.report.server.LocalReportServer.BatchMaxDocumentsAhead";
+
 	@Override
 	public ReportResult report(
 			final int processId,
 			final int pinstanceRepoId,
 			final String adLanguage,
 			final OutputType outputType)
+	{
+		final ReportContext reportContext = createReportContext(processId, pinstanceRepoId, adLanguage, outputType);
+
+		//
+		// Create the report
+		try (final IAutoCloseable ignored = Env.switchContext(reportContext.getCtx()))
+		{
+			final IReportEngine engine = createReportEngine(reportContext);
+			return engine.report(reportContext);
+		}
+		catch (final Exception e)
+		{
+			throw AdempiereException.wrapIfNeeded(e);
+		}
+	}
+
+	/**
+	 * Renders the given process instances (e.g. one per delivery note) into one PDF, which is written to given output stream.
+	 * <p>
+	 * The documents are filled in parallel, see {@link JasperBatchPdfRenderer}. Only jasper reports are supported.
+	 */
+	public void reportBatchToPdf(
+			final int processId,
+			@NonNull final List<Integer> pinstanceRepoIds,
+			final String adLanguage,
+			@NonNull final OutputStream out)
+	{
+		final ISysConfigBL sysConfigBL = Services.get(ISysConfigBL.class);
+		final int parallelism = sysConfigBL.getIntValue(SYSCONFIG_BatchParallelism, Runtime.getRuntime().availableProcessors());
+		final int maxDocumentsAhead = sysConfigBL.getIntValue(SYSCONFIG_BatchMaxDocumentsAhead, -1);
+
+		JasperBatchPdfRenderer.builder()
+				.parallelism(parallelism)
+				.maxDocumentsAhead(maxDocumentsAhead)
+				.build()
+				.renderPdf(
+						pinstanceRepoIds,
+						pinstanceRepoId -> fillJasperReport(processId, pinstanceRepoId, adLanguage),
+						out);
+	}
+
+	private JasperPrint fillJasperReport(
+			final int processId,
+			final int pinstanceRepoId,
+			final String adLanguage)
+	{
+		final ReportContext reportContext = createReportContext(processId, pinstanceRepoId, adLanguage, OutputType.PDF);
+
+		try (final IAutoCloseable ignored = Env.switchContext(reportContext.getCtx()))
+		{
+			final IReportEngine engine = createReportEngine(reportContext);
+			if (!(engine instanceof JasperEngine))
+			{
+				throw new AdempiereException("Only jasper reports can be rendered in batch: " + reportContext);
+			}
+
+			return ((JasperEngine)engine).fillReport(reportContext);
+		}
+	}
+
+	private ReportContext createReportContext(
+			final int processId,
+			final int pinstanceRepoId,
+			final String adLanguage,
+			final OutputType outputType)
 	{
 		//
 		// Load process info
@@ -54,7 +128,7 @@ public class LocalReportServer implements IReportServer
 
 		//
 		// Create report context based on processInfo
-		final ReportContext reportContext = ReportContext.builder()
+		return ReportContext.builder()
 				.setCtx(processInfo.getCtx())
 				.setAD_Process_ID(processInfo.getAdProcessId())
 				.setPInstanceId(processInfo.getPinstanceId())
@@ -67,18 +141,6 @@ public class LocalReportServer implements IReportServer
 				.setType(processInfo.getType())
 				.setJSONPath(processInfo.getJsonPath().orElse(null))
 				.build();
-
-		//
-		// Create the report
-		try (final IAutoCloseable ignored = Env.switchContext(reportContext.getCtx()))
-		{
-			final IReportEngine engine = createReportEngine(reportContext);
-			return engine.report(reportContext);
-		}
-		catch (final Exception e)
-		{
-			throw AdempiereException.wrapIfNeeded(e);
-		}
 	}
 
 	private IReportEngine createReportEngine(final ReportContext reportContext)
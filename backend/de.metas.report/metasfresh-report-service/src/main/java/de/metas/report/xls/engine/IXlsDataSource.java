@@ -25,9 +25,18 @@ import java.util.Optional;
  * #L%
  */
 
-public interface IXlsDataSource
+public interface IXlsDataSource extends AutoCloseable
 {
 	Collection<Object> getRows();
 
 	Optional<String> getSuggestedFilename();
+
+	/**
+	 * Releases the resources which were acquired while providing the rows. Called after the report was rendered.
+	 */
+	@Override
+	default void close()
+	{
+		// nothing to release by default
+	}
 }
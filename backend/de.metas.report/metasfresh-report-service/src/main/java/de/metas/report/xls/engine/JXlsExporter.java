@@ -29,6 +29,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.MissingResourceException;
+import java.util.Optional;
 import java.util.Properties;
 import java.util.ResourceBundle;
 
@@ -103,10 +104,10 @@ public class JXlsExporter
 				evaluator.getJexlEngine().setSilent(true);
 				evaluator.getJexlEngine().setLenient(true);
 
-				processTemplate(transformer, context);
+				final Optional<String> reportFilename = processTemplate(transformer, context);
 
 				return ReportResult.builder()
-						.reportFilename(getDataSource().getSuggestedFilename().orElse(null))
+						.reportFilename(reportFilename.orElse(null))
 						.outputType(OutputType.XLS)
 						.reportContentBase64(org.compiere.util.Util.encodeBase64(os.toByteArray()))
 						.build();
@@ -118,30 +119,46 @@ public class JXlsExporter
 		}
 	}
 
-	private void processTemplate(final Transformer transformer, final Context context) throws IOException, InvalidFormatException
+	/**
+	 * @return the data source's suggested file name
+	 */
+	private Optional<String> processTemplate(final Transformer transformer, final Context context) throws IOException, InvalidFormatException
 	{
+		final IXlsDataSource dataSource = getDataSource();
+		try
+		{
+			// NOTE: get it before processing the template, while the data source is still open
+			final Optional<String> suggestedFilename = dataSource.getSuggestedFilename();
+
+			//
+			// Find Areas which we will need to process
+			final AreaBuilder areaBuilder = new XlsCommentAreaBuilder();
+			areaBuilder.setTransformer(transformer);
+			final List<Area> xlsAreaList = areaBuilder.build();
+
+			//
+			// Process those areas
+			for (final Area xlsArea : xlsAreaList)
+			{
+				// Process area
+				xlsArea.applyAt(new CellRef(xlsArea.getStartCellRef().getCellName()), context);
+
+				// Process formulas
+				xlsArea.setFormulaProcessor(new FastFormulaProcessor());
+				xlsArea.processFormulas();
+			}
 
-		//
-		// Find Areas which we will need to process
-		final AreaBuilder areaBuilder = new XlsCommentAreaBuilder();
-		areaBuilder.setTransformer(transformer);
-		final List<Area> xlsAreaList = areaBuilder.build();
+			//
+			// Write the result
+			transformer.write();
 
-		//
-		// Process those areas
-		for (final Area xlsArea : xlsAreaList)
+			return suggestedFilename;
+		}
+		finally
 		{
-			// Process area
-			xlsArea.applyAt(new CellRef(xlsArea.getStartCellRef().getCellName()), context);
-
-			// Process formulas
-			xlsArea.setFormulaProcessor(new FastFormulaProcessor());
-			xlsArea.processFormulas();
+			// release the data source's cursors, also if the template did not iterate all rows or failed
+			dataSource.close();
 		}
-
-		//
-		// Write the result
-		transformer.write();
 	}
 
 	private final Transformer createTransformer(final InputStream is, final ByteArrayOutputStream os) throws InvalidFormatException, IOException
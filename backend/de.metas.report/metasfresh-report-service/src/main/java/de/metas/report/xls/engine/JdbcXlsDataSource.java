@@ -1,23 +1,34 @@
 package de.metas.report.xls.engine;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
-import com.google.common.base.Supplier;
-import com.google.common.base.Suppliers;
+import de.metas.logging.LogManager;
 import de.metas.util.Check;
 import de.metas.util.StringUtils;
+import lombok.NonNull;
 import org.adempiere.ad.trx.api.ITrx;
 import org.adempiere.exceptions.DBException;
+import org.adempiere.util.lang.ImmutablePair;
 import org.compiere.util.DB;
+import org.slf4j.Logger;
 
+import javax.annotation.Nullable;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 import java.util.TreeMap;
 
 /*
@@ -42,24 +53,139 @@ import java.util.TreeMap;
  * #L%
  */
 
+/**
+ * Provides the rows of an SQL query to the XLS templates.
+ * <p>
+ * The rows are not loaded up front. Instead, they are streamed from a database cursor
+ * (see {@link DB#prepareConnectionAndStatementForDataExport(String, java.util.List)}), so only the rows which are fetched at a time are kept in memory by the JDBC driver.
+ * The rows themselves are lightweight: the column names are shared by all rows and each row is holding only its values.
+ * <p>
+ * The SQL itself is run as it is (just without a trailing {@code ;} or comment), so the database can hand out the first rows before it computed the last ones.
+ * The cursor which was opened to find out if there are any rows or to get the suggested file name is the one that is handed out by the next iteration.
+ * Only if the rows are iterated more than once, the query is run again.
+ * <p>
+ * The rows count is selected by a separate {@code SELECT COUNT(1)}, and only if {@link Collection#size()} is called before the rows were iterated to the end.
+ * <p>
+ * Cursors which were not iterated to the end are released by {@link #close()}.
+ */
 public class JdbcXlsDataSource implements IXlsDataSource
 {
 	public static final JdbcXlsDataSource of(final String sql)
 	{
-		return new JdbcXlsDataSource(sql);
+		return new JdbcXlsDataSource(
+				sql,
+				sqlSelect -> DB.prepareConnectionAndStatementForDataExport(sqlSelect, null),
+				sqlCount -> DB.getSQLValueEx(ITrx.TRXNAME_None, sqlCount));
 	}
 
+	private static final Logger logger = LogManager.getLogger(JdbcXlsDataSource.class);
+
 	private static final String COLUMNNAME_ReportFileName = "ReportFileName";
 
+	@FunctionalInterface
+	@VisibleForTesting
+	interface CursorFactory
+	{
+		/**
+		 * @return a connection which is exclusively used by the returned statement, and which will be closed together with the statement
+		 */
+		ImmutablePair<Connection, PreparedStatement> prepareConnectionAndStatement(String sqlSelect);
+	}
+
+	@FunctionalInterface
+	@VisibleForTesting
+	interface RowsCounter
+	{
+		int retrieveRowsCount(String sqlCount);
+	}
+
 	private final String sql;
+	private final String sqlCount;
+	private final CursorFactory cursorFactory;
+	private final RowsCounter rowsCounter;
+
+	private final Collection<Object> rows = new StreamingRowsCollection();
+	private Integer rowsCount = null;
+
+	/** Set when the first row is fetched, so we won't have to query it again when asked for the suggested file name. */
+	private Optional<String> suggestedFilename = null;
 
-	private final Supplier<Collection<Object>> rowsSupplier = Suppliers.memoize(() -> retrieveRows());
+	/** Iterators which were opened and not yet closed */
+	private final List<StreamingRowsIterator> openIterators = new ArrayList<>();
+	/** Iterator which was opened to peek at the first row and which was not yet handed out by {@link StreamingRowsCollection#iterator()} */
+	private StreamingRowsIterator peekingIterator = null;
+	private boolean closed = false;
 
-	private JdbcXlsDataSource(final String sql)
+	@VisibleForTesting
+	JdbcXlsDataSource(
+			@NonNull final String sql,
+			@NonNull final CursorFactory cursorFactory,
+			@NonNull final RowsCounter rowsCounter)
 	{
-		super();
-		Check.assumeNotNull(sql, "sql not null");
-		this.sql = sql;
+		this.sql = stripTrailingSemicolonsAndComments(sql);
+		Check.assumeNotEmpty(this.sql, "The SQL shall not be empty: {}", sql);
+
+		// the line breaks are just a safety net in case there are comments which we didn't strip
+		this.sqlCount = "SELECT COUNT(1) FROM (\n" + this.sql + "\n) t";
+
+		this.cursorFactory = cursorFactory;
+		this.rowsCounter = rowsCounter;
+	}
+
+	/**
+	 * The AD_Process SQLs are written to be run as they are, so they might end with a {@code ;} or a comment.
+	 * We strip those, so that the SQL can also be used as a sub-select.
+	 */
+	@VisibleForTesting
+	static String stripTrailingSemicolonsAndComments(@NonNull final String sql)
+	{
+		String result = sql.trim();
+		while (!result.isEmpty())
+		{
+			if (result.endsWith(";"))
+			{
+				result = result.substring(0, result.length() - 1).trim();
+				continue;
+			}
+
+			final int blockCommentStart = result.endsWith("*/") ? result.lastIndexOf("/*") : -1;
+			if (blockCommentStart >= 0)
+			{
+				result = result.substring(0, blockCommentStart).trim();
+				continue;
+			}
+
+			final int lineCommentStart = indexOfLineComment(result, result.lastIndexOf('\n') + 1);
+			if (lineCommentStart >= 0)
+			{
+				result = result.substring(0, lineCommentStart).trim();
+				continue;
+			}
+
+			break;
+		}
+		return result;
+	}
+
+	/**
+	 * @return the index of the {@code --} which starts a comment in the line that starts at the given index, or {@code -1}; a {@code --} within a string literal is not a comment.
+	 */
+	private static int indexOfLineComment(final String sql, final int lineStart)
+	{
+		boolean inStringLiteral = false;
+		for (int i = lineStart; i < sql.length(); i++)
+		{
+			final char ch = sql.charAt(i);
+			if (ch == '\'')
+			{
+				inStringLiteral = !inStringLiteral;
+			}
+			else if (!inStringLiteral && ch == '-' && i + 1 < sql.length() && sql.charAt(i + 1) == '-')
+			{
+				return i;
+			}
+		}
+		return -1;
 	}
 
 	@Override
@@ -67,89 +193,348 @@ public class JdbcXlsDataSource implements IXlsDataSource
 	{
 		return MoreObjects.toStringHelper(this)
 				.add("sql", sql)
+				.add("closed", closed)
 				.toString();
 	}
 
+	/**
+	 * @return the rows as a read-only collection, streamed from the database (see class javadoc)
+	 */
 	@Override
 	public Collection<Object> getRows()
 	{
-		return rowsSupplier.get();
+		return rows;
+	}
+
+	@Override
+	public Optional<String> getSuggestedFilename()
+	{
+		if (suggestedFilename == null && !closed)
+		{
+			// the rows were not iterated yet => fetch the first one, which will also set the suggested file name
+			getPeekingIterator().hasNext();
+		}
+
+		return suggestedFilename != null ? suggestedFilename : Optional.empty();
 	}
 
-	protected Collection<Object> retrieveRows()
+	/**
+	 * Releases the database resources of all cursors which were not iterated to the end.
+	 * After that, the rows can't be iterated anymore.
+	 */
+	@Override
+	public void close()
 	{
-		final List<Object> result = new LinkedList<>();
+		if (closed)
+		{
+			return;
+		}
+		closed = true;
+		peekingIterator = null;
 
-		PreparedStatement pstmt = null;
-		ResultSet rs = null;
+		for (final StreamingRowsIterator iterator : new ArrayList<>(openIterators))
+		{
+			iterator.close();
+		}
+	}
 
-		try
+	@VisibleForTesting
+	int getOpenIteratorsCount()
+	{
+		return openIterators.size();
+	}
+
+	private StreamingRowsIterator getPeekingIterator()
+	{
+		if (peekingIterator == null)
 		{
-			pstmt = DB.prepareStatement(sql, ITrx.TRXNAME_None);
-			rs = pstmt.executeQuery();
-			while (rs.next())
+			peekingIterator = openIterator();
+		}
+		return peekingIterator;
+	}
+
+	private StreamingRowsIterator openIterator()
+	{
+		Check.assume(!closed, "{} is not closed", this);
+
+		final StreamingRowsIterator iterator = new StreamingRowsIterator();
+		openIterators.add(iterator);
+		return iterator;
+	}
+
+	private int getRowsCount()
+	{
+		if (rowsCount == null)
+		{
+			logger.debug("Counting XLS rows with SQL: {}", sqlCount);
+			rowsCount = Math.max(rowsCounter.retrieveRowsCount(sqlCount), 0);
+		}
+		return rowsCount;
+	}
+
+	private boolean hasRows()
+	{
+		if (rowsCount != null)
+		{
+			return rowsCount > 0;
+		}
+		if (closed)
+		{
+			return false;
+		}
+
+		// fetch just the first row, instead of counting all of them
+		return getPeekingIterator().hasNext();
+	}
+
+	private void setRowsCountIfNotSet(final int rowsCount)
+	{
+		if (this.rowsCount == null)
+		{
+			this.rowsCount = rowsCount;
+		}
+	}
+
+	private void setSuggestedFilenameFromRowIfNotSet(final Row row)
+	{
+		if (suggestedFilename != null)
+		{
+			return;
+		}
+
+		final Object reportFileNameObj = row.get(COLUMNNAME_ReportFileName);
+		final String reportFileName = reportFileNameObj != null ? StringUtils.trimBlankToNull(reportFileNameObj.toString()) : null;
+		suggestedFilename = Optional.ofNullable(reportFileName);
+	}
+
+	private final class StreamingRowsCollection extends AbstractCollection<Object>
+	{
+		@Override
+		public Iterator<Object> iterator()
+		{
+			if (peekingIterator != null)
 			{
-				final Map<String, Object> row = retrieveRow(rs);
-				result.add(row);
+				final StreamingRowsIterator iterator = peekingIterator;
+				peekingIterator = null;
+				return iterator;
 			}
+
+			return openIterator();
 		}
-		catch (final SQLException e)
+
+		@Override
+		public int size()
 		{
-			final Object[] sqlParams = new Object[] {};
-			throw new DBException(e, sql, sqlParams);
+			return getRowsCount();
 		}
-		finally
+
+		@Override
+		public boolean isEmpty()
 		{
-			DB.close(rs, pstmt);
+			return !hasRows();
 		}
-
-		return result;
 	}
 
-	private Map<String, Object> retrieveRow(final ResultSet rs) throws SQLException
+	/**
+	 * Iterates the SQL's result set. The database resources are released when the last row was fetched, or on {@link #close()}.
+	 */
+	private final class StreamingRowsIterator implements Iterator<Object>
 	{
-		final Map<String, Object> row = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		private Connection conn;
+		private PreparedStatement pstmt;
+		private ResultSet rs;
+		private int columnCount;
+		private Map<String, Integer> columnIndexesByName;
+		private int fetchedRowsCount = 0;
+		private boolean closed = false;
 
-		final ResultSetMetaData rsMetaData = rs.getMetaData();
-		final int columnCount = rsMetaData.getColumnCount();
-		for (int columnIndex = 1; columnIndex <= columnCount; columnIndex++)
+		private Row nextRow;
+
+		@Override
+		public boolean hasNext()
+		{
+			if (nextRow == null)
+			{
+				nextRow = retrieveNextOrNull();
+			}
+			return nextRow != null;
+		}
+
+		@Override
+		public Object next()
 		{
-			final String columnName = rsMetaData.getColumnName(columnIndex);
+			if (!hasNext())
+			{
+				throw new NoSuchElementException();
+			}
+
+			final Row row = nextRow;
+			nextRow = null;
+			return row;
+		}
+
+		@Nullable
+		private Row retrieveNextOrNull()
+		{
+			if (closed)
+			{
+				return null;
+			}
+
+			boolean ok = false;
+			try
+			{
+				if (rs == null)
+				{
+					open();
+				}
+
+				if (!rs.next())
+				{
+					// we iterated all the rows, so now we know how many there are
+					setRowsCountIfNotSet(fetchedRowsCount);
+					if (suggestedFilename == null)
+					{
+						suggestedFilename = Optional.empty(); // no rows => no file name to suggest
+					}
+					return null;
+				}
+
+				final Object[] values = new Object[columnCount];
+				for (int i = 0; i < values.length; i++)
+				{
+					final Object value = rs.getObject(i + 1);
+					values[i] = rs.wasNull() ? null : value;
+				}
 
-			Object cellValue = rs.getObject(columnIndex);
-			if (rs.wasNull())
+				final Row row = new Row(columnIndexesByName, values);
+				fetchedRowsCount++;
+				setSuggestedFilenameFromRowIfNotSet(row);
+
+				ok = true;
+				return row;
+			}
+			catch (final SQLException ex)
 			{
-				cellValue = null;
+				throw new DBException(ex, sql);
 			}
+			finally
+			{
+				if (!ok)
+				{
+					close();
+				}
+			}
+		}
+
+		private void open() throws SQLException
+		{
+			logger.debug("Streaming XLS rows from SQL: {}", sql);
 
-			row.put(columnName, cellValue);
+			final ImmutablePair<Connection, PreparedStatement> connAndStmt = cursorFactory.prepareConnectionAndStatement(sql);
+			conn = connAndStmt.getLeft();
+			pstmt = connAndStmt.getRight();
+			rs = pstmt.executeQuery();
+
+			final ResultSetMetaData rsMetaData = rs.getMetaData();
+			columnCount = rsMetaData.getColumnCount();
+			columnIndexesByName = extractColumnIndexesByName(rsMetaData, columnCount);
 		}
 
-		return row;
+		private void close()
+		{
+			DB.close(rs, pstmt);
+			rs = null;
+			pstmt = null;
+
+			DB.close(conn);
+			conn = null;
+
+			closed = true;
+			openIterators.remove(this);
+		}
 	}
 
-	@Override
-	public Optional<String> getSuggestedFilename()
+	private static Map<String, Integer> extractColumnIndexesByName(final ResultSetMetaData rsMetaData, final int columnCount) throws SQLException
 	{
-		final Collection<Object> rows = getRows();
-		if (rows.isEmpty())
+		final TreeMap<String, Integer> columnIndexesByName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+		for (int columnIndex = 1; columnIndex <= columnCount; columnIndex++)
 		{
-			return Optional.empty();
+			// NOTE: in case of duplicate column names, last one wins (same as before, when each row was a map)
+			columnIndexesByName.put(rsMetaData.getColumnName(columnIndex), columnIndex - 1);
 		}
 
-		@SuppressWarnings("unchecked") final Map<String, Object> row = (Map<String, Object>)rows.iterator().next();
-		final Object reportFileNameObj = row.get(COLUMNNAME_ReportFileName);
-		if (reportFileNameObj == null)
+		return columnIndexesByName;
+	}
+
+	/**
+	 * One result set row, as seen by the templates: a read-only, case insensitive map of column name to value.
+	 * <p>
+	 * The column names are shared by all rows of a result set, so a row is holding nothing but its values.
+	 */
+	private static final class Row extends AbstractMap<String, Object>
+	{
+		private final Map<String, Integer> columnIndexesByName;
+		private final Object[] values;
+
+		private Row(final Map<String, Integer> columnIndexesByName, final Object[] values)
+		{
+			this.columnIndexesByName = columnIndexesByName;
+			this.values = values;
+		}
+
+		@Override
+		public Object get(final Object key)
 		{
-			return Optional.empty();
+			final Integer index = columnIndexesByName.get(key);
+			return index != null ? values[index] : null;
 		}
 
-		final String reportFileName = StringUtils.trimBlankToNull(reportFileNameObj.toString());
-		if (reportFileName == null)
+		@Override
+		public boolean containsKey(final Object key)
 		{
-			return Optional.empty();
+			return columnIndexesByName.containsKey(key);
 		}
 
-		return Optional.of(reportFileName);
+		@Override
+		public int size()
+		{
+			return columnIndexesByName.size();
+		}
+
+		@Override
+		public Set<Entry<String, Object>> entrySet()
+		{
+			return new AbstractSet<Entry<String, Object>>()
+			{
+				@Override
+				public Iterator<Entry<String, Object>> iterator()
+				{
+					final Iterator<Entry<String, Integer>> columns = columnIndexesByName.entrySet().iterator();
+					return new Iterator<Entry<String, Object>>()
+					{
+						@Override
+						public boolean hasNext()
+						{
+							return columns.hasNext();
+						}
+
+						@Override
+						public Entry<String, Object> next()
+						{
+							final Entry<String, Integer> column = columns.next();
+							return new SimpleImmutableEntry<>(column.getKey(), values[column.getValue()]);
+						}
+					};
+				}
+
+				@Override
+				public int size()
+				{
+					return columnIndexesByName.size();
+				}
+			};
+		}
 	}
 }
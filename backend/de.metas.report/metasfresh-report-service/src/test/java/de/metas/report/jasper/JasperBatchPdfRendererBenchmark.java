@@ -0,0 +1,109 @@
+package de.metas.report.jasper;
+
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.common.io.ByteStreams;
+
+import net.sf.jasperreports.engine.JREmptyDataSource;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.util.JRLoader;
+
+/*
+ * #%L
+ * de.metas.report.report.service
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Measures the throughput of {@link JasperBatchPdfRenderer}, in documents per second, for different parallelism levels.
+ * Each document is the {@code paramsTestReport} filled with an empty data source.
+ * <p>
+ * Not a unit test; run it via {@link #main(String[])}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JasperBatchPdfRendererBenchmark
+{
+	private static final int DOCUMENTS = 200;
+	private static final int ROWS_PER_DOCUMENT = 20;
+
+	@Param({ "1", "2", "4", "8" })
+	public int parallelism;
+
+	private JasperReport jasperReport;
+	private List<Integer> documents;
+
+	@Setup
+	public void setup() throws Exception
+	{
+		try (final InputStream in = getClass().getClassLoader().getResourceAsStream("paramsTestReport.jasper"))
+		{
+			jasperReport = (JasperReport)JRLoader.loadObject(in);
+		}
+
+		documents = IntStream.range(0, DOCUMENTS).boxed().collect(Collectors.toList());
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(DOCUMENTS)
+	public void renderBatch()
+	{
+		JasperBatchPdfRenderer.builder()
+				.parallelism(parallelism)
+				.build()
+				.renderPdf(
+						documents,
+						document -> JasperFillManager.fillReport(jasperReport, new HashMap<>(), new JREmptyDataSource(ROWS_PER_DOCUMENT)),
+						ByteStreams.nullOutputStream());
+	}
+
+	public static void main(final String[] args) throws RunnerException
+	{
+		new Runner(new OptionsBuilder()
+				.include(JasperBatchPdfRendererBenchmark.class.getSimpleName())
+				.build())
+						.run();
+	}
+}
@@ -0,0 +1,193 @@
+package de.metas.report.jasper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.metas.report.jasper.JasperBatchPdfRenderer.FilledDocumentsList;
+import net.sf.jasperreports.engine.JREmptyDataSource;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.util.JRLoader;
+
+/*
+ * #%L
+ * metasfresh-report-service
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class JasperBatchPdfRendererTest
+{
+	private ExecutorService executor;
+
+	@BeforeEach
+	public void init()
+	{
+		executor = Executors.newFixedThreadPool(4);
+	}
+
+	@AfterEach
+	public void cleanup()
+	{
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Makes sure the documents are handed to the exporter in the order they were given, even if the later ones are filled first.
+	 */
+	@Test
+	public void filledDocumentsAreInOrder()
+	{
+		final List<Integer> documents = IntStream.range(0, 8).boxed().collect(Collectors.toList());
+		final FilledDocumentsList<Integer> filledDocuments = new FilledDocumentsList<>(
+				documents,
+				document -> {
+					Thread.sleep((documents.size() - document) * 10); // the first documents take the longest
+					return jasperPrint("document-" + document);
+				},
+				executor,
+				4);
+
+		assertThat(filledDocuments).hasSize(8);
+		for (int i = 0; i < documents.size(); i++)
+		{
+			assertThat(filledDocuments.get(i).getJasperPrint().getName()).isEqualTo("document-" + i);
+		}
+	}
+
+	@Test
+	public void exportedDocumentsAreReleased()
+	{
+		final List<Integer> documents = IntStream.range(0, 5).boxed().collect(Collectors.toList());
+		final FilledDocumentsList<Integer> filledDocuments = new FilledDocumentsList<>(documents, document -> jasperPrint("document-" + document), executor, 2);
+
+		for (int i = 0; i < documents.size(); i++)
+		{
+			filledDocuments.get(i);
+		}
+
+		assertThatThrownBy(() -> filledDocuments.get(0))
+				.isInstanceOf(AdempiereException.class)
+				.hasMessageContaining("already exported and released");
+	}
+
+	@Test
+	public void fillingErrorIsPropagated()
+	{
+		final List<Integer> documents = IntStream.range(0, 4).boxed().collect(Collectors.toList());
+		final FilledDocumentsList<Integer> filledDocuments = new FilledDocumentsList<>(
+				documents,
+				document -> {
+					if (document == 2)
+					{
+						throw new IOException("filling failed for document " + document);
+					}
+					return jasperPrint("document-" + document);
+				},
+				executor,
+				4);
+
+		assertThat(filledDocuments.get(0).getJasperPrint().getName()).isEqualTo("document-0");
+		assertThat(filledDocuments.get(1).getJasperPrint().getName()).isEqualTo("document-1");
+		assertThatThrownBy(() -> filledDocuments.get(2))
+				.isInstanceOf(AdempiereException.class)
+				.hasRootCauseInstanceOf(IOException.class)
+				.hasStackTraceContaining("filling failed for document 2");
+	}
+
+	@Test
+	public void renderPdf() throws Exception
+	{
+		final JasperReport jasperReport = loadTestReport();
+		final List<Integer> documents = IntStream.range(0, 10).boxed().collect(Collectors.toList());
+		final Set<Integer> filledDocuments = ConcurrentHashMap.newKeySet();
+
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		JasperBatchPdfRenderer.builder()
+				.parallelism(3)
+				.maxDocumentsAhead(2)
+				.build()
+				.renderPdf(
+						documents,
+						document -> {
+							filledDocuments.add(document);
+							return JasperFillManager.fillReport(jasperReport, new HashMap<>(), new JREmptyDataSource(1));
+						},
+						out);
+
+		assertThat(filledDocuments).containsExactlyInAnyOrderElementsOf(documents);
+		assertThat(new String(out.toByteArray(), 0, 4, StandardCharsets.US_ASCII)).isEqualTo("%PDF");
+	}
+
+	@Test
+	public void renderPdf_fillingErrorIsPropagated() throws Exception
+	{
+		final JasperReport jasperReport = loadTestReport();
+		final List<Integer> documents = IntStream.range(0, 4).boxed().collect(Collectors.toList());
+
+		final JasperBatchPdfRenderer renderer = JasperBatchPdfRenderer.builder()
+				.parallelism(2)
+				.build();
+
+		assertThatThrownBy(() -> renderer.renderPdf(
+				documents,
+				document -> {
+					if (document == 2)
+					{
+						throw new IOException("filling failed for document " + document);
+					}
+					return JasperFillManager.fillReport(jasperReport, new HashMap<>(), new JREmptyDataSource(1));
+				},
+				new ByteArrayOutputStream()))
+						.hasStackTraceContaining("filling failed for document 2");
+	}
+
+	private static JasperPrint jasperPrint(final String name)
+	{
+		final JasperPrint jasperPrint = new JasperPrint();
+		jasperPrint.setName(name);
+		return jasperPrint;
+	}
+
+	private JasperReport loadTestReport() throws Exception
+	{
+		try (final InputStream in = getClass().getClassLoader().getResourceAsStream("paramsTestReport.jasper"))
+		{
+			return (JasperReport)JRLoader.loadObject(in);
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package de.metas.report.jasper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.metas.organization.OrgId;
+import de.metas.report.jasper.JasperReportTemplateCache.JasperReportTemplate;
+
+/*
+ * #%L
+ * metasfresh-report-service
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class JasperReportTemplateCacheTest
+{
+	private static final String RESOURCE_NAME = "paramsTestReport.jasper";
+
+	private Path reportsDir;
+	private File reportFile;
+	private URLClassLoader jasperLoader;
+
+	@BeforeEach
+	public void init() throws Exception
+	{
+		reportsDir = Files.createTempDirectory("JasperReportTemplateCacheTest");
+		reportFile = reportsDir.resolve(RESOURCE_NAME).toFile();
+		copyTestReportTo(reportFile);
+
+		jasperLoader = new URLClassLoader(new URL[] { reportsDir.toUri().toURL() }, null);
+	}
+
+	@AfterEach
+	public void cleanup() throws Exception
+	{
+		jasperLoader.close();
+		Files.deleteIfExists(reportFile.toPath());
+		Files.deleteIfExists(reportsDir);
+	}
+
+	@Test
+	public void unchangedTemplateIsServedFromCache()
+	{
+		final JasperReportTemplateCache cache = new JasperReportTemplateCache(0);
+
+		final JasperReportTemplate template = getTemplate(cache, true);
+		assertThat(template.getJasperReport()).isNotNull();
+		assertThat(getTemplate(cache, true)).isSameAs(template);
+	}
+
+	@Test
+	public void staleTemplateIsReloaded() throws Exception
+	{
+		final JasperReportTemplateCache cache = new JasperReportTemplateCache(0);
+		final JasperReportTemplate template = getTemplate(cache, true);
+
+		copyTestReportTo(reportFile);
+		assertThat(reportFile.setLastModified(reportFile.lastModified() + 10_000)).isTrue();
+
+		final JasperReportTemplate reloadedTemplate = getTemplate(cache, true);
+		assertThat(reloadedTemplate).isNotSameAs(template);
+		assertThat(reloadedTemplate.getJasperReport()).isNotNull();
+
+		// the reloaded template is cached again
+		assertThat(getTemplate(cache, true)).isSameAs(reloadedTemplate);
+	}
+
+	@Test
+	public void staleTemplateIsNotCheckedBeforeTheCheckInterval() throws Exception
+	{
+		final JasperReportTemplateCache cache = new JasperReportTemplateCache(60_000);
+		final JasperReportTemplate template = getTemplate(cache, true);
+
+		assertThat(reportFile.setLastModified(reportFile.lastModified() + 10_000)).isTrue();
+
+		assertThat(getTemplate(cache, true)).isSameAs(template);
+	}
+
+	@Test
+	public void notCacheable()
+	{
+		final JasperReportTemplateCache cache = new JasperReportTemplateCache(0);
+
+		final JasperReportTemplate template = getTemplate(cache, false);
+		assertThat(getTemplate(cache, false)).isNotSameAs(template);
+	}
+
+	private JasperReportTemplate getTemplate(final JasperReportTemplateCache cache, final boolean cacheable)
+	{
+		return cache.getTemplate(
+				"/" + RESOURCE_NAME,
+				RESOURCE_NAME,
+				OrgId.ANY,
+				jasperLoader,
+				cacheable,
+				jasperReport -> null);
+	}
+
+	private void copyTestReportTo(final File file) throws Exception
+	{
+		try (final InputStream in = getClass().getClassLoader().getResourceAsStream(RESOURCE_NAME))
+		{
+			Files.copy(in, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+}
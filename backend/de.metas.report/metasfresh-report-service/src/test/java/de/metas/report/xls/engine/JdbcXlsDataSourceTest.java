@@ -0,0 +1,229 @@
+package de.metas.report.xls.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.adempiere.util.lang.ImmutablePair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/*
+ * #%L
+ * metasfresh-report-service
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class JdbcXlsDataSourceTest
+{
+	private Connection conn;
+	private PreparedStatement pstmt;
+	private ResultSet rs;
+
+	private static final String SQL = "SELECT Name, ReportFileName FROM Test ORDER BY Name";
+
+	private final List<String> executedSqls = new ArrayList<>();
+	private final List<String> executedCountSqls = new ArrayList<>();
+	private int rowsCount;
+	private JdbcXlsDataSource dataSource;
+
+	@BeforeEach
+	public void init() throws SQLException
+	{
+		conn = mock(Connection.class);
+		pstmt = mock(PreparedStatement.class);
+		rs = mock(ResultSet.class);
+
+		final ResultSetMetaData rsMetaData = mock(ResultSetMetaData.class);
+		when(rsMetaData.getColumnCount()).thenReturn(2);
+		when(rsMetaData.getColumnName(1)).thenReturn("Name");
+		when(rsMetaData.getColumnName(2)).thenReturn("ReportFileName");
+
+		when(pstmt.executeQuery()).thenReturn(rs);
+		when(rs.getMetaData()).thenReturn(rsMetaData);
+
+		dataSource = createDataSource(SQL + ";");
+	}
+
+	private JdbcXlsDataSource createDataSource(final String sql)
+	{
+		return new JdbcXlsDataSource(
+				sql,
+				sqlSelect -> {
+					executedSqls.add(sqlSelect);
+					return ImmutablePair.of(conn, pstmt);
+				},
+				sqlCount -> {
+					executedCountSqls.add(sqlCount);
+					return rowsCount;
+				});
+	}
+
+	private void givenRows(final String... names) throws SQLException
+	{
+		rowsCount = names.length;
+
+		final Boolean[] nextResults = new Boolean[names.length];
+		for (int i = 0; i < names.length; i++)
+		{
+			nextResults[i] = i < names.length - 1;
+		}
+
+		if (names.length == 0)
+		{
+			when(rs.next()).thenReturn(false);
+			return;
+		}
+
+		when(rs.next()).thenReturn(true, nextResults);
+		when(rs.getObject(1)).thenReturn(names[0], (Object[])Arrays.copyOfRange(names, 1, names.length));
+		when(rs.getObject(2)).thenReturn("report.xls");
+	}
+
+	@Test
+	public void fullRead() throws SQLException
+	{
+		givenRows("a", "b", "c");
+
+		assertThat(dataSource.getRows()).hasSize(3);
+		assertThat(dataSource.getSuggestedFilename()).contains("report.xls");
+
+		final List<Object> names = new ArrayList<>();
+		for (final Object row : dataSource.getRows())
+		{
+			@SuppressWarnings("unchecked")
+			final Map<String, Object> rowMap = (Map<String, Object>)row;
+			assertThat(rowMap).containsOnlyKeys("Name", "ReportFileName");
+			names.add(rowMap.get("name")); // column names are case insensitive
+		}
+		assertThat(names).containsExactly("a", "b", "c");
+
+		// the query was run only once and as it is, and the count was selected separately
+		assertThat(executedSqls).containsExactly(SQL);
+		assertThat(executedCountSqls).hasSize(1);
+		assertThat(executedCountSqls.get(0)).startsWith("SELECT COUNT(1) FROM (").contains(SQL);
+
+		// the cursor was released after the last row
+		verify(rs).close();
+		verify(pstmt).close();
+		verify(conn).close();
+		assertThat(dataSource.getOpenIteratorsCount()).isZero();
+
+		dataSource.close();
+		verify(conn, times(1)).close();
+	}
+
+	@Test
+	public void rowsAreNotCountedIfIteratedBeforeAskingForTheSize() throws SQLException
+	{
+		givenRows("a", "b");
+
+		int iteratedRowsCount = 0;
+		for (final Iterator<Object> rows = dataSource.getRows().iterator(); rows.hasNext(); rows.next())
+		{
+			iteratedRowsCount++;
+		}
+		assertThat(iteratedRowsCount).isEqualTo(2);
+
+		assertThat(dataSource.getRows().size()).isEqualTo(2);
+
+		assertThat(executedSqls).containsExactly(SQL);
+		assertThat(executedCountSqls).isEmpty();
+	}
+
+	@Test
+	public void earlyAbortReleasesTheConnection() throws SQLException
+	{
+		givenRows("a", "b", "c");
+
+		final Iterator<Object> rows = dataSource.getRows().iterator();
+		assertThat(rows.hasNext()).isTrue();
+		rows.next();
+
+		verify(conn, never()).close();
+		assertThat(dataSource.getOpenIteratorsCount()).isEqualTo(1);
+
+		dataSource.close();
+
+		verify(rs).close();
+		verify(pstmt).close();
+		verify(conn).close();
+		assertThat(dataSource.getOpenIteratorsCount()).isZero();
+		assertThat(rows.hasNext()).isFalse();
+
+		assertThatThrownBy(() -> dataSource.getRows().iterator())
+				.hasMessageContaining("is not closed");
+	}
+
+	@Test
+	public void peekedCursorIsReleasedOnClose() throws SQLException
+	{
+		givenRows("a", "b");
+
+		// opens a cursor to fetch the first row, but the rows are never iterated
+		assertThat(dataSource.getRows().isEmpty()).isFalse();
+		assertThat(dataSource.getOpenIteratorsCount()).isEqualTo(1);
+
+		dataSource.close();
+
+		verify(conn).close();
+		assertThat(dataSource.getOpenIteratorsCount()).isZero();
+	}
+
+	@Test
+	public void noRows() throws SQLException
+	{
+		givenRows();
+
+		assertThat(dataSource.getRows()).isEmpty();
+		assertThat(dataSource.getRows().size()).isZero();
+		assertThat(dataSource.getSuggestedFilename()).isEmpty();
+
+		assertThat(executedSqls).hasSize(1);
+		assertThat(executedCountSqls).isEmpty();
+		verify(conn).close();
+		assertThat(dataSource.getOpenIteratorsCount()).isZero();
+	}
+
+	@Test
+	public void stripTrailingSemicolonsAndComments()
+	{
+		assertThat(JdbcXlsDataSource.stripTrailingSemicolonsAndComments(SQL)).isEqualTo(SQL);
+		assertThat(JdbcXlsDataSource.stripTrailingSemicolonsAndComments(" " + SQL + " ;\n ")).isEqualTo(SQL);
+		assertThat(JdbcXlsDataSource.stripTrailingSemicolonsAndComments(SQL + "; -- comment\n")).isEqualTo(SQL);
+		assertThat(JdbcXlsDataSource.stripTrailingSemicolonsAndComments(SQL + "\n-- comment;\n/* block\ncomment */;")).isEqualTo(SQL);
+		assertThat(JdbcXlsDataSource.stripTrailingSemicolonsAndComments("SELECT '--' AS Name -- comment")).isEqualTo("SELECT '--' AS Name");
+		assertThat(JdbcXlsDataSource.stripTrailingSemicolonsAndComments("SELECT 1\n-- comment\nFROM Test")).isEqualTo("SELECT 1\n-- comment\nFROM Test");
+	}
+}
@@ -278,7 +278,7 @@ class OLCandOrderFactory
 				loggable.addLog(errorMsg);
 				logger.warn("Caught exception while completing {}", order, ex);
 
-				final I_AD_Note note = createOrderCompleteErrorNote(errorMsg);
+				final I_AD_Note note = createOrderCompleteErrorNote(errorMsg, candidates);
 				for (final OLCand candidate : candidates)
 				{
 					candidate.setError(errorMsg, note.getAD_Note_ID());
@@ -461,12 +461,32 @@ class OLCandOrderFactory
 		saveCandidate(olCand);
 	}
 
+	/**
+	 * Marks the given candidates as erroneous, because their order could not be created at all (e.g. its transaction was rolled back).
+	 * <p>
+	 * The candidates' records are refreshed in the current transaction first, so that what was changed within the failed transaction is discarded.
+	 */
+	public void markAsError(@NonNull final List<OLCand> candidates, @NonNull final Exception ex)
+	{
+		final String errorMsg = ex.getLocalizedMessage();
+		loggable.addLog("Caught exception while creating the order for {} candidates; message={}", candidates.size(), errorMsg);
+		logger.warn("Caught exception while creating the order for {}", candidates, ex);
+
+		final I_AD_Note note = createOrderCompleteErrorNote(errorMsg, candidates);
+		for (final OLCand candidate : candidates)
+		{
+			InterfaceWrapperHelper.refresh(candidate.unbox(), ITrx.TRXNAME_ThreadInherited);
+			candidate.setError(errorMsg, note.getAD_Note_ID());
+			saveCandidate(candidate);
+		}
+	}
+
 	private void saveCandidate(final OLCand cand)
 	{
 		save(cand.unbox());
 	}
 
-	private I_AD_Note createOrderCompleteErrorNote(final String errorMsg)
+	private I_AD_Note createOrderCompleteErrorNote(final String errorMsg, final List<OLCand> candidates)
 	{
 		final I_AD_User user = userDAO.getById(userInChargeId);
 
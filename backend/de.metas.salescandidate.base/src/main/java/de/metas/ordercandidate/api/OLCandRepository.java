@@ -5,7 +5,9 @@ import static org.adempiere.model.InterfaceWrapperHelper.saveRecord;
 
 import java.time.LocalTime;
 import java.time.ZoneId;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import de.metas.common.util.time.SystemTime;
 import org.adempiere.ad.dao.IQueryBL;
@@ -76,14 +78,19 @@ public class OLCandRepository
 
 		final OLCandFactory olCandFactory = new OLCandFactory();
 
+		// the orgs' time zones are the same for all candidates of the batch, so we look them up just once per org
+		final Map<OrgId, ZoneId> timeZonesByOrgId = new HashMap<>();
+
 		final ITrxManager trxManager = Services.get(ITrxManager.class);
 		return trxManager.callInThreadInheritedTrx(() -> requests.stream()
-				.map(this::createAndSaveOLCandRecord)
+				.map(request -> createAndSaveOLCandRecord(request, timeZonesByOrgId))
 				.map(olCandFactory::toOLCand)
 				.collect(ImmutableList.toImmutableList()));
 	}
 
-	private I_C_OLCand createAndSaveOLCandRecord(@NonNull final OLCandCreateRequest request)
+	private I_C_OLCand createAndSaveOLCandRecord(
+			@NonNull final OLCandCreateRequest request,
+			@NonNull final Map<OrgId, ZoneId> timeZonesByOrgId)
 	{
 		final I_C_OLCand olCandPO = newInstance(I_C_OLCand.class);
 
@@ -92,7 +99,7 @@ public class OLCandRepository
 			olCandPO.setAD_Org_ID(request.getOrgId().getRepoId());
 		}
 		final OrgId orgId = OrgId.ofRepoIdOrAny(olCandPO.getAD_Org_ID());
-		final ZoneId timeZone = orgDAO.getTimeZone(orgId);
+		final ZoneId timeZone = timeZonesByOrgId.computeIfAbsent(orgId, orgDAO::getTimeZone);
 
 		{
 			final BPartnerInfo bpartner = request.getBpartner();
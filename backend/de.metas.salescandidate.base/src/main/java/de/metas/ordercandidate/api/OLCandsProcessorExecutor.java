@@ -2,21 +2,39 @@ package de.metas.ordercandidate.api;
 
 import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import javax.annotation.Nullable;
 
 import de.metas.common.util.time.SystemTime;
+import org.adempiere.ad.trx.api.ITrxManager;
+import org.adempiere.ad.trx.api.OnTrxMissingPolicy;
 import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.model.InterfaceWrapperHelper;
+import org.adempiere.util.concurrent.CustomizableThreadFactory;
+import org.adempiere.util.lang.IAutoCloseable;
 import org.compiere.util.ArrayKeyBuilder;
+import org.compiere.util.Env;
 import org.compiere.util.TimeUtil;
 import org.compiere.util.Util;
 import org.compiere.util.Util.ArrayKey;
 import org.slf4j.Logger;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ListMultimap;
@@ -79,12 +97,26 @@ public class OLCandsProcessorExecutor
 
 	private final OLCandSource candidatesSource;
 
+	/**
+	 * If greater than one, then the orders are created concurrently.
+	 * <p>
+	 * Note that this is only done if {@link #process()} is not called within a transaction, because the orders' transactions would be committed while the caller's transaction is still open.
+	 * Also note that if {@link #process()} is not called within a transaction, then each order is created in its own transaction, no matter if concurrently or not.
+	 */
+	private final int parallelism;
+
+	private final Function<ILoggable, OLCandOrderFactory> orderFactoryProvider;
+
+	private final ITrxManager trxManager = Services.get(ITrxManager.class);
+
 	@Builder
 	private OLCandsProcessorExecutor(
 			@NonNull final OLCandProcessorDescriptor processorDescriptor,
 			@NonNull final IOLCandListener olCandListeners,
 			@NonNull final IOLCandGroupingProvider groupingValuesProviders,
-			@NonNull final OLCandSource candidatesSource)
+			@NonNull final OLCandSource candidatesSource,
+			final int parallelism,
+			@Nullable final Function<ILoggable, OLCandOrderFactory> orderFactoryProvider)
 	{
 		this.orderDefaults = processorDescriptor.getDefaults();
 		this.olCandListeners = olCandListeners;
@@ -99,6 +131,8 @@ public class OLCandsProcessorExecutor
 		this.processorDataDestinationId = inputDataSourceDAO.retrieveInputDataSourceIdByInternalName(OrderCandidate_Constants.DATA_DESTINATION_INTERNAL_NAME);
 
 		this.candidatesSource = candidatesSource;
+		this.parallelism = parallelism;
+		this.orderFactoryProvider = orderFactoryProvider != null ? orderFactoryProvider : this::newOrderFactory;
 	}
 
 	public void process()
@@ -116,6 +150,53 @@ public class OLCandsProcessorExecutor
 				.collect(ImmutableList.toImmutableList());
 		loggable.addLog("Processing {} order line candidates", candidates.size());
 
+		final List<OrderToCreate> ordersToCreate = groupIntoOrders(candidates);
+		if (isCreateOrdersInParallel(ordersToCreate))
+		{
+			createOrdersInParallel(ordersToCreate);
+		}
+		else if (isCallerTrxActive())
+		{
+			ordersToCreate.forEach(orderToCreate -> createOrder(orderToCreate, loggable));
+		}
+		else
+		{
+			// no caller's transaction => don't let each single record be committed on its own
+			ordersToCreate.forEach(orderToCreate -> createOrderInNewTrx(orderToCreate, loggable));
+		}
+	}
+
+	private boolean isCallerTrxActive()
+	{
+		return trxManager.isActive(trxManager.getThreadInheritedTrx(OnTrxMissingPolicy.ReturnTrxNone));
+	}
+
+	private boolean isCreateOrdersInParallel(@NonNull final List<OrderToCreate> ordersToCreate)
+	{
+		if (parallelism <= 1 || ordersToCreate.size() <= 1)
+		{
+			return false;
+		}
+
+		// each order is committed in its own transaction, so we can't do that while the caller's transaction is open;
+		// that transaction could still be rolled back, and the workers would not see the caller's uncommitted changes
+		if (isCallerTrxActive())
+		{
+			loggable.addLog("Creating the orders sequentially, because the caller is running in transaction {} (parallelism={})", trxManager.getThreadInheritedTrxName(), parallelism);
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Groups the given candidates into the orders (and those into the order lines) which shall be created from them.
+	 * <p>
+	 * Note that this is just computing the grouping; no order is created here.
+	 */
+	@VisibleForTesting
+	List<OrderToCreate> groupIntoOrders(@NonNull final List<OLCand> candidates)
+	{
 		//
 		// Compute a grouping key for each candidate and group them according to their key
 		final Map<Integer, ArrayKey> toProcess = new HashMap<>();
@@ -135,10 +216,11 @@ public class OLCandsProcessorExecutor
 			grouping.put(groupingKey, candidate);
 		}
 
-		// 'processedIds' contains the candidates that have already been processed
+		// 'processedIds' contains the candidates that have already been assigned to an order
 		final Set<Integer> processedIds = new HashSet<>();
 
-		OLCandOrderFactory currentOrder = null;
+		final ImmutableList.Builder<OrderToCreate> ordersToCreate = ImmutableList.builder();
+		OrderToCreate currentOrder = null;
 
 		// This variable is used to decide if the current candidate differs from the previous one in a way that requires a new order.
 		OLCand previousCandidate = null;
@@ -163,12 +245,12 @@ public class OLCandsProcessorExecutor
 			{
 				if (currentOrder != null && isOrderSplit(candOfGroup, previousCandidate))
 				{
-					currentOrder.completeOrDelete();
+					ordersToCreate.add(currentOrder);
 					currentOrder = null;
 				}
 				if (currentOrder == null)
 				{
-					currentOrder = newOrderFactory();
+					currentOrder = new OrderToCreate();
 				}
 
 				currentOrder.addOLCand(candOfGroup);
@@ -180,11 +262,163 @@ public class OLCandsProcessorExecutor
 
 		if (currentOrder != null)
 		{
-			currentOrder.completeOrDelete();
+			ordersToCreate.add(currentOrder);
 			currentOrder = null;
 		}
 
 		Check.assume(processedIds.size() == candidates.size(), "All candidates have been processed");
+
+		return ordersToCreate.build();
+	}
+
+	/**
+	 * The candidates of one order, grouped by order line.
+	 */
+	@VisibleForTesting
+	static final class OrderToCreate
+	{
+		private final List<List<OLCand>> orderLines = new ArrayList<>();
+		private boolean lastOrderLineClosed = false;
+
+		public void addOLCand(@NonNull final OLCand candidate)
+		{
+			if (orderLines.isEmpty() || lastOrderLineClosed)
+			{
+				orderLines.add(new ArrayList<>());
+				lastOrderLineClosed = false;
+			}
+			orderLines.get(orderLines.size() - 1).add(candidate);
+		}
+
+		public void closeCurrentOrderLine()
+		{
+			lastOrderLineClosed = true;
+		}
+
+		public List<OLCand> getCandidates()
+		{
+			return orderLines.stream()
+					.flatMap(List::stream)
+					.collect(ImmutableList.toImmutableList());
+		}
+
+		public List<List<OLCand>> getOrderLines()
+		{
+			return orderLines.stream()
+					.map(ImmutableList::copyOf)
+					.collect(ImmutableList.toImmutableList());
+		}
+
+		/**
+		 * Feeds the candidates to the given factory, the same way they were grouped, and completes the order.
+		 */
+		public void createOrder(@NonNull final OLCandOrderFactory orderFactory)
+		{
+			for (final List<OLCand> orderLineCandidates : orderLines)
+			{
+				orderFactory.closeCurrentOrderLine();
+				orderLineCandidates.forEach(orderFactory::addOLCand);
+			}
+			if (lastOrderLineClosed)
+			{
+				orderFactory.closeCurrentOrderLine();
+			}
+
+			orderFactory.completeOrDelete();
+		}
+	}
+
+	private void createOrder(@NonNull final OrderToCreate orderToCreate, @NonNull final ILoggable loggable)
+	{
+		orderToCreate.createOrder(orderFactoryProvider.apply(loggable));
+	}
+
+	/**
+	 * Creates the orders concurrently, each one in its own transaction.
+	 * <p>
+	 * If an order's transaction fails, then all its candidates are flagged as erroneous (in another transaction).
+	 * The other orders are not affected by that.
+	 */
+	private void createOrdersInParallel(@NonNull final List<OrderToCreate> ordersToCreate)
+	{
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
+		final Properties ctx = Env.copyCtx(Env.getCtx());
+		final ILoggable workersLoggable = (msg, msgParameters) -> {
+			synchronized (loggable)
+			{
+				return loggable.addLog(msg, msgParameters);
+			}
+		};
+
+		final ExecutorService executor = Executors.newFixedThreadPool(
+				Math.min(parallelism, ordersToCreate.size()),
+				CustomizableThreadFactory.builder()
+						.setThreadNamePrefix(OLCandsProcessorExecutor.class.getSimpleName())
+						.setDaemon(true)
+						.build());
+		try
+		{
+			final List<Future<?>> futures = new ArrayList<>(ordersToCreate.size());
+			for (final OrderToCreate orderToCreate : ordersToCreate)
+			{
+				futures.add(executor.submit(() -> {
+					try (final IAutoCloseable ctxRestorer = Env.switchContext(ctx);
+							final IAutoCloseable loggableRestorer = Loggables.temporarySetLoggable(workersLoggable))
+					{
+						createOrderInNewTrx(orderToCreate, workersLoggable);
+					}
+				}));
+			}
+
+			// wait for all orders, in the same sequence in which they would have been created sequentially
+			for (final Future<?> future : futures)
+			{
+				waitForOrder(future);
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+
+		loggable.addLog("Created {} orders in {}ms (parallelism={})", ordersToCreate.size(), stopwatch.elapsed(TimeUnit.MILLISECONDS), parallelism);
+	}
+
+	/**
+	 * Creates the given order in its own transaction. If that fails, its candidates are flagged as erroneous (in another transaction).
+	 */
+	private void createOrderInNewTrx(@NonNull final OrderToCreate orderToCreate, @NonNull final ILoggable workersLoggable)
+	{
+		final List<OLCand> candidates = orderToCreate.getCandidates();
+		try
+		{
+			trxManager.runInNewTrx(() -> {
+				candidates.forEach(candidate -> InterfaceWrapperHelper.setThreadInheritedTrxName(candidate.unbox()));
+				createOrder(orderToCreate, workersLoggable);
+			});
+		}
+		catch (final Exception ex)
+		{
+			trxManager.runInNewTrx(() -> orderFactoryProvider.apply(workersLoggable).markAsError(candidates, ex));
+		}
+	}
+
+	private static void waitForOrder(@NonNull final Future<?> future)
+	{
+		try
+		{
+			future.get();
+		}
+		catch (final InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw AdempiereException.wrapIfNeeded(ex);
+		}
+		catch (final ExecutionException ex)
+		{
+			throw AdempiereException.wrapIfNeeded(ex.getCause());
+		}
 	}
 
 	private OLCand prepareOLCandBeforeProcessing(final OLCand candidate)
@@ -197,7 +431,7 @@ public class OLCandsProcessorExecutor
 		return candidate;
 	}
 
-	private OLCandOrderFactory newOrderFactory()
+	private OLCandOrderFactory newOrderFactory(@NonNull final ILoggable loggable)
 	{
 		return OLCandOrderFactory.builder()
 				.orderDefaults(orderDefaults)
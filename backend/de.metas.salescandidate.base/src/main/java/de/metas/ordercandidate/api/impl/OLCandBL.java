@@ -32,6 +32,7 @@ import javax.annotation.Nullable;
 
 import org.adempiere.exceptions.AdempiereException;
 import org.adempiere.model.InterfaceWrapperHelper;
+import org.adempiere.service.ISysConfigBL;
 import org.adempiere.util.lang.impl.TableRecordReference;
 import org.compiere.SpringContextHolder;
 import org.compiere.model.PO;
@@ -91,6 +92,13 @@ public class OLCandBL implements IOLCandBL
 {
 	private static final Logger logger = LogManager.getLogger(OLCandBL.class);
 
+	/**
+	 * How many orders shall be created concurrently when processing order line candidates; 1 means that they are created sequentially.
+	 * <p>
+	 * Only has an effect if the candidates are processed out of transaction (like the {@code ProcessOLCands} process does); within a transaction, the orders are always created sequentially.
+	 */
+	private static final String SYSCONFIG_ProcessOLCandsParallelism = "de.metas.ordercandidate.api.OLCandsProcessorExecutor.Parallelism";
+
 	private final IOLCandEffectiveValuesBL effectiveValuesBL = Services.get(IOLCandEffectiveValuesBL.class);
 	private final IPricingBL pricingBL = Services.get(IPricingBL.class);
 	private final IPriceListDAO priceListDAO = Services.get(IPriceListDAO.class);
@@ -117,6 +125,7 @@ public class OLCandBL implements IOLCandBL
 				.olCandListeners(olCandRegistry.getListeners())
 				.groupingValuesProviders(olCandRegistry.getGroupingValuesProviders())
 				.candidatesSource(candidatesSource)
+				.parallelism(Services.get(ISysConfigBL.class).getIntValue(SYSCONFIG_ProcessOLCandsParallelism, 1))
 				.build()
 				.process();
 	}
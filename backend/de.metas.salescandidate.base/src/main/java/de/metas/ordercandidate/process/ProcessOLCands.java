@@ -12,6 +12,7 @@ import de.metas.ordercandidate.model.I_C_OLCandProcessor;
 import de.metas.process.JavaProcess;
 import de.metas.process.Param;
 import de.metas.process.ProcessExecutionResult.ShowProcessLogs;
+import de.metas.process.RunOutOfTrx;
 import de.metas.util.Check;
 import de.metas.util.Services;
 
@@ -46,6 +47,7 @@ public class ProcessOLCands extends JavaProcess
 	}
 
 	@Override
+	@RunOutOfTrx // each order is created in its own transaction, possibly concurrently; see OLCandsProcessorExecutor
 	protected String doIt() throws Exception
 	{
 		Check.assume(olCandProcessorId > 0, "olCandProcessorId > 0");
@@ -59,7 +61,6 @@ public class ProcessOLCands extends JavaProcess
 		catch (final Exception ex)
 		{
 			addLog("@Error@: " + ex.getLocalizedMessage());
-			addLog("@Rollback@");
 			throw AdempiereException.wrapIfNeeded(ex);
 
 		}
@@ -0,0 +1,345 @@
+package de.metas.ordercandidate.api;
+
+import static org.adempiere.model.InterfaceWrapperHelper.newInstance;
+import static org.adempiere.model.InterfaceWrapperHelper.saveRecord;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.adempiere.ad.trx.api.ITrxManager;
+import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.test.AdempiereTestHelper;
+import org.compiere.model.I_C_UOM;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.impex.model.I_AD_InputDataSource;
+import de.metas.ordercandidate.OrderCandidate_Constants;
+import de.metas.ordercandidate.api.OLCandsProcessorExecutor.OrderToCreate;
+import de.metas.ordercandidate.model.I_C_OLCand;
+import de.metas.ordercandidate.spi.IOLCandGroupingProvider;
+import de.metas.ordercandidate.spi.IOLCandListener;
+import de.metas.user.UserId;
+import de.metas.util.ILoggable;
+import de.metas.util.Services;
+
+/*
+ * #%L
+ * de.metas.salescandidate.base
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class OLCandsProcessorExecutorTest
+{
+	private final OLCandFactory olCandFactory = new OLCandFactory();
+
+	private int dataDestinationId;
+	private int uomId;
+
+	@BeforeEach
+	public void init()
+	{
+		AdempiereTestHelper.get().init();
+
+		final I_AD_InputDataSource dataDestination = newInstance(I_AD_InputDataSource.class);
+		dataDestination.setInternalName(OrderCandidate_Constants.DATA_DESTINATION_INTERNAL_NAME);
+		saveRecord(dataDestination);
+		dataDestinationId = dataDestination.getAD_InputDataSource_ID();
+
+		final I_C_UOM uom = newInstance(I_C_UOM.class);
+		saveRecord(uom);
+		uomId = uom.getC_UOM_ID();
+	}
+
+	@Test
+	public void groupIntoOrders()
+	{
+		final OLCand cand1 = createOLCand(1);
+		final OLCand cand2 = createOLCand(1);
+		final OLCand cand3 = createOLCand(2);
+
+		final List<OrderToCreate> ordersToCreate = newExecutor(ImmutableList.of(), 1, new OrderFactoryRecorder())
+				.groupIntoOrders(ImmutableList.of(cand1, cand2, cand3));
+
+		// a different bpartner means a different order; no group-by columns means that each candidate gets its own order line
+		assertThat(ordersToCreate).hasSize(2);
+		assertThat(ordersToCreate.get(0).getOrderLines()).containsExactly(ImmutableList.of(cand1), ImmutableList.of(cand2));
+		assertThat(ordersToCreate.get(1).getOrderLines()).containsExactly(ImmutableList.of(cand3));
+	}
+
+	@Test
+	public void orderToCreate_createOrder_replaysTheOrderLines()
+	{
+		final OLCand cand1 = createOLCand(1);
+		final OLCand cand2 = createOLCand(1);
+		final OLCand cand3 = createOLCand(1);
+
+		final OrderToCreate orderToCreate = new OrderToCreate();
+		orderToCreate.addOLCand(cand1);
+		orderToCreate.closeCurrentOrderLine();
+		orderToCreate.addOLCand(cand2);
+		orderToCreate.addOLCand(cand3);
+		orderToCreate.closeCurrentOrderLine();
+		assertThat(orderToCreate.getOrderLines()).containsExactly(ImmutableList.of(cand1), ImmutableList.of(cand2, cand3));
+		assertThat(orderToCreate.getCandidates()).containsExactly(cand1, cand2, cand3);
+
+		final OLCandOrderFactory orderFactory = mock(OLCandOrderFactory.class);
+		orderToCreate.createOrder(orderFactory);
+
+		final InOrder inOrder = inOrder(orderFactory);
+		inOrder.verify(orderFactory).closeCurrentOrderLine();
+		inOrder.verify(orderFactory).addOLCand(cand1);
+		inOrder.verify(orderFactory).closeCurrentOrderLine();
+		inOrder.verify(orderFactory).addOLCand(cand2);
+		inOrder.verify(orderFactory).addOLCand(cand3);
+		inOrder.verify(orderFactory).closeCurrentOrderLine();
+		inOrder.verify(orderFactory).completeOrDelete();
+		inOrder.verifyNoMoreInteractions();
+	}
+
+	@Test
+	public void process_sequentially()
+	{
+		final OLCand cand1 = createOLCand(1);
+		final OLCand cand2 = createOLCand(1);
+		final OLCand cand3 = createOLCand(2);
+
+		final OrderFactoryRecorder recorder = new OrderFactoryRecorder();
+		newExecutor(ImmutableList.of(cand1, cand2, cand3), 1, recorder).process();
+
+		assertThat(recorder.getCompletedOrders()).hasSize(2);
+		assertThat(recorder.getCompletedOrders().get(0).orderLines).isEqualTo(orderLines(cand1, cand2));
+		assertThat(recorder.getCompletedOrders().get(1).orderLines).isEqualTo(orderLines(cand3));
+		assertThat(recorder.getCompletedOrders()).allSatisfy(order -> assertThat(order.completedByThread).isSameAs(Thread.currentThread()));
+
+		// there is no caller's transaction, so each order was created in its own transaction
+		assertThat(recorder.getCompletedOrders()).allSatisfy(order -> assertThat(order.completedInTrxName).isNotNull());
+		assertThat(recorder.getCompletedOrders()).extracting(order -> order.completedInTrxName).doesNotHaveDuplicates();
+	}
+
+	@Test
+	public void process_inParallel()
+	{
+		final ImmutableList<OLCand> candidates = ImmutableList.of(createOLCand(1), createOLCand(1), createOLCand(2), createOLCand(3), createOLCand(4));
+
+		final OrderFactoryRecorder recorder = new OrderFactoryRecorder();
+		newExecutor(candidates, 4, recorder).process();
+
+		final List<RecordedOrder> completedOrders = recorder.getCompletedOrders();
+		assertThat(completedOrders).hasSize(4);
+		assertThat(completedOrders)
+				.extracting(order -> order.orderLines)
+				.containsExactlyInAnyOrder(
+						orderLines(candidates.get(0), candidates.get(1)),
+						orderLines(candidates.get(2)),
+						orderLines(candidates.get(3)),
+						orderLines(candidates.get(4)));
+
+		// each order was created by a worker, in its own transaction, and all workers were logging to the same synchronized loggable
+		assertThat(completedOrders).allSatisfy(order -> {
+			assertThat(order.completedByThread).isNotSameAs(Thread.currentThread());
+			assertThat(order.completedInTrxName).isNotNull();
+		});
+		assertThat(completedOrders).extracting(order -> order.completedInTrxName).doesNotHaveDuplicates();
+		assertThat(completedOrders).extracting(order -> order.loggable).containsOnly(completedOrders.get(0).loggable);
+		assertThat(recorder.getMarkedAsErrorOLCandIds()).isEmpty();
+	}
+
+	@Test
+	public void process_inParallel_failingOrderDoesNotAffectTheOthers()
+	{
+		final OLCand cand1 = createOLCand(1);
+		final OLCand cand2 = createOLCand(2);
+		final OLCand cand3 = createOLCand(2);
+		final OLCand cand4 = createOLCand(3);
+
+		final OrderFactoryRecorder recorder = new OrderFactoryRecorder(ImmutableSet.of(cand2.getId()));
+		newExecutor(ImmutableList.of(cand1, cand2, cand3, cand4), 4, recorder).process();
+
+		assertThat(recorder.getCompletedOrders())
+				.extracting(order -> order.orderLines)
+				.containsExactlyInAnyOrder(
+						orderLines(cand1),
+						orderLines(cand4));
+		assertThat(recorder.getMarkedAsErrorOLCandIds()).containsExactly(cand2.getId(), cand3.getId());
+	}
+
+	@Test
+	public void process_withinCallersTrx_isNotDoneInParallel()
+	{
+		final OLCand cand1 = createOLCand(1);
+		final OLCand cand2 = createOLCand(2);
+
+		final OrderFactoryRecorder recorder = new OrderFactoryRecorder();
+		final OLCandsProcessorExecutor executor = newExecutor(ImmutableList.of(cand1, cand2), 4, recorder);
+		Services.get(ITrxManager.class).runInNewTrx(executor::process);
+
+		assertThat(recorder.getCompletedOrders()).hasSize(2);
+		assertThat(recorder.getCompletedOrders()).allSatisfy(order -> assertThat(order.completedByThread).isSameAs(Thread.currentThread()));
+	}
+
+	private OLCand createOLCand(final int bpartnerRepoId)
+	{
+		final I_C_OLCand olCandRecord = newInstance(I_C_OLCand.class);
+		olCandRecord.setAD_DataDestination_ID(dataDestinationId);
+		olCandRecord.setC_BPartner_ID(bpartnerRepoId);
+		olCandRecord.setC_BPartner_Location_ID(bpartnerRepoId * 10);
+		olCandRecord.setC_UOM_ID(uomId);
+		olCandRecord.setQtyEntered(BigDecimal.ONE);
+		saveRecord(olCandRecord);
+
+		return olCandFactory.toOLCand(olCandRecord);
+	}
+
+	/**
+	 * @return the IDs of the given candidates, one order line per candidate
+	 */
+	private static List<List<Integer>> orderLines(final OLCand... candidates)
+	{
+		return Stream.of(candidates)
+				.map(candidate -> ImmutableList.of(candidate.getId()))
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	private static OLCandsProcessorExecutor newExecutor(
+			final List<OLCand> candidates,
+			final int parallelism,
+			final OrderFactoryRecorder orderFactoryRecorder)
+	{
+		final OLCandProcessorDescriptor processorDescriptor = OLCandProcessorDescriptor.builder()
+				.id(1)
+				.defaults(OLCandOrderDefaults.builder().build())
+				.aggregationInfo(OLCandAggregation.of(ImmutableList.of()))
+				.userInChangeId(UserId.ofRepoId(100))
+				.build();
+
+		return OLCandsProcessorExecutor.builder()
+				.processorDescriptor(processorDescriptor)
+				.olCandListeners(mock(IOLCandListener.class))
+				.groupingValuesProviders(mock(IOLCandGroupingProvider.class))
+				.candidatesSource(candidates::stream)
+				.parallelism(parallelism)
+				.orderFactoryProvider(orderFactoryRecorder)
+				.build();
+	}
+
+	/**
+	 * Provides mocked order factories which record what they were asked to do, instead of creating orders.
+	 */
+	private static final class OrderFactoryRecorder implements Function<ILoggable, OLCandOrderFactory>
+	{
+		private final Set<Integer> failingOLCandIds;
+		private final List<RecordedOrder> completedOrders = Collections.synchronizedList(new ArrayList<>());
+		private final List<Integer> markedAsErrorOLCandIds = Collections.synchronizedList(new ArrayList<>());
+
+		private OrderFactoryRecorder()
+		{
+			this(ImmutableSet.of());
+		}
+
+		private OrderFactoryRecorder(final Set<Integer> failingOLCandIds)
+		{
+			this.failingOLCandIds = failingOLCandIds;
+		}
+
+		@Override
+		public OLCandOrderFactory apply(final ILoggable loggable)
+		{
+			final RecordedOrder order = new RecordedOrder(loggable);
+			final OLCandOrderFactory orderFactory = mock(OLCandOrderFactory.class);
+
+			doAnswer(invocation -> {
+				order.addOLCandId(invocation.<OLCand> getArgument(0).getId());
+				return null;
+			}).when(orderFactory).addOLCand(any());
+
+			doAnswer(invocation -> {
+				order.lineOpen = false;
+				return null;
+			}).when(orderFactory).closeCurrentOrderLine();
+
+			doAnswer(invocation -> {
+				if (order.orderLines.stream().flatMap(List::stream).anyMatch(failingOLCandIds::contains))
+				{
+					throw new AdempiereException("test: failing to complete the order");
+				}
+				order.completedByThread = Thread.currentThread();
+				order.completedInTrxName = Services.get(ITrxManager.class).getThreadInheritedTrxName();
+				completedOrders.add(order);
+				return null;
+			}).when(orderFactory).completeOrDelete();
+
+			doAnswer(invocation -> {
+				invocation.<List<OLCand>> getArgument(0).forEach(candidate -> markedAsErrorOLCandIds.add(candidate.getId()));
+				return null;
+			}).when(orderFactory).markAsError(any(), any());
+
+			return orderFactory;
+		}
+
+		public List<RecordedOrder> getCompletedOrders()
+		{
+			return ImmutableList.copyOf(completedOrders);
+		}
+
+		public List<Integer> getMarkedAsErrorOLCandIds()
+		{
+			return ImmutableList.copyOf(markedAsErrorOLCandIds);
+		}
+	}
+
+	private static final class RecordedOrder
+	{
+		private final ILoggable loggable;
+		private final List<List<Integer>> orderLines = new ArrayList<>();
+		private boolean lineOpen = false;
+
+		private Thread completedByThread;
+		private String completedInTrxName;
+
+		private RecordedOrder(final ILoggable loggable)
+		{
+			this.loggable = loggable;
+		}
+
+		private void addOLCandId(final int olCandId)
+		{
+			if (!lineOpen)
+			{
+				orderLines.add(new ArrayList<>());
+				lineOpen = true;
+			}
+			orderLines.get(orderLines.size() - 1).add(olCandId);
+		}
+	}
+}
@@ -24,6 +24,7 @@ package de.metas.adempiere.service.impl;
 
 import java.util.List;
 
+import com.google.common.collect.ImmutableList;
 import de.metas.adempiere.service.PrinterRoutingsQuery;
 import de.metas.cache.CCache;
 import de.metas.organization.OrgId;
@@ -51,6 +52,7 @@ public class PrinterRoutingDAO implements IPrinterRoutingDAO
 			.<PrinterRoutingsQuery, List<I_AD_PrinterRouting>>builder()
 			.cacheName(I_AD_PrinterRouting.Table_Name + "#by#PrinterRoutingsQuery")
 			.tableName(I_AD_PrinterRouting.Table_Name)
+			.additionalTableNameToResetFor(I_AD_Printer.Table_Name) // only routings of active printers are fetched
 			.build();
 
 	@Override
@@ -107,9 +109,9 @@ public class PrinterRoutingDAO implements IPrinterRoutingDAO
 				.orderByDescending(I_AD_PrinterRouting.COLUMNNAME_AD_Table_ID)
 				.orderBy(I_AD_PrinterRouting.COLUMNNAME_AD_PrinterRouting_ID);
 
-		return routingQueryBuilder
+		return ImmutableList.copyOf(routingQueryBuilder
 				.create()
-				.list();
+				.list());
 	}
 
 	@Override
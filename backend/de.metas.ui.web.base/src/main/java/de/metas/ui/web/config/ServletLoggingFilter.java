@@ -3,6 +3,7 @@ package de.metas.ui.web.config;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
@@ -11,6 +12,7 @@ import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.slf4j.Logger;
 import org.slf4j.MDC;
@@ -19,6 +21,9 @@ import org.springframework.stereotype.Component;
 import com.google.common.base.Stopwatch;
 
 import de.metas.logging.LogManager;
+import de.metas.monitoring.metrics.MetricFamily;
+import de.metas.monitoring.metrics.MetricsRegistry;
+import de.metas.monitoring.metrics.Timer;
 import de.metas.ui.web.session.UserSession;
 import de.metas.user.UserId;
 import de.metas.util.Check;
@@ -56,6 +61,8 @@ public class ServletLoggingFilter implements Filter
 {
 	private static final Logger logger = LogManager.getLogger(ServletLoggingFilter.class);
 
+	private static final MetricFamily<Timer> METRIC_Requests = MetricsRegistry.get().timer("metasfresh_webui_rest_request_seconds", "Duration of webui REST API requests", "method", "status");
+
 	//
 	// Core MDC parameters
 	private static final String MDC_Param_RemoteAddr = "RemoteAddr";
@@ -92,6 +99,8 @@ public class ServletLoggingFilter implements Filter
 		}
 		finally
 		{
+			recordRequestMetric(request, response, stopwatch);
+
 			//
 			// log the request
 			if (logger.isDebugEnabled())
@@ -106,6 +115,23 @@ public class ServletLoggingFilter implements Filter
 		}
 	}
 
+	private static void recordRequestMetric(final ServletRequest request, final ServletResponse response, final Stopwatch stopwatch)
+	{
+		if (!MetricsRegistry.get().isEnabled())
+		{
+			return;
+		}
+		if (!(request instanceof HttpServletRequest) || !(response instanceof HttpServletResponse))
+		{
+			return;
+		}
+
+		final String httpMethod = ((HttpServletRequest)request).getMethod();
+		final int status = ((HttpServletResponse)response).getStatus();
+		METRIC_Requests.labelsIfEnabled(httpMethod != null ? httpMethod : "?", Integer.toString(status))
+				.record(stopwatch.elapsed(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+	}
+
 	public void updateMDC(final ServletRequest request)
 	{
 		if (!(request instanceof HttpServletRequest))
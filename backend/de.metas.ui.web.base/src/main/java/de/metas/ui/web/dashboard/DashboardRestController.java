@@ -4,7 +4,6 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 
-import org.elasticsearch.client.Client;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -75,7 +74,7 @@ public class DashboardRestController
 	@Autowired
 	private UserDashboardRepository userDashboardRepo;
 	@Autowired
-	private Client elasticsearchClient;
+	private KPIDataProvider kpiDataProvider;
 	@Autowired
 	private WebsocketSender websocketSender;
 
@@ -232,15 +231,15 @@ public class DashboardRestController
 		final UserDashboardItem dashboardItem = getUserDashboardForReading()
 				.getItemById(widgetType, itemId);
 
-		final KPI kpi = dashboardItem.getKPI();
-		final TimeRange timeRange = dashboardItem.getTimeRangeDefaults().createTimeRange(fromMillis, toMillis);
-
-		final JSONOptions jsonOptions = JSONOptions.of(userSession);
-		return KPIDataLoader.newInstance(elasticsearchClient, kpi, jsonOptions)
-				.setTimeRange(timeRange)
-				.setFormatValues(prettyValues)
-				.retrieveData()
-				.setItemId(dashboardItem.getId());
+		return kpiDataProvider.request()
+				.kpi(dashboardItem.getKPI())
+				.timeRangeDefaults(dashboardItem.getTimeRangeDefaults())
+				.fromMillis(fromMillis)
+				.toMillis(toMillis)
+				.jsonOptions(JSONOptions.of(userSession))
+				.formatValues(prettyValues)
+				.execute()
+				.withItemId(dashboardItem.getId());
 	}
 
 	@DeleteMapping("/kpis/{itemId}")
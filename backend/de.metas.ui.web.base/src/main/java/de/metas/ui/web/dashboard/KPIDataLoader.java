@@ -204,15 +204,24 @@ public class KPIDataLoader
 				.build();
 	}
 
-	private void loadData(final KPIDataResult.Builder data, final TimeRange timeRange)
+	/**
+	 * @return the elasticsearch queries (one per time range) with all variables resolved.
+	 *         Two loaders of the same KPI which are returning the same queries will also retrieve the same data.
+	 */
+	public ImmutableList<String> getResolvedESQueries()
 	{
-		logger.trace("Loading data for {}", timeRange);
+		return timeRanges.stream()
+				.map(this::resolveESQuery)
+				.collect(ImmutableList.toImmutableList());
+	}
 
+	private String resolveESQuery(final TimeRange timeRange)
+	{
 		//
 		// Create query evaluation context
 		final Evaluatee evalCtx = Evaluatees.mapBuilder()
-				.put("MainFromMillis", data.getRange().getFromMillis())
-				.put("MainToMillis", data.getRange().getToMillis())
+				.put("MainFromMillis", mainTimeRange.getFromMillis())
+				.put("MainToMillis", mainTimeRange.getToMillis())
 				.put("FromMillis", timeRange.getFromMillis())
 				.put("ToMillis", timeRange.getToMillis())
 				.build()
@@ -222,7 +231,14 @@ public class KPIDataLoader
 		//
 		// Resolve esQuery's variables
 		final IStringExpression esQuery = kpi.getESQuery();
-		final String esQueryParsed = esQuery.evaluate(evalCtx, OnVariableNotFound.Preserve);
+		return esQuery.evaluate(evalCtx, OnVariableNotFound.Preserve);
+	}
+
+	private void loadData(final KPIDataResult.Builder data, final TimeRange timeRange)
+	{
+		logger.trace("Loading data for {}", timeRange);
+
+		final String esQueryParsed = resolveESQuery(timeRange);
 
 		//
 		// Execute the query
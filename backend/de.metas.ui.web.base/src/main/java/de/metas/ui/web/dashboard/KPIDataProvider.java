@@ -0,0 +1,161 @@
+package de.metas.ui.web.dashboard;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.elasticsearch.client.Client;
+import org.slf4j.Logger;
+import org.springframework.stereotype.Service;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+
+import de.metas.cache.CCache;
+import de.metas.cache.CCache.CacheMapType;
+import de.metas.common.util.time.SystemTime;
+import de.metas.logging.LogManager;
+import de.metas.ui.web.base.model.I_WEBUI_KPI;
+import de.metas.ui.web.base.model.I_WEBUI_KPI_Field;
+import de.metas.ui.web.window.datatypes.json.JSONOptions;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Provides {@link KPIDataResult}s for dashboard items.
+ * <p>
+ * The results are shared between all users which are seeing the same KPI in the same time range,
+ * i.e. the elasticsearch queries are resolved to the same string.
+ * A cached result is served for at most the KPI's poll interval.
+ * In order to have the same time range for "open" intervals, "now" is truncated to the KPI's poll interval.
+ * <p>
+ * KPIs without a poll interval are not cached at all.
+ */
+@Service
+public class KPIDataProvider
+{
+	private static final Logger logger = LogManager.getLogger(KPIDataProvider.class);
+
+	private final Client elasticsearchClient;
+
+	private final CCache<KPIDataCacheKey, KPIDataCacheValue> cache = CCache.<KPIDataCacheKey, KPIDataCacheValue> builder()
+			.cacheName(I_WEBUI_KPI.Table_Name + "#KPIDataResult")
+			.additionalTableNameToResetFor(I_WEBUI_KPI_Field.Table_Name)
+			.cacheMapType(CacheMapType.LRU)
+			.initialCapacity(500)
+			.build();
+
+	public KPIDataProvider(@NonNull final Client elasticsearchClient)
+	{
+		this.elasticsearchClient = elasticsearchClient;
+	}
+
+	@Builder(builderMethodName = "request", buildMethodName = "execute")
+	private KPIDataResult getKPIData(
+			@NonNull final KPI kpi,
+			@NonNull final KPITimeRangeDefaults timeRangeDefaults,
+			final long fromMillis,
+			final long toMillis,
+			@NonNull final JSONOptions jsonOptions,
+			final boolean formatValues)
+	{
+		final Duration maxStaleAge = extractMaxStaleAge(kpi);
+		final long nowMillis = truncateMillis(SystemTime.millis(), maxStaleAge);
+		final TimeRange timeRange = timeRangeDefaults.createTimeRange(fromMillis, toMillis, nowMillis);
+
+		final KPIDataLoader loader = KPIDataLoader.newInstance(elasticsearchClient, kpi, jsonOptions)
+				.setTimeRange(timeRange)
+				.setFormatValues(formatValues);
+
+		if (maxStaleAge.isZero())
+		{
+			return loader.retrieveData();
+		}
+
+		final KPIDataCacheKey cacheKey = KPIDataCacheKey.builder()
+				.kpiId(kpi.getId())
+				.esQueries(loader.getResolvedESQueries())
+				.jsonOptions(jsonOptions)
+				.formatValues(formatValues)
+				.build();
+
+		return getOrLoad(cacheKey, maxStaleAge, loader::retrieveData);
+	}
+
+	@VisibleForTesting
+	KPIDataResult getOrLoad(
+			@NonNull final KPIDataCacheKey cacheKey,
+			@NonNull final Duration maxStaleAge,
+			@NonNull final Supplier<KPIDataResult> loader)
+	{
+		final KPIDataCacheValue cachedValue = cache.get(cacheKey);
+		if (cachedValue != null && cachedValue.isStale(SystemTime.millis(), maxStaleAge))
+		{
+			logger.trace("Discarding stale cached data for {}", cacheKey);
+			cache.remove(cacheKey);
+		}
+
+		// NOTE: concurrent requests for the same key are waiting for the first one to load the data
+		return cache.getOrLoad(cacheKey, () -> KPIDataCacheValue.of(loader.get(), SystemTime.millis()))
+				.getResult();
+	}
+
+	private static Duration extractMaxStaleAge(final KPI kpi)
+	{
+		final int pollIntervalSec = kpi.getPollIntervalSec();
+		return pollIntervalSec > 0 ? Duration.ofSeconds(pollIntervalSec) : Duration.ZERO;
+	}
+
+	private static long truncateMillis(final long millis, final Duration precision)
+	{
+		final long precisionMillis = precision.toMillis();
+		return precisionMillis > 0 ? millis - millis % precisionMillis : millis;
+	}
+
+	@Value
+	@Builder
+	static class KPIDataCacheKey
+	{
+		int kpiId;
+		@NonNull
+		ImmutableList<String> esQueries;
+		@NonNull
+		JSONOptions jsonOptions;
+		boolean formatValues;
+	}
+
+	@Value(staticConstructor = "of")
+	private static class KPIDataCacheValue
+	{
+		@NonNull
+		KPIDataResult result;
+		long loadedMillis;
+
+		boolean isStale(final long nowMillis, final Duration maxStaleAge)
+		{
+			return nowMillis - loadedMillis >= maxStaleAge.toMillis();
+		}
+	}
+}
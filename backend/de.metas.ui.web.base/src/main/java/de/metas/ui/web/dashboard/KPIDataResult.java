@@ -62,6 +62,14 @@ public class KPIDataResult
 		datasets = ImmutableList.copyOf(builder.datasets.values());
 	}
 
+	private KPIDataResult(final KPIDataResult from, final Integer itemId)
+	{
+		took = from.took;
+		this.itemId = itemId;
+		range = from.range;
+		datasets = from.datasets;
+	}
+
 	public List<KPIDataSet> getData()
 	{
 		return datasets;
@@ -73,6 +81,18 @@ public class KPIDataResult
 		return this;
 	}
 
+	/**
+	 * @return a copy of this result, having the given itemId set. This instance is not changed, so it can be safely shared (e.g. cached).
+	 */
+	public KPIDataResult withItemId(final int itemId)
+	{
+		if (this.itemId != null && this.itemId == itemId)
+		{
+			return this;
+		}
+		return new KPIDataResult(this, itemId);
+	}
+
 	public static final class Builder
 	{
 		private final LinkedHashMap<String, KPIDataSet> datasets = new LinkedHashMap<>();
@@ -39,11 +39,19 @@ public class KPITimeRangeDefaults
 	private final Duration defaultTimeRange;
 	private final Duration defaultTimeRangeEndOffset;
 
-	public TimeRange createTimeRange(long fromMillis, long toMillis)
+	public TimeRange createTimeRange(final long fromMillis, final long toMillis)
+	{
+		return createTimeRange(fromMillis, toMillis, SystemTime.millis());
+	}
+
+	/**
+	 * Same as {@link #createTimeRange(long, long)}, but if the time range is open, it's computed relative to given <code>nowMillis</code>.
+	 */
+	public TimeRange createTimeRange(long fromMillis, long toMillis, final long nowMillis)
 	{
 		if (toMillis <= 0)
 		{
-			toMillis = calculateToMillis();
+			toMillis = calculateToMillis(nowMillis);
 		}
 
 		if (fromMillis <= 0)
@@ -61,9 +69,9 @@ public class KPITimeRangeDefaults
 		return createTimeRange(fromMillis, toMillis);
 	}
 
-	private long calculateToMillis()
+	private long calculateToMillis(final long nowMillis)
 	{
-		long toMillis = SystemTime.millis();
+		long toMillis = nowMillis;
 		final Duration defaultTimeRangeEndOffset = getDefaultTimeRangeEndOffset();
 		if (defaultTimeRangeEndOffset != null)
 		{
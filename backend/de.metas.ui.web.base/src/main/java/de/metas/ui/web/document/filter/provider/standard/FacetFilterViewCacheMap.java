@@ -1,8 +1,11 @@
 package de.metas.ui.web.document.filter.provider.standard;
 
+import java.util.Collection;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
+import org.adempiere.exceptions.AdempiereException;
+
 import lombok.NonNull;
 import lombok.ToString;
 
@@ -48,4 +51,36 @@ public final class FacetFilterViewCacheMap
 	{
 		return cachesById.computeIfAbsent(id, k -> supplier.get());
 	}
+
+	/**
+	 * Same as {@link #computeIfAbsent(String, Supplier)}, but the supplier is expected to provide the caches for more facet filters at once.
+	 * All of them are stored (unless already present) and the one matching the given ID is returned.
+	 */
+	public synchronized FacetFilterViewCache computeAllIfAbsent(
+			@NonNull final String id,
+			@NonNull final Supplier<? extends Collection<FacetFilterViewCache>> supplier)
+	{
+		final FacetFilterViewCache existingCache = cachesById.get(id);
+		if (existingCache != null)
+		{
+			return existingCache;
+		}
+
+		for (final FacetFilterViewCache cache : supplier.get())
+		{
+			cachesById.putIfAbsent(cache.getFilterId(), cache);
+		}
+
+		final FacetFilterViewCache cache = cachesById.get(id);
+		if (cache == null)
+		{
+			throw new AdempiereException("No facet filter cache was provided for " + id);
+		}
+		return cache;
+	}
+
+	public void reset()
+	{
+		cachesById.clear();
+	}
 }
@@ -12,9 +12,11 @@ import org.compiere.util.DisplayType;
 
 import java.util.Objects;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
 
 import de.metas.i18n.IMsgBL;
 import de.metas.i18n.TranslatableStrings;
+import de.metas.ui.web.document.filter.DocumentFilterDescriptor;
 import de.metas.ui.web.view.DefaultView;
 import de.metas.ui.web.view.IViewDataRepository;
 import de.metas.ui.web.view.IViewsRepository;
@@ -143,21 +145,65 @@ final class FacetsFilterLookupDescriptor extends SimpleLookupDescriptorTemplate
 		final DefaultView view = getView(evalCtx);
 
 		return view.getFacetFiltersCacheMap()
-				.computeIfAbsent(filterId, () -> createFacetFilterViewCache(view))
+				.computeAllIfAbsent(filterId, () -> createFacetFilterViewCaches(view))
 				.getAvailableValues();
 	}
 
-	private FacetFilterViewCache createFacetFilterViewCache(final DefaultView view)
+	/**
+	 * Creates the caches for all facet filters of given view, using only one scan of the view's selection.
+	 */
+	private List<FacetFilterViewCache> createFacetFilterViewCaches(final DefaultView view)
 	{
+		final ImmutableList<FacetsFilterLookupDescriptor> facetDescriptors = extractFacetsFilterLookupDescriptors(view);
+		final List<String> fieldNames = facetDescriptors.stream()
+				.map(FacetsFilterLookupDescriptor::getFieldName)
+				.distinct()
+				.collect(ImmutableList.toImmutableList());
+		final int limitPerField = facetDescriptors.stream()
+				.mapToInt(facetDescriptor -> facetDescriptor.maxFacetsToFetch)
+				.max()
+				.orElse(maxFacetsToFetch);
+
 		final IViewDataRepository viewDataRepository = view.getViewDataRepository();
 		final ViewEvaluationCtx viewEvalCtx = view.getViewEvaluationCtx();
 		final String selectionId = view.getDefaultSelectionBeforeFacetsFiltering().getSelectionId();
 
-		List<Object> rawValues = viewDataRepository.retrieveFieldValues(
+		final ImmutableListMultimap<String, Object> rawValuesByFieldName = viewDataRepository.retrieveFieldValues(
 				viewEvalCtx,
 				selectionId,
-				fieldName,
-				maxFacetsToFetch);
+				fieldNames,
+				limitPerField);
+
+		return facetDescriptors.stream()
+				.map(facetDescriptor -> facetDescriptor.createFacetFilterViewCache(rawValuesByFieldName.get(facetDescriptor.getFieldName())))
+				.collect(ImmutableList.toImmutableList());
+	}
+
+	private ImmutableList<FacetsFilterLookupDescriptor> extractFacetsFilterLookupDescriptors(final DefaultView view)
+	{
+		final ImmutableList<FacetsFilterLookupDescriptor> facetDescriptors = view.getFilterDescriptors()
+				.getAll()
+				.stream()
+				.filter(DocumentFilterDescriptor::isFacetFilter)
+				.flatMap(filterDescriptor -> filterDescriptor.getParameters().stream())
+				.map(param -> param.getLookupDescriptor().orElse(null))
+				.filter(lookupDescriptor -> lookupDescriptor instanceof FacetsFilterLookupDescriptor)
+				.map(lookupDescriptor -> (FacetsFilterLookupDescriptor)lookupDescriptor)
+				.collect(ImmutableList.toImmutableList());
+
+		final boolean containsThisDescriptor = facetDescriptors.stream()
+				.anyMatch(facetDescriptor -> filterId.equals(facetDescriptor.getFilterId()));
+
+		return containsThisDescriptor
+				? facetDescriptors
+				: ImmutableList.of(this);
+	}
+
+	private FacetFilterViewCache createFacetFilterViewCache(final List<Object> rawValuesAll)
+	{
+		List<Object> rawValues = rawValuesAll.size() > maxFacetsToFetch
+				? rawValuesAll.subList(0, maxFacetsToFetch)
+				: rawValuesAll;
 
 		boolean valuesAreOrdered = false;
 		if (fieldWidgetType.isDateOrTime()
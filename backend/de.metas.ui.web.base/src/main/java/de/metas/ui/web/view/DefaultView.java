@@ -324,6 +324,7 @@ public final class DefaultView implements IEditableView
 	{
 		selectionsRef.forgetCurrentSelections();
 		headerPropertiesHolder.setValue(null);
+		facetFiltersCacheMap.reset();
 
 		invalidateAll();
 
@@ -6,6 +6,8 @@ import java.util.Set;
 
 import org.adempiere.exceptions.DBException;
 
+import com.google.common.collect.ImmutableListMultimap;
+
 import de.metas.ui.web.document.filter.DocumentFilterList;
 import de.metas.ui.web.document.filter.provider.DocumentFilterDescriptorsProvider;
 import de.metas.ui.web.document.filter.sql.SqlDocumentFilterConverterContext;
@@ -78,5 +80,10 @@ public interface IViewDataRepository
 
 	ViewRowIdsOrderedSelection removeRowIdsNotMatchingFilters(ViewRowIdsOrderedSelection selection, DocumentFilterList filters, Set<DocumentId> rowIds);
 
-	List<Object> retrieveFieldValues(ViewEvaluationCtx viewEvalCtx, String selectionId, String fieldName, int limit);
+	/**
+	 * Retrieves the distinct values of all given fields, scanning the selection only once.
+	 *
+	 * @return field values indexed by field name. At most <code>limitPerField</code> values are returned for each field.
+	 */
+	ImmutableListMultimap<String, Object> retrieveFieldValues(ViewEvaluationCtx viewEvalCtx, String selectionId, List<String> fieldNames, int limitPerField);
 }
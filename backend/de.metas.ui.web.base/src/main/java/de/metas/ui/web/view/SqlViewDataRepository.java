@@ -21,8 +21,10 @@ import org.slf4j.Logger;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
 import de.metas.logging.LogManager;
@@ -700,19 +702,34 @@ class SqlViewDataRepository implements IViewDataRepository
 	}
 
 	@Override
-	public List<Object> retrieveFieldValues(
+	public ImmutableListMultimap<String, Object> retrieveFieldValues(
 			@NonNull final ViewEvaluationCtx viewEvalCtx,
 			@NonNull final String selectionId,
-			@NonNull final String fieldName,
-			final int limit)
+			@NonNull final List<String> fieldNames,
+			final int limitPerField)
 	{
-		final SqlViewRowFieldLoader fieldLoader = rowFieldLoaders.get(fieldName);
-		final SqlAndParams sql = sqlViewSelect.selectFieldValues(viewEvalCtx, selectionId, fieldName, limit);
+		final ImmutableListMultimap.Builder<String, Object> result = ImmutableListMultimap.builder();
 
 		final String adLanguage = viewEvalCtx.getAdLanguage();
-		return DB.retrieveRows(
-				sql.getSql(),
-				sql.getSqlParams(),
-				rs -> fieldLoader.retrieveValue(rs, adLanguage));
+		for (final List<String> fieldNamesChunk : Lists.partition(fieldNames, SqlViewSelectData.MAX_FIELDS_TO_SELECT_VALUES))
+		{
+			final SqlAndParams sql = sqlViewSelect.selectFieldValues(viewEvalCtx, selectionId, fieldNamesChunk, limitPerField);
+			final int fieldsCount = fieldNamesChunk.size();
+
+			DB.forEachRow(
+					sql.getSql(),
+					sql.getSqlParams(),
+					rs -> {
+						final int groupingId = rs.getInt(SqlViewSelectData.COLUMNNAME_FacetGroupingId);
+						final String fieldName = fieldNamesChunk.get(SqlViewSelectData.extractFieldIndexFromGroupingId(groupingId, fieldsCount));
+						final Object value = rowFieldLoaders.get(fieldName).retrieveValue(rs, adLanguage);
+						if (value != null)
+						{
+							result.put(fieldName, value);
+						}
+					});
+		}
+
+		return result.build();
 	}
 }
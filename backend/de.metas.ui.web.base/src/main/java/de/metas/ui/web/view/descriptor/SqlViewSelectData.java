@@ -66,6 +66,10 @@ public class SqlViewSelectData
 	public static final String COLUMNNAME_Paging_SeqNo_OneBased = COLUMNNAME_Paging_Prefix + I_T_WEBUI_ViewSelection.COLUMNNAME_Line;
 	public static final String COLUMNNAME_Paging_Parent_Prefix = COLUMNNAME_Paging_Prefix + "parent_";
 	public static final String COLUMNNAME_IsRecordMissing = COLUMNNAME_Paging_Prefix + "IsRecordMissing";
+	public static final String COLUMNNAME_FacetGroupingId = COLUMNNAME_Paging_Prefix + "FacetGroupingId";
+	private static final String COLUMNNAME_FacetRowNo = COLUMNNAME_Paging_Prefix + "FacetRowNo";
+	/** GROUPING(...) is returning an integer bit mask, so we can't have more than that */
+	public static final int MAX_FIELDS_TO_SELECT_VALUES = 31;
 
 	private final String sqlTableName;
 	private final SqlViewKeyColumnNamesMap keyColumnNamesMap;
@@ -453,60 +457,114 @@ public class SqlViewSelectData
 		return SqlAndParams.of(sql, sqlParams);
 	}
 
+	/**
+	 * Selects the distinct values of all given fields, scanning the selection only once.
+	 * <p>
+	 * Each result row contains the values of exactly one field. That field is identified by the {@value #COLUMNNAME_FacetGroupingId} column,
+	 * see {@link #extractFieldIndexFromGroupingId(int, int)}.
+	 */
 	public SqlAndParams selectFieldValues(
 			@NonNull final ViewEvaluationCtx viewEvalCtx,
 			@NonNull final String selectionId,
-			@NonNull final String fieldName,
-			final int limit)
+			@NonNull final List<String> fieldNames,
+			final int limitPerField)
 	{
-		Check.assumeGreaterThanZero(limit, "limit");
-
-		final SqlViewRowFieldBinding field = fieldsByFieldName.get(fieldName);
-		if (field == null)
+		Check.assumeNotEmpty(fieldNames, "fieldNames is not empty");
+		Check.assume(fieldNames.size() <= MAX_FIELDS_TO_SELECT_VALUES, "At most {} fields are allowed but got {}", MAX_FIELDS_TO_SELECT_VALUES, fieldNames);
+		Check.assumeGreaterThanZero(limitPerField, "limitPerField");
+
+		final List<String> groupingColumnNames = new ArrayList<>();
+		final List<String> groupingSets = new ArrayList<>();
+		final List<String> outerSelectColumnNames = new ArrayList<>();
+		final CompositeStringExpression.Builder innerSelect = IStringExpression.composer();
+		for (final String fieldName : fieldNames)
 		{
-			throw new AdempiereException("Field `" + fieldName + "` not found. Available fields are: " + fieldsByFieldName.keySet());
-		}
-
-		final SqlSelectValue sqlValue = field.getSqlSelectValue();
+			final SqlViewRowFieldBinding field = getFieldByFieldName(fieldName);
+			final SqlSelectValue sqlValue = field.getSqlSelectValue();
+			final SqlSelectDisplayValue sqlDisplayValue = getSqlSelectDisplayValueOrNull(field);
+
+			final String groupingSet;
+			innerSelect.append(innerSelect.isEmpty() ? "\n " : "\n, ")
+					.append(sqlValue.withJoinOnTableNameOrAlias(sqlTableName).toSqlStringWithColumnNameAlias());
+			if (sqlDisplayValue != null)
+			{
+				innerSelect.append("\n, ").append(sqlDisplayValue.withJoinOnTableNameOrAlias(sqlTableName).toStringExpressionWithColumnNameAlias());
+				groupingSet = "(" + sqlValue.getColumnNameAlias() + ", " + sqlDisplayValue.getColumnNameAlias() + ")";
+				outerSelectColumnNames.add(sqlValue.getColumnNameAlias());
+				outerSelectColumnNames.add(sqlDisplayValue.getColumnNameAlias());
+			}
+			else
+			{
+				groupingSet = "(" + sqlValue.getColumnNameAlias() + ")";
+				outerSelectColumnNames.add(sqlValue.getColumnNameAlias());
+			}
 
-		final SqlSelectDisplayValue sqlDisplayValue;
-		if (field.getSqlSelectDisplayValue() != null && displayFieldNames.contains(fieldName))
-		{
-			sqlDisplayValue = field.getSqlSelectDisplayValue();
-		}
-		else
-		{
-			sqlDisplayValue = null;
+			groupingColumnNames.add(sqlValue.getColumnNameAlias());
+			groupingSets.add(groupingSet);
 		}
 
-		final CompositeStringExpression.Builder sqlExpression = IStringExpression.composer()
-				.append("SELECT DISTINCT ")
-				.append(sqlValue.getColumnNameAlias());
-		if (sqlDisplayValue != null)
-		{
-			sqlExpression.append(", ").append(sqlDisplayValue.getColumnNameAlias());
-		}
+		final String sqlGroupingId = "GROUPING(" + Joiner.on(", ").join(groupingColumnNames) + ")";
 
-		sqlExpression
+		final String sql = IStringExpression.composer()
+				.append("SELECT * FROM (")
+				.append("\n SELECT ").append(Joiner.on(", ").join(outerSelectColumnNames))
+				.append("\n, " + sqlGroupingId + " AS " + COLUMNNAME_FacetGroupingId)
+				.append("\n, row_number() OVER (PARTITION BY " + sqlGroupingId + ") AS " + COLUMNNAME_FacetRowNo)
 				.append("\n FROM (")
 				.append("\n SELECT ")
-				.append("\n ").append(sqlValue.withJoinOnTableNameOrAlias(sqlTableName).toSqlStringWithColumnNameAlias());
-		if (sqlDisplayValue != null)
-		{
-			sqlExpression
-					.append("\n, ").append(sqlDisplayValue.withJoinOnTableNameOrAlias(sqlTableName).toStringExpressionWithColumnNameAlias());
-		}
-		sqlExpression.append("\n FROM " + I_T_WEBUI_ViewSelection.Table_Name + " sel")
+				.append(innerSelect.build())
+				.append("\n FROM " + I_T_WEBUI_ViewSelection.Table_Name + " sel")
 				.append("\n INNER JOIN " + sqlTableName + " ON (" + keyColumnNamesMap.getSqlJoinCondition(sqlTableName, "sel") + ")")
 				// Filter by UUID. Keep this closer to the source table, see https://github.com/metasfresh/metasfresh-webui-api/issues/437
 				.append("\n WHERE sel." + I_T_WEBUI_ViewSelection.COLUMNNAME_UUID + "=?")
-				.append("\n ORDER BY sel." + I_T_WEBUI_ViewSelection.COLUMNNAME_Line)
 				.append("\n) t")
-				.append("\n LIMIT ?");
-
-		final String sql = sqlExpression.build()
+				.append("\n GROUP BY GROUPING SETS (" + Joiner.on(", ").join(groupingSets) + ")")
+				.append("\n) f")
+				.append("\n WHERE " + COLUMNNAME_FacetRowNo + " <= ?")
+				.build()
 				.evaluate(viewEvalCtx.toEvaluatee(), OnVariableNotFound.Fail);
 
-		return SqlAndParams.of(sql, selectionId, limit);
+		return SqlAndParams.of(sql, selectionId, limitPerField);
+	}
+
+	/**
+	 * @return the index of the field (in the list of fields which was given to {@link #selectFieldValues(ViewEvaluationCtx, String, List, int)}) to which the result row belongs.
+	 */
+	public static int extractFieldIndexFromGroupingId(final int groupingId, final int fieldsCount)
+	{
+		// GROUPING(...) sets a bit for each argument which is NOT part of the current grouping set; the first argument is the most significant bit
+		for (int fieldIndex = 0; fieldIndex < fieldsCount; fieldIndex++)
+		{
+			final int bit = 1 << (fieldsCount - 1 - fieldIndex);
+			if ((groupingId & bit) == 0)
+			{
+				return fieldIndex;
+			}
+		}
+
+		throw new AdempiereException("Invalid grouping ID " + groupingId + " for " + fieldsCount + " fields");
+	}
+
+	private SqlViewRowFieldBinding getFieldByFieldName(@NonNull final String fieldName)
+	{
+		final SqlViewRowFieldBinding field = fieldsByFieldName.get(fieldName);
+		if (field == null)
+		{
+			throw new AdempiereException("Field `" + fieldName + "` not found. Available fields are: " + fieldsByFieldName.keySet());
+		}
+		return field;
+	}
+
+	@Nullable
+	private SqlSelectDisplayValue getSqlSelectDisplayValueOrNull(@NonNull final SqlViewRowFieldBinding field)
+	{
+		if (field.getSqlSelectDisplayValue() != null && displayFieldNames.contains(field.getFieldName()))
+		{
+			return field.getSqlSelectDisplayValue();
+		}
+		else
+		{
+			return null;
+		}
 	}
 }
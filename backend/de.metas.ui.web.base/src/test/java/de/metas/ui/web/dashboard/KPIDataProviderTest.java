@@ -0,0 +1,140 @@
+package de.metas.ui.web.dashboard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.adempiere.test.AdempiereTestHelper;
+import org.elasticsearch.client.Client;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+
+import de.metas.common.util.time.SystemTime;
+import de.metas.ui.web.dashboard.KPIDataProvider.KPIDataCacheKey;
+import de.metas.ui.web.window.datatypes.json.JSONOptions;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class KPIDataProviderTest
+{
+	private static final Duration MAX_STALE_AGE = Duration.ofSeconds(10);
+
+	private long nowMillis;
+	private KPIDataProvider kpiDataProvider;
+
+	@BeforeEach
+	public void beforeEach()
+	{
+		AdempiereTestHelper.get().init();
+
+		nowMillis = 1583223780000L;
+		SystemTime.setTimeSource(() -> nowMillis);
+
+		kpiDataProvider = new KPIDataProvider(Mockito.mock(Client.class));
+	}
+
+	@AfterEach
+	public void afterEach()
+	{
+		SystemTime.resetTimeSource();
+	}
+
+	private static KPIDataCacheKey cacheKey(final String esQuery)
+	{
+		return KPIDataCacheKey.builder()
+				.kpiId(1)
+				.esQueries(ImmutableList.of(esQuery))
+				.jsonOptions(JSONOptions.builder().adLanguage("de_DE").build())
+				.formatValues(true)
+				.build();
+	}
+
+	private static Supplier<KPIDataResult> countingLoader(final AtomicInteger loadCount)
+	{
+		return () -> {
+			loadCount.incrementAndGet();
+			return KPIDataResult.builder()
+					.setRange(TimeRange.main(0, 1))
+					.setTook(Stopwatch.createUnstarted())
+					.build();
+		};
+	}
+
+	@Test
+	public void sameQuery_isLoadedOnlyOnce()
+	{
+		final AtomicInteger loadCount = new AtomicInteger();
+
+		final KPIDataResult result1 = kpiDataProvider.getOrLoad(cacheKey("query1"), MAX_STALE_AGE, countingLoader(loadCount));
+		final KPIDataResult result2 = kpiDataProvider.getOrLoad(cacheKey("query1"), MAX_STALE_AGE, countingLoader(loadCount));
+
+		assertThat(loadCount).hasValue(1);
+		assertThat(result2).isSameAs(result1);
+	}
+
+	@Test
+	public void differentQueries_areLoadedSeparately()
+	{
+		final AtomicInteger loadCount = new AtomicInteger();
+
+		kpiDataProvider.getOrLoad(cacheKey("query1"), MAX_STALE_AGE, countingLoader(loadCount));
+		kpiDataProvider.getOrLoad(cacheKey("query2"), MAX_STALE_AGE, countingLoader(loadCount));
+
+		assertThat(loadCount).hasValue(2);
+	}
+
+	@Test
+	public void staleResult_isReloaded()
+	{
+		final AtomicInteger loadCount = new AtomicInteger();
+
+		kpiDataProvider.getOrLoad(cacheKey("query1"), MAX_STALE_AGE, countingLoader(loadCount));
+
+		nowMillis += MAX_STALE_AGE.toMillis() - 1;
+		kpiDataProvider.getOrLoad(cacheKey("query1"), MAX_STALE_AGE, countingLoader(loadCount));
+		assertThat(loadCount).hasValue(1);
+
+		nowMillis += 1;
+		kpiDataProvider.getOrLoad(cacheKey("query1"), MAX_STALE_AGE, countingLoader(loadCount));
+		assertThat(loadCount).hasValue(2);
+	}
+
+	@Test
+	public void withItemId_doesNotChangeTheCachedResult()
+	{
+		final AtomicInteger loadCount = new AtomicInteger();
+
+		final KPIDataResult cachedResult = kpiDataProvider.getOrLoad(cacheKey("query1"), MAX_STALE_AGE, countingLoader(loadCount));
+		final KPIDataResult result = cachedResult.withItemId(123);
+
+		assertThat(result).isNotSameAs(cachedResult);
+		assertThat(result.getData()).isSameAs(cachedResult.getData());
+	}
+}
@@ -0,0 +1,118 @@
+package de.metas.ui.web.view.descriptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Optional;
+
+import org.adempiere.exceptions.AdempiereException;
+import org.adempiere.service.ClientId;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import de.metas.security.RoleId;
+import de.metas.security.UserRolePermissionsKey;
+import de.metas.ui.web.view.ViewEvaluationCtx;
+import de.metas.ui.web.window.descriptor.DocumentFieldWidgetType;
+import de.metas.ui.web.window.descriptor.sql.SqlSelectValue;
+import de.metas.user.UserId;
+
+/*
+ * #%L
+ * metasfresh-webui-api
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class SqlViewSelectDataTest
+{
+	@Test
+	public void extractFieldIndexFromGroupingId()
+	{
+		// GROUPING(f0, f1, f2): the bit of the field which is part of the grouping set is not set
+		assertThat(SqlViewSelectData.extractFieldIndexFromGroupingId(0b011, 3)).isEqualTo(0);
+		assertThat(SqlViewSelectData.extractFieldIndexFromGroupingId(0b101, 3)).isEqualTo(1);
+		assertThat(SqlViewSelectData.extractFieldIndexFromGroupingId(0b110, 3)).isEqualTo(2);
+
+		assertThat(SqlViewSelectData.extractFieldIndexFromGroupingId(0, 1)).isEqualTo(0);
+	}
+
+	@Test
+	public void extractFieldIndexFromGroupingId_invalid()
+	{
+		assertThatThrownBy(() -> SqlViewSelectData.extractFieldIndexFromGroupingId(0b111, 3))
+				.isInstanceOf(AdempiereException.class);
+	}
+
+	@Test
+	public void selectFieldValues()
+	{
+		final SqlViewSelectData sqlViewSelect = SqlViewBinding.builder()
+				.tableName("MyTable")
+				.field(field("MyTable_ID", true))
+				.field(field("Field1", false))
+				.field(field("Field2", false))
+				.field(field("Field3", false))
+				.displayFieldNames("Field1", "Field2", "Field3")
+				.build()
+				.getSqlViewSelect();
+
+		final SqlAndParams sqlAndParams = sqlViewSelect.selectFieldValues(
+				viewEvalCtx(),
+				"selectionId",
+				ImmutableList.of("Field3", "Field1"),
+				10);
+
+		final String sql = sqlAndParams.getSql();
+		// one grouping set per field, the GROUPING(..) arguments being in the order of the given fields (see extractFieldIndexFromGroupingId)
+		assertThat(sql).contains("GROUP BY GROUPING SETS ((Field3), (Field1))");
+		assertThat(sql).contains("GROUPING(Field3, Field1) AS " + SqlViewSelectData.COLUMNNAME_FacetGroupingId);
+		// the limit applies to each field
+		assertThat(sql).contains("row_number() OVER (PARTITION BY GROUPING(Field3, Field1))");
+		assertThat(sql).doesNotContain("Field2");
+		assertThat(sqlAndParams.getSqlParams()).containsExactly("selectionId", 10);
+	}
+
+	private static SqlViewRowFieldBinding field(final String fieldName, final boolean keyColumn)
+	{
+		return SqlViewRowFieldBinding.builder()
+				.fieldName(fieldName)
+				.widgetType(keyColumn ? DocumentFieldWidgetType.Integer : DocumentFieldWidgetType.Text)
+				.sqlValueClass(keyColumn ? Integer.class : String.class)
+				.fieldLoader((rs, adLanguage) -> rs.getString(fieldName))
+				.keyColumn(keyColumn)
+				.sqlSelectValue(SqlSelectValue.builder()
+						.columnName(fieldName)
+						.columnNameAlias(fieldName)
+						.build())
+				.build();
+	}
+
+	private static ViewEvaluationCtx viewEvalCtx()
+	{
+		return ViewEvaluationCtx._builder()
+				.loggedUserId(Optional.of(UserId.METASFRESH))
+				.adLanguage("en_US")
+				.timeZone(ZoneId.of("UTC"))
+				.permissionsKey(UserRolePermissionsKey.of(RoleId.SYSTEM, UserId.METASFRESH, ClientId.METASFRESH, LocalDate.parse("2020-08-13")))
+				.build();
+	}
+}
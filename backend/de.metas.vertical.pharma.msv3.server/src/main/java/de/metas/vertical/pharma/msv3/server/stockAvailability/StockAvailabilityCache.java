@@ -0,0 +1,232 @@
+package de.metas.vertical.pharma.msv3.server.stockAvailability;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.common.base.Stopwatch;
+
+import de.metas.vertical.pharma.msv3.server.stockAvailability.jpa.JpaProductExclude;
+import de.metas.vertical.pharma.msv3.server.stockAvailability.jpa.JpaProductExcludeRepository;
+import de.metas.vertical.pharma.msv3.server.stockAvailability.jpa.JpaStockAvailability;
+import de.metas.vertical.pharma.msv3.server.stockAvailability.jpa.JpaStockAvailabilityRepository;
+import lombok.NonNull;
+import lombok.Value;
+
+/*
+ * #%L
+ * metasfresh-pharma.msv3.server
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+/**
+ * Keeps all stock availabilities (by PZN) and product excludes (by PZN and bpartner) in memory, so that the availability queries don't have to hit the database.
+ * <p>
+ * The JPA repositories stay the system of record: everything is loaded from them on first access,
+ * and the PZNs resp. product excludes which were changed by a sync event are reloaded from them after the event's transaction was committed.
+ */
+@Component
+public class StockAvailabilityCache
+{
+	private static final Logger logger = LoggerFactory.getLogger(StockAvailabilityCache.class);
+
+	private final JpaStockAvailabilityRepository stockAvailabilityRepo;
+	private final JpaProductExcludeRepository productExcludeRepo;
+
+	private volatile ConcurrentHashMap<Long, Integer> qtysByPzn;
+	private volatile Set<ProductExcludeKey> productExcludes;
+
+	public StockAvailabilityCache(
+			@NonNull final JpaStockAvailabilityRepository stockAvailabilityRepo,
+			@NonNull final JpaProductExcludeRepository productExcludeRepo)
+	{
+		this.stockAvailabilityRepo = stockAvailabilityRepo;
+		this.productExcludeRepo = productExcludeRepo;
+	}
+
+	public OptionalInt getQty(final long pzn)
+	{
+		final Integer qty = getQtysByPzn().get(pzn);
+		return qty != null ? OptionalInt.of(qty) : OptionalInt.empty();
+	}
+
+	public boolean isExcluded(final long pzn, final int bpartnerId)
+	{
+		return getProductExcludes().contains(new ProductExcludeKey(pzn, bpartnerId));
+	}
+
+	private ConcurrentHashMap<Long, Integer> getQtysByPzn()
+	{
+		ConcurrentHashMap<Long, Integer> qtysByPzn = this.qtysByPzn;
+		if (qtysByPzn == null)
+		{
+			synchronized (this)
+			{
+				qtysByPzn = this.qtysByPzn;
+				if (qtysByPzn == null)
+				{
+					qtysByPzn = this.qtysByPzn = retrieveAllQtysByPzn();
+				}
+			}
+		}
+		return qtysByPzn;
+	}
+
+	private Set<ProductExcludeKey> getProductExcludes()
+	{
+		Set<ProductExcludeKey> productExcludes = this.productExcludes;
+		if (productExcludes == null)
+		{
+			synchronized (this)
+			{
+				productExcludes = this.productExcludes;
+				if (productExcludes == null)
+				{
+					productExcludes = this.productExcludes = retrieveAllProductExcludes();
+				}
+			}
+		}
+		return productExcludes;
+	}
+
+	private ConcurrentHashMap<Long, Integer> retrieveAllQtysByPzn()
+	{
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
+		final List<JpaStockAvailability> jpaStockAvailabilities = stockAvailabilityRepo.findAll();
+		final ConcurrentHashMap<Long, Integer> qtysByPzn = new ConcurrentHashMap<>(jpaStockAvailabilities.size());
+		jpaStockAvailabilities.forEach(jpaStockAvailability -> qtysByPzn.put(jpaStockAvailability.getMfPzn(), jpaStockAvailability.getMfQty()));
+
+		logger.info("Loaded {} stock availability records in {}", qtysByPzn.size(), stopwatch);
+		return qtysByPzn;
+	}
+
+	private Set<ProductExcludeKey> retrieveAllProductExcludes()
+	{
+		final Stopwatch stopwatch = Stopwatch.createStarted();
+
+		final Set<ProductExcludeKey> productExcludes = ConcurrentHashMap.newKeySet();
+		for (final JpaProductExclude jpaProductExclude : productExcludeRepo.findAll())
+		{
+			productExcludes.add(new ProductExcludeKey(jpaProductExclude.getPzn(), jpaProductExclude.getMfBpartnerId()));
+		}
+
+		logger.info("Loaded {} product exclude records in {}", productExcludes.size(), stopwatch);
+		return productExcludes;
+	}
+
+	/**
+	 * Reloads the given PZNs' stock availabilities after the current transaction was committed.
+	 */
+	public void reloadStockAvailabilitiesAfterCommit(@NonNull final Collection<Long> pzns)
+	{
+		if (pzns.isEmpty())
+		{
+			return;
+		}
+
+		final Set<Long> pznsToReload = new HashSet<>(pzns);
+		runAfterCommit(() -> reloadStockAvailabilities(pznsToReload));
+	}
+
+	private synchronized void reloadStockAvailabilities(@NonNull final Set<Long> pzns)
+	{
+		final ConcurrentHashMap<Long, Integer> qtysByPzn = this.qtysByPzn;
+		if (qtysByPzn == null)
+		{
+			return; // not loaded yet
+		}
+
+		final Set<Long> pznsNotFound = new HashSet<>(pzns);
+		for (final JpaStockAvailability jpaStockAvailability : stockAvailabilityRepo.findByMfPznIn(pzns))
+		{
+			qtysByPzn.put(jpaStockAvailability.getMfPzn(), jpaStockAvailability.getMfQty());
+			pznsNotFound.remove(jpaStockAvailability.getMfPzn());
+		}
+		pznsNotFound.forEach(qtysByPzn::remove);
+	}
+
+	/**
+	 * Reloads all stock availabilities after the current transaction was committed.
+	 */
+	public void reloadAllStockAvailabilitiesAfterCommit()
+	{
+		runAfterCommit(this::reloadAllStockAvailabilities);
+	}
+
+	private synchronized void reloadAllStockAvailabilities()
+	{
+		if (this.qtysByPzn == null)
+		{
+			return; // not loaded yet
+		}
+		this.qtysByPzn = retrieveAllQtysByPzn();
+	}
+
+	/**
+	 * Reloads all product excludes after the current transaction was committed.
+	 */
+	public void reloadProductExcludesAfterCommit()
+	{
+		runAfterCommit(this::reloadProductExcludes);
+	}
+
+	private synchronized void reloadProductExcludes()
+	{
+		if (this.productExcludes == null)
+		{
+			return; // not loaded yet
+		}
+		this.productExcludes = retrieveAllProductExcludes();
+	}
+
+	private static void runAfterCommit(@NonNull final Runnable runnable)
+	{
+		if (!TransactionSynchronizationManager.isSynchronizationActive())
+		{
+			runnable.run();
+			return;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter()
+		{
+			@Override
+			public void afterCommit()
+			{
+				runnable.run();
+			}
+		});
+	}
+
+	@Value
+	private static class ProductExcludeKey
+	{
+		long pzn;
+		int bpartnerId;
+	}
+}
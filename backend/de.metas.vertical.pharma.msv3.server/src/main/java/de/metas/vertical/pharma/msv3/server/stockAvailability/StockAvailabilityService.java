@@ -1,7 +1,9 @@
 package de.metas.vertical.pharma.msv3.server.stockAvailability;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.OptionalInt;
 
 import javax.transaction.Transactional;
 
@@ -64,6 +66,8 @@ public class StockAvailabilityService
 	private JpaStockAvailabilityRepository stockAvailabilityRepo;
 	@Autowired
 	private JpaProductExcludeRepository productExcludeRepo;
+	@Autowired
+	private StockAvailabilityCache stockAvailabilityCache;
 
 	public StockAvailabilityResponse checkAvailability(final StockAvailabilityQuery query)
 	{
@@ -123,19 +127,18 @@ public class StockAvailabilityService
 
 	public Optional<Quantity> getQtyAvailable(@NonNull final PZN pzn, @NonNull final BPartnerId bpartner)
 	{
-		if (productExcludeRepo.existsByPznAndMfBpartnerId(pzn.getValueAsLong(), bpartner.getBpartnerId()))
+		if (stockAvailabilityCache.isExcluded(pzn.getValueAsLong(), bpartner.getBpartnerId()))
 		{
 			return Optional.empty();
 		}
 
-		final JpaStockAvailability jpaStockAvailability = stockAvailabilityRepo.findByMfPzn(pzn.getValueAsLong());
-		if (jpaStockAvailability == null)
+		final OptionalInt qty = stockAvailabilityCache.getQty(pzn.getValueAsLong());
+		if (!qty.isPresent())
 		{
 			return Optional.empty();
 		}
 
-		final Quantity qty = Quantity.of(jpaStockAvailability.getMfQty());
-		return Optional.of(qty);
+		return Optional.of(Quantity.of(qty.getAsInt()));
 	}
 
 	@Transactional
@@ -146,16 +149,13 @@ public class StockAvailabilityService
 
 		//
 		// Update
+		final List<Long> pznsUpdated = new ArrayList<>();
+		for (final MSV3StockAvailability eventItem : event.getItems())
 		{
-			final AtomicInteger countUpdated = new AtomicInteger();
-
-			for (final MSV3StockAvailability eventItem : event.getItems())
-			{
-				updateStockAvailability(eventItem, mfSyncToken, mfEventVersion);
-				countUpdated.incrementAndGet();
-			}
-			logger.debug("Updated {} stock availability records", countUpdated);
+			updateStockAvailability(eventItem, mfSyncToken, mfEventVersion);
+			pznsUpdated.add(eventItem.getPzn());
 		}
+		logger.debug("Updated {} stock availability records", pznsUpdated.size());
 
 		//
 		// Delete
@@ -166,8 +166,13 @@ public class StockAvailabilityService
 							mfSyncToken,
 							mfEventVersion.getAsInt());
 			logger.debug("Deleted {} stock availability records", countDeleted);
-		}
 
+			stockAvailabilityCache.reloadAllStockAvailabilitiesAfterCommit();
+		}
+		else
+		{
+			stockAvailabilityCache.reloadStockAvailabilitiesAfterCommit(pznsUpdated);
+		}
 	}
 
 	private void updateStockAvailability(
@@ -211,14 +216,11 @@ public class StockAvailabilityService
 
 		//
 		// Update
+		for (final MSV3ProductExclude eventItem : event.getItems())
 		{
-			final AtomicInteger countUpdated = new AtomicInteger();
-			event.getItems().forEach(eventItem -> {
-				updateProductExclude(eventItem, syncToken);
-				countUpdated.incrementAndGet();
-			});
-			logger.debug("Updated {} product exclude records", countUpdated);
+			updateProductExclude(eventItem, syncToken);
 		}
+		logger.debug("Updated {} product exclude records", event.getItems().size());
 
 		//
 		// Delete
@@ -227,6 +229,8 @@ public class StockAvailabilityService
 			final long countDeleted = productExcludeRepo.deleteInBatchBySyncTokenNot(syncToken);
 			logger.debug("Deleted {} product exclude records", countDeleted);
 		}
+
+		stockAvailabilityCache.reloadProductExcludesAfterCommit();
 	}
 
 	private void updateProductExclude(@NonNull final MSV3ProductExclude request, final String syncToken)
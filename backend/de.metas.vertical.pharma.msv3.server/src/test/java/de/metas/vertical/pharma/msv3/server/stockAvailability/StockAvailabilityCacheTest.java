@@ -0,0 +1,113 @@
+package de.metas.vertical.pharma.msv3.server.stockAvailability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.OptionalInt;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import de.metas.vertical.pharma.msv3.server.stockAvailability.jpa.JpaProductExcludeRepository;
+import de.metas.vertical.pharma.msv3.server.stockAvailability.jpa.JpaStockAvailability;
+import de.metas.vertical.pharma.msv3.server.stockAvailability.jpa.JpaStockAvailabilityRepository;
+
+/*
+ * #%L
+ * metasfresh-pharma.msv3.server
+ * %%
+ * Copyright (C) 2020 metas GmbH
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as
+ * published by the Free Software Foundation, either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public
+ * License along with this program. If not, see
+ * <http://www.gnu.org/licenses/gpl-2.0.html>.
+ * #L%
+ */
+
+public class StockAvailabilityCacheTest
+{
+	private JpaStockAvailabilityRepository stockAvailabilityRepo;
+	private StockAvailabilityCache cache;
+
+	@Before
+	public void init()
+	{
+		stockAvailabilityRepo = mock(JpaStockAvailabilityRepository.class);
+		when(stockAvailabilityRepo.findAll()).thenReturn(ImmutableList.of(
+				stockAvailability(1, 10),
+				stockAvailability(2, 20)));
+
+		cache = new StockAvailabilityCache(stockAvailabilityRepo, mock(JpaProductExcludeRepository.class));
+	}
+
+	@After
+	public void clearSynchronization()
+	{
+		if (TransactionSynchronizationManager.isSynchronizationActive())
+		{
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	private static JpaStockAvailability stockAvailability(final long pzn, final int qty)
+	{
+		final JpaStockAvailability jpaStockAvailability = new JpaStockAvailability();
+		jpaStockAvailability.setMfPzn(pzn);
+		jpaStockAvailability.setMfQty(qty);
+		return jpaStockAvailability;
+	}
+
+	@Test
+	public void reloadStockAvailabilitiesAfterCommit()
+	{
+		assertThat(cache.getQty(1)).isEqualTo(OptionalInt.of(10));
+		assertThat(cache.getQty(2)).isEqualTo(OptionalInt.of(20));
+
+		// PZN 1 was updated and PZN 2 was deleted
+		when(stockAvailabilityRepo.findByMfPznIn(ImmutableSet.of(1L, 2L))).thenReturn(ImmutableList.of(stockAvailability(1, 15)));
+
+		TransactionSynchronizationManager.initSynchronization();
+		cache.reloadStockAvailabilitiesAfterCommit(ImmutableSet.of(1L, 2L));
+
+		// not committed yet
+		assertThat(cache.getQty(1)).isEqualTo(OptionalInt.of(10));
+		assertThat(cache.getQty(2)).isEqualTo(OptionalInt.of(20));
+
+		TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+		assertThat(cache.getQty(1)).isEqualTo(OptionalInt.of(15));
+		assertThat(cache.getQty(2)).isEqualTo(OptionalInt.empty());
+		verify(stockAvailabilityRepo, times(1)).findAll();
+	}
+
+	@Test
+	public void reloadStockAvailabilitiesAfterCommit_noTransaction()
+	{
+		assertThat(cache.getQty(2)).isEqualTo(OptionalInt.of(20));
+
+		when(stockAvailabilityRepo.findByMfPznIn(ImmutableSet.of(2L))).thenReturn(ImmutableList.of());
+		cache.reloadStockAvailabilitiesAfterCommit(ImmutableSet.of(2L));
+
+		assertThat(cache.getQty(1)).isEqualTo(OptionalInt.of(10));
+		assertThat(cache.getQty(2)).isEqualTo(OptionalInt.empty());
+	}
+}